@@ -0,0 +1,147 @@
+package com.fintech.digitalbanking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.digitalbanking.exception.GlobalExceptionHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of requests in flight at a small multiple of the JDBC pool.
+ *
+ * Tomcat's thread pool (200 by default) is far larger than the connection pool, so
+ * under a storm most request threads park inside Hikari for up to its 30 s connection
+ * timeout while holding their sockets. Here they wait on a semaphore for at most
+ * banking.concurrency-limit.queue-timeout-ms and are then shed with 503, the same answer
+ * PasswordHasher gives when it is saturated. Runs ahead of Spring Security, whose filters
+ * already read the database. An async request (login, register, export) keeps its permit
+ * until it completes, not just until its first thread returns. With virtual threads
+ * (application-virtual-threads.properties) there is no thread pool at all, and this is
+ * the only thing between a storm and Hikari's queue.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${banking.concurrency-limit.enabled:false}")
+    private boolean enabled = false;
+
+    // 0 = twice the connection pool: requests spend part of their time off the database
+    @Value("${banking.concurrency-limit.max-in-flight:0}")
+    private int maxInFlight = 0;
+
+    @Value("${banking.concurrency-limit.queue-timeout-ms:500}")
+    private long queueTimeoutMs = 500;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize = 10;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxInFlight > 0 ? maxInFlight : 2 * connectionPoolSize);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // Liveness probes and metric scrapes must answer even when the database is the bottleneck
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || path.equals("/api/health") || path.startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug("Shed {} {}: {} requests already in flight", request.getMethod(), request.getRequestURI(),
+                    maxInFlight > 0 ? maxInFlight : 2 * connectionPoolSize);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getWriter(),
+                    GlobalExceptionHandler.errorBody("Server is busy, please retry", HttpStatus.SERVICE_UNAVAILABLE));
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                async = true;
+            }
+        } finally {
+            if (!async) permits.release();
+        }
+    }
+
+    /** Releases the permit once the async request completes, however it ends. */
+    private final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete follows once the timeout has been handled
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are dropped when async is started again from a dispatch
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) permits.release();
+        }
+    }
+
+    /** Permits currently free. */
+    public int available() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,74 @@
+package com.fintech.digitalbanking.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Entity ids used to come from AUTO_INCREMENT/IDENTITY columns and are now handed out in
+ * blocks of 50 by pooled sequences (a real sequence on PostgreSQL, a one-row table on
+ * MySQL). On a database that already holds rows, a freshly created sequence would start
+ * at 1 and collide with existing ids, so this moves every sequence past MAX(id) once the
+ * schema is in place and before anything is inserted.
+ */
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    /** sequence name -> table whose ids it generates (must match the entity mappings) */
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "accounts_seq", "accounts",
+            "transactions_seq", "transactions",
+            "user_seq", "`user`",
+            "rollback_requests_seq", "rollback_requests");
+
+    private final JdbcTemplate jdbcTemplate;
+    // Depending on the EntityManagerFactory guarantees Hibernate has created/updated the schema
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequences() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+
+        SEQUENCES.forEach((sequence, table) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + quote(table, product), Long.class);
+            if (maxId == null) return;
+            // The pooled optimizer treats the value it reads as the top of a block, so leave a full block of headroom
+            long next = maxId + ALLOCATION_SIZE + 1;
+            int changed = switch (product) {
+                case "MySQL" -> jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?",
+                        next, next);
+                case "PostgreSQL" -> {
+                    Long current = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+                    if (current != null && current >= next) yield 0;
+                    jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?)", Long.class, next);
+                    yield 1;
+                }
+                default -> {
+                    log.debug("Skipping id sequence alignment on {}", product);
+                    yield 0;
+                }
+            };
+            if (changed > 0) {
+                log.info("Advanced id sequence {} past existing {} rows (next value {})", sequence, table, next);
+            }
+        });
+    }
+
+    private static String quote(String table, String product) {
+        return "PostgreSQL".equals(product) ? table.replace('`', '"') : table;
+    }
+}
@@ -0,0 +1,44 @@
+package com.fintech.digitalbanking.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Tables and columns are still created by Hibernate (ddl-auto), so the versioned
+ * migrations under db/migration/{vendor} run after it rather than before, the way
+ * Spring Boot's Flyway integration would (spring.flyway.enabled is therefore false).
+ * The first run baselines an existing schema at version 0 and applies V1 onward.
+ */
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class SchemaMigrations {
+
+    private final DataSource dataSource;
+    // Depending on the EntityManagerFactory guarantees Hibernate has created/updated the schema
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void migrate() {
+        String product = new JdbcTemplate(dataSource)
+                .execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        String vendor = DatabaseDriver.fromProductName(product).getId();
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/" + vendor)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+}
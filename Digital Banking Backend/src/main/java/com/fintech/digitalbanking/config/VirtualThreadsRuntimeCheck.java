@@ -0,0 +1,29 @@
+package com.fintech.digitalbanking.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Fails startup when the virtual-threads profile runs on a JVM older than 21. Spring Boot
+ * quietly ignores spring.threads.virtual.enabled there, which would leave the profile's
+ * raised Tomcat limits on platform threads without anyone noticing.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsRuntimeCheck {
+
+    static final int MIN_JAVA_VERSION = 21;
+
+    @PostConstruct
+    void check() {
+        check(Runtime.version().feature());
+    }
+
+    static void check(int javaVersion) {
+        if (javaVersion < MIN_JAVA_VERSION) {
+            throw new IllegalStateException("The virtual-threads profile needs Java " + MIN_JAVA_VERSION
+                    + "+, but this JVM is Java " + javaVersion + "; build and run with mvn -Pjdk21");
+        }
+    }
+}
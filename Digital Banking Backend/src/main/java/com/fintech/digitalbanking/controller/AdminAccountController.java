@@ -1,17 +1,27 @@
 package com.fintech.digitalbanking.controller;
 
 import com.fintech.digitalbanking.dto.AccountDto;
+import com.fintech.digitalbanking.dto.BalanceAsOfDto;
+import com.fintech.digitalbanking.dto.BalanceSlotsRequest;
+import com.fintech.digitalbanking.dto.StatementPage;
+import com.fintech.digitalbanking.dto.StatementRequest;
 import com.fintech.digitalbanking.dto.UserInfoDto;
 import com.fintech.digitalbanking.entity.Account;
 import com.fintech.digitalbanking.entity.User;
 import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.service.AccountCache;
 import com.fintech.digitalbanking.service.AccountService;
+import com.fintech.digitalbanking.service.UserAccessService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,6 +32,8 @@ public class AdminAccountController {
 
     private final AccountService accountService;
     private final UserRepository userRepository;
+    private final AccountCache accountCache;
+    private final UserAccessService userAccessService;
 
     @GetMapping("/users/count")
     public ResponseEntity<Long> getUserCount() {
@@ -63,11 +75,63 @@ public class AdminAccountController {
         return ResponseEntity.ok(dto);
     }
 
+    @PostMapping("/users/{userId}/disable")
+    public ResponseEntity<String> disableUser(@PathVariable Long userId) {
+        userAccessService.setEnabled(userId, false);
+        return ResponseEntity.ok("User disabled successfully");
+    }
+
+    @PostMapping("/users/{userId}/enable")
+    public ResponseEntity<String> enableUser(@PathVariable Long userId) {
+        userAccessService.setEnabled(userId, true);
+        return ResponseEntity.ok("User enabled successfully");
+    }
+
+    /** Replaces the user's roles; tokens issued with the old roles stop working. */
+    @PutMapping("/users/{userId}/roles")
+    public ResponseEntity<String> setUserRoles(@PathVariable Long userId, @RequestBody List<String> roles) {
+        userAccessService.setRoles(userId, roles);
+        return ResponseEntity.ok("User roles updated successfully");
+    }
+
+    /** Signs the user out everywhere: all tokens issued so far are rejected. */
+    @PostMapping("/users/{userId}/revoke-tokens")
+    public ResponseEntity<String> revokeUserTokens(@PathVariable Long userId) {
+        userAccessService.revokeAllTokens(userId);
+        return ResponseEntity.ok("User tokens revoked successfully");
+    }
+
+    @GetMapping("/accounts/{accountId}/statement")
+    public ResponseEntity<StatementPage> getStatement(@PathVariable Long accountId, @Valid StatementRequest request) {
+        return ResponseEntity.ok(accountService.getStatement(accountId, request));
+    }
+
+    @GetMapping("/accounts/{accountId}/balance/as-of")
+    public ResponseEntity<BalanceAsOfDto> getBalanceAsOf(
+            @PathVariable Long accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(accountService.getBalanceAsOf(accountId, at));
+    }
+
+    /** Splits a merchant/treasury account into balance slots so concurrent credits stop queueing on one row. */
+    @PutMapping("/accounts/{accountId}/balance-slots")
+    public ResponseEntity<String> setBalanceSlots(@PathVariable Long accountId,
+                                                  @Valid @RequestBody BalanceSlotsRequest request) {
+        accountService.setBalanceSlots(accountId, request.getSlots());
+        return ResponseEntity.ok("Account balance slots updated successfully");
+    }
+
+    /** Hit/miss/eviction counters of this node's account cache. */
+    @GetMapping("/cache/accounts")
+    public ResponseEntity<Map<String, Object>> getAccountCacheStats() {
+        return ResponseEntity.ok(accountCache.stats());
+    }
+
     private AccountDto toDto(Account a) {
         return AccountDto.builder()
                 .id(a.getId())
                 .type(a.getAccountType().name())
-                .balance(a.getBalance())
+                .balance(accountService.currentBalance(a))
                 .active(a.isActive())
                 .accountNumber(a.getAccountNumber())
                 .userId(a.getUser() != null ? a.getUser().getId() : null)
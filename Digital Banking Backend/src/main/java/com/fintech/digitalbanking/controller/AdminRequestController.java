@@ -2,9 +2,9 @@ package com.fintech.digitalbanking.controller;
 
 import com.fintech.digitalbanking.dto.RequestDto;
 import com.fintech.digitalbanking.entity.RollbackRequest;
-import com.fintech.digitalbanking.entity.Transaction; // <-- IMPORT
 import com.fintech.digitalbanking.exception.RoleNotFoundException;
 import com.fintech.digitalbanking.repository.RollbackRequestRepository;
+import com.fintech.digitalbanking.service.LockRetryExecutor;
 import com.fintech.digitalbanking.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -12,7 +12,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin/requests")
@@ -22,14 +21,12 @@ public class AdminRequestController {
 
     private final RollbackRequestRepository requestRepository;
     private final TransactionService transactionService;
+    private final LockRetryExecutor lockRetry;
 
     @GetMapping
     public ResponseEntity<List<RequestDto>> getPendingRequests() {
-        List<RollbackRequest> requests = requestRepository.findByStatus(RollbackRequest.RequestStatus.PENDING);
-        // --- UPDATED to use the new toDto helper ---
-        return ResponseEntity.ok(
-                requests.stream().map(this::toDto).collect(Collectors.toList())
-        );
+        // One joined projection query, however many requests are pending
+        return ResponseEntity.ok(requestRepository.findDtosByStatus(RollbackRequest.RequestStatus.PENDING));
     }
 
     @PostMapping("/approve/{requestId}")
@@ -38,7 +35,8 @@ public class AdminRequestController {
                 .orElseThrow(() -> new RoleNotFoundException("Request not found"));
 
         // 1. Call your existing rollback service
-        transactionService.rollbackTransaction(request.getTransaction().getId());
+        Long transactionId = request.getTransaction().getId();
+        lockRetry.execute(() -> transactionService.rollbackTransaction(transactionId));
 
         // 2. Update the request status
         request.setStatus(RollbackRequest.RequestStatus.APPROVED);
@@ -57,22 +55,4 @@ public class AdminRequestController {
 
         return ResponseEntity.ok("Request rejected.");
     }
-
-    // --- NEW HELPER METHOD TO BUILD THE RICH DTO ---
-    private RequestDto toDto(RollbackRequest req) {
-        Transaction tx = req.getTransaction(); // Get the associated transaction
-        return RequestDto.builder()
-                .id(req.getId())
-                .transactionId(tx.getId())
-                .username(req.getRequestingUser().getUsername())
-                .reason(req.getReason())
-                .status(req.getStatus())
-                .createdAt(req.getCreatedAt())
-                .transactionType(tx.getType())
-                .transactionAmount(tx.getAmount())
-                .transactionTimestamp(tx.getTimestamp())
-                .sourceAccount(tx.getSourceAccount() != null ? tx.getSourceAccount().getAccountNumber() : "N/A")
-                .targetAccount(tx.getTargetAccount() != null ? tx.getTargetAccount().getAccountNumber() : "N/A")
-                .build();
-    }
 }
\ No newline at end of file
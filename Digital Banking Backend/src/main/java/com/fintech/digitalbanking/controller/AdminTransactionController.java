@@ -1,7 +1,12 @@
 package com.fintech.digitalbanking.controller;
 
+import com.fintech.digitalbanking.dto.BatchTransferRequest;
+import com.fintech.digitalbanking.dto.BatchTransferResponse;
 import com.fintech.digitalbanking.dto.DepositRequest;
+import com.fintech.digitalbanking.dto.TransactionHistoryRequest;
+import com.fintech.digitalbanking.dto.TransactionPage;
 import com.fintech.digitalbanking.dto.TransactionDto;
+import com.fintech.digitalbanking.dto.TransactionExportRequest;
 import com.fintech.digitalbanking.dto.TransferRequest;
 import com.fintech.digitalbanking.dto.WithdrawRequest;
 import com.fintech.digitalbanking.entity.Account;
@@ -9,14 +14,29 @@ import com.fintech.digitalbanking.entity.Transaction;
 import com.fintech.digitalbanking.entity.User;
 import com.fintech.digitalbanking.repository.AccountRepository;
 import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.service.BatchTransferService;
+import com.fintech.digitalbanking.service.IdempotencyService;
+import com.fintech.digitalbanking.service.LockRetryExecutor;
+import com.fintech.digitalbanking.service.TransactionExportService;
 import com.fintech.digitalbanking.service.TransactionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,12 +48,48 @@ public class AdminTransactionController {
     private final TransactionService transactionService;
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
+    private final LockRetryExecutor lockRetry;
+    private final BatchTransferService batchTransferService;
+    private final IdempotencyService idempotency;
+    private final TransactionExportService transactionExportService;
+
+    @Value("${banking.export.timeout-minutes:30}")
+    private long exportTimeoutMinutes = 30;
 
     @GetMapping("/all")
-    public ResponseEntity<List<TransactionDto>> getAll() {
-        var txs = transactionService.getTransactionHistory(null);
-        var dtos = txs.stream().map(this::toDto).collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<TransactionPage> getAll(@Valid TransactionHistoryRequest filter) {
+        TransactionService.HistoryPage page = transactionService.getAllTransactions(filter);
+        return ResponseEntity.ok(TransactionPage.builder()
+                .items(page.transactions().stream().map(this::toDto).collect(Collectors.toList()))
+                .nextCursor(page.nextCursor())
+                .build());
+    }
+
+    /**
+     * Full ledger export for reconciliation, streamed as NDJSON (default) or CSV.
+     * Rows are written as they are read, so the response can be any size. The stream
+     * gets its own async timeout instead of the application-wide one, which would cut a
+     * long export off mid-file.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(TransactionExportRequest filter, HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(AdminTransactionController.class,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        // Runs before the async request starts, which is when the timeout is applied
+                        if (webRequest instanceof AsyncWebRequest asyncRequest) {
+                            asyncRequest.setTimeout(TimeUnit.MINUTES.toMillis(exportTimeoutMinutes));
+                        }
+                    }
+                });
+        boolean csv = filter.getFormat() == TransactionExportRequest.Format.CSV;
+        StreamingResponseBody body = out -> transactionExportService.export(filter, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
     }
 
     @GetMapping("/user/{userId}")
@@ -42,38 +98,51 @@ public class AdminTransactionController {
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
         Account a = accountRepository.findFirstByUserOrderByCreatedAtAsc(user)
                 .orElseThrow(() -> new IllegalArgumentException("User has no accounts"));
-        var txs = transactionService.getTransactionHistory(a.getId());
-        return ResponseEntity.ok(txs.stream().map(this::toDto).collect(Collectors.toList()));
+        return ResponseEntity.ok(transactionService.getTransactionHistory(a.getId()));
     }
 
     @PostMapping("/deposit")
-    public ResponseEntity<TransactionDto> adminDeposit(@Valid @RequestBody DepositRequest request) {
-        var tx = transactionService.deposit(request.getAccountId(), request.getAmount());
-        return ResponseEntity.ok(toDto(tx));
+    public ResponseEntity<TransactionDto> adminDeposit(@Valid @RequestBody DepositRequest request,
+                                                       @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotency.execute(idempotencyKey,
+                IdempotencyService.fingerprint("deposit", request.getAccountId(), request.getAmount()),
+                () -> transactionService.deposit(request.getAccountId(), request.getAmount()),
+                this::toDto));
     }
 
     @PostMapping("/withdraw")
-    public ResponseEntity<TransactionDto> adminWithdraw(@Valid @RequestBody WithdrawRequest request) {
-        var tx = transactionService.withdraw(request.getAccountId(), request.getAmount());
-        return ResponseEntity.ok(toDto(tx));
+    public ResponseEntity<TransactionDto> adminWithdraw(@Valid @RequestBody WithdrawRequest request,
+                                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotency.execute(idempotencyKey,
+                IdempotencyService.fingerprint("withdraw", request.getAccountId(), request.getAmount()),
+                () -> transactionService.withdraw(request.getAccountId(), request.getAmount()),
+                this::toDto));
     }
 
     @PostMapping("/transfer")
-    public ResponseEntity<TransactionDto> adminTransfer(@Valid @RequestBody TransferRequest request) {
+    public ResponseEntity<TransactionDto> adminTransfer(@Valid @RequestBody TransferRequest request,
+                                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
         // --- THIS IS THE FIX ---
         // Changed to use the new method from the TransferRequest DTO
-        var tx = transactionService.transfer(
-                request.getSourceAccountId(),
-                request.getTargetAccountNumber(), // <-- This line is now correct
-                request.getAmount()
-        );
-        return ResponseEntity.ok(toDto(tx));
+        return ResponseEntity.ok(idempotency.execute(idempotencyKey,
+                IdempotencyService.fingerprint("transfer", request.getSourceAccountId(),
+                        request.getTargetAccountNumber(), request.getAmount()),
+                () -> transactionService.transfer(
+                        request.getSourceAccountId(),
+                        request.getTargetAccountNumber(), // <-- This line is now correct
+                        request.getAmount()),
+                this::toDto));
+    }
+
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<BatchTransferResponse> adminTransferBatch(@Valid @RequestBody BatchTransferRequest request) {
+        return ResponseEntity.ok(batchTransferService.transferBatch(request.getTransfers()));
     }
 
     @PostMapping("/rollback/{transactionId}")
     public ResponseEntity<TransactionDto> rollbackTransaction(@PathVariable Long transactionId) {
-        Transaction tx = transactionService.rollbackTransaction(transactionId);
+        Transaction tx = lockRetry.execute(() -> transactionService.rollbackTransaction(transactionId));
         return ResponseEntity.ok(toDto(tx));
     }
 
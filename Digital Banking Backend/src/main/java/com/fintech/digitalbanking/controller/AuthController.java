@@ -2,11 +2,14 @@ package com.fintech.digitalbanking.controller;
 
 import com.fintech.digitalbanking.dto.AuthRequest;
 import com.fintech.digitalbanking.dto.AuthResponse;
+import com.fintech.digitalbanking.exception.InvalidCredentialsException;
 import com.fintech.digitalbanking.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -14,13 +17,24 @@ public class AuthController {
 
     private final AuthService authService;
 
+    // Both return futures: the request thread is released while BCrypt runs on PasswordHasher's pool
+
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody AuthRequest request) {
+        return authService.login(request).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new InvalidCredentialsException("Missing bearer token");
+        }
+        authService.logout(authHeader.substring(7));
+        return ResponseEntity.ok("Logged out successfully");
     }
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody AuthRequest request) {
-        return ResponseEntity.ok(authService.register(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestBody AuthRequest request) {
+        return authService.register(request).thenApply(ResponseEntity::ok);
     }
 }
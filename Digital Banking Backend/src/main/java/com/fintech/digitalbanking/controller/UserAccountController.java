@@ -1,7 +1,10 @@
 package com.fintech.digitalbanking.controller;
 
 import com.fintech.digitalbanking.dto.AccountDto;
+import com.fintech.digitalbanking.dto.BalanceAsOfDto;
 import com.fintech.digitalbanking.dto.CreateAccountRequest;
+import com.fintech.digitalbanking.dto.StatementPage;
+import com.fintech.digitalbanking.dto.StatementRequest;
 import com.fintech.digitalbanking.dto.UpdateProfileRequest;
 import com.fintech.digitalbanking.dto.UserInfoDto;
 import com.fintech.digitalbanking.entity.Account;
@@ -11,12 +14,14 @@ import com.fintech.digitalbanking.repository.UserRepository;
 import com.fintech.digitalbanking.service.AccountService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -65,11 +70,7 @@ public class UserAccountController {
 
     @GetMapping
     public ResponseEntity<List<AccountDto>> getMyAccounts() {
-        var accounts = accountService.getMyAccounts()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(accounts);
+        return ResponseEntity.ok(accountService.getMyAccounts());
     }
 
     @GetMapping("/balance/{accountId}")
@@ -77,6 +78,18 @@ public class UserAccountController {
         return ResponseEntity.ok(accountService.getBalance(accountId));
     }
 
+    @GetMapping("/{accountId}/statement")
+    public ResponseEntity<StatementPage> getStatement(@PathVariable Long accountId, @Valid StatementRequest request) {
+        return ResponseEntity.ok(accountService.getStatement(accountId, request));
+    }
+
+    @GetMapping("/{accountId}/balance/as-of")
+    public ResponseEntity<BalanceAsOfDto> getBalanceAsOf(
+            @PathVariable Long accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(accountService.getBalanceAsOf(accountId, at));
+    }
+
     @PostMapping("/deactivate/{accountId}")
     public ResponseEntity<String> deactivateAccount(@PathVariable Long accountId) {
         accountService.deactivateAccount(accountId);
@@ -152,7 +165,7 @@ public class UserAccountController {
                 .id(a.getId())
                 .accountNumber(a.getAccountNumber())
                 .type(a.getAccountType().name())
-                .balance(a.getBalance())
+                .balance(accountService.currentBalance(a))
                 .active(a.isActive())
                 .build();
     }
@@ -16,7 +16,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/user/requests")
@@ -30,10 +29,8 @@ public class UserRequestController {
 
     @GetMapping
     public ResponseEntity<List<RequestDto>> getMyRequests() {
-        User user = securityUtil.getCurrentUserEntity();
-        List<RollbackRequest> requests = requestRepository.findByRequestingUserOrderByCreatedAtDesc(user);
-        // Convert to DTO to avoid recursion/serialization errors
-        return ResponseEntity.ok(requests.stream().map(this::toDto).collect(Collectors.toList()));
+        // Projected straight into DTOs (no entity graph to serialize, no per-row lazy loads)
+        return ResponseEntity.ok(requestRepository.findDtosByRequestingUserId(securityUtil.getCurrentUserId()));
     }
 
     @PostMapping("/rollback/{transactionId}")
@@ -62,18 +59,4 @@ public class UserRequestController {
 
         return ResponseEntity.ok("Rollback request submitted successfully.");
     }
-
-    // Helper method
-    private RequestDto toDto(RollbackRequest req) {
-        return RequestDto.builder()
-                .id(req.getId())
-                .transactionId(req.getTransaction().getId())
-                .username(req.getRequestingUser().getUsername())
-                .reason(req.getReason())
-                .status(req.getStatus())
-                .createdAt(req.getCreatedAt())
-                .transactionType(req.getTransaction().getType())
-                .transactionAmount(req.getTransaction().getAmount())
-                .build();
-    }
 }
\ No newline at end of file
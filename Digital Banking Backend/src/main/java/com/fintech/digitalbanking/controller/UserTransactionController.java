@@ -2,11 +2,17 @@
 
 package com.fintech.digitalbanking.controller;
 
+import com.fintech.digitalbanking.dto.BatchTransferRequest;
+import com.fintech.digitalbanking.dto.BatchTransferResponse;
 import com.fintech.digitalbanking.dto.DepositRequest;
+import com.fintech.digitalbanking.dto.TransactionHistoryRequest;
+import com.fintech.digitalbanking.dto.TransactionPage;
 import com.fintech.digitalbanking.dto.TransferRequest;
 import com.fintech.digitalbanking.dto.TransactionDto;
 import com.fintech.digitalbanking.dto.WithdrawRequest;
 import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.service.BatchTransferService;
+import com.fintech.digitalbanking.service.IdempotencyService;
 import com.fintech.digitalbanking.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +20,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,39 +29,57 @@ import java.util.stream.Collectors;
 public class UserTransactionController {
 
     private final TransactionService transactionService;
+    private final BatchTransferService batchTransferService;
+    private final IdempotencyService idempotency;
 
     @PostMapping("/deposit")
-    public ResponseEntity<TransactionDto> deposit(@Valid @RequestBody DepositRequest request) {
-        Transaction tx = transactionService.deposit(request.getAccountId(), request.getAmount());
-        return ResponseEntity.ok(toDto(tx));
+    public ResponseEntity<TransactionDto> deposit(@Valid @RequestBody DepositRequest request,
+                                                  @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotency.execute(idempotencyKey,
+                IdempotencyService.fingerprint("deposit", request.getAccountId(), request.getAmount()),
+                () -> transactionService.deposit(request.getAccountId(), request.getAmount()),
+                this::toDto));
     }
 
     @PostMapping("/withdraw")
-    public ResponseEntity<TransactionDto> withdraw(@Valid @RequestBody WithdrawRequest request) {
-        Transaction tx = transactionService.withdraw(request.getAccountId(), request.getAmount());
-        return ResponseEntity.ok(toDto(tx));
+    public ResponseEntity<TransactionDto> withdraw(@Valid @RequestBody WithdrawRequest request,
+                                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotency.execute(idempotencyKey,
+                IdempotencyService.fingerprint("withdraw", request.getAccountId(), request.getAmount()),
+                () -> transactionService.withdraw(request.getAccountId(), request.getAmount()),
+                this::toDto));
     }
 
     @PostMapping("/transfer")
-    public ResponseEntity<TransactionDto> transfer(@Valid @RequestBody TransferRequest request) {
+    public ResponseEntity<TransactionDto> transfer(@Valid @RequestBody TransferRequest request,
+                                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
         // --- THIS IS THE FIX ---
         // We must call request.getTargetAccountNumber() (the new String field)
         // instead of request.getTargetAccountId() (the old Long field)
-        Transaction tx = transactionService.transfer(
-                request.getSourceAccountId(),
-                request.getTargetAccountNumber(), // <-- This line is now correct
-                request.getAmount()
-        );
-        return ResponseEntity.ok(toDto(tx));
+        return ResponseEntity.ok(idempotency.execute(idempotencyKey,
+                IdempotencyService.fingerprint("transfer", request.getSourceAccountId(),
+                        request.getTargetAccountNumber(), request.getAmount()),
+                () -> transactionService.transfer(
+                        request.getSourceAccountId(),
+                        request.getTargetAccountNumber(), // <-- This line is now correct
+                        request.getAmount()),
+                this::toDto));
+    }
+
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<BatchTransferResponse> transferBatch(@Valid @RequestBody BatchTransferRequest request) {
+        return ResponseEntity.ok(batchTransferService.transferBatch(request.getTransfers()));
     }
 
     @GetMapping("/my-history")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<List<TransactionDto>> getMyTransactions() {
-        var txs = transactionService.getMyTransactions().stream()
-                .map(this::toDto).collect(Collectors.toList());
-        return ResponseEntity.ok(txs);
+    public ResponseEntity<TransactionPage> getMyTransactions(@Valid TransactionHistoryRequest filter) {
+        TransactionService.HistoryPage page = transactionService.getMyTransactions(filter);
+        return ResponseEntity.ok(TransactionPage.builder()
+                .items(page.transactions().stream().map(this::toDto).collect(Collectors.toList()))
+                .nextCursor(page.nextCursor())
+                .build());
     }
 
     private TransactionDto toDto(Transaction tx) {
@@ -0,0 +1,8 @@
+package com.fintech.digitalbanking.dto;
+
+/**
+ * The parts of an account row that never change after it is created, as held by
+ * AccountOwnershipIndex.
+ */
+public record AccountOwnership(Long id, Long ownerId, String accountNumber) {
+}
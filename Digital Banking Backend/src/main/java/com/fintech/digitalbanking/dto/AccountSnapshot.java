@@ -0,0 +1,13 @@
+package com.fintech.digitalbanking.dto;
+
+import com.fintech.digitalbanking.entity.AccountType;
+
+import java.math.BigDecimal;
+
+/**
+ * What the account read endpoints need from one account row, as held by AccountCache.
+ * version is the row's @Version at the time it was read.
+ */
+public record AccountSnapshot(Long id, String accountNumber, AccountType accountType, BigDecimal balance,
+                              boolean active, Long ownerId, Long version) {
+}
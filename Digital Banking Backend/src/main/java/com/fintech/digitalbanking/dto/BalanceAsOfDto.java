@@ -0,0 +1,16 @@
+package com.fintech.digitalbanking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BalanceAsOfDto {
+    private Long accountId;
+    private LocalDateTime asOf;
+    private BigDecimal balance;
+    private Long lastTransactionId; // null if nothing was posted on the account by then
+}
@@ -0,0 +1,16 @@
+package com.fintech.digitalbanking.dto;
+
+import com.fintech.digitalbanking.service.HotAccountSlots;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/** 0 or 1 makes the account ordinary again. */
+@Data
+public class BalanceSlotsRequest {
+    @NotNull(message = "Slot count is required")
+    @Min(0)
+    @Max(HotAccountSlots.MAX_SLOTS)
+    private Integer slots;
+}
@@ -0,0 +1,17 @@
+package com.fintech.digitalbanking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+    public static final int MAX_TRANSFERS = 10000;
+
+    @NotEmpty
+    @Size(max = MAX_TRANSFERS, message = "A batch may contain at most 10000 transfers")
+    private List<@Valid TransferRequest> transfers;
+}
@@ -0,0 +1,15 @@
+package com.fintech.digitalbanking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchTransferResponse {
+    private int total;
+    private int posted;
+    private int rejected;
+    private List<TransferLegResult> results;
+}
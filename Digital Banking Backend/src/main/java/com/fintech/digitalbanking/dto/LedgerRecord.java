@@ -0,0 +1,43 @@
+package com.fintech.digitalbanking.dto;
+
+import com.fintech.digitalbanking.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * One posting as written to the ledger journal and projected into the transactions and
+ * accounts tables. Amounts are fixed-point in units of 10^-SCALE (the scale of the
+ * balance and amount columns); a targetAccountId or relatedTransactionId of 0 means none.
+ *
+ * DEPOSIT credits sourceAccountId, WITHDRAW debits it and TRANSFER moves amount from
+ * sourceAccountId to targetAccountId, the same convention as the Transaction entity.
+ * relatedTransactionId is set on a reversal and names the transaction it reverses.
+ */
+public record LedgerRecord(long sequence, long transactionId, TransactionType type, long sourceAccountId,
+                           long targetAccountId, long amount, LocalDateTime timestamp, long relatedTransactionId) {
+
+    public static final int SCALE = 4;
+
+    public BigDecimal amountValue() {
+        return BigDecimal.valueOf(amount, SCALE);
+    }
+
+    /** Change this posting makes to the account's balance, in units; 0 if it does not touch it. */
+    public long deltaFor(long accountId) {
+        if (accountId == sourceAccountId) {
+            return type == TransactionType.DEPOSIT ? amount : -amount;
+        }
+        return accountId == targetAccountId ? amount : 0;
+    }
+
+    public static long toUnits(BigDecimal value) {
+        // Same rounding the database applies when storing into a scale-4 column
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+}
@@ -2,6 +2,7 @@ package com.fintech.digitalbanking.dto;
 
 import com.fintech.digitalbanking.entity.RollbackRequest;
 import com.fintech.digitalbanking.entity.TransactionType; // <-- IMPORT
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor // field order is the constructor projection in RollbackRequestRepository
 public class RequestDto {
     private Long id;
     private Long transactionId;
@@ -0,0 +1,20 @@
+package com.fintech.digitalbanking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class StatementLineDto {
+    private Long transactionId;
+    private String type; // DEPOSIT / WITHDRAW / TRANSFER
+    private String direction; // DEBIT (money out) / CREDIT (money in)
+    private BigDecimal amount;
+    private BigDecimal balanceAfter; // null where the journal has no running balance yet (hot accounts, ATOMIC mode)
+    private LocalDateTime postedAt;
+}
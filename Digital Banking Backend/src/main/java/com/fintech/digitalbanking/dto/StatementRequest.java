@@ -0,0 +1,29 @@
+package com.fintech.digitalbanking.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of the statement endpoints. Lines are newest first; pass the
+ * nextCursor of the previous page as cursor to continue.
+ */
+@Data
+public class StatementRequest {
+
+    private String cursor;
+
+    @Min(1)
+    @Max(200)
+    private Integer limit = 50;
+
+    // Inclusive lower / exclusive upper bound on the posting time
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
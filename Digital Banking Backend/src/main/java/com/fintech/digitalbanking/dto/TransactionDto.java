@@ -1,5 +1,7 @@
 package com.fintech.digitalbanking.dto;
 
+import com.fintech.digitalbanking.entity.TransactionType;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,6 +10,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class TransactionDto {
     private Long id;
     private String type; // DEPOSIT / WITHDRAW / TRANSFER
@@ -16,4 +19,10 @@ public class TransactionDto {
     private Long sourceAccountId;
     private Long targetAccountId;
     private boolean reversed;
+
+    /** Takes the enum as stored on the entity. */
+    public TransactionDto(Long id, TransactionType type, BigDecimal amount, LocalDateTime timestamp,
+                          Long sourceAccountId, Long targetAccountId, boolean reversed) {
+        this(id, type != null ? type.name() : null, amount, timestamp, sourceAccountId, targetAccountId, reversed);
+    }
 }
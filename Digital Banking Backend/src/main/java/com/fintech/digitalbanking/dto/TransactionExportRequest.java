@@ -0,0 +1,30 @@
+package com.fintech.digitalbanking.dto;
+
+import com.fintech.digitalbanking.entity.TransactionType;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/** Query parameters of the ledger export; every filter is optional. */
+@Data
+public class TransactionExportRequest {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private Format format = Format.NDJSON;
+
+    // Inclusive lower / exclusive upper bound on the transaction timestamp
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private TransactionType type;
+
+    private Long accountId;
+}
@@ -0,0 +1,35 @@
+package com.fintech.digitalbanking.dto;
+
+import com.fintech.digitalbanking.entity.TransactionType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of the history endpoints. Results are newest first; pass the
+ * nextCursor of the previous page as cursor to continue.
+ */
+@Data
+public class TransactionHistoryRequest {
+
+    private String cursor;
+
+    @Min(1)
+    @Max(200)
+    private Integer limit = 50;
+
+    // Inclusive lower / exclusive upper bound on the transaction timestamp
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private TransactionType type;
+
+    // Restrict to one account (users may only name their own accounts)
+    private Long accountId;
+}
@@ -0,0 +1,13 @@
+package com.fintech.digitalbanking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionPage {
+    private List<TransactionDto> items;
+    private String nextCursor; // null on the last page
+}
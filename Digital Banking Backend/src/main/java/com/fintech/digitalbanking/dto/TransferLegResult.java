@@ -0,0 +1,18 @@
+package com.fintech.digitalbanking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TransferLegResult {
+    private int index; // position of the leg in the submitted batch
+    private Status status;
+    private Long transactionId; // set when POSTED
+    private String error;
+
+    public enum Status {
+        POSTED,
+        REJECTED
+    }
+}
@@ -0,0 +1,5 @@
+package com.fintech.digitalbanking.dto;
+
+/** The parts of a user a stateless JWT cannot carry itself; held by UserStateCache. */
+public record UserState(Long id, boolean enabled, long tokenVersion) {
+}
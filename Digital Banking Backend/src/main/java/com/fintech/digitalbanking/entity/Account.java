@@ -2,6 +2,7 @@ package com.fintech.digitalbanking.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,7 +15,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, length = 34)
@@ -36,6 +38,13 @@ public class Account {
     @Builder.Default
     private boolean active = true;
 
+    // 0 = ordinary account; N > 1 = hot account whose credits land in N account_balance_slots
+    // rows (see HotAccountSlots). balance then holds only the part not in a slot.
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int balanceSlots = 0;
+
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private User user;
 
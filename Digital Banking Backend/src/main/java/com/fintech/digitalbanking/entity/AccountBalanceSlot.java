@@ -0,0 +1,41 @@
+package com.fintech.digitalbanking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * One part of a hot account's balance. The account's total is accounts.balance plus the
+ * sum of its slots; credits go to a random slot so concurrent ones rarely wait on the same
+ * row, and neither credits nor slot debits touch the accounts row or its @Version.
+ * Written through BalanceSlotRepository; the mapping exists for the schema and JPQL.
+ */
+@Entity
+@Table(name = "account_balance_slots")
+@IdClass(AccountBalanceSlot.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceSlot {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    private Integer slot;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private Integer slot;
+    }
+}
@@ -0,0 +1,45 @@
+package com.fintech.digitalbanking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An account's balance as of asOf, counting every journal leg posted at or before it;
+ * lastTransactionId is the latest posting among those. Balance-at-time reads start from
+ * the nearest checkpoint and add only the legs after it. Written by BalanceCheckpointer
+ * through BalanceCheckpointRepository; the mapping exists for the schema, and the primary
+ * key (account_id, as_of) is what the nearest-checkpoint lookup seeks on.
+ */
+@Entity
+@Table(name = "balance_checkpoints")
+@IdClass(BalanceCheckpoint.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceCheckpoint {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    private LocalDateTime asOf;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    private Long lastTransactionId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDateTime asOf;
+    }
+}
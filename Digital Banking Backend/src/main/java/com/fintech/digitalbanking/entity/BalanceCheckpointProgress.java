@@ -0,0 +1,26 @@
+package com.fintech.digitalbanking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single row (id 1) recording the cutoff of the last checkpoint run. A run claims its
+ * journal legs under the row lock, so nodes running BalanceCheckpointer never count the
+ * same leg twice; a leg claimed with a posted_at at or before this cutoff is a late one.
+ */
+@Entity
+@Table(name = "balance_checkpoint_progress")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceCheckpointProgress {
+
+    @Id
+    private Integer id;
+
+    private LocalDateTime checkpointedTo;
+}
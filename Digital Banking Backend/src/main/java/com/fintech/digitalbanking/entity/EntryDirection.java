@@ -0,0 +1,7 @@
+package com.fintech.digitalbanking.entity;
+
+/** Side of a journal leg, from the account holder's point of view: DEBIT takes money out, CREDIT puts it in. */
+public enum EntryDirection {
+    DEBIT,
+    CREDIT
+}
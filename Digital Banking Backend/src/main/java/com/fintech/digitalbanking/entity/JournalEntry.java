@@ -0,0 +1,74 @@
+package com.fintech.digitalbanking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One leg of a double-entry posting: every Transaction has exactly one DEBIT and one
+ * CREDIT leg for the same amount. Deposits and withdrawals have the outside world on
+ * one side, recorded as a leg with no account.
+ *
+ * balanceAfter is the account's balance right after this leg, written while the posting
+ * held the account row. It is null where no such order exists or the posting did not read
+ * it - legs posted through hot-account slots or ATOMIC guarded UPDATEs, and legs backfilled
+ * from transactions older than the journal - until
+ * the next balance checkpoint works it out; readers add such legs up from the nearest
+ * leg or checkpoint that has a balance.
+ *
+ * Written through JournalEntryRepository in the posting's own transaction; the mapping
+ * exists for the schema. Statement indexes: db/migration/{vendor}/V4, checkpoint index V5.
+ */
+@Entity
+@Table(name = "journal_entries")
+@IdClass(JournalEntry.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JournalEntry {
+
+    @Id
+    private Long transactionId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 6)
+    private EntryDirection direction;
+
+    // null for the outside-world side of a deposit or withdrawal
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TransactionType type;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal balanceAfter;
+
+    @Column(nullable = false)
+    private LocalDateTime postedAt;
+
+    // Cutoff of the BalanceCheckpointer run that counted this leg; null until one has
+    private LocalDateTime checkpointCutoff;
+
+    /** Change this leg makes to its account's balance. */
+    public BigDecimal signedAmount() {
+        return direction == EntryDirection.CREDIT ? amount : amount.negate();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long transactionId;
+        private EntryDirection direction;
+    }
+}
@@ -0,0 +1,25 @@
+package com.fintech.digitalbanking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single row (id 1) recording the last ledger journal sequence whose postings have been
+ * written to the transactions and accounts tables. It is updated in the same database
+ * transaction as those rows, so on restart LedgerEngine replays exactly the records after it.
+ */
+@Entity
+@Table(name = "ledger_projection")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerProjection {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long appliedSequence;
+}
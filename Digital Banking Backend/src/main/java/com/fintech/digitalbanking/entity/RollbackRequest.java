@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class RollbackRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rollback_requests_seq")
+    @SequenceGenerator(name = "rollback_requests_seq", sequenceName = "rollback_requests_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -2,6 +2,7 @@ package com.fintech.digitalbanking.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -16,7 +17,8 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -40,4 +42,13 @@ public class User {
 
     @Column(name = "selected_account_id")
     private Long selectedAccountId;
+
+    /**
+     * Copied into every JWT. Bumped when the user is disabled or their roles change, which
+     * invalidates all tokens issued before (see UserStateCache).
+     */
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long tokenVersion = 0;
 }
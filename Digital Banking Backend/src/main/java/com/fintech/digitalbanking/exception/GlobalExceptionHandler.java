@@ -4,6 +4,7 @@ import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException; // Spring Security
@@ -76,6 +77,26 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursor(InvalidCursorException ex) {
+        log.warn("Invalid history cursor", ex);
+        return buildResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKey(IdempotencyKeyException ex) {
+        log.warn("Idempotency key rejected", ex);
+        return buildResponse(ex.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY); // 422
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverloaded(ServiceOverloadedException ex) {
+        log.warn("Request shed: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(buildResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE).getBody());
+    }
+
     // =====================
     // Fallback
     // =====================
@@ -89,11 +110,16 @@ public class GlobalExceptionHandler {
     // Utility method
     // =====================
     private ResponseEntity<Map<String, Object>> buildResponse(String message, HttpStatus status) {
+        return new ResponseEntity<>(errorBody(message, status), status);
+    }
+
+    /** The error body every endpoint returns; filters that answer before MVC write it too. */
+    public static Map<String, Object> errorBody(String message, HttpStatus status) {
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
         body.put("status", status.value());
         body.put("error", status.getReasonPhrase());
         body.put("message", message);
-        return new ResponseEntity<>(body, status);
+        return body;
     }
 }
@@ -1,13 +1,19 @@
 package com.fintech.digitalbanking.repository;
 
+import com.fintech.digitalbanking.dto.AccountOwnership;
+import com.fintech.digitalbanking.dto.AccountSnapshot;
 import com.fintech.digitalbanking.entity.Account;
 import com.fintech.digitalbanking.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +29,57 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT a FROM Account a WHERE a.id = :id")
     Optional<Account> findByIdForUpdate(@Param("id") Long id);
 
+    @Query("SELECT a.accountNumber FROM Account a WHERE a.id = :id")
+    Optional<String> findAccountNumberById(@Param("id") Long id);
+
+    /** Keyset batches for warming AccountOwnershipIndex: rows with id above afterId, in id order. */
+    @Query("""
+            SELECT new com.fintech.digitalbanking.dto.AccountOwnership(a.id, a.user.id, a.accountNumber)
+            FROM Account a
+            WHERE a.id > :afterId
+            ORDER BY a.id
+            """)
+    List<AccountOwnership> findOwnershipAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT new com.fintech.digitalbanking.dto.AccountOwnership(a.id, a.user.id, a.accountNumber) FROM Account a WHERE a.id = :id")
+    Optional<AccountOwnership> findOwnershipById(@Param("id") Long id);
+
+    @Query("SELECT new com.fintech.digitalbanking.dto.AccountOwnership(a.id, a.user.id, a.accountNumber) FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<AccountOwnership> findOwnershipByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Guarded debit used by the ATOMIC posting mode. Returns 0 when the account is
+     * missing, inactive or would go negative - the caller works out which.
+     */
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.version = a.version + 1 " +
+            "WHERE a.id = :id AND a.active = true AND a.balance >= :amount")
+    int debitIfSufficient(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.version = a.version + 1 " +
+            "WHERE a.id = :id AND a.active = true")
+    int creditIfActive(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Loader for AccountCache; reads the columns directly so no managed (possibly stale) entity is reused.
+     * A hot account's balance includes its slots; ordinary accounts skip the subquery.
+     */
+    @Query("""
+            SELECT new com.fintech.digitalbanking.dto.AccountSnapshot(
+                a.id, a.accountNumber, a.accountType,
+                a.balance + CASE WHEN a.balanceSlots > 1
+                    THEN COALESCE((SELECT SUM(s.balance) FROM AccountBalanceSlot s WHERE s.accountId = a.id), 0)
+                    ELSE 0 END,
+                a.active, a.user.id, a.version)
+            FROM Account a
+            WHERE a.id IN :ids
+            """)
+    List<AccountSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id FROM Account a WHERE a.user.id = :userId ORDER BY a.id")
+    List<Long> findIdsByOwnerId(@Param("userId") Long userId);
+
     Optional<Account> findByAccountNumber(String accountNumber);
 
     Optional<Account> findFirstByUserOrderByCreatedAtAsc(User user);
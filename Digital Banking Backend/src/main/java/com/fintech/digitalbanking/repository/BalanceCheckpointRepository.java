@@ -0,0 +1,81 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.entity.BalanceCheckpoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/** Plain-JDBC access to balance_checkpoints and the checkpoint run bookkeeping. */
+@Repository
+@RequiredArgsConstructor
+public class BalanceCheckpointRepository {
+
+    private static final int PROGRESS_ROW = 1;
+
+    private static final RowMapper<BalanceCheckpoint> CHECKPOINT = (rs, row) -> {
+        long lastTransactionId = rs.getLong("last_transaction_id");
+        boolean none = rs.wasNull();
+        return BalanceCheckpoint.builder()
+                .accountId(rs.getLong("account_id"))
+                .asOf(rs.getTimestamp("as_of").toLocalDateTime())
+                .balance(rs.getBigDecimal("balance"))
+                .lastTransactionId(none ? null : lastTransactionId)
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /** The account's latest checkpoint at or before {@code at}: one seek on the primary key. */
+    public Optional<BalanceCheckpoint> findNearest(long accountId, LocalDateTime at) {
+        return jdbc.query("SELECT account_id, as_of, balance, last_transaction_id FROM balance_checkpoints " +
+                                "WHERE account_id = :accountId AND as_of <= :at ORDER BY as_of DESC LIMIT 1",
+                        new MapSqlParameterSource("accountId", accountId).addValue("at", Timestamp.valueOf(at)), CHECKPOINT)
+                .stream().findFirst();
+    }
+
+    public void insertAll(Collection<BalanceCheckpoint> checkpoints) {
+        if (checkpoints.isEmpty()) return;
+        jdbc.batchUpdate("INSERT INTO balance_checkpoints (account_id, as_of, balance, last_transaction_id) " +
+                        "VALUES (:accountId, :asOf, :balance, :lastTransactionId)",
+                checkpoints.stream().map(checkpoint -> new MapSqlParameterSource()
+                        .addValue("accountId", checkpoint.getAccountId())
+                        .addValue("asOf", Timestamp.valueOf(checkpoint.getAsOf()))
+                        .addValue("balance", checkpoint.getBalance())
+                        .addValue("lastTransactionId", checkpoint.getLastTransactionId()))
+                        .toArray(MapSqlParameterSource[]::new));
+    }
+
+    /** Drops the account's checkpoints as of from or later, which a late leg made stale. */
+    public void deleteFrom(long accountId, LocalDateTime from) {
+        jdbc.update("DELETE FROM balance_checkpoints WHERE account_id = :accountId AND as_of >= :from",
+                new MapSqlParameterSource("accountId", accountId).addValue("from", Timestamp.valueOf(from)));
+    }
+
+    /**
+     * Locks the bookkeeping row until the caller's transaction ends and returns the cutoff
+     * of the last run, empty before the first one; creates the row on first use.
+     */
+    public Optional<LocalDateTime> lockProgress() {
+        MapSqlParameterSource row = new MapSqlParameterSource("id", PROGRESS_ROW);
+        List<Optional<LocalDateTime>> progress = jdbc.query(
+                "SELECT checkpointed_to FROM balance_checkpoint_progress WHERE id = :id FOR UPDATE", row,
+                (rs, n) -> Optional.ofNullable(rs.getTimestamp("checkpointed_to")).map(Timestamp::toLocalDateTime));
+        if (!progress.isEmpty()) return progress.get(0);
+        // Two first runs racing here: one fails on the primary key and its run is skipped
+        jdbc.update("INSERT INTO balance_checkpoint_progress (id, checkpointed_to) VALUES (:id, NULL)", row);
+        return Optional.empty();
+    }
+
+    public void updateProgress(LocalDateTime checkpointedTo) {
+        jdbc.update("UPDATE balance_checkpoint_progress SET checkpointed_to = :checkpointedTo WHERE id = :id",
+                new MapSqlParameterSource("id", PROGRESS_ROW).addValue("checkpointedTo", Timestamp.valueOf(checkpointedTo)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.fintech.digitalbanking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Plain-JDBC access to account_balance_slots for HotAccountSlots: guarded single-row
+ * updates on the posting path, and the locking sweep that folds slots back into the
+ * account row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BalanceSlotRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record Slot(int slot, BigDecimal balance) {
+    }
+
+    /** Slot counts of every hot account; served by idx_accounts_balance_slots. */
+    public Map<Long, Integer> findHotAccounts() {
+        Map<Long, Integer> hot = new HashMap<>();
+        jdbc.query("SELECT id, balance_slots FROM accounts WHERE balance_slots > 1", new MapSqlParameterSource(),
+                rs -> {
+                    hot.put(rs.getLong("id"), rs.getInt("balance_slots"));
+                });
+        return hot;
+    }
+
+    /** Plain read, no lock: hot accounts are checked without waiting on their row. */
+    public Optional<Boolean> findActive(long accountId) {
+        List<Boolean> active = jdbc.queryForList("SELECT active FROM accounts WHERE id = :id",
+                new MapSqlParameterSource("id", accountId), Boolean.class);
+        return active.stream().findFirst();
+    }
+
+    /** Unlocked read, only used to choose a slot to debit. */
+    public List<Slot> findSlots(long accountId) {
+        return jdbc.query("SELECT slot, balance FROM account_balance_slots WHERE account_id = :id ORDER BY slot",
+                new MapSqlParameterSource("id", accountId),
+                (rs, row) -> new Slot(rs.getInt("slot"), rs.getBigDecimal("balance")));
+    }
+
+    public BigDecimal sumSlots(long accountId) {
+        return jdbc.queryForObject("SELECT COALESCE(SUM(balance), 0) FROM account_balance_slots WHERE account_id = :id",
+                new MapSqlParameterSource("id", accountId), BigDecimal.class);
+    }
+
+    public int credit(long accountId, int slot, BigDecimal amount) {
+        return jdbc.update("UPDATE account_balance_slots SET balance = balance + :amount " +
+                        "WHERE account_id = :id AND slot = :slot",
+                slotParams(accountId, slot).addValue("amount", amount));
+    }
+
+    /** Returns 0 when the slot is missing or holds less than amount. */
+    public int debitIfSufficient(long accountId, int slot, BigDecimal amount) {
+        return jdbc.update("UPDATE account_balance_slots SET balance = balance - :amount " +
+                        "WHERE account_id = :id AND slot = :slot AND balance >= :amount",
+                slotParams(accountId, slot).addValue("amount", amount));
+    }
+
+    /**
+     * Locks all of the account's slots in slot order, empties them and returns what they
+     * held. Callers hold the account row lock already.
+     */
+    public BigDecimal drain(long accountId) {
+        MapSqlParameterSource id = new MapSqlParameterSource("id", accountId);
+        List<BigDecimal> balances = jdbc.queryForList(
+                "SELECT balance FROM account_balance_slots WHERE account_id = :id ORDER BY slot FOR UPDATE",
+                id, BigDecimal.class);
+        BigDecimal total = balances.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.signum() != 0) {
+            jdbc.update("UPDATE account_balance_slots SET balance = 0 WHERE account_id = :id AND balance <> 0", id);
+        }
+        return total;
+    }
+
+    public void replaceSlots(long accountId, int slots) {
+        jdbc.update("DELETE FROM account_balance_slots WHERE account_id = :id", new MapSqlParameterSource("id", accountId));
+        if (slots <= 1) return;
+        jdbc.batchUpdate("INSERT INTO account_balance_slots (account_id, slot, balance) VALUES (:id, :slot, 0)",
+                IntStream.range(0, slots).mapToObj(slot -> slotParams(accountId, slot)).toArray(MapSqlParameterSource[]::new));
+    }
+
+    private static MapSqlParameterSource slotParams(long accountId, int slot) {
+        return new MapSqlParameterSource().addValue("id", accountId).addValue("slot", slot);
+    }
+}
@@ -0,0 +1,71 @@
+package com.fintech.digitalbanking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain-JDBC access used by bulk posting, where going through the persistence context
+ * one entity at a time would cost a statement per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BatchPostingRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record LockedAccount(Long id, BigDecimal balance, boolean active, Long ownerId, int balanceSlots) {
+
+        /** Row balance after a change, for the journal; null for hot accounts, whose total is not in the row. */
+        public BigDecimal runningBalance(BigDecimal rowBalance) {
+            return balanceSlots > 1 ? null : rowBalance;
+        }
+    }
+
+    public Map<String, Long> findAccountIdsByNumber(Collection<String> accountNumbers) {
+        Map<String, Long> ids = new HashMap<>();
+        if (accountNumbers.isEmpty()) return ids;
+        jdbc.query("SELECT id, account_number FROM accounts WHERE account_number IN (:numbers)",
+                new MapSqlParameterSource("numbers", accountNumbers),
+                rs -> {
+                    ids.put(rs.getString("account_number"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Locks every listed account with one statement. ORDER BY id makes both MySQL and
+     * PostgreSQL take the row locks in ascending id order, the same global order
+     * used by single transfers, so batches and single postings cannot deadlock.
+     */
+    public Map<Long, LockedAccount> lockAccounts(Collection<Long> accountIds) {
+        Map<Long, LockedAccount> accounts = new HashMap<>();
+        if (accountIds.isEmpty()) return accounts;
+        jdbc.query("SELECT id, balance, active, user_id, balance_slots FROM accounts WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                new MapSqlParameterSource("ids", accountIds),
+                rs -> {
+                    long id = rs.getLong("id");
+                    accounts.put(id, new LockedAccount(id, rs.getBigDecimal("balance"), rs.getBoolean("active"),
+                            rs.getLong("user_id"), rs.getInt("balance_slots")));
+                });
+        return accounts;
+    }
+
+    public void updateBalances(Map<Long, BigDecimal> balances) {
+        if (balances.isEmpty()) return;
+        List<MapSqlParameterSource> batch = new ArrayList<>(balances.size());
+        balances.forEach((id, balance) -> batch.add(new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("balance", balance)));
+        jdbc.batchUpdate("UPDATE accounts SET balance = :balance, version = version + 1 WHERE id = :id",
+                batch.toArray(new MapSqlParameterSource[0]));
+    }
+}
@@ -0,0 +1,11 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByUsernameAndIdempotencyKey(String username, String idempotencyKey);
+}
@@ -0,0 +1,245 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.entity.EntryDirection;
+import com.fintech.digitalbanking.entity.JournalEntry;
+import com.fintech.digitalbanking.entity.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain-JDBC access to journal_entries. The per-account reads are ranges on
+ * idx_journal_account_posted (account_id, posted_at, transaction_id) and only select
+ * columns that index carries, so the table itself is never visited. Checkpoint runs
+ * claim and list legs on idx_journal_checkpoint_cutoff (checkpoint_cutoff, posted_at,
+ * account_id).
+ */
+@Repository
+@RequiredArgsConstructor
+public class JournalEntryRepository {
+
+    private static final String LEG_COLUMNS = "transaction_id, direction, account_id, type, amount, balance_after, posted_at";
+    private static final String SIGNED_AMOUNT = "CASE WHEN direction = 'CREDIT' THEN amount ELSE -amount END";
+
+    private static final RowMapper<JournalEntry> LEG = (rs, row) -> {
+        long accountId = rs.getLong("account_id");
+        boolean external = rs.wasNull();
+        return JournalEntry.builder()
+                .transactionId(rs.getLong("transaction_id"))
+                .direction(EntryDirection.valueOf(rs.getString("direction")))
+                .accountId(external ? null : accountId)
+                .type(TransactionType.valueOf(rs.getString("type")))
+                .amount(rs.getBigDecimal("amount"))
+                .balanceAfter(rs.getBigDecimal("balance_after"))
+                .postedAt(rs.getTimestamp("posted_at").toLocalDateTime())
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public void insertAll(Collection<JournalEntry> legs) {
+        if (legs.isEmpty()) return;
+        jdbc.batchUpdate("INSERT INTO journal_entries (" + LEG_COLUMNS + ") VALUES (:transactionId, :direction, " +
+                        ":accountId, :type, :amount, :balanceAfter, :postedAt)",
+                legs.stream().map(leg -> new MapSqlParameterSource()
+                        .addValue("transactionId", leg.getTransactionId())
+                        .addValue("direction", leg.getDirection().name())
+                        .addValue("accountId", leg.getAccountId())
+                        .addValue("type", leg.getType().name())
+                        .addValue("amount", leg.getAmount())
+                        .addValue("balanceAfter", leg.getBalanceAfter())
+                        .addValue("postedAt", Timestamp.valueOf(leg.getPostedAt()))).toArray(MapSqlParameterSource[]::new));
+    }
+
+    record JournalQuery(String sql, MapSqlParameterSource params) {
+    }
+
+    /**
+     * One statement page, newest first, in [from, to); before* is the keyset position of
+     * the last leg already shown. Any bound may be null.
+     */
+    public List<JournalEntry> findStatement(long accountId, LocalDateTime from, LocalDateTime to,
+                                            LocalDateTime beforePostedAt, Long beforeTransactionId, int limit) {
+        JournalQuery query = statement(accountId, from, to, beforePostedAt, beforeTransactionId, limit);
+        return jdbc.query(query.sql(), query.params(), LEG);
+    }
+
+    /**
+     * The account's last leg in (after, upTo], or with a running balance only when
+     * withBalance; after may be null. The backward scan stops at after, which bounds it.
+     */
+    public Optional<JournalEntry> findLastLeg(long accountId, LocalDateTime after, LocalDateTime upTo, boolean withBalance) {
+        JournalQuery query = lastLeg(accountId, after, upTo, withBalance);
+        return jdbc.query(query.sql(), query.params(), LEG).stream().findFirst();
+    }
+
+    /**
+     * Net change of the account's legs after the position (afterPostedAt, afterTransactionId)
+     * up to and including upTo. With no afterTransactionId every leg at afterPostedAt counts
+     * as before the position; with no afterPostedAt the sum starts at the first leg, and
+     * with no upTo it runs to the last.
+     */
+    public BigDecimal sumLegs(long accountId, LocalDateTime afterPostedAt, Long afterTransactionId, LocalDateTime upTo) {
+        JournalQuery query = legSum(accountId, afterPostedAt, afterTransactionId, upTo);
+        return jdbc.queryForObject(query.sql(), query.params(), BigDecimal.class);
+    }
+
+    /**
+     * The account's legs in (after, upTo], newest first, if at least one of them has no
+     * running balance; otherwise empty without reading them. after may be null.
+     */
+    public List<JournalEntry> findLegsIfAnyWithoutBalance(long accountId, LocalDateTime after, LocalDateTime upTo) {
+        JournalQuery missing = legsWithoutBalance(accountId, after, upTo);
+        if (jdbc.queryForList(missing.sql(), missing.params(), Integer.class).isEmpty()) return List.of();
+        JournalQuery query = legsBetween(accountId, after, upTo);
+        return jdbc.query(query.sql(), query.params(), LEG);
+    }
+
+    /** Sets balance_after on legs that have none yet; legs that have one keep it. */
+    public void fillBalancesAfter(Collection<JournalEntry> legs) {
+        if (legs.isEmpty()) return;
+        jdbc.batchUpdate("UPDATE journal_entries SET balance_after = :balanceAfter " +
+                        "WHERE transaction_id = :transactionId AND direction = :direction AND balance_after IS NULL",
+                legs.stream().map(leg -> new MapSqlParameterSource()
+                        .addValue("transactionId", leg.getTransactionId())
+                        .addValue("direction", leg.getDirection().name())
+                        .addValue("balanceAfter", leg.getBalanceAfter())).toArray(MapSqlParameterSource[]::new));
+    }
+
+    /** Nulls the running balances of the account's legs in [from, upTo], for fillRunningBalances to work out again. */
+    public void clearBalances(long accountId, LocalDateTime from, LocalDateTime upTo) {
+        jdbc.update("UPDATE journal_entries SET balance_after = NULL " +
+                        "WHERE account_id = :accountId AND posted_at >= :from AND posted_at <= :upTo",
+                new MapSqlParameterSource("accountId", accountId)
+                        .addValue("from", Timestamp.valueOf(from))
+                        .addValue("upTo", Timestamp.valueOf(upTo)));
+    }
+
+    /**
+     * Stamps cutoff on every leg up to it that no checkpoint run has counted yet. Only
+     * committed legs are visible to the statement, so a leg stamped with an earlier
+     * posted_at but committed after an earlier run is claimed by the first run after it.
+     */
+    public int claimForCheckpoint(LocalDateTime cutoff) {
+        JournalQuery query = checkpointClaim(cutoff);
+        return jdbc.update(query.sql(), query.params());
+    }
+
+    /** Accounts with legs claimed by the run at cutoff, each with the oldest posted_at among them. */
+    public Map<Long, LocalDateTime> findAccountsClaimedBy(LocalDateTime cutoff) {
+        JournalQuery query = accountsClaimedBy(cutoff);
+        Map<Long, LocalDateTime> accounts = new LinkedHashMap<>();
+        jdbc.query(query.sql(), query.params(), rs -> {
+            accounts.put(rs.getLong("account_id"), rs.getTimestamp("earliest").toLocalDateTime());
+        });
+        return accounts;
+    }
+
+    /** Hands the accounts' legs claimed by the run at cutoff back to the next run. */
+    public void releaseClaims(LocalDateTime cutoff, Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) return;
+        jdbc.update("UPDATE journal_entries SET checkpoint_cutoff = NULL " +
+                        "WHERE checkpoint_cutoff = :cutoff AND account_id IN (:accountIds)",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)).addValue("accountIds", accountIds));
+    }
+
+    static JournalQuery statement(long accountId, LocalDateTime from, LocalDateTime to,
+                                  LocalDateTime beforePostedAt, Long beforeTransactionId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("accountId", accountId);
+        StringBuilder sql = new StringBuilder("SELECT " + LEG_COLUMNS + " FROM journal_entries WHERE account_id = :accountId");
+        if (from != null) {
+            sql.append(" AND posted_at >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND posted_at < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+        if (beforePostedAt != null) {
+            // Plain range first, as in the history queries: that is what becomes the index range
+            sql.append(" AND posted_at <= :beforePostedAt AND (posted_at < :beforePostedAt OR transaction_id < :beforeId)");
+            params.addValue("beforePostedAt", Timestamp.valueOf(beforePostedAt)).addValue("beforeId", beforeTransactionId);
+        }
+        sql.append(" ORDER BY posted_at DESC, transaction_id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+        return new JournalQuery(sql.toString(), params);
+    }
+
+    static JournalQuery lastLeg(long accountId, LocalDateTime after, LocalDateTime upTo, boolean withBalance) {
+        MapSqlParameterSource params = new MapSqlParameterSource("accountId", accountId)
+                .addValue("upTo", Timestamp.valueOf(upTo));
+        StringBuilder sql = new StringBuilder("SELECT " + LEG_COLUMNS + " FROM journal_entries " +
+                "WHERE account_id = :accountId AND posted_at <= :upTo");
+        if (after != null) {
+            sql.append(" AND posted_at > :after");
+            params.addValue("after", Timestamp.valueOf(after));
+        }
+        if (withBalance) sql.append(" AND balance_after IS NOT NULL");
+        sql.append(" ORDER BY posted_at DESC, transaction_id DESC LIMIT 1");
+        return new JournalQuery(sql.toString(), params);
+    }
+
+    static JournalQuery legSum(long accountId, LocalDateTime afterPostedAt, Long afterTransactionId, LocalDateTime upTo) {
+        MapSqlParameterSource params = new MapSqlParameterSource("accountId", accountId);
+        StringBuilder sql = new StringBuilder("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM journal_entries " +
+                "WHERE account_id = :accountId");
+        if (afterPostedAt != null && afterTransactionId != null) {
+            sql.append(" AND posted_at >= :afterPostedAt AND (posted_at > :afterPostedAt OR transaction_id > :afterId)");
+            params.addValue("afterPostedAt", Timestamp.valueOf(afterPostedAt)).addValue("afterId", afterTransactionId);
+        } else if (afterPostedAt != null) {
+            sql.append(" AND posted_at > :afterPostedAt");
+            params.addValue("afterPostedAt", Timestamp.valueOf(afterPostedAt));
+        }
+        if (upTo != null) {
+            sql.append(" AND posted_at <= :upTo");
+            params.addValue("upTo", Timestamp.valueOf(upTo));
+        }
+        return new JournalQuery(sql.toString(), params);
+    }
+
+    static JournalQuery legsWithoutBalance(long accountId, LocalDateTime after, LocalDateTime upTo) {
+        JournalQuery range = accountRange(accountId, after, upTo);
+        return new JournalQuery("SELECT 1 " + range.sql() + " AND balance_after IS NULL LIMIT 1", range.params());
+    }
+
+    static JournalQuery legsBetween(long accountId, LocalDateTime after, LocalDateTime upTo) {
+        JournalQuery range = accountRange(accountId, after, upTo);
+        return new JournalQuery("SELECT " + LEG_COLUMNS + " " + range.sql() + " ORDER BY posted_at DESC, transaction_id DESC",
+                range.params());
+    }
+
+    /** FROM and WHERE for the account's legs in (after, upTo]. */
+    private static JournalQuery accountRange(long accountId, LocalDateTime after, LocalDateTime upTo) {
+        MapSqlParameterSource params = new MapSqlParameterSource("accountId", accountId)
+                .addValue("upTo", Timestamp.valueOf(upTo));
+        StringBuilder sql = new StringBuilder("FROM journal_entries WHERE account_id = :accountId AND posted_at <= :upTo");
+        if (after != null) {
+            sql.append(" AND posted_at > :after");
+            params.addValue("after", Timestamp.valueOf(after));
+        }
+        return new JournalQuery(sql.toString(), params);
+    }
+
+    static JournalQuery checkpointClaim(LocalDateTime cutoff) {
+        return new JournalQuery("UPDATE journal_entries SET checkpoint_cutoff = :cutoff " +
+                "WHERE checkpoint_cutoff IS NULL AND posted_at <= :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)));
+    }
+
+    static JournalQuery accountsClaimedBy(LocalDateTime cutoff) {
+        return new JournalQuery("SELECT account_id, MIN(posted_at) AS earliest FROM journal_entries " +
+                "WHERE checkpoint_cutoff = :cutoff AND account_id IS NOT NULL GROUP BY account_id",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)));
+    }
+}
@@ -0,0 +1,165 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.dto.LedgerRecord;
+import com.fintech.digitalbanking.entity.Transaction;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain-JDBC access for LedgerEngine: loading account state on first use and projecting
+ * durable journal records into the transactions and accounts tables in batches.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LedgerRepository {
+
+    private static final int PROJECTION_ROW = 1;
+    private static final int IN_LIST_CHUNK = 1000;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private volatile IdentifierGenerator transactionIds;
+
+    public record LedgerAccountRow(long id, BigDecimal balance, boolean active, long ownerId) {
+    }
+
+    public Optional<LedgerAccountRow> findAccount(long accountId) {
+        return Optional.ofNullable(findAccounts(List.of(accountId)).get(accountId));
+    }
+
+    public Map<Long, LedgerAccountRow> findAccounts(Collection<Long> accountIds) {
+        Map<Long, LedgerAccountRow> accounts = new HashMap<>();
+        List<Long> ids = List.copyOf(accountIds);
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+            // The engine holds one balance per account, so a hot account's slots are folded in
+            jdbc.query("SELECT a.id, a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_slots s " +
+                            "WHERE s.account_id = a.id), 0) AS balance, a.active, a.user_id FROM accounts a WHERE a.id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids.subList(from, Math.min(from + IN_LIST_CHUNK, ids.size()))),
+                    rs -> {
+                        long id = rs.getLong("id");
+                        accounts.put(id, new LedgerAccountRow(id, rs.getBigDecimal("balance"), rs.getBoolean("active"),
+                                rs.getLong("user_id")));
+                    });
+        }
+        return accounts;
+    }
+
+    public boolean isReversed(long transactionId) {
+        List<Boolean> reversed = jdbc.queryForList("SELECT reversed FROM transactions WHERE id = :id",
+                new MapSqlParameterSource("id", transactionId), Boolean.class);
+        return !reversed.isEmpty() && reversed.get(0);
+    }
+
+    /**
+     * Deletes idempotency keys whose transaction has no row and is not among journaled
+     * (the journal tail not projected yet); returns how many. Startup only, before any posting.
+     */
+    public int deleteIdempotencyKeysWithoutTransaction(Collection<Long> journaled) {
+        List<Long> orphans = new ArrayList<>();
+        jdbc.query("SELECT k.id, k.transaction_id FROM idempotency_keys k " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM transactions t WHERE t.id = k.transaction_id)",
+                rs -> {
+                    if (!journaled.contains(rs.getLong("transaction_id"))) orphans.add(rs.getLong("id"));
+                });
+        for (int from = 0; from < orphans.size(); from += IN_LIST_CHUNK) {
+            jdbc.update("DELETE FROM idempotency_keys WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", orphans.subList(from, Math.min(from + IN_LIST_CHUNK, orphans.size()))));
+        }
+        return orphans.size();
+    }
+
+    /** Last journal sequence already projected; creates the bookkeeping row on first use. */
+    public long appliedSequence() {
+        MapSqlParameterSource row = new MapSqlParameterSource("id", PROJECTION_ROW);
+        List<Long> applied = jdbc.queryForList("SELECT applied_sequence FROM ledger_projection WHERE id = :id",
+                row, Long.class);
+        if (!applied.isEmpty()) return applied.get(0);
+        jdbc.update("INSERT INTO ledger_projection (id, applied_sequence) VALUES (:id, 0)", row);
+        return 0;
+    }
+
+    /**
+     * Writes the records' transactions, applies their net balance change to each account
+     * and moves the applied sequence to the last record, all in the caller's transaction.
+     * Records must be contiguous and follow the current applied sequence.
+     */
+    public void project(List<LedgerRecord> records) {
+        if (records.isEmpty()) return;
+        List<MapSqlParameterSource> inserts = new ArrayList<>(records.size());
+        List<MapSqlParameterSource> reversals = new ArrayList<>();
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        for (LedgerRecord record : records) {
+            inserts.add(new MapSqlParameterSource()
+                    .addValue("id", record.transactionId())
+                    .addValue("type", record.type().name())
+                    .addValue("amount", record.amountValue())
+                    .addValue("timestamp", Timestamp.valueOf(record.timestamp()))
+                    .addValue("source", record.sourceAccountId())
+                    .addValue("target", record.targetAccountId() != 0 ? record.targetAccountId() : null)
+                    .addValue("related", record.relatedTransactionId() != 0 ? record.relatedTransactionId() : null));
+            if (record.relatedTransactionId() != 0) {
+                reversals.add(new MapSqlParameterSource()
+                        .addValue("original", record.relatedTransactionId())
+                        .addValue("reversal", record.transactionId()));
+            }
+            deltas.merge(record.sourceAccountId(), record.deltaFor(record.sourceAccountId()), Long::sum);
+            if (record.targetAccountId() != 0) {
+                deltas.merge(record.targetAccountId(), record.deltaFor(record.targetAccountId()), Long::sum);
+            }
+        }
+
+        jdbc.batchUpdate("INSERT INTO transactions (id, type, amount, timestamp, source_account_id, target_account_id, " +
+                        "reversed, related_transaction_id) VALUES (:id, :type, :amount, :timestamp, :source, :target, " +
+                        "false, :related)",
+                inserts.toArray(new MapSqlParameterSource[0]));
+        if (!reversals.isEmpty()) {
+            jdbc.batchUpdate("UPDATE transactions SET reversed = true, related_transaction_id = :reversal WHERE id = :original",
+                    reversals.toArray(new MapSqlParameterSource[0]));
+        }
+        List<MapSqlParameterSource> balances = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> balances.add(new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("delta", LedgerRecord.fromUnits(delta))));
+        jdbc.batchUpdate("UPDATE accounts SET balance = balance + :delta, version = version + 1 WHERE id = :id",
+                balances.toArray(new MapSqlParameterSource[0]));
+        jdbc.update("UPDATE ledger_projection SET applied_sequence = :sequence WHERE id = :id",
+                new MapSqlParameterSource()
+                        .addValue("sequence", records.get(records.size() - 1).sequence())
+                        .addValue("id", PROJECTION_ROW));
+    }
+
+    /**
+     * Next Transaction id from the same pooled sequence Hibernate uses, so ledger postings
+     * and JPA inserts never collide; only every 50th call reaches the database.
+     */
+    public long nextTransactionId() {
+        IdentifierGenerator generator = transactionIds;
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (generator == null) {
+            generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(Transaction.class).getGenerator();
+            transactionIds = generator;
+        }
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return ((Number) generator.generate((SharedSessionContractImplementor) session, null)).longValue();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.fintech.digitalbanking.repository;
 
+import com.fintech.digitalbanking.dto.RequestDto;
 import com.fintech.digitalbanking.entity.RollbackRequest;
 import com.fintech.digitalbanking.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
 public interface RollbackRequestRepository extends JpaRepository<RollbackRequest, Long> {
@@ -10,4 +14,23 @@ public interface RollbackRequestRepository extends JpaRepository<RollbackRequest
     List<RollbackRequest> findByStatus(RollbackRequest.RequestStatus status);
 
     List<RollbackRequest> findByRequestingUserOrderByCreatedAtDesc(User user);
+
+    // Read-side projections: everything RequestDto shows, joined in one statement instead of
+    // lazily loading the user (and its roles), the transaction and both accounts per row
+    String REQUEST_DTO_SELECT = """
+            SELECT new com.fintech.digitalbanking.dto.RequestDto(
+                r.id, t.id, u.username, r.reason, r.status, r.createdAt,
+                t.type, t.amount, COALESCE(sa.accountNumber, 'N/A'), COALESCE(ta.accountNumber, 'N/A'), t.timestamp)
+            FROM RollbackRequest r
+            JOIN r.transaction t
+            JOIN r.requestingUser u
+            LEFT JOIN t.sourceAccount sa
+            LEFT JOIN t.targetAccount ta
+            """;
+
+    @Query(REQUEST_DTO_SELECT + "WHERE r.status = :status ORDER BY r.createdAt")
+    List<RequestDto> findDtosByStatus(@Param("status") RollbackRequest.RequestStatus status);
+
+    @Query(REQUEST_DTO_SELECT + "WHERE u.id = :userId ORDER BY r.createdAt DESC")
+    List<RequestDto> findDtosByRequestingUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
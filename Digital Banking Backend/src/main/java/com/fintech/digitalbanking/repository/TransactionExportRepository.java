@@ -0,0 +1,100 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.dto.TransactionExportRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the ledger through a forward-only, read-only cursor so an export never holds
+ * more than one fetch block of rows, however many rows match.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${banking.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    private volatile String databaseProduct;
+
+    public record LedgerRow(long id, String type, BigDecimal amount, LocalDateTime timestamp, String description,
+                            Long sourceAccountId, Long targetAccountId, boolean reversed,
+                            Long relatedTransactionId) {
+    }
+
+    /**
+     * Streams matching rows oldest first. PostgreSQL only honours the fetch size inside a
+     * transaction, so callers must hold one open while this runs.
+     */
+    public void streamTransactions(TransactionExportRequest filter, Consumer<LedgerRow> consumer) {
+        StringBuilder sql = new StringBuilder("SELECT id, type, amount, timestamp, description, source_account_id, " +
+                "target_account_id, reversed, related_transaction_id FROM transactions WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (filter.getAccountId() != null) {
+            sql.append(" AND (source_account_id = ? OR target_account_id = ?)");
+            args.add(filter.getAccountId());
+            args.add(filter.getAccountId());
+        }
+        if (filter.getType() != null) {
+            sql.append(" AND type = ?");
+            args.add(filter.getType().name());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND timestamp >= ?");
+            args.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND timestamp < ?");
+            args.add(Timestamp.valueOf(filter.getTo()));
+        }
+        sql.append(" ORDER BY timestamp, id");
+
+        int rowsPerFetch = streamingFetchSize();
+        PreparedStatementCreator statement = con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(rowsPerFetch);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        };
+
+        jdbcTemplate.query(statement, rs -> {
+            Timestamp ts = rs.getTimestamp("timestamp");
+            consumer.accept(new LedgerRow(
+                    rs.getLong("id"),
+                    rs.getString("type"),
+                    rs.getBigDecimal("amount"),
+                    ts != null ? ts.toLocalDateTime() : null,
+                    rs.getString("description"),
+                    rs.getObject("source_account_id", Long.class),
+                    rs.getObject("target_account_id", Long.class),
+                    rs.getBoolean("reversed"),
+                    rs.getObject("related_transaction_id", Long.class)));
+        });
+    }
+
+    private int streamingFetchSize() {
+        if (databaseProduct == null) {
+            databaseProduct = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        }
+        // Connector/J buffers the whole result unless asked to stream row by row this way
+        return "MySQL".equals(databaseProduct) ? Integer.MIN_VALUE : fetchSize;
+    }
+}
@@ -0,0 +1,29 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.dto.TransactionDto;
+import com.fintech.digitalbanking.dto.TransactionHistoryRequest;
+import com.fintech.digitalbanking.entity.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/** Account-scoped history reads that need hand-written SQL to stay on the indexes. */
+public interface TransactionHistoryQueries {
+
+    /** Every transaction touching any of the accounts, newest first. */
+    List<Transaction> findAllByAccountIds(Collection<Long> accountIds);
+
+    /**
+     * Same rows as findAllByAccountIds, read straight into TransactionDto. Account ids come
+     * from the foreign-key columns, so no entity or account row is loaded.
+     */
+    List<TransactionDto> findDtosByAccountIds(Collection<Long> accountIds);
+
+    /**
+     * One page of account history, newest first. type/from/to are taken from the filter;
+     * rows at or after (beforeTimestamp, beforeId) in that order are skipped when given.
+     */
+    List<Transaction> findAccountHistory(Collection<Long> accountIds, TransactionHistoryRequest filter,
+                                         LocalDateTime beforeTimestamp, Long beforeId, int limit);
+}
@@ -0,0 +1,144 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.dto.TransactionDto;
+import com.fintech.digitalbanking.dto.TransactionHistoryRequest;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * "source IN (...) OR target IN (...)" cannot be answered from one index, so MySQL and
+ * PostgreSQL fall back to scanning and sorting. Here each side becomes its own branch
+ * of a UNION ALL, each a range scan on (source|target_account_id, timestamp, id) that
+ * already comes out in order; the outer ORDER BY/LIMIT only merges two short lists.
+ * A transfer between two of the listed accounts matches both sides, so the target branch
+ * skips rows whose source is also listed.
+ */
+public class TransactionHistoryQueriesImpl implements TransactionHistoryQueries {
+
+    private static final String DTO_COLUMNS =
+            "id, type, amount, timestamp, source_account_id, target_account_id, reversed";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    record AccountHistoryQuery(String sql, List<Object> params) {
+    }
+
+    @Override
+    public List<Transaction> findAllByAccountIds(Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) return List.of();
+        return run(accountHistory(accountIds, null, null, null, null));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TransactionDto> findDtosByAccountIds(Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) return List.of();
+        AccountHistoryQuery query = accountHistory(DTO_COLUMNS, accountIds, null, null, null, null);
+        Query nativeQuery = entityManager.createNativeQuery(query.sql());
+        for (int i = 0; i < query.params().size(); i++) {
+            nativeQuery.setParameter(i + 1, query.params().get(i));
+        }
+        return ((List<Object[]>) nativeQuery.getResultList()).stream()
+                .map(TransactionHistoryQueriesImpl::toDto)
+                .toList();
+    }
+
+    private static TransactionDto toDto(Object[] row) {
+        return new TransactionDto(
+                ((Number) row[0]).longValue(),
+                row[1] != null ? TransactionType.valueOf(row[1].toString()) : null,
+                (BigDecimal) row[2],
+                row[3] instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) row[3],
+                row[4] != null ? ((Number) row[4]).longValue() : null,
+                row[5] != null ? ((Number) row[5]).longValue() : null,
+                row[6] instanceof Number number ? number.intValue() != 0 : Boolean.TRUE.equals(row[6]));
+    }
+
+    @Override
+    public List<Transaction> findAccountHistory(Collection<Long> accountIds, TransactionHistoryRequest filter,
+                                                LocalDateTime beforeTimestamp, Long beforeId, int limit) {
+        if (accountIds.isEmpty()) return List.of();
+        return run(accountHistory(accountIds, filter, beforeTimestamp, beforeId, limit));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Transaction> run(AccountHistoryQuery query) {
+        Query nativeQuery = entityManager.createNativeQuery(query.sql(), Transaction.class);
+        for (int i = 0; i < query.params().size(); i++) {
+            nativeQuery.setParameter(i + 1, query.params().get(i));
+        }
+        return nativeQuery.getResultList();
+    }
+
+    static AccountHistoryQuery accountHistory(Collection<Long> accountIds, TransactionHistoryRequest filter,
+                                              LocalDateTime beforeTimestamp, Long beforeId, Integer limit) {
+        return accountHistory("*", accountIds, filter, beforeTimestamp, beforeId, limit);
+    }
+
+    /** columns must include timestamp and id, which the outer ORDER BY merges on. */
+    static AccountHistoryQuery accountHistory(String columns, Collection<Long> accountIds, TransactionHistoryRequest filter,
+                                              LocalDateTime beforeTimestamp, Long beforeId, Integer limit) {
+        List<Object> params = new ArrayList<>();
+        String ids = String.join(", ", Collections.nCopies(accountIds.size(), "?"));
+
+        StringBuilder sql = new StringBuilder("(SELECT ").append(columns)
+                .append(" FROM transactions WHERE source_account_id IN (").append(ids).append(')');
+        params.addAll(accountIds);
+        appendFilters(sql, params, filter, beforeTimestamp, beforeId, limit);
+
+        sql.append(") UNION ALL (SELECT ").append(columns).append(" FROM transactions WHERE target_account_id IN (").append(ids).append(')')
+                .append(" AND (source_account_id IS NULL OR source_account_id NOT IN (").append(ids).append("))");
+        params.addAll(accountIds);
+        params.addAll(accountIds);
+        appendFilters(sql, params, filter, beforeTimestamp, beforeId, limit);
+
+        sql.append(") ORDER BY timestamp DESC, id DESC");
+        if (limit != null) {
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+        return new AccountHistoryQuery(sql.toString(), params);
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> params, TransactionHistoryRequest filter,
+                                      LocalDateTime beforeTimestamp, Long beforeId, Integer limit) {
+        if (filter != null && filter.getType() != null) {
+            sql.append(" AND type = ?");
+            params.add(filter.getType().name());
+        }
+        if (filter != null && filter.getFrom() != null) {
+            sql.append(" AND timestamp >= ?");
+            params.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter != null && filter.getTo() != null) {
+            sql.append(" AND timestamp < ?");
+            params.add(Timestamp.valueOf(filter.getTo()));
+        }
+        if (beforeTimestamp != null) {
+            // Keyset condition, written with a plain "timestamp <=" range first because that is
+            // what both optimizers turn into an index range (row-value comparisons are not)
+            sql.append(" AND timestamp <= ? AND (timestamp < ? OR id < ?)");
+            params.add(Timestamp.valueOf(beforeTimestamp));
+            params.add(Timestamp.valueOf(beforeTimestamp));
+            params.add(beforeId);
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC");
+        if (limit != null) {
+            // Each branch needs at most `limit` rows for the merged page
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+    }
+}
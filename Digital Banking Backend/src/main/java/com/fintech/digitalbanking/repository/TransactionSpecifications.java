@@ -0,0 +1,40 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Building blocks for the filtered, keyset-paginated admin history over all accounts.
+ * Account-scoped pages use TransactionHistoryQueries instead.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> ofType(TransactionType type) {
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Transaction> notBefore(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("timestamp"), from);
+    }
+
+    public static Specification<Transaction> before(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("timestamp"), to);
+    }
+
+    /**
+     * Keyset condition for "everything after this row" in (timestamp DESC, id DESC) order.
+     * Unlike OFFSET, the database can seek straight to the position through the
+     * (timestamp, id) index, so page N costs the same as page 1.
+     */
+    public static Specification<Transaction> olderThan(LocalDateTime timestamp, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("timestamp"), timestamp),
+                cb.and(cb.equal(root.get("timestamp"), timestamp), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -1,7 +1,12 @@
 package com.fintech.digitalbanking.repository;
 
+import com.fintech.digitalbanking.dto.UserState;
 import com.fintech.digitalbanking.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +17,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);
 
+    @Query("SELECT new com.fintech.digitalbanking.dto.UserState(u.id, u.enabled, u.tokenVersion) FROM User u WHERE u.id = :id")
+    Optional<UserState> findStateById(@Param("id") Long id);
+
+    @Query("SELECT u.selectedAccountId FROM User u WHERE u.id = :id")
+    Optional<Long> findSelectedAccountIdById(@Param("id") Long id);
+
+    /**
+     * Replaces the password hash only if it is still the one that was verified, so a
+     * rehash on login cannot overwrite a password changed in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
     // Partial text search for username (case-insensitive)
     List<User> findByUsernameContainingIgnoreCase(String username);
 }
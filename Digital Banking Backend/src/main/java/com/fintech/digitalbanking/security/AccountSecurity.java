@@ -1,6 +1,7 @@
 package com.fintech.digitalbanking.security;
 
 import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.service.AccountOwnershipIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -10,10 +11,15 @@ import org.springframework.stereotype.Component;
 public class AccountSecurity {
 
     private final AccountRepository accountRepository;
+    private final AccountOwnershipIndex ownershipIndex;
 
     /** Called from PreAuthorize: returns true if authentication principal owns accountId */
     public boolean isOwner(Long accountId, Authentication authentication) {
         if (authentication == null || authentication.getName() == null) return false;
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            // In-memory probe; the database is only asked for accounts this node has not seen yet
+            return ownershipIndex.isOwnedBy(accountId, user.id());
+        }
         return accountRepository.findById(accountId)
                 .map(a -> a.getUser() != null && authentication.getName().equals(a.getUser().getUsername()))
                 .orElse(false);
@@ -0,0 +1,17 @@
+package com.fintech.digitalbanking.security;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal that JwtAuthenticationFilter puts into the SecurityContext. Carrying the
+ * user id lets ownership checks compare ids instead of loading the User entity.
+ * getName() keeps returning the username, so authentication.getName() is unchanged.
+ */
+public record AuthenticatedUser(Long id, String username, List<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
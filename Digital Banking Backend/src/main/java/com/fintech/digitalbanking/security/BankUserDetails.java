@@ -0,0 +1,22 @@
+package com.fintech.digitalbanking.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/** UserDetails plus the user id and token version that JwtService puts into the token. */
+@Getter
+public class BankUserDetails extends User {
+
+    private final Long id;
+    private final long tokenVersion;
+
+    public BankUserDetails(Long id, String username, String password, boolean enabled, long tokenVersion,
+                           Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+        this.tokenVersion = tokenVersion;
+    }
+}
@@ -0,0 +1,12 @@
+package com.fintech.digitalbanking.security;
+
+/**
+ * How JwtAuthenticationFilter turns a valid token into an Authentication.
+ * STATELESS trusts the signed claims and only checks the cached enabled flag and token
+ * version; LOOKUP loads the user from the database on every request (the old behaviour)
+ * and checks the same two against the loaded row.
+ */
+public enum JwtAuthMode {
+    STATELESS,
+    LOOKUP
+}
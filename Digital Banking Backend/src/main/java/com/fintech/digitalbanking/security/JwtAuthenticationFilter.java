@@ -1,5 +1,6 @@
 package com.fintech.digitalbanking.security;
 
+import com.fintech.digitalbanking.dto.UserState;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.NonNull; // <-- IMPORT ADDED
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,6 +21,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -28,6 +31,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserStateCache userStateCache;
+    private final TokenRevocationList revocationList;
+
+    @Value("${banking.security.jwt-auth-mode:STATELESS}")
+    private JwtAuthMode authMode = JwtAuthMode.STATELESS;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -44,35 +52,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         token = authHeader.substring(7);
+        final VerifiedToken verified;
         try {
-            username = jwtService.extractUsername(token);
+            verified = jwtService.verify(token);
+            username = verified.username();
         } catch (Exception e) {
             log.debug("Unable to extract username from token: {}", e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // In-memory Bloom filter probe unless the token is (or collides with) a revoked one
+        if (verified.tokenId() != null && revocationList.isRevoked(verified.tokenId())) {
+            log.debug("Rejected revoked token for user {}", username);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && authMode == JwtAuthMode.STATELESS && verified.isStateless()) {
+            authenticateFromClaims(verified, request);
+        } else if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            long currentVersion = userDetails instanceof BankUserDetails bankUser
+                    ? bankUser.getTokenVersion()
+                    : tokenVersionOf(verified);
 
-            if (jwtService.validateToken(token, userDetails)) {
-                List<String> roles = jwtService.extractRoles(token);
-
-                // This logic is correct (it fixes the ROLE_ROLE_USER bug)
-                var authorities = roles.stream()
-                        .map(role -> {
-                            if (role == null) return null;
-                            if (role.startsWith("ROLE_")) {
-                                return new SimpleGrantedAuthority(role);
-                            } else {
-                                return new SimpleGrantedAuthority("ROLE_" + role);
-                            }
-                        })
-                        .filter(a -> a != null)
-                        .toList();
+            // Signature and expiry were checked by verify() above
+            if (!isCurrent(userDetails.isEnabled(), currentVersion, verified)) {
+                log.debug("Rejected token for user {}: disabled or revoked", username);
+            } else if (username.equals(userDetails.getUsername())) {
+                var authorities = toAuthorities(verified.roles());
 
+                Object principal = userDetails instanceof BankUserDetails bankUser
+                        ? new AuthenticatedUser(bankUser.getId(), username, verified.roles())
+                        : userDetails;
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+                        new UsernamePasswordAuthenticationToken(principal, null, authorities);
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -84,4 +100,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Trusts the signed claims; the only state consulted is the cached enabled flag and
+     * token version, so an authenticated request costs no query while that entry is cached.
+     */
+    private void authenticateFromClaims(VerifiedToken verified, HttpServletRequest request) {
+        Optional<UserState> state = userStateCache.get(verified.userId());
+        if (state.isEmpty() || !isCurrent(state.get().enabled(), state.get().tokenVersion(), verified)) {
+            log.debug("Rejected token for user {}: disabled, removed or revoked", verified.username());
+            return;
+        }
+
+        var authorities = toAuthorities(verified.roles());
+        AuthenticatedUser principal = new AuthenticatedUser(verified.userId(), verified.username(), verified.roles());
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
+    /**
+     * Whether the user may still use the token: enabled, and its version not bumped since
+     * the token was issued (logout, password change, disable).
+     */
+    private static boolean isCurrent(boolean enabled, long currentVersion, VerifiedToken verified) {
+        return enabled && currentVersion == tokenVersionOf(verified);
+    }
+
+    /** Tokens issued before the tv claim count as version 0, the version every user starts at. */
+    private static long tokenVersionOf(VerifiedToken verified) {
+        return verified.tokenVersion() != null ? verified.tokenVersion() : 0L;
+    }
+
+    // This logic is correct (it fixes the ROLE_ROLE_USER bug)
+    private static List<SimpleGrantedAuthority> toAuthorities(List<String> roles) {
+        return roles.stream()
+                .map(role -> {
+                    if (role == null) return null;
+                    if (role.startsWith("ROLE_")) {
+                        return new SimpleGrantedAuthority(role);
+                    } else {
+                        return new SimpleGrantedAuthority("ROLE_" + role);
+                    }
+                })
+                .filter(a -> a != null)
+                .toList();
+    }
+}
@@ -1,7 +1,12 @@
 package com.fintech.digitalbanking.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 // import org.springframework.security.core.GrantedAuthority; // <-- Removed (unused)
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,9 +14,13 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 // import java.util.Collection; // <-- Removed (unused)
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
@@ -23,8 +32,48 @@ public class JwtService {
     // 24 hours expiration (adjust as needed)
     private static final long EXPIRATION = 1000L * 60 * 60 * 24;
 
-    private SecretKeySpec getSigningKey() {
-        return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String TOKEN_VERSION_CLAIM = "tv";
+
+    /** Rough heap cost of one cache entry besides its strings: cache node, record, Date, Longs, list. */
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    // Upper bound on the heap held by verified tokens; entries are weighed by estimated size
+    @Value("${banking.security.token-cache.max-bytes:8388608}")
+    private long tokenCacheMaxBytes = 8L * 1024 * 1024;
+
+    private SecretKeySpec signingKey;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verified;
+
+    // The key and parser are immutable and thread-safe, so they are built once
+    @PostConstruct
+    void init() {
+        signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verified = Caffeine.newBuilder()
+                .maximumWeight(tokenCacheMaxBytes)
+                .weigher((String key, VerifiedToken token) -> estimateBytes(key, token))
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        long millis = token.expiresAt() != null
+                                ? token.expiresAt().getTime() - System.currentTimeMillis()
+                                : EXPIRATION;
+                        return Math.max(0, millis) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     /**
@@ -44,22 +93,63 @@ public class JwtService {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + EXPIRATION);
 
-        return Jwts.builder()
+        var builder = Jwts.builder()
                 .subject(userDetails.getUsername())
-                .claim("roles", roles)
+                .claim("roles", roles);
+        // User id and token version let JwtAuthenticationFilter authenticate without loading the user
+        if (userDetails instanceof BankUserDetails bankUser) {
+            builder.claim(USER_ID_CLAIM, bankUser.getId())
+                    .claim(TOKEN_VERSION_CLAIM, bankUser.getTokenVersion());
+        }
+        return builder
+                // Unique per token so a single session can be revoked (TokenRevocationList)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(now)
                 .expiration(expiryDate) // Use .expiration()
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Checks signature and expiry once and returns every claim the filter needs. Repeat
+     * calls with the same token are answered from a cache keyed by the token's SHA-256,
+     * so the HMAC check and JSON parsing run once per token rather than once per request.
+     * Raw tokens are never kept in memory.
+     *
+     * @throws IllegalArgumentException when the token is malformed, forged or expired
+     */
+    public VerifiedToken verify(String token) {
+        String key = sha256(token);
+        VerifiedToken cached = verified.getIfPresent(key);
+        if (cached != null && (cached.expiresAt() == null || cached.expiresAt().after(new Date()))) {
+            return cached;
+        }
+        VerifiedToken fresh = verifyUncached(token);
+        verified.put(key, fresh);
+        return fresh;
+    }
+
+    /** Signature check and parse without the cache; what every request paid before. */
+    public VerifiedToken verifyUncached(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                claims.get(TOKEN_VERSION_CLAIM, Long.class),
+                rolesOf(claims),
+                claims.getExpiration());
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
-    @SuppressWarnings("unchecked") // This is fine
     public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
+        return rolesOf(extractAllClaims(token));
+    }
+
+    private static List<String> rolesOf(Claims claims) {
         Object rolesObj = claims.get("roles");
         if (rolesObj instanceof List<?>) {
             return ((List<?>) rolesObj).stream()
@@ -75,11 +165,7 @@ public class JwtService {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid or expired JWT", e);
         }
@@ -95,4 +181,21 @@ public class JwtService {
         String username = extractUsername(token);
         return username != null && username.equals(userDetails.getUsername()) && !isTokenExpired(token);
     }
-}
\ No newline at end of file
+
+    private static int estimateBytes(String key, VerifiedToken token) {
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * key.length();
+        if (token.tokenId() != null) bytes += 40 + 2L * token.tokenId().length();
+        if (token.username() != null) bytes += 40 + 2L * token.username().length();
+        for (String role : token.roles()) bytes += 40 + 2L * role.length();
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
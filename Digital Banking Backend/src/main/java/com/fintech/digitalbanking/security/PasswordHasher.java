@@ -0,0 +1,110 @@
+package com.fintech.digitalbanking.security;
+
+import com.fintech.digitalbanking.exception.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt hashing and verification on a small pool sized to the CPU, off the request
+ * threads. The queue in front of it is bounded: once it is full new work is rejected with
+ * ServiceOverloadedException (503) straight away, so a login storm cannot pile up requests
+ * or starve the rest of the API of CPU and threads.
+ */
+@Component
+@RequiredArgsConstructor
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${banking.security.password-hashing.threads:0}")
+    private int threads = 0;
+
+    // Per thread, so the longest queue wait is roughly this many hashes whatever the core count
+    @Value("${banking.security.password-hashing.queue-per-thread:8}")
+    private int queuePerThread = 8;
+
+    @Value("${banking.security.bcrypt-strength:10}")
+    private int strength = 10;
+
+    private ThreadPoolExecutor executor;
+    // Verified against when the username does not exist, so both cases cost one BCrypt check
+    private String dummyHash;
+
+    /** Outcome of a login check; upgradedHash is set when the stored hash used a different cost. */
+    public record Verification(boolean matches, String upgradedHash) {
+    }
+
+    @PostConstruct
+    void start() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(size * queuePerThread),
+                task -> {
+                    Thread thread = new Thread(task, "password-hasher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /** Checks the password and, if it matches a hash of another cost, rehashes it in the same task. */
+    public CompletableFuture<Verification> verify(CharSequence rawPassword, String storedHash) {
+        return submit(() -> {
+            if (!passwordEncoder.matches(rawPassword, storedHash)) {
+                return new Verification(false, null);
+            }
+            return new Verification(true, needsRehash(storedHash) ? passwordEncoder.encode(rawPassword) : null);
+        });
+    }
+
+    /** Burns the same CPU as a real check and never matches; for unknown usernames. */
+    public CompletableFuture<Verification> verifyNothing(CharSequence rawPassword) {
+        return submit(() -> {
+            passwordEncoder.matches(rawPassword, dummyHash);
+            return new Verification(false, null);
+        });
+    }
+
+    /** True when the hash was made with a BCrypt cost other than the configured one. */
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null) return false;
+        Matcher m = BCRYPT_COST.matcher(storedHash);
+        return m.find() && Integer.parseInt(m.group(1)) != strength;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException("Too many login attempts in progress, please retry shortly", 1);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.fintech.digitalbanking.security;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.digitalbanking.dto.BatchTransferRequest;
+import com.fintech.digitalbanking.exception.GlobalExceptionHandler;
+import com.fintech.digitalbanking.security.RateLimiter.RouteGroup;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies RateLimiter ahead of JwtAuthenticationFilter, so a client over its limit is
+ * turned away with 429 and Retry-After before any authentication or database work.
+ *
+ * Login and registration are limited per client IP. Postings, the user's and the admin
+ * ones alike, are limited per user: the bearer token is verified here (the result is
+ * cached, so JwtAuthenticationFilter's own check is a cache hit) and a missing or invalid
+ * token falls back to the IP, so a forged token cannot spend another user's allowance.
+ * A batch transfer costs one permit per transfer it carries, counted from the body (which
+ * is then replayed to the controller) and capped at BatchTransferRequest.MAX_TRANSFERS.
+ * The IP is the servlet remote address; behind a proxy set
+ * server.forward-headers-strategy so it is the client's.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final String BATCH_PATH = "/transactions/transfer/batch";
+
+    private final RateLimiter rateLimiter;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = rateLimiter.isEnabled() ? routeGroupOf(request) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = group == RouteGroup.AUTH ? "ip:" + request.getRemoteAddr() : userKey(request);
+        int permits = 1;
+        if (group == RouteGroup.MONEY && request.getRequestURI().endsWith(BATCH_PATH)) {
+            CachedBodyRequest cached = new CachedBodyRequest(request);
+            permits = transfersIn(cached.body);
+            request = cached;
+        }
+        long waitNanos = rateLimiter.tryAcquire(group, key, permits);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+            log.debug("Rate limited {} on {} for {}s", key, request.getRequestURI(), retryAfterSeconds);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getWriter(), GlobalExceptionHandler.errorBody(
+                    "Rate limit exceeded, retry in " + retryAfterSeconds + " seconds", HttpStatus.TOO_MANY_REQUESTS));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static RouteGroup routeGroupOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/auth/")) {
+            return RouteGroup.AUTH;
+        }
+        if ((path.startsWith("/api/user/transactions/") || path.startsWith("/api/admin/transactions/"))
+                && "POST".equals(request.getMethod())) {
+            return RouteGroup.MONEY;
+        }
+        return null;
+    }
+
+    private String userKey(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                VerifiedToken verified = jwtService.verify(authHeader.substring(7));
+                return verified.userId() != null ? "user:" + verified.userId() : "user:" + verified.username();
+            } catch (Exception e) {
+                // Rejected again, with the real response, by JwtAuthenticationFilter
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Entries of the top-level "transfers" array, 1 if the body has none or is not JSON
+     * (the controller then answers 400) and at most BatchTransferRequest.MAX_TRANSFERS.
+     */
+    private int transfersIn(byte[] body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return 1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("transfers".equals(field) && value == JsonToken.START_ARRAY) {
+                    int transfers = 0;
+                    while (transfers < BatchTransferRequest.MAX_TRANSFERS && parser.nextToken() != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                        transfers++;
+                    }
+                    return Math.max(1, transfers);
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            log.debug("Unreadable batch body, charged as one posting: {}", e.getMessage());
+        }
+        return 1;
+    }
+
+    /** Reads the body once so it can be both counted here and bound by the controller. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("The body is already read");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.fintech.digitalbanking.security;
+
+import com.fintech.digitalbanking.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Token buckets per route group and client key (IP or user id).
+ *
+ * Each bucket is a single atomic long, and the buckets of a group sit in a Caffeine cache,
+ * whose hits are lock-free hash table reads, so concurrent requests for different keys
+ * never contend and requests for the same key contend on one CAS. Buckets idle for
+ * banking.rate-limit.idle-seconds (and never less than a full refill) are evicted; the
+ * cache is also capped at banking.rate-limit.max-keys per group, so a flood of distinct
+ * keys cannot grow the heap without bound.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    /** Routes sharing one set of limits. */
+    public enum RouteGroup {
+        /** /api/auth/**, keyed by client IP */
+        AUTH,
+        /**
+         * Postings under /api/user/transactions and /api/admin/transactions, keyed by user id
+         * (client IP without a valid token); a batch costs one permit per transfer
+         */
+        MONEY
+    }
+
+    @Value("${banking.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${banking.rate-limit.max-keys:200000}")
+    private long maxKeys = 200_000;
+
+    @Value("${banking.rate-limit.idle-seconds:600}")
+    private long idleSeconds = 600;
+
+    @Value("${banking.rate-limit.auth.capacity:10}")
+    private int authCapacity = 10;
+
+    @Value("${banking.rate-limit.auth.refill-per-second:0.5}")
+    private double authRefillPerSecond = 0.5;
+
+    @Value("${banking.rate-limit.money.capacity:20}")
+    private int moneyCapacity = 20;
+
+    @Value("${banking.rate-limit.money.refill-per-second:5}")
+    private double moneyRefillPerSecond = 5;
+
+    private final Map<RouteGroup, Group> groups = new EnumMap<>(RouteGroup.class);
+
+    private record Group(Cache<String, TokenBucket> buckets, long intervalNanos, int capacity) {
+    }
+
+    @PostConstruct
+    void start() {
+        groups.put(RouteGroup.AUTH, group(authCapacity, authRefillPerSecond));
+        groups.put(RouteGroup.MONEY, group(moneyCapacity, moneyRefillPerSecond));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Takes one permit for the key; returns 0 if allowed, otherwise nanoseconds until the next permit. */
+    public long tryAcquire(RouteGroup routeGroup, String key) {
+        return tryAcquire(routeGroup, key, 1);
+    }
+
+    /** Takes permits for the key at once, see TokenBucket; returns 0 if allowed, otherwise nanoseconds to wait. */
+    public long tryAcquire(RouteGroup routeGroup, String key, int permits) {
+        Group group = groups.get(routeGroup);
+        long now = System.nanoTime();
+        TokenBucket bucket = group.buckets().getIfPresent(key);
+        if (bucket == null) {
+            // Only first requests pay for the capturing lambda and the compute
+            bucket = group.buckets().get(key, k -> new TokenBucket(now));
+        }
+        return bucket.tryAcquire(now, group.intervalNanos(), group.capacity(), permits);
+    }
+
+    /** Number of buckets currently held for the group (approximate while evictions are pending). */
+    public long size(RouteGroup routeGroup) {
+        return groups.get(routeGroup).buckets().estimatedSize();
+    }
+
+    private Group group(int capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalStateException("Rate limit needs capacity >= 1 and refill-per-second > 0");
+        }
+        long intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        // Evicting a bucket before it has refilled would hand the client a fresh burst early
+        long refillSeconds = (long) Math.ceil(capacity / refillPerSecond);
+        Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofSeconds(Math.max(idleSeconds, refillSeconds)))
+                .build();
+        return new Group(buckets, intervalNanos, capacity);
+    }
+}
@@ -0,0 +1,151 @@
+package com.fintech.digitalbanking.security;
+
+import com.fintech.digitalbanking.entity.RevokedToken;
+import com.fintech.digitalbanking.repository.RevokedTokenRepository;
+import com.fintech.digitalbanking.util.BloomFilter;
+import com.fintech.digitalbanking.util.CacheLoads;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Individually revoked JWTs (by jti), checked on every authenticated request.
+ *
+ * The revoked_tokens table is the record. Each node keeps a Bloom filter of its unexpired
+ * rows, so the common case - a token that was never revoked - is answered in memory
+ * without locks or allocation. Only a filter hit is confirmed exactly, and the answer is
+ * cached for one refresh interval.
+ *
+ * The filter is rebuilt from the table every banking.security.revocation.refresh-seconds,
+ * which also purges expired rows. A revocation made on this node is visible here at
+ * once; one made on another node shows up at this node's next rebuild, the same bound
+ * UserStateCache gives for disabled users.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${banking.security.revocation.refresh-seconds:30}")
+    private long refreshSeconds = 30;
+
+    // Filter capacity floor; rebuilds size for twice the current row count above that
+    @Value("${banking.security.revocation.min-capacity:10000}")
+    private long minCapacity = 10_000;
+
+    @Value("${banking.security.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate = 0.001;
+
+    private volatile BloomFilter filter;
+    // Exact answers for filter hits, so a revoked token replayed in a loop costs one query per interval
+    private AsyncCache<String, Boolean> confirmations;
+    // jti -> commit time of revocations made here, re-added after a rebuild that may have missed them
+    private final Map<String, Long> revokedHere = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        confirmations = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .buildAsync();
+        // Synchronous first load: until it is done no revocation would be seen
+        rebuild();
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "token-revocation-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                // Keep the previous filter; it still holds every revocation it knew about
+                log.warn("Token revocation refresh failed", e);
+            }
+        }, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    /** True if the token with this jti has been revoked. */
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        return CacheLoads.getOrLoad(confirmations, tokenId, revokedTokenRepository::existsById);
+    }
+
+    /** Records the revocation; this node rejects the token once the surrounding transaction commits. */
+    public void revoke(VerifiedToken token) {
+        if (token.tokenId() == null || token.userId() == null) {
+            throw new IllegalArgumentException("Token has no id or user id and cannot be revoked individually");
+        }
+        LocalDateTime expiresAt = token.expiresAt() != null
+                ? LocalDateTime.ofInstant(token.expiresAt().toInstant(), ZoneId.systemDefault())
+                : LocalDateTime.now().plusDays(1);
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(token.tokenId())
+                .userId(token.userId())
+                .expiresAt(expiresAt)
+                .build());
+
+        Runnable publish = () -> {
+            revokedHere.put(token.tokenId(), System.currentTimeMillis());
+            filter.add(token.tokenId());
+            confirmations.put(token.tokenId(), CompletableFuture.completedFuture(true));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    /** Reloads the filter from the table and purges rows whose tokens have expired. */
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        List<String> active = revokedTokenRepository.findActiveTokenIds(now);
+
+        BloomFilter next = BloomFilter.create(Math.max(minCapacity, 2L * active.size()), falsePositiveRate);
+        active.forEach(next::add);
+        filter = next;
+
+        // A revocation committed here after the query started went into the old filter only
+        revokedHere.forEach((tokenId, committedAt) -> next.add(tokenId));
+        revokedHere.values().removeIf(committedAt -> committedAt < startedAt);
+        log.debug("Token revocation filter rebuilt with {} entries", active.size());
+    }
+}
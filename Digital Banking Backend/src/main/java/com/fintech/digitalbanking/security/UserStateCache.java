@@ -0,0 +1,66 @@
+package com.fintech.digitalbanking.security;
+
+import com.fintech.digitalbanking.dto.UserState;
+import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.util.CacheLoads;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Enabled flag and token version per user id, so a stateless JWT can be checked without
+ * a database query. Changes made on this node are written through after commit; other
+ * nodes pick them up when their entry expires (banking.security.user-state-cache.ttl-seconds).
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStateCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${banking.security.user-state-cache.max-size:100000}")
+    private long maxSize = 100_000;
+
+    @Value("${banking.security.user-state-cache.ttl-seconds:30}")
+    private long ttlSeconds = 30;
+
+    private AsyncCache<Long, UserState> states;
+
+    @PostConstruct
+    void initCache() {
+        states = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .buildAsync();
+    }
+
+    /** Empty when the user no longer exists. */
+    public Optional<UserState> get(Long userId) {
+        // The query runs outside the cache's lock (see CacheLoads); a put() for the same user
+        // meanwhile replaces the pending entry, so what this load read is never cached over it
+        return Optional.ofNullable(CacheLoads.getOrLoad(states, userId, id -> userRepository.findStateById(id).orElse(null)));
+    }
+
+    /** Publishes the new state once the current transaction commits, or right away outside one. */
+    public void putAfterCommit(UserState state) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    states.put(state.id(), CompletableFuture.completedFuture(state));
+                }
+            });
+        } else {
+            states.put(state.id(), CompletableFuture.completedFuture(state));
+        }
+    }
+}
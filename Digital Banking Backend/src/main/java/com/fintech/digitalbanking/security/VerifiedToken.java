@@ -0,0 +1,17 @@
+package com.fintech.digitalbanking.security;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked. userId and tokenVersion
+ * are null on tokens issued before they were added; those go through the user lookup.
+ * tokenId (the jti claim) is what TokenRevocationList checks; also null on older tokens.
+ */
+public record VerifiedToken(String tokenId, String username, Long userId, Long tokenVersion, List<String> roles,
+                            Date expiresAt) {
+
+    public boolean isStateless() {
+        return userId != null && tokenVersion != null;
+    }
+}
@@ -0,0 +1,201 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.AccountSnapshot;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-node cache of account snapshots (balance, status, owner, version) and of each
+ * user's account ids, for the read endpoints the frontend polls.
+ *
+ * Every posting or status change evicts the accounts it touched once its transaction
+ * commits. A load notes the eviction epoch of its key before reading and only stores
+ * the result if no eviction ran in between, so a read that raced a commit cannot put
+ * the old balance back. Loads run the repository query in its own short transaction
+ * (callers must not hold one, see AccountService), which therefore always starts after
+ * the last eviction and sees the last commit.
+ *
+ * Entries are keyed by account id alone, not by (id, version). A reader does not know an
+ * account's current version without reading its row, which is the query the cache is
+ * there to save, and a hot account's slot postings change its balance without touching
+ * the row version at all. Freshness comes from the after-commit eviction by id; the
+ * version only decides between two overlapping loads.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountCache {
+
+    private static final int EPOCH_STRIPES = 1024;
+
+    private final AccountRepository accountRepository;
+    private final UserRepository userRepository;
+
+    @Value("${banking.account-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${banking.account-cache.max-size:50000}")
+    private long maxSize = 50_000;
+
+    @Value("${banking.account-cache.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    private Cache<Long, AccountSnapshot> snapshots;
+    private Cache<Long, OwnerAccounts> owners;
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+
+    /** A user's account ids in id order, and which one is selected. */
+    public record OwnerAccounts(List<Long> accountIds, Long selectedAccountId) {
+    }
+
+    @PostConstruct
+    void initCache() {
+        snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        owners = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<AccountSnapshot> get(Long accountId) {
+        return Optional.ofNullable(getAll(List.of(accountId)).get(accountId));
+    }
+
+    /** Snapshots of the accounts that exist, in the order asked for; misses are loaded with one query. */
+    public Map<Long, AccountSnapshot> getAll(Collection<Long> accountIds) {
+        Map<Long, AccountSnapshot> found = new LinkedHashMap<>();
+        if (enabled) {
+            found.putAll(snapshots.getAllPresent(accountIds));
+        }
+
+        List<Long> missing = new ArrayList<>();
+        for (Long id : accountIds) {
+            if (!found.containsKey(id)) missing.add(id);
+        }
+        if (!missing.isEmpty()) {
+            long[] seen = new long[missing.size()];
+            for (int i = 0; i < seen.length; i++) seen[i] = epochs.get(stripe(missing.get(i)));
+            List<AccountSnapshot> loaded = accountRepository.findSnapshotsByIdIn(missing);
+            for (AccountSnapshot snapshot : loaded) {
+                found.put(snapshot.id(), snapshot);
+                if (enabled) {
+                    store(snapshot, seen[missing.indexOf(snapshot.id())]);
+                }
+            }
+        }
+
+        Map<Long, AccountSnapshot> ordered = new LinkedHashMap<>();
+        for (Long id : accountIds) {
+            AccountSnapshot snapshot = found.get(id);
+            if (snapshot != null) ordered.put(id, snapshot);
+        }
+        return ordered;
+    }
+
+    public OwnerAccounts getOwnerAccounts(Long userId) {
+        if (enabled) {
+            OwnerAccounts cached = owners.getIfPresent(userId);
+            if (cached != null) return cached;
+        }
+        // Owner keys share the epoch stripes with account ids; a collision only costs a skipped store
+        long seen = epochs.get(stripe(userId));
+        OwnerAccounts loaded = new OwnerAccounts(accountRepository.findIdsByOwnerId(userId),
+                userRepository.findSelectedAccountIdById(userId).orElse(null));
+        if (enabled) {
+            // Same check as store(): the compute holds the key while comparing, so an eviction
+            // either happened before (epoch moved, skip) or removes what we put afterwards
+            owners.asMap().compute(userId, (key, cached) -> epochs.get(stripe(key)) != seen ? cached : loaded);
+        }
+        return loaded;
+    }
+
+    private void store(AccountSnapshot snapshot, long seen) {
+        snapshots.asMap().compute(snapshot.id(), (id, cached) -> {
+            if (epochs.get(stripe(id)) != seen) return cached;
+            // Two overlapping loads: keep the higher row version
+            return cached != null && version(cached) > version(snapshot) ? cached : snapshot;
+        });
+    }
+
+    /** Evicts the accounts once the current transaction commits, or right away outside one. */
+    public void evictAccountsAfterCommit(Collection<Long> accountIds) {
+        if (!enabled || accountIds.isEmpty()) return;
+        List<Long> ids = List.copyOf(accountIds);
+        afterCommit(() -> ids.forEach(id -> {
+            epochs.incrementAndGet(stripe(id));
+            snapshots.invalidate(id);
+        }));
+    }
+
+    /** For account creation and selection, which change a user's OwnerAccounts. */
+    public void evictOwnerAfterCommit(Long userId) {
+        if (!enabled) return;
+        afterCommit(() -> {
+            epochs.incrementAndGet(stripe(userId));
+            owners.invalidate(userId);
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("accounts", describe(snapshots.stats(), snapshots.estimatedSize()));
+        stats.put("owners", describe(owners.stats(), owners.estimatedSize()));
+        return stats;
+    }
+
+    private static Map<String, Object> describe(CacheStats stats, long size) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", size);
+        out.put("hits", stats.hitCount());
+        out.put("misses", stats.missCount());
+        out.put("hitRate", stats.hitRate());
+        // Size/TTL evictions only; evictions after postings are not counted here
+        out.put("evictions", stats.evictionCount());
+        return out;
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (EPOCH_STRIPES - 1);
+    }
+
+    private static long version(AccountSnapshot snapshot) {
+        return snapshot.version() != null ? snapshot.version() : -1;
+    }
+}
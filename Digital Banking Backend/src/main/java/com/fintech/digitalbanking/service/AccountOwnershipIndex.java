@@ -0,0 +1,154 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.AccountOwnership;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.util.LongLongHashMap;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Account id -> owner id and account number -> account id, held in memory so ownership
+ * checks and transfer target resolution do not query the accounts table.
+ *
+ * Both mappings are fixed when an account is created (nothing reassigns an owner,
+ * renumbers or deletes an account), so an entry that is present always matches the
+ * database. The only way to be out of date is to miss an account, e.g. one created on
+ * another node: a miss is therefore always confirmed against the database and the row
+ * added. Absent accounts are not remembered, so a later insert is picked up on the next
+ * lookup.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountOwnershipIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountOwnershipIndex.class);
+
+    /** Returned by ownerOf() when the account does not exist. */
+    public static final long NO_OWNER = -1L;
+
+    private final AccountRepository accountRepository;
+
+    @Value("${banking.ownership-index.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${banking.ownership-index.warm-batch-size:10000}")
+    private int warmBatchSize = 10_000;
+
+    // Readers probe optimistically and only fall back to the read lock if a write overlapped
+    private final StampedLock lock = new StampedLock();
+    private final LongLongHashMap owners = new LongLongHashMap(1024);
+    private final Map<String, Long> idsByNumber = new ConcurrentHashMap<>();
+
+    /** Loads every account in id-ordered batches; lookups made before this finishes fall back to the database. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        long begin = System.nanoTime();
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<AccountOwnership> batch = accountRepository.findOwnershipAfter(afterId, Limit.of(warmBatchSize));
+            batch.forEach(this::add);
+            loaded += batch.size();
+            if (batch.size() < warmBatchSize) break;
+            afterId = batch.get(batch.size() - 1).id();
+        }
+        log.info("Ownership index warmed with {} accounts in {} ms", loaded, (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    /** Owner id of the account, or NO_OWNER if it does not exist. */
+    public long ownerOf(long accountId) {
+        if (enabled) {
+            long owner = probe(accountId);
+            if (owner != NO_OWNER) return owner;
+        }
+        return accountRepository.findOwnershipById(accountId)
+                .map(this::addAndGetOwner)
+                .orElse(NO_OWNER);
+    }
+
+    public boolean isOwnedBy(long accountId, long userId) {
+        return ownerOf(accountId) == userId;
+    }
+
+    /** Id of the account with this number, or null if there is none. */
+    public Long idOf(String accountNumber) {
+        if (enabled) {
+            Long id = idsByNumber.get(accountNumber);
+            if (id != null) return id;
+        }
+        return accountRepository.findOwnershipByAccountNumber(accountNumber)
+                .map(this::addAndGetId)
+                .orElse(null);
+    }
+
+    /** Adds a newly created account once its transaction commits, so a rollback leaves no entry behind. */
+    public void addAfterCommit(AccountOwnership account) {
+        if (!enabled) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(account);
+                }
+            });
+        } else {
+            add(account);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return owners.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long probe(long accountId) {
+        long stamp = lock.tryOptimisticRead();
+        long owner = owners.get(accountId, NO_OWNER);
+        if (lock.validate(stamp)) return owner;
+        stamp = lock.readLock();
+        try {
+            return owners.get(accountId, NO_OWNER);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void add(AccountOwnership account) {
+        if (!enabled) return;
+        long stamp = lock.writeLock();
+        try {
+            owners.put(account.id(), account.ownerId());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        idsByNumber.put(account.accountNumber(), account.id());
+    }
+
+    private long addAndGetOwner(AccountOwnership account) {
+        add(account);
+        return account.ownerId();
+    }
+
+    private Long addAndGetId(AccountOwnership account) {
+        add(account);
+        return account.id();
+    }
+}
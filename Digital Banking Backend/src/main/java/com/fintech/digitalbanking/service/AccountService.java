@@ -1,5 +1,11 @@
 package com.fintech.digitalbanking.service;
 
+import com.fintech.digitalbanking.dto.AccountDto;
+import com.fintech.digitalbanking.dto.AccountOwnership;
+import com.fintech.digitalbanking.dto.AccountSnapshot;
+import com.fintech.digitalbanking.dto.BalanceAsOfDto;
+import com.fintech.digitalbanking.dto.StatementPage;
+import com.fintech.digitalbanking.dto.StatementRequest;
 import com.fintech.digitalbanking.entity.Account;
 import com.fintech.digitalbanking.entity.AccountType;
 import com.fintech.digitalbanking.entity.User;
@@ -25,15 +31,22 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final SecurityUtil securityUtil;
+    private final AccountCache accountCache;
+    private final AccountOwnershipIndex ownershipIndex;
+    private final LedgerEngine ledger;
+    private final HotAccountSlots hotAccounts;
+    private final JournalService journalService;
 
     private void validateAccountOwnership(Long accountId) {
         if (securityUtil.isAdmin())
             return;
 
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RoleNotFoundException("Account not found with ID: " + accountId));
+        long ownerId = ownershipIndex.ownerOf(accountId);
+        if (ownerId == AccountOwnershipIndex.NO_OWNER) {
+            throw new RoleNotFoundException("Account not found with ID: " + accountId);
+        }
 
-        if (!account.getUser().getUsername().equals(securityUtil.getCurrentUsername())) {
+        if (ownerId != securityUtil.getCurrentUserId()) {
             throw new CustomAccessDeniedException("Access denied - account does not belong to current user");
         }
     }
@@ -55,14 +68,22 @@ public class AccountService {
             user.setSelectedAccountId(saved.getId());
             userRepository.save(user);
         }
+        accountCache.evictOwnerAfterCommit(user.getId());
+        ownershipIndex.addAfterCommit(new AccountOwnership(saved.getId(), user.getId(), saved.getAccountNumber()));
 
         return saved;
     }
 
-    @Transactional(readOnly = true)
-    public List<Account> getMyAccounts() {
-        User user = securityUtil.getCurrentUserEntity();
-        return accountRepository.findByUser(user);
+    //
+    // getMyAccounts, getBalance and getSelectedAccountBalance are polled by the frontend and
+    // served from AccountCache. They deliberately run WITHOUT a transaction: a cache miss
+    // must read in a fresh transaction, not in an older snapshot opened by the caller.
+    //
+    public List<AccountDto> getMyAccounts() {
+        AccountCache.OwnerAccounts mine = accountCache.getOwnerAccounts(securityUtil.getCurrentUserId());
+        return accountCache.getAll(mine.accountIds()).values().stream()
+                .map(this::toDto)
+                .toList();
     }
 
     //
@@ -77,12 +98,54 @@ public class AccountService {
         return accountRepository.findByUser(user);
     }
 
-    @Transactional(readOnly = true)
     public BigDecimal getBalance(Long accountId) {
+        AccountSnapshot account = accountCache.get(accountId)
+                .orElseThrow(() -> new RoleNotFoundException("Account not found with ID: " + accountId));
+        if (!securityUtil.isAdmin() && !account.ownerId().equals(securityUtil.getCurrentUserId())) {
+            throw new CustomAccessDeniedException("Access denied - account does not belong to current user");
+        }
+        return currentBalance(account);
+    }
+
+    /** In LEDGER mode the row can trail the engine by postings not yet projected. */
+    private BigDecimal currentBalance(AccountSnapshot account) {
+        return ledger.balanceOf(account.id()).orElse(account.balance());
+    }
+
+    /** Same as the snapshot balance, for callers holding an entity (admin views); includes hot-account slots. */
+    public BigDecimal currentBalance(Account account) {
+        return ledger.balanceOf(account.getId()).orElseGet(() -> hotAccounts.totalBalance(account));
+    }
+
+    /** The account's journal legs with running balances, newest first. */
+    public StatementPage getStatement(Long accountId, StatementRequest request) {
         validateAccountOwnership(accountId);
-        Account account = accountRepository.findById(accountId)
+        return journalService.statement(accountId, request);
+    }
+
+    /** The account's balance as of a past instant, from the nearest balance checkpoint plus the legs after it. */
+    public BalanceAsOfDto getBalanceAsOf(Long accountId, LocalDateTime at) {
+        validateAccountOwnership(accountId);
+        JournalService.BalanceAsOf balance = journalService.balanceAsOf(accountId, at);
+        return BalanceAsOfDto.builder()
+                .accountId(accountId)
+                .asOf(at)
+                .balance(balance.balance())
+                .lastTransactionId(balance.lastTransactionId())
+                .build();
+    }
+
+    /**
+     * Opts an account into (slots > 1) or out of (0 or 1) hot-account balance slots. The row
+     * is locked so no posting on it runs meanwhile; the total balance does not change.
+     */
+    @Transactional
+    public void setBalanceSlots(Long accountId, int slots) {
+        Account account = accountRepository.findByIdForUpdate(accountId)
                 .orElseThrow(() -> new RoleNotFoundException("Account not found with ID: " + accountId));
-        return account.getBalance();
+        hotAccounts.resize(account, slots);
+        accountRepository.save(account);
+        accountCache.evictAccountsAfterCommit(List.of(accountId));
     }
 
     @Transactional
@@ -96,6 +159,8 @@ public class AccountService {
 
         account.setActive(false);
         accountRepository.save(account);
+        accountCache.evictAccountsAfterCommit(List.of(accountId));
+        ledger.updateStatusAfterCommit(accountId, false);
     }
 
     @Transactional
@@ -109,6 +174,8 @@ public class AccountService {
 
         account.setActive(true);
         accountRepository.save(account);
+        accountCache.evictAccountsAfterCommit(List.of(accountId));
+        ledger.updateStatusAfterCommit(accountId, true);
     }
 
     @Transactional
@@ -117,18 +184,27 @@ public class AccountService {
         User user = securityUtil.getCurrentUserEntity();
         user.setSelectedAccountId(accountId);
         userRepository.save(user);
+        accountCache.evictOwnerAfterCommit(user.getId());
     }
 
-    @Transactional(readOnly = true)
     public BigDecimal getSelectedAccountBalance() {
-        User user = securityUtil.getCurrentUserEntity();
-        if (user.getSelectedAccountId() == null) {
+        AccountCache.OwnerAccounts mine = accountCache.getOwnerAccounts(securityUtil.getCurrentUserId());
+        if (mine.selectedAccountId() == null) {
             throw new CustomAccessDeniedException("No account selected. Please create or select an account.");
         }
 
-        Account account = accountRepository.findById(user.getSelectedAccountId())
-                .orElseThrow(() -> new RoleNotFoundException("Selected account not found"));
-        return account.getBalance();
+        return currentBalance(accountCache.get(mine.selectedAccountId())
+                .orElseThrow(() -> new RoleNotFoundException("Selected account not found")));
+    }
+
+    private AccountDto toDto(AccountSnapshot a) {
+        return AccountDto.builder()
+                .id(a.id())
+                .accountNumber(a.accountNumber())
+                .type(a.accountType().name())
+                .balance(currentBalance(a))
+                .active(a.active())
+                .build();
     }
 
     private String generateAccountNumber() {
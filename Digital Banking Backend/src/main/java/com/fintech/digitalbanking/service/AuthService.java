@@ -8,52 +8,83 @@ import com.fintech.digitalbanking.exception.InvalidCredentialsException;
 import com.fintech.digitalbanking.exception.UserAlreadyExistsException;
 import com.fintech.digitalbanking.repository.RoleRepository; // ADDED
 import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.security.BankUserDetails;
 import com.fintech.digitalbanking.security.JwtService;
+import com.fintech.digitalbanking.security.PasswordHasher;
+import com.fintech.digitalbanking.security.TokenRevocationList;
+import com.fintech.digitalbanking.security.VerifiedToken;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+/**
+ * Login and registration. The user lookup runs on the request thread and the BCrypt work
+ * on PasswordHasher's pool; what follows the hash (rehash update, insert, token signing)
+ * continues on the application task executor, so the CPU-sized hasher pool only ever
+ * hashes and never waits on the database. The controller returns the future so no
+ * request thread waits either.
+ */
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository; // ADDED
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHasher passwordHasher;
+    private final CustomUserDetailsService userDetailsService;
     private final JwtService jwtService;
+    private final TokenRevocationList revocationList;
+    private final Executor applicationTaskExecutor;
 
     /**
      * Login an existing user.
      */
-    public AuthResponse login(AuthRequest request) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-            );
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+    public CompletableFuture<AuthResponse> login(AuthRequest request) {
+        Optional<User> found = userRepository.findByUsername(request.getUsername());
+        if (found.isEmpty()) {
+            // Same BCrypt cost as a wrong password, so timing does not reveal which usernames exist
+            return passwordHasher.verifyNothing(request.getPassword()).thenApply(ignored -> {
+                throw new InvalidCredentialsException("Invalid username or password");
+            });
+        }
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtService.generateToken(userDetails);
+        BankUserDetails user = userDetailsService.toUserDetails(found.get());
+        return passwordHasher.verify(request.getPassword(), user.getPassword()).thenApplyAsync(result -> {
+            if (!result.matches()) {
+                throw new InvalidCredentialsException("Invalid username or password");
+            }
+            if (!user.isEnabled()) {
+                throw new InvalidCredentialsException("User account is disabled");
+            }
+            if (result.upgradedHash() != null) {
+                // Stored hash used another BCrypt cost; replace it now that we know the password
+                userRepository.replacePasswordHash(user.getId(), user.getPassword(), result.upgradedHash());
+            }
+            return new AuthResponse(jwtService.generateToken(user));
+        }, applicationTaskExecutor);
+    }
 
-            return new AuthResponse(token);
-        } catch (BadCredentialsException e) {
-            throw new InvalidCredentialsException("Invalid username or password", e);
+    /**
+     * Revokes the presented token only; other sessions of the user stay signed in.
+     */
+    public void logout(String token) {
+        VerifiedToken verified;
+        try {
+            verified = jwtService.verify(token);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCredentialsException("Invalid or expired token", e);
         }
+        revocationList.revoke(verified);
     }
 
     /**
      * Register a new user (defaults to ROLE_USER).
      */
-    public AuthResponse register(AuthRequest request) {
+    public CompletableFuture<AuthResponse> register(AuthRequest request) {
         if (userRepository.findByUsername(request.getUsername()).isPresent()) {
             throw new UserAlreadyExistsException("Username already exists: " + request.getUsername());
         }
@@ -62,24 +93,17 @@ public class AuthService {
         Role userRole = roleRepository.findByName("ROLE_USER")
                 .orElseThrow(() -> new RuntimeException("Error: Default role ROLE_USER not found."));
 
-        User user = User.builder()
-                .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .enabled(true)
-                .roles(Set.of(userRole)) // CHANGED: Use the fetched role
-                .build();
-
-        userRepository.save(user);
-
-        // Authenticate after registration
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String token = jwtService.generateToken(userDetails);
+        return passwordHasher.encode(request.getPassword()).thenApplyAsync(hash -> {
+            User user = userRepository.save(User.builder()
+                    .username(request.getUsername())
+                    .password(hash)
+                    .enabled(true)
+                    .roles(Set.of(userRole)) // CHANGED: Use the fetched role
+                    .build());
 
-        return new AuthResponse(token);
+            // The password was hashed from this very request, so there is nothing to verify:
+            // issue the token directly instead of running BCrypt a second time
+            return new AuthResponse(jwtService.generateToken(userDetailsService.toUserDetails(user)));
+        }, applicationTaskExecutor);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,161 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.entity.BalanceCheckpoint;
+import com.fintech.digitalbanking.repository.BalanceCheckpointRepository;
+import com.fintech.digitalbanking.repository.JournalEntryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshots account balances so balance-as-of reads (JournalService.balanceAsOf) only
+ * replay the legs after the nearest checkpoint: their cost is bounded by how much an
+ * account posts in one interval, not by how old it is.
+ *
+ * Every interval-seconds a run claims the committed legs no run has counted yet (see
+ * JournalEntryRepository.claimForCheckpoint) and writes one checkpoint per account they
+ * touch, as of its cutoff. The cutoff trails now by settle-seconds, and in LEDGER mode
+ * also stays before the oldest record not projected yet. Claiming by commit rather than
+ * by posted_at means a leg that commits after the run covering its time is still picked
+ * up: the next run drops the account's checkpoints from that leg on and works its
+ * balance out again. Each account's checkpoint is computed in one REPEATABLE READ
+ * snapshot, and legs without a running balance (hot-account slot and ATOMIC postings)
+ * get one from the checkpoint they lead up to.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+public class BalanceCheckpointer {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointer.class);
+    private static final int CHUNK_SIZE = 500;
+
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final JournalService journalService;
+    private final LedgerEngine ledger;
+    private final TransactionTemplate transactionTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${banking.checkpoints.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${banking.checkpoints.interval-seconds:300}")
+    private long intervalSeconds = 300;
+
+    @Value("${banking.checkpoints.settle-seconds:60}")
+    private long settleSeconds = 60;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "balance-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (RuntimeException e) {
+                // Accounts left without this run's checkpoint are checkpointed by the next one
+                log.warn("Balance checkpoint run failed", e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    /** One run up to the settled cutoff; returns the number of checkpoints written. */
+    public int checkpoint() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(settleSeconds).truncatedTo(ChronoUnit.MICROS);
+        Optional<LocalDateTime> unprojected = ledger.oldestUnprojected();
+        if (unprojected.isPresent() && !unprojected.get().isAfter(cutoff)) {
+            cutoff = unprojected.get().minus(1, ChronoUnit.MICROS);
+        }
+        return checkpointUpTo(cutoff);
+    }
+
+    /**
+     * Checkpoints every account with legs claimed by this run, as of cutoff. The legs are
+     * claimed under the progress row lock, so concurrent runs never count the same one;
+     * the checkpoints then go in chunks of their own. A chunk that fails hands its
+     * accounts' claims, and those of the chunks after it, back to the next run.
+     * upTo is cut to the microseconds the timestamp columns keep, so the claims stamped
+     * with it are found again by value.
+     */
+    public int checkpointUpTo(LocalDateTime upTo) {
+        LocalDateTime cutoff = upTo.truncatedTo(ChronoUnit.MICROS);
+        Optional<LocalDateTime> previous = transactionTemplate.execute(status -> {
+            Optional<LocalDateTime> last = checkpointRepository.lockProgress();
+            if (last.isPresent() && !cutoff.isAfter(last.get())) return null;
+            journalEntryRepository.claimForCheckpoint(cutoff);
+            checkpointRepository.updateProgress(cutoff);
+            return last;
+        });
+        if (previous == null) return 0;
+
+        Map<Long, LocalDateTime> claimed = journalEntryRepository.findAccountsClaimedBy(cutoff);
+        List<Long> accountIds = new ArrayList<>(claimed.keySet());
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        for (int from = 0; from < accountIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = accountIds.subList(from, Math.min(from + CHUNK_SIZE, accountIds.size()));
+            try {
+                snapshot.executeWithoutResult(status -> checkpointRepository.insertAll(chunk.stream()
+                        .map(accountId -> checkpoint(accountId, claimed.get(accountId), previous.orElse(null), cutoff))
+                        .toList()));
+            } catch (RuntimeException e) {
+                journalEntryRepository.releaseClaims(cutoff, accountIds.subList(from, accountIds.size()));
+                throw e;
+            }
+        }
+        if (!accountIds.isEmpty()) log.debug("Wrote {} balance checkpoints as of {}", accountIds.size(), cutoff);
+        return accountIds.size();
+    }
+
+    /**
+     * The account's checkpoint as of cutoff. earliest is the oldest posted_at among its
+     * newly claimed legs; at or before previous it is a late leg, so the checkpoints and
+     * running balances from there on were worked out without it and are done again.
+     */
+    private BalanceCheckpoint checkpoint(long accountId, LocalDateTime earliest, LocalDateTime previous, LocalDateTime cutoff) {
+        boolean late = previous != null && !earliest.isAfter(previous);
+        if (late) {
+            checkpointRepository.deleteFrom(accountId, earliest);
+            journalEntryRepository.clearBalances(accountId, earliest, cutoff);
+        }
+        JournalService.BalanceAsOf balance = journalService.balanceAsOf(accountId, cutoff);
+        journalService.fillRunningBalances(accountId, late ? earliest.minus(1, ChronoUnit.MICROS) : previous, cutoff,
+                balance.balance());
+        return BalanceCheckpoint.builder()
+                .accountId(accountId)
+                .asOf(cutoff)
+                .balance(balance.balance())
+                .lastTransactionId(balance.lastTransactionId())
+                .build();
+    }
+}
@@ -0,0 +1,257 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.BatchTransferResponse;
+import com.fintech.digitalbanking.dto.TransferLegResult;
+import com.fintech.digitalbanking.dto.TransferRequest;
+import com.fintech.digitalbanking.entity.JournalEntry;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.BatchPostingRepository;
+import com.fintech.digitalbanking.repository.BatchPostingRepository.LockedAccount;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.util.SecurityUtil;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Posts many transfers (payroll, merchant payouts) with one lock statement, one batched
+ * balance UPDATE and batched Transaction INSERTs per chunk (Hibernate JDBC batching,
+ * possible because ids come from a pooled sequence) plus one batch of journal legs,
+ * instead of a transaction per transfer.
+ * A leg that cannot be posted is rejected on its own; the rest of its chunk still commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchTransferService.class);
+
+    private final BatchPostingRepository batchPostingRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockRetryExecutor lockRetry;
+    private final SecurityUtil securityUtil;
+    private final AccountCache accountCache;
+    private final LedgerEngine ledger;
+    private final JournalService journalService;
+    private final HotAccountSlots hotAccounts;
+
+    @Value("${banking.posting.batch.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public BatchTransferResponse transferBatch(List<TransferRequest> legs) {
+        long started = System.nanoTime();
+        Long currentUserId = securityUtil.isAdmin() ? null : securityUtil.getCurrentUserId();
+
+        Set<String> targetNumbers = new HashSet<>();
+        legs.forEach(leg -> targetNumbers.add(leg.getTargetAccountNumber()));
+        Map<String, Long> targetIds = batchPostingRepository.findAccountIdsByNumber(targetNumbers);
+
+        TransferLegResult[] results = new TransferLegResult[legs.size()];
+        if (ledger.isEnabled()) {
+            postThroughLedger(legs, targetIds, currentUserId, results);
+        } else {
+            for (int from = 0; from < legs.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, legs.size());
+                postChunk(legs, from, to, targetIds, currentUserId, results);
+            }
+        }
+
+        int posted = 0;
+        for (TransferLegResult result : results) {
+            if (result.getStatus() == TransferLegResult.Status.POSTED) posted++;
+        }
+        log.info("Batch of {} transfers: {} posted, {} rejected in {} ms", legs.size(), posted,
+                legs.size() - posted, (System.nanoTime() - started) / 1_000_000);
+
+        return BatchTransferResponse.builder()
+                .total(legs.size())
+                .posted(posted)
+                .rejected(legs.size() - posted)
+                .results(List.of(results))
+                .build();
+    }
+
+    private void postChunk(List<TransferRequest> legs, int from, int to, Map<String, Long> targetIds,
+                           Long currentUserId, TransferLegResult[] results) {
+        // Legs that fail static checks never reach the database
+        Set<Long> involved = new TreeSet<>();
+        for (int i = from; i < to; i++) {
+            TransferRequest leg = legs.get(i);
+            Long targetId = targetIds.get(leg.getTargetAccountNumber());
+            if (targetId == null) {
+                results[i] = rejected(i, "Target account not found: " + leg.getTargetAccountNumber());
+            } else if (targetId.equals(leg.getSourceAccountId())) {
+                results[i] = rejected(i, "Cannot transfer to the same account.");
+            } else {
+                involved.add(leg.getSourceAccountId());
+                involved.add(targetId);
+            }
+        }
+        if (involved.isEmpty()) return;
+
+        try {
+            TransferLegResult[] outcomes = lockRetry.execute(() -> transactionTemplate.execute(status ->
+                    applyChunk(legs, from, to, targetIds, currentUserId, involved, results)));
+            for (int i = from; i < to; i++) {
+                if (results[i] == null) results[i] = outcomes[i - from];
+            }
+        } catch (DataAccessException e) {
+            log.warn("Batch chunk [{}, {}) failed: {}", from, to, e.getMostSpecificCause().getMessage());
+            for (int i = from; i < to; i++) {
+                if (results[i] == null) {
+                    results[i] = rejected(i, "Chunk could not be posted: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs inside the chunk transaction and may be retried, so it only reads the
+     * static rejections in {@code results} and returns its own outcomes for the chunk.
+     */
+    private TransferLegResult[] applyChunk(List<TransferRequest> legs, int from, int to, Map<String, Long> targetIds,
+                                           Long currentUserId, Set<Long> involved, TransferLegResult[] results) {
+        Map<Long, LockedAccount> accounts = batchPostingRepository.lockAccounts(involved);
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        accounts.forEach((id, account) -> balances.put(id, account.balance()));
+        Set<Long> swept = new HashSet<>();
+        List<Transaction> rows = new ArrayList<>();
+        List<BigDecimal[]> balancesAfter = new ArrayList<>();
+        List<TransferLegResult> postedLegs = new ArrayList<>();
+        TransferLegResult[] outcomes = new TransferLegResult[to - from];
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        for (int i = from; i < to; i++) {
+            if (results[i] != null) continue;
+            TransferRequest leg = legs.get(i);
+            LockedAccount source = accounts.get(leg.getSourceAccountId());
+            LockedAccount target = accounts.get(targetIds.get(leg.getTargetAccountNumber()));
+
+            String error = null;
+            if (source == null) {
+                error = "Source account not found: " + leg.getSourceAccountId();
+            } else if (currentUserId != null && !currentUserId.equals(source.ownerId())) {
+                error = "Access denied - account does not belong to user";
+            } else if (target == null) {
+                error = "Target account not found: " + leg.getTargetAccountNumber();
+            } else if (!source.active() || !target.active()) {
+                error = "Account is inactive";
+            } else if (!covers(source, leg.getAmount(), balances, swept)) {
+                error = "Insufficient balance";
+            }
+
+            if (error != null) {
+                outcomes[i - from] = rejected(i, error);
+                continue;
+            }
+            BigDecimal sourceBalance = balances.merge(source.id(), leg.getAmount(), BigDecimal::subtract);
+            BigDecimal targetBalance = balances.merge(target.id(), leg.getAmount(), BigDecimal::add);
+            balancesAfter.add(new BigDecimal[]{source.runningBalance(sourceBalance), target.runningBalance(targetBalance)});
+            rows.add(Transaction.builder()
+                    .type(TransactionType.TRANSFER)
+                    .amount(leg.getAmount())
+                    .timestamp(now)
+                    .sourceAccount(accountRepository.getReferenceById(source.id()))
+                    .targetAccount(accountRepository.getReferenceById(target.id()))
+                    .build());
+            outcomes[i - from] = TransferLegResult.builder().index(i).status(TransferLegResult.Status.POSTED).build();
+            postedLegs.add(outcomes[i - from]);
+        }
+
+        Map<Long, BigDecimal> changed = new HashMap<>();
+        balances.forEach((id, balance) -> {
+            if (balance.compareTo(accounts.get(id).balance()) != 0) changed.put(id, balance);
+        });
+        batchPostingRepository.updateBalances(changed);
+        accountCache.evictAccountsAfterCommit(changed.keySet());
+        // persist() only assigns ids from the pooled sequence; the INSERTs go out in JDBC batches at flush
+        List<Transaction> saved = transactionRepository.saveAll(rows);
+        List<JournalEntry> journalLegs = new ArrayList<>(saved.size() * 2);
+        for (int k = 0; k < saved.size(); k++) {
+            postedLegs.get(k).setTransactionId(saved.get(k).getId());
+            journalLegs.addAll(JournalService.legsOf(saved.get(k), balancesAfter.get(k)[0], balancesAfter.get(k)[1]));
+        }
+        journalService.recordAll(journalLegs);
+        return outcomes;
+    }
+
+    /**
+     * Whether the source's balance so far in the chunk covers a debit. A hot account that
+     * falls short has its slots swept into the row (locked by the chunk) once, so money
+     * sitting in slots is not refused.
+     */
+    private boolean covers(LockedAccount account, BigDecimal amount, Map<Long, BigDecimal> balances, Set<Long> swept) {
+        if (balances.get(account.id()).compareTo(amount) >= 0) return true;
+        if (account.balanceSlots() <= 1 || !swept.add(account.id())) return false;
+        return balances.merge(account.id(), hotAccounts.sweep(account.id()), BigDecimal::add).compareTo(amount) >= 0;
+    }
+
+    /**
+     * LEDGER mode: each leg is its own ledger posting. All legs are queued before any is
+     * awaited, so they share journal flushes instead of waiting for one each.
+     */
+    private void postThroughLedger(List<TransferRequest> legs, Map<String, Long> targetIds, Long currentUserId,
+                                   TransferLegResult[] results) {
+        List<CompletableFuture<Transaction>> postings = new ArrayList<>(legs.size());
+        for (int i = 0; i < legs.size(); i++) {
+            TransferRequest leg = legs.get(i);
+            Long targetId = targetIds.get(leg.getTargetAccountNumber());
+            CompletableFuture<Transaction> posting = null;
+            if (targetId == null) {
+                results[i] = rejected(i, "Target account not found: " + leg.getTargetAccountNumber());
+            } else if (targetId.equals(leg.getSourceAccountId())) {
+                results[i] = rejected(i, "Cannot transfer to the same account.");
+            } else {
+                try {
+                    posting = ledger.submit(LedgerEngine.Posting.transfer(leg.getSourceAccountId(), targetId,
+                            leg.getAmount(), currentUserId));
+                } catch (RuntimeException e) {
+                    results[i] = rejected(i, e.getMessage());
+                }
+            }
+            postings.add(posting);
+        }
+        for (int i = 0; i < legs.size(); i++) {
+            if (postings.get(i) == null) continue;
+            try {
+                Transaction tx = postings.get(i).join();
+                results[i] = TransferLegResult.builder()
+                        .index(i)
+                        .status(TransferLegResult.Status.POSTED)
+                        .transactionId(tx.getId())
+                        .build();
+            } catch (CompletionException e) {
+                results[i] = rejected(i, e.getCause().getMessage());
+            }
+        }
+    }
+
+    private static TransferLegResult rejected(int index, String error) {
+        return TransferLegResult.builder()
+                .index(index)
+                .status(TransferLegResult.Status.REJECTED)
+                .error(error)
+                .build();
+    }
+}
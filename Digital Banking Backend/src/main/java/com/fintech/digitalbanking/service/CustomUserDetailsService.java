@@ -3,6 +3,7 @@ package com.fintech.digitalbanking.service;
 import com.fintech.digitalbanking.entity.User;
 import com.fintech.digitalbanking.exception.RoleNotFoundException;
 import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.security.BankUserDetails;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
@@ -20,12 +21,17 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RoleNotFoundException("User not found: " + username));
+        return toUserDetails(user);
+    }
 
-        return new org.springframework.security.core.userdetails.User(
+    /** For callers that already hold the User (login, registration). */
+    public BankUserDetails toUserDetails(User user) {
+        return new BankUserDetails(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),
                 user.isEnabled(), // ✅ ensures disabled users can’t log in
-                true, true, true,
+                user.getTokenVersion(),
                 user.getRoles().stream()
                         .map(role -> {
                             String rn = role.getName() == null ? "" : role.getName().trim();
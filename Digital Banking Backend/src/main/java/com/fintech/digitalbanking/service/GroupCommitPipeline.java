@@ -0,0 +1,354 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.entity.JournalEntry;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.exception.CustomAccessDeniedException;
+import com.fintech.digitalbanking.exception.InsufficientFundsException;
+import com.fintech.digitalbanking.exception.RoleNotFoundException;
+import com.fintech.digitalbanking.exception.ServiceOverloadedException;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.BatchPostingRepository;
+import com.fintech.digitalbanking.repository.BatchPostingRepository.LockedAccount;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Group commit for deposits and withdrawals (banking.posting.group-commit.enabled): callers
+ * queue their posting and wait, and a few writer threads each take up to max-batch-size
+ * postings - waiting at most linger-ms for the batch to fill - and post them in one
+ * transaction: one FOR UPDATE over the batch's accounts, balances worked out in order in
+ * memory, one batched balance UPDATE and batched Transaction and journal-leg INSERTs. One
+ * commit (and one log flush on the database) is then shared by the whole batch instead of
+ * paid per posting.
+ *
+ * A posting that fails its checks is rejected on its own with the exception the direct
+ * path would have thrown; the rest of its batch still commits. Postings are routed to a
+ * writer by account id, so a hot account's postings land in the same batches and two
+ * writers never wait on each other's row locks.
+ */
+@Service
+@RequiredArgsConstructor
+public class GroupCommitPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitPipeline.class);
+
+    private final BatchPostingRepository batchPostingRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockRetryExecutor lockRetry;
+    private final AccountCache accountCache;
+    private final PostingMetrics metrics;
+    private final JournalService journalService;
+    private final HotAccountSlots hotAccounts;
+
+    @Value("${banking.posting.group-commit.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${banking.posting.group-commit.workers:4}")
+    private int workerCount = 4;
+
+    @Value("${banking.posting.group-commit.max-batch-size:64}")
+    private int maxBatchSize = 64;
+
+    // How long a writer holding a part-filled batch waits for more postings
+    @Value("${banking.posting.group-commit.linger-ms:2}")
+    private long lingerMs = 2;
+
+    // Postings waiting per writer before new ones are shed with 503
+    @Value("${banking.posting.group-commit.queue-capacity:10000}")
+    private int queueCapacity = 10_000;
+
+    private Writer[] writers;
+    private volatile boolean running;
+    // Held shared while a posting is queued and exclusively to stop, so nothing is queued after the final drain
+    private final ReadWriteLock queueing = new ReentrantReadWriteLock();
+
+    /** requesterId is null for admins, who may post on any account. */
+    public record Posting(TransactionType type, long accountId, BigDecimal amount, Long requesterId) {
+
+        public static Posting deposit(long accountId, BigDecimal amount, Long requesterId) {
+            return new Posting(TransactionType.DEPOSIT, accountId, amount, requesterId);
+        }
+
+        public static Posting withdrawal(long accountId, BigDecimal amount, Long requesterId) {
+            return new Posting(TransactionType.WITHDRAW, accountId, amount, requesterId);
+        }
+    }
+
+    private record Queued(Posting posting, CompletableFuture<Transaction> result) {
+    }
+
+    /** What one posting came to inside a batch attempt; exactly one of the two is set. */
+    private record Outcome(Transaction transaction, RuntimeException error) {
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        writers = new Writer[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            writers[i] = new Writer(i);
+        }
+        log.info("Group commit started with {} writers, batches of up to {} postings, {} ms linger",
+                workerCount, maxBatchSize, lingerMs);
+    }
+
+    /** Stops taking postings and commits the ones already queued. */
+    @PreDestroy
+    void stop() {
+        queueing.writeLock().lock();
+        try {
+            if (!running) return;
+            running = false;
+        } finally {
+            queueing.writeLock().unlock();
+        }
+        for (Writer writer : writers) writer.join();
+    }
+
+    /**
+     * Callers already inside a transaction (IdempotencyService) post directly, so the
+     * posting commits or rolls back together with their own work.
+     */
+    public boolean accepts() {
+        return running && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * Queues the posting and waits for its batch to commit; errors are the ones the direct
+     * path throws. If the pipeline stopped since accepts() said yes (shutdown), the posting
+     * takes the direct path instead.
+     */
+    public Transaction post(Posting posting, Supplier<Transaction> direct) {
+        CompletableFuture<Transaction> result = queue(posting);
+        if (result == null) return direct.get();
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    public CompletableFuture<Transaction> submit(Posting posting) {
+        CompletableFuture<Transaction> result = queue(posting);
+        if (result == null) throw new IllegalStateException("Group commit is not running (banking.posting.group-commit.enabled)");
+        return result;
+    }
+
+    /** The posting's future, or null once the pipeline is stopped. */
+    private CompletableFuture<Transaction> queue(Posting posting) {
+        queueing.readLock().lock();
+        try {
+            if (!running) return null;
+            CompletableFuture<Transaction> result = new CompletableFuture<>();
+            writers[(int) Math.floorMod(posting.accountId(), (long) writers.length)].submit(new Queued(posting, result));
+            return result;
+        } finally {
+            queueing.readLock().unlock();
+        }
+    }
+
+    /** Commits one batch and completes every caller's future once the outcome is final. */
+    private void commit(List<Queued> batch) {
+        metrics.recordGroupCommit(batch.size());
+        Outcome[] outcomes;
+        try {
+            outcomes = lockRetry.execute(() -> transactionTemplate.execute(status -> applyBatch(batch)));
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} postings failed: {}", batch.size(), e.getMessage());
+            batch.forEach(queued -> queued.result().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Outcome outcome = outcomes[i];
+            if (outcome.error() != null) batch.get(i).result().completeExceptionally(outcome.error());
+            else batch.get(i).result().complete(outcome.transaction());
+        }
+    }
+
+    /**
+     * Runs inside the batch transaction and may be retried, so it completes nothing itself
+     * and builds fresh outcomes on every attempt. Checks follow the order of the direct path.
+     */
+    private Outcome[] applyBatch(List<Queued> batch) {
+        Set<Long> involved = new TreeSet<>();
+        batch.forEach(queued -> involved.add(queued.posting().accountId()));
+        long lockStart = System.nanoTime();
+        Map<Long, LockedAccount> accounts = batchPostingRepository.lockAccounts(involved);
+        metrics.recordLockWait(System.nanoTime() - lockStart);
+
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        accounts.forEach((id, account) -> balances.put(id, account.balance()));
+        List<Transaction> rows = new ArrayList<>();
+        List<BigDecimal> balancesAfter = new ArrayList<>();
+        List<Integer> postedIndexes = new ArrayList<>();
+        Outcome[] outcomes = new Outcome[batch.size()];
+        Set<Long> swept = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        for (int i = 0; i < batch.size(); i++) {
+            Posting posting = batch.get(i).posting();
+            LockedAccount account = accounts.get(posting.accountId());
+            boolean debit = posting.type() == TransactionType.WITHDRAW;
+
+            RuntimeException error = null;
+            if (account == null) {
+                error = new RoleNotFoundException("Account not found: " + posting.accountId());
+            } else if (posting.requesterId() != null && !posting.requesterId().equals(account.ownerId())) {
+                error = new CustomAccessDeniedException("Access denied - account does not belong to user");
+            } else if (!account.active()) {
+                error = new CustomAccessDeniedException("Account is inactive");
+            } else if (debit && !covers(account, posting.amount(), balances, swept)) {
+                error = new InsufficientFundsException("Insufficient balance");
+            }
+
+            if (error != null) {
+                outcomes[i] = new Outcome(null, error);
+                continue;
+            }
+            BigDecimal balance = balances.merge(account.id(), debit ? posting.amount().negate() : posting.amount(),
+                    BigDecimal::add);
+            balancesAfter.add(account.runningBalance(balance));
+            rows.add(Transaction.builder()
+                    .type(posting.type())
+                    .amount(posting.amount())
+                    .timestamp(now)
+                    .sourceAccount(accountRepository.getReferenceById(account.id()))
+                    .build());
+            postedIndexes.add(i);
+        }
+
+        Map<Long, BigDecimal> changed = new HashMap<>();
+        balances.forEach((id, balance) -> {
+            if (balance.compareTo(accounts.get(id).balance()) != 0) changed.put(id, balance);
+        });
+        batchPostingRepository.updateBalances(changed);
+        accountCache.evictAccountsAfterCommit(changed.keySet());
+        // Ids come from the pooled sequence, so the INSERTs go out in JDBC batches at flush
+        List<Transaction> saved = transactionRepository.saveAll(rows);
+        List<JournalEntry> legs = new ArrayList<>(saved.size() * 2);
+        for (int k = 0; k < saved.size(); k++) {
+            outcomes[postedIndexes.get(k)] = new Outcome(saved.get(k), null);
+            legs.addAll(JournalService.legsOf(saved.get(k), balancesAfter.get(k), null));
+        }
+        journalService.recordAll(legs);
+        return outcomes;
+    }
+
+    /**
+     * Whether the account's balance so far in the batch covers a debit. A hot account that
+     * falls short has its slots swept into the row (locked by the batch) once, as the
+     * direct path does, so money sitting in slots is not refused.
+     */
+    private boolean covers(LockedAccount account, BigDecimal amount, Map<Long, BigDecimal> balances, Set<Long> swept) {
+        if (balances.get(account.id()).compareTo(amount) >= 0) return true;
+        if (account.balanceSlots() <= 1 || !swept.add(account.id())) return false;
+        return balances.merge(account.id(), hotAccounts.sweep(account.id()), BigDecimal::add).compareTo(amount) >= 0;
+    }
+
+    /** One writer thread and its queue. */
+    private final class Writer {
+
+        private final BlockingQueue<Queued> queue = new LinkedBlockingQueue<>(queueCapacity);
+        private final Thread thread;
+
+        Writer(int index) {
+            thread = new Thread(this::run, "group-commit-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void submit(Queued queued) {
+            if (!queue.offer(queued)) {
+                throw new ServiceOverloadedException("Too many postings queued, please retry shortly", 1);
+            }
+        }
+
+        private void run() {
+            List<Queued> batch = new ArrayList<>(maxBatchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    Queued first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    fill(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (!batch.isEmpty()) {
+                    commitQuietly(batch);
+                    batch.clear();
+                }
+                if (Thread.currentThread().isInterrupted()) return;
+            }
+        }
+
+        /** Tops the batch up to maxBatchSize with whatever arrives within the linger time. */
+        private void fill(List<Queued> batch) throws InterruptedException {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+            while (batch.size() < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return;
+                Queued next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) return;
+                batch.add(next);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+        }
+
+        private void commitQuietly(List<Queued> batch) {
+            try {
+                commit(batch);
+            } catch (RuntimeException e) {
+                log.error("Group commit writer failed", e);
+                batch.forEach(queued -> queued.result().completeExceptionally(e));
+            }
+        }
+
+        /** Waits for the thread to drain its queue, then commits anything that slipped in behind it. */
+        void join() {
+            try {
+                thread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Queued> late = new ArrayList<>();
+            while (queue.drainTo(late, maxBatchSize) > 0) {
+                commitQuietly(late);
+                late.clear();
+            }
+        }
+    }
+}
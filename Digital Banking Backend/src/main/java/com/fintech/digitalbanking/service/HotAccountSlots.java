@@ -0,0 +1,164 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.exception.CustomAccessDeniedException;
+import com.fintech.digitalbanking.exception.RoleNotFoundException;
+import com.fintech.digitalbanking.repository.BalanceSlotRepository;
+import com.fintech.digitalbanking.repository.BalanceSlotRepository.Slot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hot accounts (merchant, treasury) opted in by an admin: the balance is split between the
+ * accounts row and N account_balance_slots rows, so concurrent credits spread over N rows
+ * instead of queueing on one. Credits go to a random slot; a debit takes a slot that can
+ * cover it, and when none can, it sweeps every slot into the locked account row and debits
+ * that (see TransactionService).
+ *
+ * Which accounts are hot is a per-node map refreshed every refresh-seconds. It is only a
+ * routing hint: a posting that treats a hot account as ordinary uses the row (debits sweep
+ * first), and one that treats an ordinary account as hot finds no slot and is retried.
+ *
+ * Bulk transfers and group commit credit the row, and sweep the slots into it when a
+ * debit does not fit the row, so no debit is refused while the money sits in slots.
+ * LEDGER mode folds the slots into the balance it loads and projects every later change
+ * onto the row.
+ */
+@Service
+@RequiredArgsConstructor
+public class HotAccountSlots {
+
+    public static final int MAX_SLOTS = 64;
+
+    private final BalanceSlotRepository slotRepository;
+
+    @Value("${banking.hot-accounts.refresh-seconds:10}")
+    private long refreshSeconds = 10;
+
+    private volatile Map<Long, Integer> slotCounts = Map.of();
+    private volatile long nextRefresh;
+    private volatile boolean loaded;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public boolean isHot(long accountId) {
+        return slotsOf(accountId) > 1;
+    }
+
+    private int slotsOf(long accountId) {
+        if (!loaded || System.nanoTime() - nextRefresh >= 0) refresh();
+        return slotCounts.getOrDefault(accountId, 0);
+    }
+
+    private void refresh() {
+        if (!refreshing.compareAndSet(false, true)) return;
+        try {
+            slotCounts = Map.copyOf(slotRepository.findHotAccounts());
+            nextRefresh = System.nanoTime() + TimeUnit.SECONDS.toNanos(refreshSeconds);
+            loaded = true;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /** Corrects the hint for one account, e.g. when a posting found it out of date. */
+    synchronized void note(long accountId, int slots) {
+        Map<Long, Integer> next = new HashMap<>(slotCounts);
+        if (slots > 1) next.put(accountId, slots);
+        else next.remove(accountId);
+        slotCounts = Map.copyOf(next);
+    }
+
+    /** Hot accounts are checked with a plain read, so postings never wait on their row. */
+    public void requireActive(long accountId, String notFoundMessage) {
+        boolean active = slotRepository.findActive(accountId)
+                .orElseThrow(() -> new RoleNotFoundException(notFoundMessage + accountId));
+        if (!active) throw new CustomAccessDeniedException("Account is inactive");
+    }
+
+    public void credit(long accountId, BigDecimal amount) {
+        int slots = slotsOf(accountId);
+        if (slots <= 1 || slotRepository.credit(accountId, ThreadLocalRandom.current().nextInt(slots), amount) == 0) {
+            note(accountId, 0);
+            throw new ConcurrencyFailureException("Balance slots of account " + accountId + " changed during posting");
+        }
+    }
+
+    /**
+     * A slot that looked able to cover amount when read without locks, starting the scan
+     * at a random slot so concurrent debits pick different ones; -1 if none, then sweep.
+     */
+    public int slotCovering(long accountId, BigDecimal amount) {
+        List<Slot> slots = slotRepository.findSlots(accountId);
+        if (slots.isEmpty()) return -1;
+        int start = ThreadLocalRandom.current().nextInt(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get((start + i) % slots.size());
+            if (slot.balance().compareTo(amount) >= 0) return slot.slot();
+        }
+        return -1;
+    }
+
+    /** Debits the slot chosen by slotCovering; if it was drained in the meantime the posting is retried. */
+    public void debit(long accountId, int slot, BigDecimal amount) {
+        if (slotRepository.debitIfSufficient(accountId, slot, amount) == 0) {
+            throw new ConcurrencyFailureException("Balance slot " + slot + " of account " + accountId
+                    + " changed during posting");
+        }
+    }
+
+    /** Consolidating sweep: moves every slot's funds into the account, whose row the caller has locked. */
+    public void sweepInto(Account account) {
+        if (account.getBalanceSlots() <= 1) return;
+        BigDecimal swept = slotRepository.drain(account.getId());
+        if (swept.signum() != 0) account.setBalance(account.getBalance().add(swept));
+    }
+
+    /** sweepInto for callers holding the row lock but no entity; returns what the caller must add to the row. */
+    public BigDecimal sweep(long accountId) {
+        return slotRepository.drain(accountId);
+    }
+
+    /** Row balance plus slots; for reads that start from an Account entity. */
+    public BigDecimal totalBalance(Account account) {
+        if (account.getBalanceSlots() <= 1) return account.getBalance();
+        return account.getBalance().add(slotRepository.sumSlots(account.getId()));
+    }
+
+    /**
+     * Splits the locked account into slots (0 or 1 = ordinary account again). Whatever the
+     * old slots held is swept into the row first, so the total does not change.
+     */
+    public void resize(Account account, int slots) {
+        if (slots < 0 || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("Balance slots must be between 0 and " + MAX_SLOTS);
+        }
+        int count = slots > 1 ? slots : 0;
+        sweepInto(account);
+        slotRepository.replaceSlots(account.getId(), count);
+        account.setBalanceSlots(count);
+
+        long accountId = account.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    note(accountId, count);
+                }
+            });
+        } else {
+            note(accountId, count);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.TransactionDto;
+import com.fintech.digitalbanking.entity.IdempotencyKey;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.exception.IdempotencyKeyException;
+import com.fintech.digitalbanking.repository.IdempotencyKeyRepository;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.util.SecurityUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Makes deposit/withdraw/transfer safe to retry with an Idempotency-Key header.
+ *
+ * Lookups go to a bounded in-memory cache first; a new key costs that one probe plus one
+ * INSERT into idempotency_keys inside the posting transaction. Concurrent duplicates on
+ * this instance wait for the first request and share its result. Duplicates arriving
+ * on another instance, or after the key was evicted here, hit the unique constraint,
+ * which rolls their posting back, and are answered from the durable row instead.
+ * In LEDGER mode the key row is committed before the posting instead, see postToLedger.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockRetryExecutor lockRetry;
+    private final SecurityUtil securityUtil;
+    private final LedgerEngine ledger;
+
+    @Value("${banking.idempotency.cache.max-size:100000}")
+    private long cacheMaxSize = 100_000;
+
+    @Value("${banking.idempotency.cache.ttl-minutes:1440}")
+    private long cacheTtlMinutes = 1440;
+
+    @Value("${banking.posting.mode:LOCKING}")
+    private PostingMode postingMode = PostingMode.LOCKING;
+
+    private Cache<String, Completed> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<TransactionDto>> inFlight = new ConcurrentHashMap<>();
+
+    private record Completed(String fingerprint, TransactionDto result) {
+    }
+
+    @PostConstruct
+    void initCache() {
+        completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+    }
+
+    /**
+     * Runs the posting once per (user, key). Without a key the posting simply runs.
+     *
+     * @param fingerprint what the request asked for, see {@link #fingerprint(Object...)}
+     * @param posting     the @Transactional service call; it joins the transaction opened here
+     * @param toDto       how the calling controller renders a transaction
+     */
+    public TransactionDto execute(String key, String fingerprint, Supplier<Transaction> posting,
+                                  Function<Transaction, TransactionDto> toDto) {
+        if (key == null || key.isBlank()) {
+            return toDto.apply(lockRetry.execute(posting));
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String username = securityUtil.getCurrentUsername();
+        String scope = username + ':' + key;
+        while (true) {
+            Completed done = completed.getIfPresent(scope);
+            if (done != null) {
+                return replay(done, fingerprint, key);
+            }
+
+            CompletableFuture<TransactionDto> mine = new CompletableFuture<>();
+            CompletableFuture<TransactionDto> running = inFlight.putIfAbsent(scope, mine);
+            if (running != null) {
+                try {
+                    running.join();
+                } catch (CompletionException e) {
+                    // The first attempt failed and posted nothing, so this one is free to try
+                    log.debug("Concurrent request with key {} failed, retrying it here", key);
+                }
+                continue;
+            }
+
+            try {
+                // The previous owner may have finished between the cache probe and putIfAbsent
+                done = completed.getIfPresent(scope);
+                TransactionDto result = done != null
+                        ? replay(done, fingerprint, key)
+                        : post(scope, username, key, fingerprint, posting, toDto);
+                mine.complete(result);
+                return result;
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(scope, mine);
+            }
+        }
+    }
+
+    /** Stable description of a request, e.g. fingerprint("deposit", accountId, amount). */
+    public static String fingerprint(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object part : parts) {
+            if (!sb.isEmpty()) sb.append('|');
+            // 100, 100.0 and 100.00 are the same amount
+            sb.append(part instanceof BigDecimal amount ? amount.stripTrailingZeros().toPlainString() : part);
+        }
+        return sb.toString();
+    }
+
+    private TransactionDto post(String scope, String username, String key, String fingerprint,
+                                Supplier<Transaction> posting, Function<Transaction, TransactionDto> toDto) {
+        if (postingMode == PostingMode.LEDGER) {
+            return postToLedger(scope, username, key, fingerprint, posting, toDto);
+        }
+        try {
+            TransactionDto result = lockRetry.execute(() -> transactionTemplate.execute(status -> {
+                Transaction tx = posting.get();
+                idempotencyKeyRepository.saveAndFlush(keyRow(username, key, fingerprint, tx.getId()));
+                return toDto.apply(tx);
+            }));
+            completed.put(scope, new Completed(fingerprint, result));
+            return result;
+        } catch (DataIntegrityViolationException e) {
+            // Either the key was committed elsewhere first (our posting rolled back with it) or
+            // the violation came from the posting itself, in which case there is no key row
+            IdempotencyKey existing = idempotencyKeyRepository.findByUsernameAndIdempotencyKey(username, key)
+                    .orElseThrow(() -> e);
+            return replayStored(scope, existing, fingerprint, key, toDto, () -> e);
+        }
+    }
+
+    /**
+     * A ledger posting is durable once it is journaled and cannot roll back with a key row,
+     * so the key is committed first, carrying the transaction id the posting will take, and
+     * the posting runs once, outside any transaction and never retried. A posting rejected
+     * before it reached the journal gives the key back. One whose journal flush failed may
+     * or may not have posted, so its key stays: a retry replays it once the projector has
+     * written it, and LedgerEngine releases it at startup if it was never journaled.
+     */
+    private TransactionDto postToLedger(String scope, String username, String key, String fingerprint,
+                                        Supplier<Transaction> posting, Function<Transaction, TransactionDto> toDto) {
+        long transactionId = ledger.reserveTransactionId();
+        IdempotencyKey reserved;
+        try {
+            reserved = transactionTemplate.execute(status ->
+                    idempotencyKeyRepository.saveAndFlush(keyRow(username, key, fingerprint, transactionId)));
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyKey existing = idempotencyKeyRepository.findByUsernameAndIdempotencyKey(username, key)
+                    .orElseThrow(() -> e);
+            return replayStored(scope, existing, fingerprint, key, toDto, () -> new IdempotencyKeyException(
+                    "Idempotency-Key " + key + " is still being processed, please retry shortly"));
+        }
+
+        Transaction tx;
+        try {
+            tx = ledger.postAs(transactionId, posting);
+        } catch (CompletionException e) {
+            // The journal flush failed: ambiguous, keep the key
+            throw e;
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteById(reserved.getId()));
+            throw e;
+        }
+        if (tx.getId() != transactionId) {
+            throw new IllegalStateException("Posting did not take reserved transaction id " + transactionId);
+        }
+        TransactionDto result = toDto.apply(tx);
+        completed.put(scope, new Completed(fingerprint, result));
+        return result;
+    }
+
+    private static IdempotencyKey keyRow(String username, String key, String fingerprint, long transactionId) {
+        return IdempotencyKey.builder()
+                .username(username)
+                .idempotencyKey(key)
+                .requestFingerprint(fingerprint)
+                .transactionId(transactionId)
+                .build();
+    }
+
+    /** Answers from the durable key row; the transaction may not be visible yet in LEDGER mode. */
+    private TransactionDto replayStored(String scope, IdempotencyKey existing, String fingerprint, String key,
+                                        Function<Transaction, TransactionDto> toDto,
+                                        Supplier<RuntimeException> transactionMissing) {
+        Transaction original = transactionRepository.findById(existing.getTransactionId())
+                .orElseThrow(transactionMissing);
+        log.info("Replaying transaction {} for duplicate Idempotency-Key {}", original.getId(), key);
+        Completed done = new Completed(existing.getRequestFingerprint(), toDto.apply(original));
+        completed.put(scope, done);
+        return replay(done, fingerprint, key);
+    }
+
+    private static TransactionDto replay(Completed done, String fingerprint, String key) {
+        if (!done.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyException("Idempotency-Key " + key + " was already used for a different request");
+        }
+        return done.result();
+    }
+}
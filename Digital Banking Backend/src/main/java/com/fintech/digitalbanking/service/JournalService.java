@@ -0,0 +1,232 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.AccountSnapshot;
+import com.fintech.digitalbanking.dto.LedgerRecord;
+import com.fintech.digitalbanking.dto.StatementLineDto;
+import com.fintech.digitalbanking.dto.StatementPage;
+import com.fintech.digitalbanking.dto.StatementRequest;
+import com.fintech.digitalbanking.entity.BalanceCheckpoint;
+import com.fintech.digitalbanking.entity.EntryDirection;
+import com.fintech.digitalbanking.entity.JournalEntry;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.exception.RoleNotFoundException;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.BalanceCheckpointRepository;
+import com.fintech.digitalbanking.repository.JournalEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The double-entry journal: every posting path writes the two legs of each Transaction
+ * here in the same database transaction as the transactions row and the balance change.
+ * It is a second write, not the source of those: balances stay authoritative in the
+ * accounts row (plus slots, or the ledger engine in LEDGER mode), which the existing
+ * endpoints keep reading, and the journal agrees with them only because every posting
+ * path writes both. Statements and balance-as-of reads come from the journal.
+ *
+ * Callers pass each account's balance right after the posting, read while they hold the
+ * account row, or null when they do not have one (hot accounts, and ATOMIC postings, whose
+ * guarded UPDATE does not return it). BalanceCheckpointer fills those in later, see
+ * fillRunningBalances.
+ */
+@Service
+@RequiredArgsConstructor
+public class JournalService {
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final AccountRepository accountRepository;
+
+    public void record(Transaction tx, BigDecimal sourceBalanceAfter, BigDecimal targetBalanceAfter) {
+        journalEntryRepository.insertAll(legsOf(tx, sourceBalanceAfter, targetBalanceAfter));
+    }
+
+    public void recordAll(Collection<JournalEntry> legs) {
+        journalEntryRepository.insertAll(legs);
+    }
+
+    public static List<JournalEntry> legsOf(Transaction tx, BigDecimal sourceBalanceAfter, BigDecimal targetBalanceAfter) {
+        return legsOf(tx.getId(), tx.getType(), tx.getSourceAccount().getId(),
+                tx.getTargetAccount() != null ? tx.getTargetAccount().getId() : null,
+                tx.getAmount(), tx.getTimestamp(), sourceBalanceAfter, targetBalanceAfter);
+    }
+
+    /**
+     * Same account convention as Transaction: a DEPOSIT credits the source account, a
+     * WITHDRAW debits it and a TRANSFER moves amount from source to target.
+     */
+    static List<JournalEntry> legsOf(long transactionId, TransactionType type, Long sourceAccountId, Long targetAccountId,
+                                     BigDecimal amount, LocalDateTime postedAt,
+                                     BigDecimal sourceBalanceAfter, BigDecimal targetBalanceAfter) {
+        Long debited = type == TransactionType.DEPOSIT ? null : sourceAccountId;
+        Long credited = switch (type) {
+            case DEPOSIT -> sourceAccountId;
+            case TRANSFER -> targetAccountId;
+            default -> null;
+        };
+        BigDecimal creditedBalance = type == TransactionType.DEPOSIT ? sourceBalanceAfter : targetBalanceAfter;
+        return List.of(
+                leg(transactionId, EntryDirection.DEBIT, debited, type, amount, postedAt,
+                        debited != null ? sourceBalanceAfter : null),
+                leg(transactionId, EntryDirection.CREDIT, credited, type, amount, postedAt,
+                        credited != null ? creditedBalance : null));
+    }
+
+    private static JournalEntry leg(long transactionId, EntryDirection direction, Long accountId, TransactionType type,
+                                    BigDecimal amount, LocalDateTime postedAt, BigDecimal balanceAfter) {
+        return JournalEntry.builder()
+                .transactionId(transactionId)
+                .direction(direction)
+                .accountId(accountId)
+                .type(type)
+                .amount(amount)
+                .balanceAfter(balanceAfter)
+                .postedAt(postedAt)
+                .build();
+    }
+
+    /**
+     * Legs of ledger records being projected, with running balances worked out in record
+     * order from each account's balance before the batch (the projector is the only
+     * writer of those rows in LEDGER mode).
+     */
+    public void recordProjection(List<LedgerRecord> records, Map<Long, BigDecimal> balancesBefore) {
+        Map<Long, Long> units = new HashMap<>();
+        balancesBefore.forEach((id, balance) -> units.put(id, LedgerRecord.toUnits(balance)));
+        List<JournalEntry> legs = new ArrayList<>(records.size() * 2);
+        for (LedgerRecord record : records) {
+            long source = record.sourceAccountId();
+            long target = record.targetAccountId();
+            BigDecimal sourceAfter = runningBalance(units, source, record.deltaFor(source));
+            BigDecimal targetAfter = target != 0 ? runningBalance(units, target, record.deltaFor(target)) : null;
+            legs.addAll(legsOf(record.transactionId(), record.type(), source, target != 0 ? target : null,
+                    record.amountValue(), record.timestamp(), sourceAfter, targetAfter));
+        }
+        journalEntryRepository.insertAll(legs);
+    }
+
+    private static BigDecimal runningBalance(Map<Long, Long> units, long accountId, long delta) {
+        Long balance = units.computeIfPresent(accountId, (id, before) -> before + delta);
+        return balance != null ? LedgerRecord.fromUnits(balance) : null;
+    }
+
+    /** One page of the account's legs, newest first; ownership is checked by the caller. */
+    public StatementPage statement(long accountId, StatementRequest request) {
+        TransactionCursor cursor = request.getCursor() != null && !request.getCursor().isBlank()
+                ? TransactionCursor.decode(request.getCursor())
+                : null;
+        int limit = request.getLimit() != null ? request.getLimit() : 50;
+        // One extra row tells whether another page exists
+        List<JournalEntry> legs = journalEntryRepository.findStatement(accountId, request.getFrom(), request.getTo(),
+                cursor != null ? cursor.timestamp() : null, cursor != null ? cursor.id() : null, limit + 1);
+
+        String nextCursor = null;
+        if (legs.size() > limit) {
+            legs = legs.subList(0, limit);
+            JournalEntry last = legs.get(limit - 1);
+            nextCursor = new TransactionCursor(last.getPostedAt(), last.getTransactionId()).encode();
+        }
+        return StatementPage.builder()
+                .items(legs.stream().map(JournalService::toLine).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static StatementLineDto toLine(JournalEntry leg) {
+        return StatementLineDto.builder()
+                .transactionId(leg.getTransactionId())
+                .type(leg.getType().name())
+                .direction(leg.getDirection().name())
+                .amount(leg.getAmount())
+                .balanceAfter(leg.getBalanceAfter())
+                .postedAt(leg.getPostedAt())
+                .build();
+    }
+
+    /**
+     * Gives the account's legs in (after, upTo] that have no running balance one, working
+     * back from its balance as of upTo over the legs in statement order. Slot and ATOMIC
+     * postings record none while they run, but once a checkpoint has fixed the balance at
+     * upTo the statement order gives them one; legs without a running balance are then only
+     * those newer than the last checkpoint. Nothing is read beyond one index probe when
+     * every leg has one.
+     */
+    public void fillRunningBalances(long accountId, LocalDateTime after, LocalDateTime upTo, BigDecimal balanceAtUpTo) {
+        List<JournalEntry> legs = journalEntryRepository.findLegsIfAnyWithoutBalance(accountId, after, upTo);
+        List<JournalEntry> filled = new ArrayList<>();
+        BigDecimal balance = balanceAtUpTo;
+        for (JournalEntry leg : legs) {
+            if (leg.getBalanceAfter() == null) {
+                leg.setBalanceAfter(balance);
+                filled.add(leg);
+            }
+            balance = balance.subtract(leg.signedAmount());
+        }
+        journalEntryRepository.fillBalancesAfter(filled);
+    }
+
+    /**
+     * balanceAsOf falling back to the account row (plus slots), which the journal legs are
+     * kept in step with. Its reads share one REPEATABLE READ snapshot, so the fallback's
+     * current balance and sum of legs agree even while the account posts.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BalanceAsOf balanceAsOf(long accountId, LocalDateTime at) {
+        return balanceAsOf(accountId, at, () -> accountRepository.findSnapshotsByIdIn(List.of(accountId)).stream()
+                .findFirst()
+                .map(AccountSnapshot::balance)
+                .orElseThrow(() -> new RoleNotFoundException("Account not found with ID: " + accountId)));
+    }
+
+    public record BalanceAsOf(BigDecimal balance, Long lastTransactionId) {
+    }
+
+    /**
+     * Balance as of {@code at}, legs posted at that instant included, and the last posting
+     * counted in it. Starts from the nearest checkpoint at or before at and only reads the
+     * legs after it: the last one's running balance when it has one, otherwise the last
+     * leg that has one plus the legs after that. Without a checkpoint it falls back to
+     * working back from currentBalance over every leg of the account, which is slower and
+     * only as exact as currentBalance is at the time of the call.
+     */
+    public BalanceAsOf balanceAsOf(long accountId, LocalDateTime at, Supplier<BigDecimal> currentBalance) {
+        Optional<BalanceCheckpoint> checkpoint = balanceCheckpointRepository.findNearest(accountId, at);
+        LocalDateTime after = checkpoint.map(BalanceCheckpoint::getAsOf).orElse(null);
+        Optional<JournalEntry> last = journalEntryRepository.findLastLeg(accountId, after, at, false);
+        if (last.isEmpty() && checkpoint.isPresent()) {
+            return new BalanceAsOf(checkpoint.get().getBalance(), checkpoint.get().getLastTransactionId());
+        }
+        Long lastTransactionId = last.map(JournalEntry::getTransactionId).orElse(null);
+        if (last.isPresent() && last.get().getBalanceAfter() != null) {
+            return new BalanceAsOf(last.get().getBalanceAfter(), lastTransactionId);
+        }
+
+        Optional<JournalEntry> anchor = last.isPresent()
+                ? journalEntryRepository.findLastLeg(accountId, after, at, true)
+                : Optional.empty();
+        BigDecimal balance;
+        if (anchor.isPresent()) {
+            balance = anchor.get().getBalanceAfter().add(journalEntryRepository.sumLegs(accountId,
+                    anchor.get().getPostedAt(), anchor.get().getTransactionId(), at));
+        } else if (checkpoint.isPresent()) {
+            balance = checkpoint.get().getBalance().add(journalEntryRepository.sumLegs(accountId, after, null, at));
+        } else {
+            BigDecimal opening = currentBalance.get().subtract(journalEntryRepository.sumLegs(accountId, null, null, null));
+            balance = opening.add(journalEntryRepository.sumLegs(accountId, null, null, at));
+        }
+        return new BalanceAsOf(balance, lastTransactionId);
+    }
+}
@@ -0,0 +1,543 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.LedgerRecord;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.exception.CustomAccessDeniedException;
+import com.fintech.digitalbanking.exception.InsufficientFundsException;
+import com.fintech.digitalbanking.exception.RoleNotFoundException;
+import com.fintech.digitalbanking.exception.ServiceOverloadedException;
+import com.fintech.digitalbanking.repository.LedgerRepository;
+import com.fintech.digitalbanking.repository.LedgerRepository.LedgerAccountRow;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory ledger used when banking.posting.mode=LEDGER: balances live here, postings
+ * are acknowledged once they are in the LedgerJournal, and the accounts and transactions
+ * tables are brought up to date behind them.
+ *
+ * Every posting runs on the single-writer partition that owns its source account
+ * (account id modulo the partition count), so checks and balance changes need no locks
+ * and no database round trip. A transfer debits the source there, journals the posting,
+ * then hands the credit to the target's partition; until that runs the money is in
+ * neither in-memory balance, which only makes a concurrent debit of the target more
+ * conservative. An account's state is loaded from its row the first time it is touched
+ * and kept from then on.
+ *
+ * Durable records go to a projector thread that writes them to the database in batches,
+ * one transaction each, together with their double-entry legs (JournalService) and the
+ * last applied journal sequence. On startup the journal records after that sequence are
+ * applied on top of the account rows and queued for projection again, so a crash loses
+ * nothing that was acknowledged and projects nothing twice.
+ *
+ * All balance changes must go through the engine while it is enabled, and only one node
+ * may run it against a database: the in-memory balances are the authority.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+public class LedgerEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final LedgerRepository ledgerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountCache accountCache;
+    private final JournalService journalService;
+
+    @Value("${banking.posting.mode:LOCKING}")
+    private PostingMode postingMode = PostingMode.LOCKING;
+
+    @Value("${banking.ledger.journal-dir:ledger-journal}")
+    private String journalDir = "ledger-journal";
+
+    // 0 = one partition per core
+    @Value("${banking.ledger.partitions:0}")
+    private int partitionCount = 0;
+
+    // Postings waiting per partition before new ones are shed with 503
+    @Value("${banking.ledger.queue-capacity:10000}")
+    private int queueCapacity = 10_000;
+
+    // 64-byte records per journal segment file (64 MiB by default)
+    @Value("${banking.ledger.segment-records:1048576}")
+    private int segmentRecords = 1 << 20;
+
+    @Value("${banking.ledger.projection-batch-size:1000}")
+    private int projectionBatchSize = 1000;
+
+    private final ConcurrentHashMap<Long, LedgerAccount> accounts = new ConcurrentHashMap<>();
+    // Reversed transactions whose reversal is not projected yet, so the row still says reversed = false
+    private final Set<Long> pendingReversals = ConcurrentHashMap.newKeySet();
+    // Bumped by every status change, so a load that raced one re-reads the active flag
+    private final AtomicLong statusChanges = new AtomicLong();
+    private final BlockingQueue<LedgerRecord> unprojected = new LinkedBlockingQueue<>();
+    private final AtomicLong projectedSequence = new AtomicLong();
+    // Oldest posting time in the batch being projected, null between batches
+    private volatile LocalDateTime projectingSince;
+
+    // Id handed to the next posting submitted on this thread, see postAs
+    private final ThreadLocal<Long> reservedTransactionId = new ThreadLocal<>();
+
+    private Partition[] partitions;
+    private LedgerJournal journal;
+    private Thread projector;
+    private volatile boolean running;
+    private volatile boolean projecting;
+
+    /** One posting as submitted; requesterId is null for admins, who may post on any account. */
+    public record Posting(TransactionType type, long sourceAccountId, long targetAccountId, BigDecimal amount,
+                          Long requesterId, long reversedTransactionId) {
+
+        public static Posting deposit(long accountId, BigDecimal amount, Long requesterId) {
+            return new Posting(TransactionType.DEPOSIT, accountId, 0, amount, requesterId, 0);
+        }
+
+        public static Posting withdrawal(long accountId, BigDecimal amount, Long requesterId) {
+            return new Posting(TransactionType.WITHDRAW, accountId, 0, amount, requesterId, 0);
+        }
+
+        public static Posting transfer(long sourceAccountId, long targetAccountId, BigDecimal amount, Long requesterId) {
+            return new Posting(TransactionType.TRANSFER, sourceAccountId, targetAccountId, amount, requesterId, 0);
+        }
+
+        /** The posting that undoes original; posted as an admin. */
+        public static Posting reversalOf(Transaction original) {
+            long source = original.getSourceAccount().getId();
+            return switch (original.getType()) {
+                case DEPOSIT -> new Posting(TransactionType.WITHDRAW, source, 0, original.getAmount(), null, original.getId());
+                case WITHDRAW -> new Posting(TransactionType.DEPOSIT, source, 0, original.getAmount(), null, original.getId());
+                case TRANSFER -> new Posting(TransactionType.TRANSFER, original.getTargetAccount().getId(), source,
+                        original.getAmount(), null, original.getId());
+            };
+        }
+    }
+
+    /** balance is in LedgerRecord units and only ever written by the owning partition's thread. */
+    private static final class LedgerAccount {
+        final long id;
+        final long ownerId;
+        volatile boolean active;
+        volatile long balance;
+
+        LedgerAccount(LedgerAccountRow row) {
+            this.id = row.id();
+            this.ownerId = row.ownerId();
+            this.active = row.active();
+            this.balance = LedgerRecord.toUnits(row.balance());
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) return;
+        long applied = ledgerRepository.appliedSequence();
+        try {
+            journal = LedgerJournal.open(Path.of(journalDir), segmentRecords, applied, unprojected::addAll);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open ledger journal in " + journalDir, e);
+        }
+        projectedSequence.set(applied);
+        recover(applied);
+
+        running = true;
+        projecting = true;
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        partitions = new Partition[count];
+        for (int i = 0; i < count; i++) {
+            partitions[i] = new Partition(i);
+        }
+        projector = new Thread(this::projectLoop, "ledger-projector");
+        projector.setDaemon(true);
+        projector.start();
+        log.info("Ledger engine started with {} partitions, journal in {} at sequence {}",
+                count, journalDir, journal.lastSequence());
+    }
+
+    /** Applies the journal tail the database has not seen to the account rows and queues it for projection. */
+    private void recover(long applied) {
+        List<LedgerRecord> tail = new ArrayList<>();
+        journal.replay(applied, tail::add);
+        releaseUnpostedIdempotencyKeys(tail);
+        if (tail.isEmpty()) return;
+
+        Set<Long> touched = new HashSet<>();
+        for (LedgerRecord record : tail) {
+            touched.add(record.sourceAccountId());
+            if (record.targetAccountId() != 0) touched.add(record.targetAccountId());
+        }
+        ledgerRepository.findAccounts(touched).forEach((id, row) -> accounts.put(id, new LedgerAccount(row)));
+        for (LedgerRecord record : tail) {
+            credit(record.sourceAccountId(), record.deltaFor(record.sourceAccountId()));
+            if (record.targetAccountId() != 0) credit(record.targetAccountId(), record.deltaFor(record.targetAccountId()));
+            if (record.relatedTransactionId() != 0) pendingReversals.add(record.relatedTransactionId());
+        }
+        unprojected.addAll(tail);
+        log.info("Ledger recovered {} journal records after sequence {} over {} accounts",
+                tail.size(), applied, touched.size());
+    }
+
+    /**
+     * IdempotencyService records a key with its reserved transaction id before posting. A
+     * key whose transaction is neither in the table nor in the journal was left by a
+     * posting that never reached the journal (a crash or failed flush in between), so it is
+     * released and a retry with that key posts again instead of waiting forever.
+     */
+    private void releaseUnpostedIdempotencyKeys(List<LedgerRecord> tail) {
+        Set<Long> journaled = new HashSet<>();
+        for (LedgerRecord record : tail) journaled.add(record.transactionId());
+        int released = ledgerRepository.deleteIdempotencyKeysWithoutTransaction(journaled);
+        if (released > 0) log.info("Released {} idempotency keys whose posting never reached the journal", released);
+    }
+
+    private void credit(long accountId, long delta) {
+        LedgerAccount account = accounts.get(accountId);
+        if (account != null) account.balance = Math.addExact(account.balance, delta);
+    }
+
+    /** Stops taking postings, finishes the queued ones, flushes the journal and the current projection batch. */
+    @PreDestroy
+    void stop() {
+        if (!running) return;
+        running = false;
+        for (Partition partition : partitions) partition.join();
+        journal.close();
+        projecting = false;
+        try {
+            projector.join(30_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Ledger engine stopped at journal sequence {}, projected up to {}",
+                journal.lastSequence(), projectedSequence.get());
+    }
+
+    public boolean isEnabled() {
+        return postingMode == PostingMode.LEDGER;
+    }
+
+    /** Posts and waits until the posting is durable; errors are the ones the database modes throw. */
+    public Transaction post(Posting posting) {
+        try {
+            return submit(posting).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /** A Transaction id for a posting that will be made later through postAs. */
+    public long reserveTransactionId() {
+        return ledgerRepository.nextTransactionId();
+    }
+
+    /**
+     * Runs a call that makes one ledger posting (a TransactionService method) and gives that
+     * posting the reserved transactionId, so the caller can record the id before the money
+     * moves (IdempotencyService does).
+     */
+    public Transaction postAs(long transactionId, Supplier<Transaction> posting) {
+        reservedTransactionId.set(transactionId);
+        try {
+            return posting.get();
+        } finally {
+            reservedTransactionId.remove();
+        }
+    }
+
+    /** Queues the posting on its partition; the future completes once it is durable, or with the rejection. */
+    public CompletableFuture<Transaction> submit(Posting posting) {
+        if (!running) throw new IllegalStateException("Ledger engine is not running (banking.posting.mode=LEDGER)");
+        if (posting.amount().signum() <= 0) throw new IllegalArgumentException("Amount must be positive");
+        long amount = LedgerRecord.toUnits(posting.amount());
+        Long reserved = reservedTransactionId.get();
+        reservedTransactionId.remove();
+        long transactionId = reserved != null ? reserved : ledgerRepository.nextTransactionId();
+        CompletableFuture<LedgerRecord> durable = new CompletableFuture<>();
+        partitionOf(posting.sourceAccountId()).submit(() -> apply(posting, amount, transactionId, durable));
+        return durable.thenApply(LedgerEngine::toTransaction);
+    }
+
+    /** Balance including postings not yet projected, or empty if the engine does not hold the account. */
+    public Optional<BigDecimal> balanceOf(long accountId) {
+        if (!running) return Optional.empty();
+        LedgerAccount account = accounts.get(accountId);
+        return account != null ? Optional.of(LedgerRecord.fromUnits(account.balance)) : Optional.empty();
+    }
+
+    /** Carries an activate/deactivate into the engine once the surrounding transaction commits. */
+    public void updateStatusAfterCommit(long accountId, boolean active) {
+        if (!running) return;
+        Runnable update = () -> {
+            statusChanges.incrementAndGet();
+            LedgerAccount account = accounts.get(accountId);
+            if (account != null) account.active = active;
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    public long projectionLag() {
+        return running ? journal.lastSequence() - projectedSequence.get() : 0;
+    }
+
+    /** Runs on the source account's partition thread. */
+    private void apply(Posting posting, long amount, long transactionId, CompletableFuture<LedgerRecord> durable) {
+        boolean transfer = posting.type() == TransactionType.TRANSFER;
+        long reversed = posting.reversedTransactionId();
+        try {
+            // Every reversal of one transaction has the same source account, so they all run here in turn.
+            // A reversal leaves pendingReversals only after its row update committed, so the row covers the rest.
+            if (reversed != 0 && (pendingReversals.contains(reversed) || ledgerRepository.isReversed(reversed))) {
+                throw new CustomAccessDeniedException("Transaction already reversed");
+            }
+            LedgerAccount source = account(posting.sourceAccountId(), transfer ? "Source account not found: " : "Account not found: ");
+            if (posting.requesterId() != null && source.ownerId != posting.requesterId()) {
+                throw new CustomAccessDeniedException("Access denied - account does not belong to user");
+            }
+            if (!source.active) throw new CustomAccessDeniedException("Account is inactive");
+            LedgerAccount target = null;
+            if (transfer) {
+                target = account(posting.targetAccountId(), "Target account not found: ");
+                if (!target.active) throw new CustomAccessDeniedException("Account is inactive");
+            }
+            long delta = posting.type() == TransactionType.DEPOSIT ? amount : -amount;
+            if (delta < 0 && source.balance < amount) {
+                throw new InsufficientFundsException("Insufficient balance");
+            }
+
+            long sourceBalance = Math.addExact(source.balance, delta);
+            // Marked before appending: the projector may pick the record up as soon as it is flushed
+            if (reversed != 0) pendingReversals.add(reversed);
+            CompletableFuture<LedgerRecord> appended;
+            try {
+                appended = journal.append(transactionId, posting.type(), source.id, transfer ? target.id : 0, amount,
+                        LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), reversed);
+            } catch (RuntimeException e) {
+                if (reversed != 0) pendingReversals.remove(reversed);
+                throw e;
+            }
+            // Applied before the flush: anything journaled after this is flushed with or after it
+            source.balance = sourceBalance;
+            if (transfer) {
+                LedgerAccount credited = target;
+                Partition owner = partitionOf(credited.id);
+                if (owner == partitionOf(source.id)) {
+                    credited.balance = Math.addExact(credited.balance, amount);
+                } else {
+                    owner.credit(() -> credited.balance = Math.addExact(credited.balance, amount));
+                }
+            }
+            appended.whenComplete((record, error) -> {
+                if (error != null) durable.completeExceptionally(error);
+                else durable.complete(record);
+            });
+        } catch (RuntimeException e) {
+            durable.completeExceptionally(e);
+        }
+    }
+
+    /** State of the account, loaded from its row on first use. */
+    private LedgerAccount account(long accountId, String notFoundMessage) {
+        LedgerAccount account = accounts.get(accountId);
+        if (account != null) return account;
+        // Not touched since startup, so the row is current and any concurrent load reads the same values
+        long changesBefore = statusChanges.get();
+        LedgerAccountRow row = ledgerRepository.findAccount(accountId)
+                .orElseThrow(() -> new RoleNotFoundException(notFoundMessage + accountId));
+        LedgerAccount loaded = new LedgerAccount(row);
+        LedgerAccount raced = accounts.putIfAbsent(accountId, loaded);
+        account = raced != null ? raced : loaded;
+        if (statusChanges.get() != changesBefore) {
+            ledgerRepository.findAccount(accountId).ifPresent(fresh -> accounts.get(accountId).active = fresh.active());
+        }
+        return account;
+    }
+
+    private Partition partitionOf(long accountId) {
+        return partitions[(int) Math.floorMod(accountId, (long) partitions.length)];
+    }
+
+    private void projectLoop() {
+        List<LedgerRecord> batch = new ArrayList<>(projectionBatchSize);
+        while (projecting || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    LedgerRecord first = unprojected.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    unprojected.drainTo(batch, projectionBatchSize - 1);
+                }
+                Set<Long> touched = new HashSet<>();
+                LocalDateTime oldest = null;
+                for (LedgerRecord record : batch) {
+                    if (oldest == null || record.timestamp().isBefore(oldest)) oldest = record.timestamp();
+                    touched.add(record.sourceAccountId());
+                    if (record.targetAccountId() != 0) touched.add(record.targetAccountId());
+                }
+                projectingSince = oldest;
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Rows before the batch, for the running balances of its journal legs
+                    Map<Long, BigDecimal> balancesBefore = new HashMap<>();
+                    ledgerRepository.findAccounts(touched).forEach((id, row) -> balancesBefore.put(id, row.balance()));
+                    journalService.recordProjection(batch, balancesBefore);
+                    ledgerRepository.project(batch);
+                    accountCache.evictAccountsAfterCommit(touched);
+                });
+                long last = batch.get(batch.size() - 1).sequence();
+                projectedSequence.set(last);
+                for (LedgerRecord record : batch) {
+                    if (record.relatedTransactionId() != 0) pendingReversals.remove(record.relatedTransactionId());
+                }
+                journal.release(last);
+                projectingSince = null;
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep the batch and try again; the postings are durable in the journal meanwhile
+                log.warn("Projecting {} ledger records failed, retrying: {}", batch.size(), e.getMessage());
+                if (!projecting) return;
+                sleepQuietly(1000);
+            }
+        }
+    }
+
+    /**
+     * Posting time of the oldest acknowledged record not in the journal_entries table yet,
+     * as far as the projector's queue order tells; empty when nothing is waiting. Balance
+     * checkpoints stay before it, since they are computed from the table.
+     */
+    public Optional<LocalDateTime> oldestUnprojected() {
+        LocalDateTime inFlight = projectingSince;
+        LedgerRecord queued = unprojected.peek();
+        if (queued == null) return Optional.ofNullable(inFlight);
+        if (inFlight == null || queued.timestamp().isBefore(inFlight)) return Optional.of(queued.timestamp());
+        return Optional.of(inFlight);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Transaction toTransaction(LedgerRecord record) {
+        return Transaction.builder()
+                .id(record.transactionId())
+                .type(record.type())
+                .amount(record.amountValue())
+                .timestamp(record.timestamp())
+                .sourceAccount(reference(record.sourceAccountId()))
+                .targetAccount(record.targetAccountId() != 0 ? reference(record.targetAccountId()) : null)
+                .relatedTransactionId(record.relatedTransactionId() != 0 ? record.relatedTransactionId() : null)
+                .build();
+    }
+
+    /** Id-only stand-in; the row may not be projected yet and callers only read the id. */
+    private static Account reference(long accountId) {
+        return Account.builder().id(accountId).build();
+    }
+
+    /**
+     * One writer thread. Postings count against queueCapacity; credits handed over by
+     * transfers do not, since refusing one would lose money that is already debited.
+     */
+    private final class Partition {
+
+        private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+        private final AtomicInteger queuedPostings = new AtomicInteger();
+        private final Thread thread;
+
+        Partition(int index) {
+            thread = new Thread(this::run, "ledger-partition-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void submit(Runnable posting) {
+            if (queuedPostings.incrementAndGet() > queueCapacity) {
+                queuedPostings.decrementAndGet();
+                throw new ServiceOverloadedException("Too many postings queued, please retry shortly", 1);
+            }
+            tasks.add(() -> {
+                queuedPostings.decrementAndGet();
+                posting.run();
+            });
+        }
+
+        void credit(Runnable credit) {
+            tasks.add(credit);
+        }
+
+        private void run() {
+            while (running || !tasks.isEmpty()) {
+                try {
+                    Runnable task = tasks.poll(100, TimeUnit.MILLISECONDS);
+                    if (task != null) task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Ledger partition task failed", e);
+                }
+            }
+        }
+
+        /** Waits for the thread to drain its queue, then runs anything that slipped in behind it. */
+        void join() {
+            try {
+                thread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Runnable late;
+            while ((late = tasks.poll()) != null) late.run();
+        }
+    }
+}
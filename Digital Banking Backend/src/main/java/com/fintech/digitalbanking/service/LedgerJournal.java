@@ -0,0 +1,422 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.LedgerRecord;
+import com.fintech.digitalbanking.entity.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped journal of ledger postings: the record LedgerEngine
+ * acknowledges against.
+ *
+ * Records are fixed 64-byte slots written in sequence order into segment files of
+ * segmentRecords slots, each named after its first sequence number. append() only copies
+ * the record into the mapping. One flusher thread then forces everything appended since
+ * its previous pass to disk in a single msync, completes those appends' futures and hands
+ * the records on, in order, to the durable-records consumer - so under load one fsync
+ * covers every posting that arrived while the previous one was running.
+ *
+ * Every slot carries a CRC32C. Opening the journal scans to the first empty or torn slot
+ * (a crash mid-write) and appending resumes there. If the flush itself fails the journal
+ * stops accepting appends: what is in memory may be ahead of the disk, and only a restart
+ * (which replays what did reach the disk) makes the two agree again.
+ */
+public final class LedgerJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerJournal.class);
+
+    static final int RECORD_BYTES = 64;
+    private static final int CRC_OFFSET = 60;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final Consumer<List<LedgerRecord>> onDurable;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    // Everything below is guarded by lock
+    private final List<Segment> segments = new ArrayList<>();
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private Segment current;
+    private long lastSequence;
+    private Segment flushedSegment;
+    private int flushedPosition;
+    private boolean closed;
+    private Throwable failure;
+
+    private final Thread flusher;
+
+    private record Pending(LedgerRecord record, CompletableFuture<LedgerRecord> durable) {
+    }
+
+    private static final class Segment {
+        final Path path;
+        final long firstSequence;
+        final int capacity;
+        final MappedByteBuffer buffer;
+        int position;
+
+        Segment(Path path, long firstSequence, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.capacity = buffer.capacity() / RECORD_BYTES;
+            this.buffer = buffer;
+        }
+
+        boolean full() {
+            return position == capacity * RECORD_BYTES;
+        }
+    }
+
+    /**
+     * Opens (or creates) the journal in directory. Sequences continue after the last
+     * record found, or after minimumSequence if that is higher - i.e. when the journal
+     * files are gone but the database has already applied postings up to it.
+     */
+    public static LedgerJournal open(Path directory, int segmentRecords, long minimumSequence,
+                                     Consumer<List<LedgerRecord>> onDurable) throws IOException {
+        return new LedgerJournal(directory, segmentRecords, minimumSequence, onDurable);
+    }
+
+    private LedgerJournal(Path directory, int segmentRecords, long minimumSequence,
+                          Consumer<List<LedgerRecord>> onDurable) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.onDurable = onDurable;
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        long expected = -1;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            String name = file.getFileName().toString();
+            long first = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            if (expected != -1 && first != expected) {
+                throw new IOException("Journal segment " + file + " does not continue at sequence " + expected);
+            }
+            if (Files.size(file) < RECORD_BYTES && i == files.size() - 1) {
+                // Created but never sized before a crash; roll() recreates it
+                Files.delete(file);
+                break;
+            }
+            Segment segment = new Segment(file, first, map(file, Files.size(file)));
+            int count = 0;
+            while (count < segment.capacity && isValid(segment.buffer, count * RECORD_BYTES, first + count)) {
+                count++;
+            }
+            if (count < segment.capacity && i < files.size() - 1) {
+                throw new IOException("Journal segment " + file + " is damaged at sequence " + (first + count));
+            }
+            segment.position = count * RECORD_BYTES;
+            segments.add(segment);
+            expected = first + count;
+        }
+        lastSequence = expected == -1 ? 0 : expected - 1;
+
+        if (lastSequence < minimumSequence) {
+            if (!segments.isEmpty()) {
+                log.warn("Ledger journal ends at sequence {} but {} postings are already applied; starting a new journal",
+                        lastSequence, minimumSequence);
+            }
+            for (Segment segment : segments) Files.delete(segment.path);
+            segments.clear();
+            lastSequence = minimumSequence;
+        }
+        current = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        flushedSegment = current;
+        flushedPosition = current != null ? current.position : 0;
+
+        flusher = new Thread(this::flushLoop, "ledger-journal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Assigns the next sequence number and writes the record. The future completes with
+     * the record once it is on disk, or exceptionally if the flush fails.
+     */
+    public CompletableFuture<LedgerRecord> append(long transactionId, TransactionType type, long sourceAccountId,
+                                                  long targetAccountId, long amount, LocalDateTime timestamp,
+                                                  long relatedTransactionId) {
+        lock.lock();
+        try {
+            if (failure != null) throw new IllegalStateException("Ledger journal failed; restart to recover", failure);
+            if (closed) throw new IllegalStateException("Ledger journal is closed");
+            if (current == null || current.full()) roll();
+
+            LedgerRecord record = new LedgerRecord(lastSequence + 1, transactionId, type, sourceAccountId,
+                    targetAccountId, amount, timestamp, relatedTransactionId);
+            encode(record);
+            current.buffer.put(current.position, scratch.array(), 0, RECORD_BYTES);
+            current.position += RECORD_BYTES;
+            lastSequence = record.sequence();
+
+            CompletableFuture<LedgerRecord> durable = new CompletableFuture<>();
+            pending.add(new Pending(record, durable));
+            appended.signal();
+            return durable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Reads every record after afterSequence, oldest first. Meant for startup, before appends begin. */
+    public void replay(long afterSequence, Consumer<LedgerRecord> consumer) {
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment.firstSequence + segment.position / RECORD_BYTES - 1 <= afterSequence) continue;
+                for (int offset = 0; offset < segment.position; offset += RECORD_BYTES) {
+                    LedgerRecord record = decode(segment.buffer, offset);
+                    if (record.sequence() > afterSequence) consumer.accept(record);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Deletes segments whose records are all at or below sequence; the segment being written is kept. */
+    public void release(long sequence) {
+        lock.lock();
+        try {
+            while (segments.size() > 1 && segments.get(1).firstSequence - 1 <= sequence) {
+                Segment released = segments.remove(0);
+                try {
+                    Files.deleteIfExists(released.path);
+                } catch (IOException e) {
+                    log.warn("Could not delete applied ledger journal segment {}", released.path, e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stops accepting appends, flushes what was appended and waits for the flusher to finish. */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushLoop() {
+        List<Pending> done = new ArrayList<>();
+        List<LedgerRecord> records = new ArrayList<>();
+        while (true) {
+            Segment segment;
+            int from;
+            int to;
+            long upTo;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) return;
+                segment = current;
+                from = segment == flushedSegment ? flushedPosition : 0;
+                to = segment.position;
+                upTo = lastSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                // Segments rolled over since the last pass were forced in full by roll()
+                if (to > from) segment.buffer.force(from, to - from);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+
+            lock.lock();
+            try {
+                flushedSegment = segment;
+                flushedPosition = to;
+                while (!pending.isEmpty() && pending.peek().record().sequence() <= upTo) {
+                    done.add(pending.poll());
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (Pending p : done) {
+                records.add(p.record());
+                p.durable().complete(p.record());
+            }
+            try {
+                onDurable.accept(List.copyOf(records));
+            } catch (RuntimeException e) {
+                log.error("Durable ledger records were not accepted by the projector", e);
+            }
+            done.clear();
+            records.clear();
+        }
+    }
+
+    private void fail(Throwable cause) {
+        List<Pending> failed;
+        lock.lock();
+        try {
+            failure = cause;
+            failed = new ArrayList<>(pending);
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+        log.error("Ledger journal flush failed; {} postings were not made durable and no more are accepted",
+                failed.size(), cause);
+        failed.forEach(p -> p.durable().completeExceptionally(cause));
+    }
+
+    private void roll() {
+        try {
+            if (current != null) current.buffer.force();
+            long first = lastSequence + 1;
+            Path file = directory.resolve(String.format("%020d%s", first, SUFFIX));
+            Segment segment = new Segment(file, first, map(file, (long) segmentRecords * RECORD_BYTES));
+            syncDirectory();
+            segments.add(segment);
+            current = segment;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create ledger journal segment", e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            // Persist the new file length; the mapping stays valid after the channel is closed
+            channel.force(true);
+            return buffer;
+        }
+    }
+
+    /** Makes a new segment's directory entry durable; not every platform can open a directory. */
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Could not fsync ledger journal directory {}", directory, e);
+        }
+    }
+
+    private void encode(LedgerRecord record) {
+        scratch.clear();
+        scratch.putLong(record.sequence())
+                .putLong(record.transactionId())
+                .putLong(record.sourceAccountId())
+                .putLong(record.targetAccountId())
+                .putLong(record.amount())
+                .putLong(toMicros(record.timestamp()))
+                .putLong(record.relatedTransactionId())
+                .putInt(typeCode(record.type()));
+        crc.reset();
+        crc.update(scratch.array(), 0, CRC_OFFSET);
+        scratch.putInt((int) crc.getValue());
+    }
+
+    private boolean isValid(ByteBuffer buffer, int offset, long expectedSequence) {
+        if (buffer.getLong(offset) != expectedSequence) return false;
+        byte[] slot = new byte[CRC_OFFSET];
+        buffer.get(offset, slot);
+        crc.reset();
+        crc.update(slot);
+        return (int) crc.getValue() == buffer.getInt(offset + CRC_OFFSET);
+    }
+
+    private static LedgerRecord decode(ByteBuffer buffer, int offset) {
+        return new LedgerRecord(
+                buffer.getLong(offset),
+                buffer.getLong(offset + 8),
+                typeOf(buffer.getInt(offset + 56)),
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32),
+                fromMicros(buffer.getLong(offset + 40)),
+                buffer.getLong(offset + 48));
+    }
+
+    // Explicit codes rather than ordinals, so reordering TransactionType cannot reinterpret old journals
+    private static int typeCode(TransactionType type) {
+        return switch (type) {
+            case DEPOSIT -> 1;
+            case WITHDRAW -> 2;
+            case TRANSFER -> 3;
+        };
+    }
+
+    private static TransactionType typeOf(int code) {
+        return switch (code) {
+            case 1 -> TransactionType.DEPOSIT;
+            case 2 -> TransactionType.WITHDRAW;
+            case 3 -> TransactionType.TRANSFER;
+            default -> throw new IllegalStateException("Unknown ledger record type " + code);
+        };
+    }
+
+    // Timestamps are wall-clock LocalDateTimes like Transaction.timestamp; UTC is only the encoding
+    private static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,66 @@
+package com.fintech.digitalbanking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a money-moving call when it loses a row-lock race (lock wait timeout,
+ * deadlock victim or stale version). Each attempt must be a complete transaction,
+ * so callers wrap the @Transactional service proxy, never code inside it.
+ */
+@Component
+@RequiredArgsConstructor
+public class LockRetryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(LockRetryExecutor.class);
+
+    private final PostingMetrics metrics;
+
+    @Value("${banking.posting.lock-retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${banking.posting.lock-retry.initial-backoff-ms:10}")
+    private long initialBackoffMs;
+
+    public <T> T execute(Supplier<T> action) {
+        // Inside an outer transaction the failed attempt has already marked it
+        // rollback-only, so retrying here cannot help - let the outer caller decide.
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                metrics.recordRetry(attempt >= maxAttempts);
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up after {} attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                long backoff = initialBackoffMs << (attempt - 1);
+                log.debug("Lock conflict on attempt {}, retrying in ~{} ms: {}", attempt, backoff, e.getMessage());
+                sleep(backoff + ThreadLocalRandom.current().nextLong(backoff + 1));
+                attempt++;
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry posting", ie);
+        }
+    }
+}
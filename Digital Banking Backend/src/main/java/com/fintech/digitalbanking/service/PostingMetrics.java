@@ -0,0 +1,174 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.exception.CustomAccessDeniedException;
+import com.fintech.digitalbanking.exception.InsufficientFundsException;
+import com.fintech.digitalbanking.exception.RoleNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Latency, outcome and concurrency of the money-moving TransactionService calls, published
+ * through Micrometer (scraped at /actuator/prometheus):
+ *
+ * - banking.posting (timer, percentile histogram) per operation and outcome, from entering
+ *   the service method until its transaction has committed or rolled back
+ * - banking.posting.in.flight (gauge) per operation
+ * - banking.posting.lock.wait (timer) time spent acquiring account row locks
+ * - banking.posting.lock.retries (counter) LockRetryExecutor re-runs, and attempts it gave up on
+ * - banking.posting.group.commit.size (summary) postings per GroupCommitPipeline batch
+ *
+ * Every meter is registered up front and looked up by enum ordinal, so recording builds no
+ * tags and allocates nothing; Hikari's own hikaricp.connections.acquire covers pool waits.
+ */
+@Component
+public class PostingMetrics {
+
+    public enum Operation {
+        DEPOSIT, WITHDRAW, TRANSFER, ROLLBACK;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Outcome {
+        SUCCESS, INSUFFICIENT_FUNDS, LOCK_CONFLICT, REJECTED, COMMIT_FAILED, ERROR;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final Timer[][] timers = new Timer[Operation.values().length][Outcome.values().length];
+    private final AtomicInteger[] inFlight = new AtomicInteger[Operation.values().length];
+    private final Timer lockWait;
+    private final Counter retries;
+    private final Counter retriesExhausted;
+    private final DistributionSummary groupCommitSize;
+
+    public PostingMetrics(MeterRegistry registry) {
+        for (Operation operation : Operation.values()) {
+            for (Outcome outcome : Outcome.values()) {
+                timers[operation.ordinal()][outcome.ordinal()] = Timer.builder("banking.posting")
+                        .description("Money-moving service calls, until their transaction completes")
+                        .tag("operation", operation.tag)
+                        .tag("outcome", outcome.tag)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(registry);
+            }
+            AtomicInteger counter = new AtomicInteger();
+            inFlight[operation.ordinal()] = counter;
+            Gauge.builder("banking.posting.in.flight", counter, AtomicInteger::get)
+                    .description("Postings started and not yet committed or rolled back")
+                    .tag("operation", operation.tag)
+                    .register(registry);
+        }
+        lockWait = Timer.builder("banking.posting.lock.wait")
+                .description("Time to acquire account row locks (SELECT ... FOR UPDATE, or the guarded UPDATE in ATOMIC mode)")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+        retries = Counter.builder("banking.posting.lock.retries")
+                .description("Postings re-run after losing a row-lock race")
+                .tag("result", "retried")
+                .register(registry);
+        retriesExhausted = Counter.builder("banking.posting.lock.retries")
+                .description("Postings re-run after losing a row-lock race")
+                .tag("result", "gave_up")
+                .register(registry);
+        groupCommitSize = DistributionSummary.builder("banking.posting.group.commit.size")
+                .description("Postings committed together by one group-commit batch")
+                .register(registry);
+    }
+
+    /**
+     * Runs body and times it until the surrounding transaction completes, so commit time and
+     * failures at commit (e.g. a stale version detected on flush) are included. Outside a
+     * transaction the call is timed on its own.
+     */
+    public <T> T time(Operation operation, Supplier<T> body) {
+        long start = System.nanoTime();
+        inFlight[operation.ordinal()].incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Outcome outcome = Outcome.ERROR;
+            try {
+                T result = body.get();
+                outcome = Outcome.SUCCESS;
+                return result;
+            } catch (RuntimeException e) {
+                outcome = classify(e);
+                throw e;
+            } finally {
+                inFlight[operation.ordinal()].decrementAndGet();
+                record(operation, outcome, System.nanoTime() - start);
+            }
+        }
+
+        Completion completion = new Completion(operation, start);
+        TransactionSynchronizationManager.registerSynchronization(completion);
+        try {
+            return body.get();
+        } catch (RuntimeException e) {
+            completion.failure = classify(e);
+            throw e;
+        }
+    }
+
+    /** Records one finished posting; allocation-free. */
+    public void record(Operation operation, Outcome outcome, long nanos) {
+        timers[operation.ordinal()][outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockWait(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRetry(boolean gaveUp) {
+        (gaveUp ? retriesExhausted : retries).increment();
+    }
+
+    public void recordGroupCommit(int postings) {
+        groupCommitSize.record(postings);
+    }
+
+    static Outcome classify(Throwable e) {
+        if (e instanceof InsufficientFundsException) return Outcome.INSUFFICIENT_FUNDS;
+        if (e instanceof ConcurrencyFailureException || e instanceof OptimisticLockException) return Outcome.LOCK_CONFLICT;
+        if (e instanceof CustomAccessDeniedException || e instanceof RoleNotFoundException) return Outcome.REJECTED;
+        return Outcome.ERROR;
+    }
+
+    /** Finishes the measurement when the transaction does; a rollback without a seen exception failed at commit. */
+    private final class Completion implements TransactionSynchronization {
+
+        private final Operation operation;
+        private final long start;
+        private Outcome failure;
+
+        private Completion(Operation operation, long start) {
+            this.operation = operation;
+            this.start = start;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            inFlight[operation.ordinal()].decrementAndGet();
+            Outcome outcome = status == STATUS_COMMITTED ? Outcome.SUCCESS
+                    : failure != null ? failure : Outcome.COMMIT_FAILED;
+            record(operation, outcome, System.nanoTime() - start);
+        }
+    }
+}
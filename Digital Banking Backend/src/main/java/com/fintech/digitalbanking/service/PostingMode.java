@@ -0,0 +1,17 @@
+package com.fintech.digitalbanking.service;
+
+/**
+ * How {@link TransactionService} applies balance changes, selected with
+ * {@code banking.posting.mode}.
+ */
+public enum PostingMode {
+    /** Load the account rows FOR UPDATE, change the balance in Java, write it back. */
+    LOCKING,
+    /** One guarded UPDATE per account; the affected-row count decides the outcome. */
+    ATOMIC,
+    /**
+     * Balances held by {@link LedgerEngine} and acknowledged once journaled to disk; the
+     * accounts and transactions tables are updated asynchronously. Single node only.
+     */
+    LEDGER
+}
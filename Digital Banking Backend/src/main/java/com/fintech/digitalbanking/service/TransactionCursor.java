@@ -0,0 +1,34 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the history, i.e. the (timestamp, id) of the last row a client has seen.
+ * Handed out as an opaque URL-safe token so clients do not build it themselves.
+ */
+public record TransactionCursor(LocalDateTime timestamp, Long id) {
+
+    public static TransactionCursor after(Transaction last) {
+        return new TransactionCursor(last.getTimestamp(), last.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.fintech.digitalbanking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.digitalbanking.dto.TransactionExportRequest;
+import com.fintech.digitalbanking.repository.TransactionExportRepository;
+import com.fintech.digitalbanking.repository.TransactionExportRepository.LedgerRow;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the ledger straight from the JDBC cursor to the response stream, one row at a
+ * time, so memory use does not depend on how many rows are exported.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionExportService.class);
+
+    private static final String CSV_HEADER =
+            "id,timestamp,type,amount,source_account_id,target_account_id,reversed,related_transaction_id,description";
+
+    private final TransactionExportRepository transactionExportRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long export(TransactionExportRequest filter, OutputStream out) throws IOException {
+        long begin = System.nanoTime();
+        long[] rows = {0};
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            if (filter.getFormat() == TransactionExportRequest.Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                transactionExportRepository.streamTransactions(filter, row -> {
+                    writeCsv(writer, row);
+                    rows[0]++;
+                });
+            } else {
+                JsonGenerator json = objectMapper.getFactory().createGenerator(writer)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                transactionExportRepository.streamTransactions(filter, row -> {
+                    writeJson(json, row);
+                    rows[0]++;
+                });
+                json.flush();
+            }
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; unwrapping stops the query and releases the cursor
+            log.warn("Transaction export aborted after {} rows: {}", rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        log.info("Exported {} transactions as {} in {} ms ({} rows/s)", rows[0], filter.getFormat(),
+                Math.round(seconds * 1000), seconds > 0 ? Math.round(rows[0] / seconds) : rows[0]);
+        return rows[0];
+    }
+
+    private static void writeJson(JsonGenerator json, LedgerRow row) {
+        try {
+            json.writeStartObject();
+            json.writeNumberField("id", row.id());
+            json.writeStringField("timestamp", row.timestamp() != null ? row.timestamp().toString() : null);
+            json.writeStringField("type", row.type());
+            json.writeNumberField("amount", row.amount());
+            writeNullableLong(json, "sourceAccountId", row.sourceAccountId());
+            writeNullableLong(json, "targetAccountId", row.targetAccountId());
+            json.writeBooleanField("reversed", row.reversed());
+            writeNullableLong(json, "relatedTransactionId", row.relatedTransactionId());
+            json.writeStringField("description", row.description());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNullableLong(JsonGenerator json, String field, Long value) throws IOException {
+        if (value != null) {
+            json.writeNumberField(field, value);
+        } else {
+            json.writeNullField(field);
+        }
+    }
+
+    private static void writeCsv(Writer writer, LedgerRow row) {
+        try {
+            writer.write(Long.toString(row.id()));
+            writer.write(',');
+            writer.write(row.timestamp() != null ? row.timestamp().toString() : "");
+            writer.write(',');
+            writer.write(row.type());
+            writer.write(',');
+            writer.write(row.amount().toPlainString());
+            writer.write(',');
+            writer.write(row.sourceAccountId() != null ? row.sourceAccountId().toString() : "");
+            writer.write(',');
+            writer.write(row.targetAccountId() != null ? row.targetAccountId().toString() : "");
+            writer.write(',');
+            writer.write(Boolean.toString(row.reversed()));
+            writer.write(',');
+            writer.write(row.relatedTransactionId() != null ? row.relatedTransactionId().toString() : "");
+            writer.write(',');
+            writer.write(csvField(row.description()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** RFC 4180 quoting, only when the value needs it. */
+    static String csvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
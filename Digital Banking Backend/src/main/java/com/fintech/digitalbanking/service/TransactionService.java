@@ -1,23 +1,35 @@
 package com.fintech.digitalbanking.service;
 
+import com.fintech.digitalbanking.dto.TransactionDto;
+import com.fintech.digitalbanking.dto.TransactionHistoryRequest;
 import com.fintech.digitalbanking.entity.Account;
 import com.fintech.digitalbanking.entity.Transaction;
 import com.fintech.digitalbanking.entity.TransactionType;
-import com.fintech.digitalbanking.entity.User;
 import com.fintech.digitalbanking.exception.CustomAccessDeniedException;
 import com.fintech.digitalbanking.exception.InsufficientFundsException;
 import com.fintech.digitalbanking.exception.RoleNotFoundException;
 import com.fintech.digitalbanking.repository.AccountRepository;
 import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.repository.TransactionSpecifications;
+import com.fintech.digitalbanking.service.PostingMetrics.Operation;
 // import com.fintech.digitalbanking.repository.UserRepository; // <-- Removed (unused)
 import com.fintech.digitalbanking.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
@@ -27,42 +39,190 @@ public class TransactionService {
     private final AccountRepository accountRepository;
     // private final UserRepository userRepository; // <-- Removed (unused)
     private final SecurityUtil securityUtil;
+    private final AccountCache accountCache;
+    private final AccountOwnershipIndex ownershipIndex;
+    private final PostingMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerEngine ledger;
+    private final GroupCommitPipeline groupCommit;
+    private final HotAccountSlots hotAccounts;
+    private final JournalService journalService;
+
+    @Value("${banking.posting.mode:LOCKING}")
+    private PostingMode postingMode = PostingMode.LOCKING;
 
     private void requireActive(Account account) {
         if (account == null) throw new RoleNotFoundException("Account not found");
         if (!account.isActive()) throw new CustomAccessDeniedException("Account is inactive");
     }
 
+    private Account lockAccount(Long accountId, String notFoundMessage) {
+        long start = System.nanoTime();
+        Optional<Account> account = accountRepository.findByIdForUpdate(accountId);
+        metrics.recordLockWait(System.nanoTime() - start);
+        return account.orElseThrow(() -> new RoleNotFoundException(notFoundMessage + accountId));
+    }
+
     private void validateOwnershipOrAdmin(Account account) {
         if (securityUtil.isAdmin()) return;
-        User user = securityUtil.getCurrentUserEntity();
-        if (!account.getUser().getId().equals(user.getId())) {
+        // getId() on the lazy user reference reads the foreign key; the user row is not loaded
+        if (!account.getUser().getId().equals(securityUtil.getCurrentUserId())) {
             throw new CustomAccessDeniedException("Access denied - account does not belong to user");
         }
     }
 
+    /** One page of history, newest first; nextCursor is null when there is nothing older. */
+    public record HistoryPage(List<Transaction> transactions, String nextCursor) {
+    }
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "timestamp", "id");
+
     @Transactional(readOnly = true)
-    public List<Transaction> getMyTransactions() {
-        User currentUser = securityUtil.getCurrentUserEntity();
+    public HistoryPage getMyTransactions(TransactionHistoryRequest filter) {
+        List<Long> myAccountIds = accountRepository.findIdsByOwnerId(securityUtil.getCurrentUserId());
 
-        List<Long> myAccountIds = accountRepository.findByUser(currentUser)
-                .stream()
-                .map(Account::getId)
-                .toList();
+        if (filter.getAccountId() != null) {
+            if (!myAccountIds.contains(filter.getAccountId())) {
+                throw new CustomAccessDeniedException("Access denied - account does not belong to user");
+            }
+            myAccountIds = List.of(filter.getAccountId());
+        }
 
         if (myAccountIds.isEmpty()) {
-            return List.of();
+            return new HistoryPage(List.of(), null);
         }
 
-        return transactionRepository.findAllByAccountIds(myAccountIds);
+        return findAccountPage(myAccountIds, filter);
     }
 
-    @Transactional
+    /** Admin view over every account, or over filter.accountId when given. */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public HistoryPage getAllTransactions(TransactionHistoryRequest filter) {
+        if (filter.getAccountId() != null) {
+            return findAccountPage(List.of(filter.getAccountId()), filter);
+        }
+        return findPage(filter);
+    }
+
+    /** Unscoped pages: every condition is a plain range or equality, so Specifications are fine. */
+    private HistoryPage findPage(TransactionHistoryRequest filter) {
+        List<Specification<Transaction>> conditions = new ArrayList<>();
+        if (filter.getType() != null) conditions.add(TransactionSpecifications.ofType(filter.getType()));
+        if (filter.getFrom() != null) conditions.add(TransactionSpecifications.notBefore(filter.getFrom()));
+        if (filter.getTo() != null) conditions.add(TransactionSpecifications.before(filter.getTo()));
+        if (filter.getCursor() != null && !filter.getCursor().isBlank()) {
+            TransactionCursor cursor = TransactionCursor.decode(filter.getCursor());
+            conditions.add(TransactionSpecifications.olderThan(cursor.timestamp(), cursor.id()));
+        }
+
+        int limit = limitOf(filter);
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Transaction> rows = transactionRepository.findBy(Specification.allOf(conditions),
+                q -> q.sortBy(NEWEST_FIRST).limit(limit + 1).all());
+        return toPage(rows, limit);
+    }
+
+    /** Pages scoped to accounts go through the UNION ALL query, one index range per side. */
+    private HistoryPage findAccountPage(List<Long> accountIds, TransactionHistoryRequest filter) {
+        TransactionCursor cursor = filter.getCursor() != null && !filter.getCursor().isBlank()
+                ? TransactionCursor.decode(filter.getCursor())
+                : null;
+        int limit = limitOf(filter);
+        List<Transaction> rows = transactionRepository.findAccountHistory(accountIds, filter,
+                cursor != null ? cursor.timestamp() : null, cursor != null ? cursor.id() : null, limit + 1);
+        return toPage(rows, limit);
+    }
+
+    private static int limitOf(TransactionHistoryRequest filter) {
+        return filter.getLimit() != null ? filter.getLimit() : 50;
+    }
+
+    private static HistoryPage toPage(List<Transaction> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new HistoryPage(rows, null);
+        }
+        List<Transaction> page = rows.subList(0, limit);
+        return new HistoryPage(page, TransactionCursor.after(page.get(limit - 1)).encode());
+    }
+
+    //
+    // deposit, withdraw and transfer open their transaction themselves (joining the caller's,
+    // e.g. IdempotencyService's) instead of being @Transactional: in LEDGER mode, and for
+    // group-committed deposits and withdrawals, they must not hold a connection while waiting.
+    // Hot accounts take the direct path, which spreads their postings over the balance slots.
+    //
     public Transaction deposit(Long accountId, BigDecimal amount) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RoleNotFoundException("Account not found: " + accountId));
-        requireActive(account);
+        if (postingMode == PostingMode.LEDGER) {
+            return metrics.time(Operation.DEPOSIT,
+                    () -> ledger.post(LedgerEngine.Posting.deposit(accountId, amount, requesterId())));
+        }
+        if (groupCommit.accepts() && !hotAccounts.isHot(accountId)) {
+            return metrics.time(Operation.DEPOSIT,
+                    () -> groupCommit.post(GroupCommitPipeline.Posting.deposit(accountId, amount, requesterId()),
+                            () -> transactionTemplate.execute(status -> postDeposit(accountId, amount))));
+        }
+        return transactionTemplate.execute(status -> metrics.time(Operation.DEPOSIT, () -> postDeposit(accountId, amount)));
+    }
+
+    public Transaction withdraw(Long accountId, BigDecimal amount) {
+        if (postingMode == PostingMode.LEDGER) {
+            return metrics.time(Operation.WITHDRAW,
+                    () -> ledger.post(LedgerEngine.Posting.withdrawal(accountId, amount, requesterId())));
+        }
+        if (groupCommit.accepts() && !hotAccounts.isHot(accountId)) {
+            return metrics.time(Operation.WITHDRAW,
+                    () -> groupCommit.post(GroupCommitPipeline.Posting.withdrawal(accountId, amount, requesterId()),
+                            () -> transactionTemplate.execute(status -> postWithdraw(accountId, amount))));
+        }
+        return transactionTemplate.execute(status -> metrics.time(Operation.WITHDRAW, () -> postWithdraw(accountId, amount)));
+    }
+
+    /**
+     * Both account rows are locked FOR UPDATE in ascending id order, so two transfers
+     * running in opposite directions between the same pair queue up instead of
+     * deadlocking. Lock waits are bounded; callers retry via {@link LockRetryExecutor}.
+     */
+    public Transaction transfer(Long sourceAccountId, String targetAccountNumber, BigDecimal amount) {
+        if (postingMode == PostingMode.LEDGER) {
+            return metrics.time(Operation.TRANSFER, () -> {
+                Long targetAccountId = resolveTransferTarget(sourceAccountId, targetAccountNumber);
+                return ledger.post(LedgerEngine.Posting.transfer(sourceAccountId, targetAccountId, amount, requesterId()));
+            });
+        }
+        return transactionTemplate.execute(status -> metrics.time(Operation.TRANSFER,
+                () -> postTransfer(sourceAccountId, targetAccountNumber, amount)));
+    }
+
+    /** Whose accounts a ledger or group-committed posting may touch; null for admins. */
+    private Long requesterId() {
+        return securityUtil.isAdmin() ? null : securityUtil.getCurrentUserId();
+    }
+
+    private Long resolveTransferTarget(Long sourceAccountId, String targetAccountNumber) {
+        Long targetAccountId = ownershipIndex.idOf(targetAccountNumber);
+        if (targetAccountId == null) {
+            throw new RoleNotFoundException("Target account not found: " + targetAccountNumber);
+        }
+        if (sourceAccountId.equals(targetAccountId)) {
+            throw new CustomAccessDeniedException("Cannot transfer to the same account.");
+        }
+        return targetAccountId;
+    }
+
+    // The post* bodies are shared with rollbackTransaction, which is timed as one ROLLBACK
+
+    private Transaction postDeposit(Long accountId, BigDecimal amount) {
+        accountCache.evictAccountsAfterCommit(List.of(accountId));
+        if (hotAccounts.isHot(accountId)) {
+            return postWithSlots(TransactionType.DEPOSIT, accountId, null, amount);
+        }
+        if (postingMode == PostingMode.ATOMIC) {
+            return depositAtomic(accountId, amount);
+        }
+        Account account = lockAccount(accountId, "Account not found: ");
         validateOwnershipOrAdmin(account);
+        requireActive(account);
 
         account.setBalance(account.getBalance().add(amount));
         accountRepository.save(account);
@@ -74,16 +234,25 @@ public class TransactionService {
                 .amount(amount)
                 // Note: Timestamp is set by default in your Transaction entity
                 .build();
-        return transactionRepository.save(tx);
+        Transaction saved = transactionRepository.save(tx);
+        journalService.record(saved, runningBalance(account), null);
+        return saved;
     }
 
-    @Transactional
-    public Transaction withdraw(Long accountId, BigDecimal amount) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RoleNotFoundException("Account not found: " + accountId));
-        requireActive(account);
+    private Transaction postWithdraw(Long accountId, BigDecimal amount) {
+        accountCache.evictAccountsAfterCommit(List.of(accountId));
+        if (hotAccounts.isHot(accountId)) {
+            return postWithSlots(TransactionType.WITHDRAW, accountId, null, amount);
+        }
+        if (postingMode == PostingMode.ATOMIC) {
+            return withdrawAtomic(accountId, amount);
+        }
+        Account account = lockAccount(accountId, "Account not found: ");
         validateOwnershipOrAdmin(account);
+        requireActive(account);
 
+        // The hot-account hint may lag on this node; funds left in slots are swept in first
+        if (account.getBalance().compareTo(amount) < 0) hotAccounts.sweepInto(account);
         if (account.getBalance().compareTo(amount) < 0) {
             throw new InsufficientFundsException("Insufficient balance");
         }
@@ -96,24 +265,36 @@ public class TransactionService {
                 .type(TransactionType.WITHDRAW)
                 .amount(amount)
                 .build();
-        return transactionRepository.save(tx);
+        Transaction saved = transactionRepository.save(tx);
+        journalService.record(saved, runningBalance(account), null);
+        return saved;
     }
 
-    @Transactional
-    public Transaction transfer(Long sourceAccountId, String targetAccountNumber, BigDecimal amount) {
-        Account source = accountRepository.findById(sourceAccountId)
-                .orElseThrow(() -> new RoleNotFoundException("Source account not found: " + sourceAccountId));
-        Account target = accountRepository.findByAccountNumber(targetAccountNumber)
-                .orElseThrow(() -> new RoleNotFoundException("Target account not found: " + targetAccountNumber));
+    private Transaction postTransfer(Long sourceAccountId, String targetAccountNumber, BigDecimal amount) {
+        Long targetAccountId = resolveTransferTarget(sourceAccountId, targetAccountNumber);
+        accountCache.evictAccountsAfterCommit(List.of(sourceAccountId, targetAccountId));
+        if (hotAccounts.isHot(sourceAccountId) || hotAccounts.isHot(targetAccountId)) {
+            return postWithSlots(TransactionType.TRANSFER, sourceAccountId, targetAccountId, amount);
+        }
+        if (postingMode == PostingMode.ATOMIC) {
+            return transferAtomic(sourceAccountId, targetAccountId, amount);
+        }
+
+        Account source;
+        Account target;
+        if (sourceAccountId < targetAccountId) {
+            source = lockAccount(sourceAccountId, "Source account not found: ");
+            target = lockAccount(targetAccountId, "Target account not found: ");
+        } else {
+            target = lockAccount(targetAccountId, "Target account not found: ");
+            source = lockAccount(sourceAccountId, "Source account not found: ");
+        }
 
+        validateOwnershipOrAdmin(source);
         requireActive(source);
         requireActive(target);
-        validateOwnershipOrAdmin(source);
-
-        if (source.getId().equals(target.getId())) {
-            throw new CustomAccessDeniedException("Cannot transfer to the same account.");
-        }
 
+        if (source.getBalance().compareTo(amount) < 0) hotAccounts.sweepInto(source);
         if (source.getBalance().compareTo(amount) < 0) {
             throw new InsufficientFundsException("Insufficient balance");
         }
@@ -128,33 +309,216 @@ public class TransactionService {
                 .type(TransactionType.TRANSFER)
                 .amount(amount)
                 .build();
-        return transactionRepository.save(tx);
+        Transaction saved = transactionRepository.save(tx);
+        journalService.record(saved, runningBalance(source), runningBalance(target));
+        return saved;
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
-    public List<Transaction> getTransactionHistory(Long accountId) {
-        if (accountId == null) {
-            return transactionRepository.findAll();
+    // =====================
+    // ATOMIC posting mode: no entity load, one guarded UPDATE per account. The UPDATE does
+    // not return the new balance, so the journal legs go without one and the next balance
+    // checkpoint works it out, as for hot-account slots; no extra read per account.
+    // =====================
+
+    private Transaction depositAtomic(Long accountId, BigDecimal amount) {
+        validateOwnershipOrAdmin(accountId);
+        creditOrReject(accountId, amount);
+        return recordTransaction(TransactionType.DEPOSIT, accountId, null, amount, null, null);
+    }
+
+    private Transaction withdrawAtomic(Long accountId, BigDecimal amount) {
+        validateOwnershipOrAdmin(accountId);
+        debitOrReject(accountId, amount);
+        return recordTransaction(TransactionType.WITHDRAW, accountId, null, amount, null, null);
+    }
+
+    private Transaction transferAtomic(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        validateOwnershipOrAdmin(sourceAccountId);
+        // Touch the rows in id order, same as the LOCKING mode, so the implicit row
+        // locks taken by the UPDATEs cannot deadlock against an opposite transfer.
+        if (sourceAccountId < targetAccountId) {
+            debitOrReject(sourceAccountId, amount);
+            creditOrReject(targetAccountId, amount);
+        } else {
+            creditOrReject(targetAccountId, amount);
+            debitOrReject(sourceAccountId, amount);
+        }
+        return recordTransaction(TransactionType.TRANSFER, sourceAccountId, targetAccountId, amount, null, null);
+    }
+
+    private void debitOrReject(Long accountId, BigDecimal amount) {
+        long start = System.nanoTime();
+        int updated = accountRepository.debitIfSufficient(accountId, amount);
+        metrics.recordLockWait(System.nanoTime() - start);
+        if (updated == 0) {
+            throw rejectedPosting(accountId, amount, true);
+        }
+    }
+
+    private void creditOrReject(Long accountId, BigDecimal amount) {
+        long start = System.nanoTime();
+        int updated = accountRepository.creditIfActive(accountId, amount);
+        metrics.recordLockWait(System.nanoTime() - start);
+        if (updated == 0) {
+            throw rejectedPosting(accountId, amount, false);
+        }
+    }
+
+    private void validateOwnershipOrAdmin(Long accountId) {
+        if (securityUtil.isAdmin()) return;
+        long ownerId = ownershipIndex.ownerOf(accountId);
+        if (ownerId == AccountOwnershipIndex.NO_OWNER) {
+            throw new RoleNotFoundException("Account not found: " + accountId);
+        }
+        if (ownerId != securityUtil.getCurrentUserId()) {
+            throw new CustomAccessDeniedException("Access denied - account does not belong to user");
+        }
+    }
+
+    /**
+     * Only reached when a guarded UPDATE matched no row, so the extra read is off the hot path.
+     */
+    private RuntimeException rejectedPosting(Long accountId, BigDecimal amount, boolean debit) {
+        Account account = accountRepository.findById(accountId).orElse(null);
+        if (account == null) {
+            return new RoleNotFoundException("Account not found: " + accountId);
+        }
+        if (!account.isActive()) {
+            return new CustomAccessDeniedException("Account is inactive");
+        }
+        if (debit && account.getBalanceSlots() > 1) {
+            // A hot account this node did not know about yet; the retry posts through its slots
+            hotAccounts.note(accountId, account.getBalanceSlots());
+            return new ConcurrencyFailureException("Account " + accountId + " has balance slots");
+        }
+        if (debit && account.getBalance().compareTo(amount) < 0) {
+            return new InsufficientFundsException("Insufficient balance");
         }
-        return transactionRepository.findAllByAccountIds(List.of(accountId));
+        // The row changed between the UPDATE and this read; let LockRetryExecutor try again.
+        return new ConcurrencyFailureException("Account " + accountId + " changed during posting");
     }
 
-    @Transactional
+    // =====================
+    // Hot accounts (balance_slots > 1), in either mode
+    // =====================
+
+    /**
+     * Postings touching a hot account. Locks are taken in one global order - account rows by
+     * id, then slot rows by account id - and nothing waits for a row while holding a slot, so
+     * these cannot deadlock with each other or with the row-only paths. The hot side checks
+     * its status with a plain read; a credit racing a deactivation can therefore still land.
+     */
+    private Transaction postWithSlots(TransactionType type, Long sourceAccountId, Long targetAccountId,
+                                      BigDecimal amount) {
+        validateOwnershipOrAdmin(sourceAccountId);
+        boolean transfer = type == TransactionType.TRANSFER;
+        boolean debit = type != TransactionType.DEPOSIT;
+        String sourceNotFound = transfer ? "Source account not found: " : "Account not found: ";
+
+        // Chosen from an unlocked read; -1 means no single slot can cover the debit and the row sweeps
+        boolean sourceHot = hotAccounts.isHot(sourceAccountId);
+        int debitSlot = debit && sourceHot ? hotAccounts.slotCovering(sourceAccountId, amount) : -1;
+        boolean sourceOnSlot = sourceHot && (!debit || debitSlot >= 0);
+        boolean targetOnSlot = transfer && hotAccounts.isHot(targetAccountId);
+
+        // 1. Account rows, ascending id
+        Map<Long, Account> rows = new TreeMap<>();
+        if (!sourceOnSlot) rows.put(sourceAccountId, null);
+        if (transfer && !targetOnSlot) rows.put(targetAccountId, null);
+        for (Long id : rows.keySet()) {
+            Account account = lockAccount(id, id.equals(sourceAccountId) ? sourceNotFound : "Target account not found: ");
+            requireActive(account);
+            rows.put(id, account);
+        }
+        if (sourceOnSlot) hotAccounts.requireActive(sourceAccountId, sourceNotFound);
+        if (targetOnSlot) hotAccounts.requireActive(targetAccountId, "Target account not found: ");
+        Account source = rows.get(sourceAccountId);
+        Account target = transfer ? rows.get(targetAccountId) : null;
+
+        // 2. Slot rows, ascending account id
+        Map<Long, Runnable> slotSteps = new TreeMap<>();
+        if (sourceOnSlot) {
+            slotSteps.put(sourceAccountId, debit
+                    ? () -> hotAccounts.debit(sourceAccountId, debitSlot, amount)
+                    : () -> hotAccounts.credit(sourceAccountId, amount));
+        } else if (debit && source.getBalance().compareTo(amount) < 0) {
+            slotSteps.put(sourceAccountId, () -> hotAccounts.sweepInto(source));
+        }
+        if (targetOnSlot) slotSteps.put(targetAccountId, () -> hotAccounts.credit(targetAccountId, amount));
+        slotSteps.values().forEach(Runnable::run);
+
+        // 3. Row balances; an exception here rolls back the slot steps too
+        if (source != null) {
+            if (debit && source.getBalance().compareTo(amount) < 0) {
+                throw new InsufficientFundsException("Insufficient balance");
+            }
+            source.setBalance(debit ? source.getBalance().subtract(amount) : source.getBalance().add(amount));
+            accountRepository.save(source);
+        }
+        if (target != null) {
+            target.setBalance(target.getBalance().add(amount));
+            accountRepository.save(target);
+        }
+        // Legs posted through slots have no running balance: slot postings are not ordered per account
+        return recordTransaction(type, sourceAccountId, transfer ? targetAccountId : null, amount,
+                source != null ? runningBalance(source) : null, target != null ? runningBalance(target) : null);
+    }
+
+    private Transaction recordTransaction(TransactionType type, Long sourceAccountId, Long targetAccountId,
+                                          BigDecimal amount, BigDecimal sourceBalanceAfter,
+                                          BigDecimal targetBalanceAfter) {
+        Transaction tx = Transaction.builder()
+                .sourceAccount(accountRepository.getReferenceById(sourceAccountId))
+                .targetAccount(targetAccountId != null ? accountRepository.getReferenceById(targetAccountId) : null)
+                .type(type)
+                .amount(amount)
+                .build();
+        Transaction saved = transactionRepository.save(tx);
+        journalService.record(saved, sourceBalanceAfter, targetBalanceAfter);
+        return saved;
+    }
+
+    /** Balance of a locked row for the journal; null when part of it sits in slots. */
+    private static BigDecimal runningBalance(Account account) {
+        return account.getBalanceSlots() > 1 ? null : account.getBalance();
+    }
+
+    /** Read-only view of one account's history, projected straight into DTOs. */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public List<TransactionDto> getTransactionHistory(Long accountId) {
+        return transactionRepository.findDtosByAccountIds(List.of(accountId));
+    }
+
+    // Like deposit/withdraw/transfer, only the LOCKING and ATOMIC reversal runs in a transaction
     public Transaction rollbackTransaction(Long transactionId) {
+        if (postingMode == PostingMode.LEDGER) {
+            // The projector inserts the reversal and marks the original reversed in one go
+            return metrics.time(Operation.ROLLBACK,
+                    () -> ledger.post(LedgerEngine.Posting.reversalOf(findReversible(transactionId))));
+        }
+        return transactionTemplate.execute(status -> metrics.time(Operation.ROLLBACK, () -> postRollback(transactionId)));
+    }
+
+    private Transaction findReversible(Long transactionId) {
         Transaction orig = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new RoleNotFoundException("Transaction not found: " + transactionId));
-
         if (orig.isReversed()) {
             throw new CustomAccessDeniedException("Transaction already reversed");
         }
+        return orig;
+    }
+
+    private Transaction postRollback(Long transactionId) {
+        Transaction orig = findReversible(transactionId);
 
         Transaction reversal;
         switch (orig.getType()) {
             case DEPOSIT:
-                reversal = withdraw(orig.getSourceAccount().getId(), orig.getAmount());
+                reversal = postWithdraw(orig.getSourceAccount().getId(), orig.getAmount());
                 break;
             case WITHDRAW:
-                reversal = deposit(orig.getSourceAccount().getId(), orig.getAmount());
+                reversal = postDeposit(orig.getSourceAccount().getId(), orig.getAmount());
                 break;
             case TRANSFER:
                 if (orig.getTargetAccount() == null || orig.getSourceAccount() == null) {
@@ -162,10 +526,16 @@ public class TransactionService {
                 }
 
                 // --- THIS IS THE FIX ---
-                // We must pass the account NUMBER (String) as the second argument
-                reversal = transfer(
+                // We must pass the account NUMBER (String) as the second argument.
+                // Read it with a scalar query: initializing the lazy proxy here would put an
+                // unlocked (possibly stale) copy of the account into the persistence context
+                // before transfer() takes its row lock.
+                Long originalSourceId = orig.getSourceAccount().getId();
+                String originalSourceNumber = accountRepository.findAccountNumberById(originalSourceId)
+                        .orElseThrow(() -> new RoleNotFoundException("Account not found: " + originalSourceId));
+                reversal = postTransfer(
                         orig.getTargetAccount().getId(),
-                        orig.getSourceAccount().getAccountNumber(), // <-- Was .getId()
+                        originalSourceNumber,
                         orig.getAmount()
                 );
                 break;
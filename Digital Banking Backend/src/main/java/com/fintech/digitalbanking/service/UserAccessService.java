@@ -0,0 +1,80 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.UserState;
+import com.fintech.digitalbanking.entity.Role;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.exception.RoleNotFoundException;
+import com.fintech.digitalbanking.repository.RoleRepository;
+import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.security.UserStateCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Admin changes that must reach already-issued JWTs. Tokens carry the roles and token
+ * version they were issued with, so disabling a user or changing their roles bumps the
+ * version and every older token stops authenticating.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserAccessService {
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final UserStateCache userStateCache;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public void setEnabled(Long userId, boolean enabled) {
+        User user = findUser(userId);
+        if (user.isEnabled() == enabled) return;
+
+        user.setEnabled(enabled);
+        if (!enabled) {
+            // Re-enabling later must not bring old tokens back
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+        save(user);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public void setRoles(Long userId, Collection<String> roleNames) {
+        User user = findUser(userId);
+        Set<Role> roles = new HashSet<>();
+        for (String name : roleNames) {
+            String roleName = name.startsWith("ROLE_") ? name : "ROLE_" + name;
+            roles.add(roleRepository.findByName(roleName)
+                    .orElseThrow(() -> new RoleNotFoundException("Role not found: " + roleName)));
+        }
+
+        user.setRoles(roles);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        save(user);
+    }
+
+    /** Every token issued to the user so far stops working; the user can log in again. */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public void revokeAllTokens(Long userId) {
+        User user = findUser(userId);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        save(user);
+    }
+
+    private User findUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RoleNotFoundException("User not found with ID: " + userId));
+    }
+
+    private void save(User user) {
+        userRepository.save(user);
+        userStateCache.putAfterCommit(new UserState(user.getId(), user.isEnabled(), user.getTokenVersion()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.fintech.digitalbanking.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. mightContain() never returns false for a key that
+ * was added; it returns true for a key that was not added with roughly the probability it
+ * was sized for. Lock-free: bits are only ever set, with a CAS per word, so readers need
+ * no synchronisation and never allocate.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitMask;
+    private final int hashes;
+
+    private BloomFilter(long bits, int hashes) {
+        this.words = new AtomicLongArray((int) (bits >>> 6));
+        this.bitMask = bits - 1;
+        this.hashes = hashes;
+    }
+
+    /** Sized so that after expectedInsertions adds the false-positive rate is about fpp. */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        double optimalBits = -n * Math.log(fpp) / (Math.log(2) * Math.log(2));
+        // Power of two so a probe is a mask, not a modulo; at least one 64-bit word
+        long bits = Math.max(64, Long.highestOneBit((long) Math.ceil(optimalBits) - 1) << 1);
+        int hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / n * Math.log(2))));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void add(String key) {
+        long h = hash(key);
+        long h1 = mix(h);
+        long h2 = mix(h ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & bitMask;
+            words.getAndAccumulate((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long h = hash(key);
+        long h1 = mix(h);
+        long h2 = mix(h ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & bitMask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitMask + 1;
+    }
+
+    public int hashCount() {
+        return hashes;
+    }
+
+    /** 64-bit FNV-1a over the chars; String.hashCode() is only 32 bits. */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
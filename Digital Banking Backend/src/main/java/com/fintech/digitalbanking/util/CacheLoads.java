@@ -0,0 +1,46 @@
+package com.fintech.digitalbanking.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through for caches whose loader blocks on the database.
+ *
+ * Cache.get(key, loader) runs the loader inside ConcurrentHashMap.compute, i.e. while
+ * holding a synchronized bin lock. A JDBC wait in there pins a virtual thread to its
+ * carrier (JDK 21) and blocks every other key in the same bin. Here only an empty future
+ * is installed under that lock; the caller that installed it runs the loader afterwards on
+ * its own thread, and concurrent callers for the same key wait on the future instead.
+ */
+public final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    /** Cached value, or the loader's result (not cached when null). Loader exceptions propagate unwrapped. */
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> present = cache.getIfPresent(key);
+        if (present == null) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            present = cache.get(key, (k, executor) -> mine);
+            if (present == mine) {
+                try {
+                    mine.complete(loader.apply(key));
+                } catch (RuntimeException | Error e) {
+                    // A failed future is dropped by the cache, so the next caller loads again
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return present.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+}
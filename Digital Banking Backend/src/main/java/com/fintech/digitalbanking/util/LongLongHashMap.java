@@ -0,0 +1,100 @@
+package com.fintech.digitalbanking.util;
+
+/**
+ * Open-addressing map from positive long keys to long values, with no boxing and no
+ * allocation on get(). Keys and values are interleaved in a single array so a reader
+ * that grabbed the array reference always sees a consistent table, even across a resize.
+ *
+ * Not thread-safe on its own: callers guard writes (see AccountOwnershipIndex).
+ */
+public final class LongLongHashMap {
+
+    private static final long FREE = 0L;
+
+    /** key at [2i], value at [2i + 1]; key FREE marks an empty slot */
+    private long[] table;
+    private int size;
+
+    public LongLongHashMap(int expectedSize) {
+        table = new long[2 * capacityFor(expectedSize)];
+    }
+
+    public long get(long key, long absent) {
+        long[] tab = table;
+        int mask = (tab.length >> 1) - 1;
+        int slot = mix(key) & mask;
+        // Bounded by the capacity so a reader racing a writer can never spin forever
+        for (int probes = 0; probes <= mask; probes++) {
+            long k = tab[slot << 1];
+            if (k == key) return tab[(slot << 1) + 1];
+            if (k == FREE) return absent;
+            slot = (slot + 1) & mask;
+        }
+        return absent;
+    }
+
+    public void put(long key, long value) {
+        if (key <= 0) throw new IllegalArgumentException("Keys must be positive: " + key);
+        if (insert(table, key, value)) {
+            size++;
+            // Keep the load factor at or below one half so probe runs stay short
+            if (size * 2 > table.length >> 1) {
+                resize();
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        table = new long[table.length];
+        size = 0;
+    }
+
+    /** Returns true when the key was not present before. */
+    private static boolean insert(long[] tab, long key, long value) {
+        int mask = (tab.length >> 1) - 1;
+        int slot = mix(key) & mask;
+        while (true) {
+            long k = tab[slot << 1];
+            if (k == key) {
+                tab[(slot << 1) + 1] = value;
+                return false;
+            }
+            if (k == FREE) {
+                tab[slot << 1] = key;
+                tab[(slot << 1) + 1] = value;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        long[] old = table;
+        long[] grown = new long[old.length * 2];
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != FREE) insert(grown, old[i], old[i + 1]);
+        }
+        table = grown;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2L) capacity <<= 1;
+        return capacity;
+    }
+
+    /** Murmur3 finalizer; sequential ids would otherwise cluster in neighbouring slots */
+    private static int mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -2,6 +2,7 @@ package com.fintech.digitalbanking.util;
 
 import com.fintech.digitalbanking.entity.User;
 import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -26,6 +27,17 @@ public class SecurityUtil {
         return getAuth().getName();
     }
 
+    /**
+     * Id of the authenticated user, read from the JWT principal without a query. Falls back
+     * to loading the user for authentications built elsewhere (login, tests).
+     */
+    public Long getCurrentUserId() {
+        if (getAuth().getPrincipal() instanceof AuthenticatedUser user) {
+            return user.id();
+        }
+        return getCurrentUserEntity().getId();
+    }
+
     public User getCurrentUserEntity() {
         return userRepository.findByUsername(getCurrentUsername())
                 .orElseThrow(() -> new AccessDeniedException("Authenticated user not found"));
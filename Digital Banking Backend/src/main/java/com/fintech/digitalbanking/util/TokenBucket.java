@@ -0,0 +1,48 @@
+package com.fintech.digitalbanking.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single long: the time at which the bucket would next
+ * be full again if nothing else were taken (the "theoretical arrival time" of GCRA).
+ * Taking a permit is one CAS; refill needs no background task because it is implied by
+ * how far that time lies behind the clock.
+ *
+ * Times are System.nanoTime()-style values supplied by the caller.
+ */
+public final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes one permit from a bucket holding at most capacity permits and refilled one
+     * per intervalNanos. Returns 0 if the permit was taken, otherwise the nanoseconds until
+     * one becomes available.
+     */
+    public long tryAcquire(long now, long intervalNanos, int capacity) {
+        return tryAcquire(now, intervalNanos, capacity, 1);
+    }
+
+    /**
+     * Takes permits at once. Allowed as soon as the bucket holds min(permits, capacity) of
+     * them; any beyond capacity are owed, so later calls wait until the debt has refilled.
+     */
+    public long tryAcquire(long now, long intervalNanos, int capacity, int permits) {
+        long burst = intervalNanos * capacity;
+        while (true) {
+            long current = fullAt.get();
+            long start = Math.max(current, now);
+            long wait = start + intervalNanos * Math.min(permits, capacity) - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, start + intervalNanos * permits)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- History reads seek on (account, timestamp, id) for each side of a transfer and on
+-- (timestamp, id) for the unscoped admin view; see TransactionHistoryQueriesImpl.
+CREATE INDEX IF NOT EXISTS idx_transactions_source_timestamp_id ON transactions (source_account_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_target_timestamp_id ON transactions (target_account_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_timestamp_id ON transactions (timestamp, id);
@@ -0,0 +1,2 @@
+-- TokenRevocationList reloads unexpired rows and purges expired ones on every refresh.
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,2 @@
+-- HotAccountSlots reloads the (few) hot accounts every refresh; without this it scans accounts.
+CREATE INDEX idx_accounts_balance_slots ON accounts (balance_slots);
@@ -0,0 +1,16 @@
+-- Statements and balance-at-time reads are ranges on (account_id, posted_at, transaction_id)
+-- that only select the columns listed here (InnoDB appends the primary key, so direction is
+-- covered too), so they never visit the clustered index; see JournalEntryRepository.
+CREATE INDEX idx_journal_account_posted
+    ON journal_entries (account_id, posted_at, transaction_id, type, amount, balance_after);
+-- Transactions posted before the journal existed get their two legs without a running
+-- balance; JournalService adds those up where it needs a balance.
+INSERT INTO journal_entries (transaction_id, direction, account_id, type, amount, balance_after, posted_at)
+SELECT t.id, 'DEBIT', CASE WHEN t.type = 'DEPOSIT' THEN NULL ELSE t.source_account_id END, t.type, t.amount, NULL, t.timestamp
+FROM transactions t
+WHERE NOT EXISTS (SELECT 1 FROM journal_entries j WHERE j.transaction_id = t.id AND j.direction = 'DEBIT');
+INSERT INTO journal_entries (transaction_id, direction, account_id, type, amount, balance_after, posted_at)
+SELECT t.id, 'CREDIT', CASE WHEN t.type = 'DEPOSIT' THEN t.source_account_id WHEN t.type = 'TRANSFER' THEN t.target_account_id END,
+       t.type, t.amount, NULL, t.timestamp
+FROM transactions t
+WHERE NOT EXISTS (SELECT 1 FROM journal_entries j WHERE j.transaction_id = t.id AND j.direction = 'CREDIT');
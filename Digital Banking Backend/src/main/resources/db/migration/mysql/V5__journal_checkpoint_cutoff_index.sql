@@ -0,0 +1,8 @@
+-- BalanceCheckpointer claims the legs it counts by stamping checkpoint_cutoff on every
+-- committed leg that has none, then reads the accounts it claimed; both are ranges on
+-- this index.
+CREATE INDEX idx_journal_checkpoint_cutoff ON journal_entries (checkpoint_cutoff, posted_at, account_id);
+-- Legs that earlier posted_at checkpoint windows already counted are not claimed again
+UPDATE journal_entries SET checkpoint_cutoff = (SELECT checkpointed_to FROM balance_checkpoint_progress WHERE id = 1)
+WHERE checkpoint_cutoff IS NULL
+  AND posted_at <= (SELECT checkpointed_to FROM balance_checkpoint_progress WHERE id = 1);
@@ -0,0 +1,21 @@
+package com.fintech.digitalbanking;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids for rows that tests and benchmarks insert with plain JDBC, past the pooled
+ * sequences. Every range starts far above what the sequences hand out and none overlap,
+ * so seeded rows collide neither with entity inserts nor with each other.
+ */
+public final class SeedIds {
+
+    private static final AtomicLong next = new AtomicLong(1_000_000_000L);
+
+    private SeedIds() {
+    }
+
+    /** The first of count consecutive ids no other caller gets. */
+    public static long reserve(long count) {
+        return next.getAndAdd(count);
+    }
+}
@@ -0,0 +1,46 @@
+package com.fintech.digitalbanking;
+
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.AccountType;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Users and accounts for tests and benchmarks that run against the test database. Names
+ * and account numbers are random, so tests sharing a context never collide.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestAccounts {
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+
+    public User newUser(String prefix) {
+        return userRepository.save(User.builder().username(prefix + "-" + UUID.randomUUID()).password("n/a").build());
+    }
+
+    public Account newAccount(User owner, String balance) {
+        return newAccount(owner, new BigDecimal(balance), true);
+    }
+
+    public Account newAccount(User owner, BigDecimal balance) {
+        return newAccount(owner, balance, true);
+    }
+
+    public Account newAccount(User owner, BigDecimal balance, boolean active) {
+        return accountRepository.save(Account.builder()
+                .accountNumber("T" + UUID.randomUUID().toString().replace("-", "").substring(0, 15))
+                .accountType(AccountType.SAVINGS)
+                .balance(balance)
+                .active(active)
+                .user(owner)
+                .build());
+    }
+}
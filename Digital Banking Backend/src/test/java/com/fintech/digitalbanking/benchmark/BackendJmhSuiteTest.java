@@ -0,0 +1,66 @@
+package com.fintech.digitalbanking.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs every JMH benchmark in this package (or those matching -Dbench.include) and writes
+ * the results as JMH JSON to target/jmh/<commit>.json, so runs on different commits can
+ * be diffed or loaded into a JMH visualizer side by side.
+ * Run with: mvn test -Pbenchmark -Dtest=BackendJmhSuiteTest [-Dbench.include=Posting] [-Dbench.result=path.json]
+ */
+@Tag("benchmark")
+class BackendJmhSuiteTest {
+
+    @Test
+    void backendHotPaths() throws Exception {
+        String include = System.getProperty("bench.include", BackendJmhSuiteTest.class.getPackageName() + "\\..*Benchmark");
+        Path result = Paths.get(System.getProperty("bench.result", "target/jmh/" + commitId() + ".json"));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .forks(1)
+                .warmupIterations(Integer.getInteger("bench.warmups", 3))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("bench.iterations", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .threads(Integer.getInteger("bench.threads", 1))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        assertFalse(results.isEmpty());
+        System.out.println("JMH results written to " + result.toAbsolutePath());
+    }
+
+    /** Short commit id, with -dirty for uncommitted changes; "local" outside a git checkout. */
+    private static String commitId() {
+        try {
+            Process git = new ProcessBuilder("git", "describe", "--always", "--dirty").redirectErrorStream(true).start();
+            String id = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor() == 0 && !id.isEmpty() ? id : "local";
+        } catch (IOException e) {
+            return "local";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "local";
+        }
+    }
+}
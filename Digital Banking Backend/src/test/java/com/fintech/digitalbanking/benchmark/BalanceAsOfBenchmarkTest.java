@@ -0,0 +1,140 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.SeedIds;
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.EntryDirection;
+import com.fintech.digitalbanking.entity.JournalEntry;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.JournalEntryRepository;
+import com.fintech.digitalbanking.service.AccountService;
+import com.fintech.digitalbanking.service.BalanceCheckpointer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * One account with millions of journal legs, none carrying a running balance (the
+ * worst case: hot accounts and backfilled history). Reads its balance as of random past
+ * instants before any checkpoint exists, where every read replays the whole history,
+ * then again after checkpointing the history every interval, where a read only replays
+ * the legs since the nearest checkpoint. Prints both latency summaries and checks every
+ * answer against the seeded running total.
+ * Run with: mvn test -Pbenchmark -Dtest=BalanceAsOfBenchmarkTest (-Dbench.postings=5000000 -Dbench.interval-minutes=15)
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BalanceAsOfBenchmarkTest {
+
+    private static final int POSTINGS = Integer.getInteger("bench.postings", 2_000_000);
+    private static final int INTERVAL_MINUTES = Integer.getInteger("bench.interval-minutes", 5);
+    private static final int THREADS = Integer.getInteger("bench.threads", 4);
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private BalanceCheckpointer checkpointer;
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TestAccounts testAccounts;
+
+    // Balance in whole units after posting i; posting i is at START + i seconds
+    private final long[] balanceAfter = new long[POSTINGS];
+    private Account account;
+
+    @BeforeEach
+    void seed() {
+        SecurityContextHolder.getContext().setAuthentication(admin());
+        long firstTransaction = SeedIds.reserve(POSTINGS);
+        long balance = 0;
+        List<JournalEntry> legs = new ArrayList<>(10_000);
+        account = testAccounts.newAccount(testAccounts.newUser("bench"), BigDecimal.ZERO);
+        for (int i = 0; i < POSTINGS; i++) {
+            // Three deposits, then a withdrawal; only the account's own leg is seeded
+            boolean withdrawal = i % 4 == 3;
+            long amount = withdrawal ? 1 : 1 + i % 3;
+            balance += withdrawal ? -amount : amount;
+            balanceAfter[i] = balance;
+            legs.add(JournalEntry.builder()
+                    .transactionId(firstTransaction + i)
+                    .direction(withdrawal ? EntryDirection.DEBIT : EntryDirection.CREDIT)
+                    .accountId(account.getId())
+                    .type(withdrawal ? TransactionType.WITHDRAW : TransactionType.DEPOSIT)
+                    .amount(BigDecimal.valueOf(amount))
+                    .postedAt(START.plusSeconds(i))
+                    .build());
+            if (legs.size() == 10_000 || i == POSTINGS - 1) {
+                journalEntryRepository.insertAll(legs);
+                legs.clear();
+            }
+        }
+        account.setBalance(BigDecimal.valueOf(balance));
+        account = accountRepository.save(account);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void checkpointsBoundAsOfLatencyByTheInterval() throws Exception {
+        ConcurrentLoadRunner.Result fullReplay = asOfReads("no checkpoints", 1, 10);
+
+        long begin = System.nanoTime();
+        int runs = 0;
+        LocalDateTime end = START.plusSeconds(POSTINGS);
+        for (LocalDateTime cutoff = START.plusMinutes(INTERVAL_MINUTES); !cutoff.isAfter(end);
+             cutoff = cutoff.plusMinutes(INTERVAL_MINUTES)) {
+            checkpointer.checkpointUpTo(cutoff);
+            runs++;
+        }
+        System.out.printf("%d checkpoint runs (one per %d simulated minutes) in %.0f ms%n",
+                runs, INTERVAL_MINUTES, (System.nanoTime() - begin) / 1e6);
+
+        asOfReads("warm-up", THREADS, 50);
+        ConcurrentLoadRunner.Result fromCheckpoint = asOfReads("checkpoint every " + INTERVAL_MINUTES + "m", THREADS, 250);
+
+        System.out.println(fullReplay.summary());
+        System.out.println(fromCheckpoint.summary());
+        assertTrue(fromCheckpoint.percentileMillis(50) < fullReplay.percentileMillis(50),
+                "reads from a checkpoint should beat replaying every leg");
+    }
+
+    /** Balance as of random instants between postings, each checked against the seeded running total. */
+    private ConcurrentLoadRunner.Result asOfReads(String name, int threads, int iterations) throws Exception {
+        ConcurrentLoadRunner.Result result = ConcurrentLoadRunner.run(name, threads, iterations, (thread, i) -> {
+            SecurityContextHolder.getContext().setAuthentication(admin());
+            int posting = new Random(thread * 1_000_003L + i).nextInt(POSTINGS);
+            BigDecimal balance = accountService.getBalanceAsOf(account.getId(),
+                    START.plusSeconds(posting).plusNanos(500_000_000)).getBalance();
+            assertEquals(0, BigDecimal.valueOf(balanceAfter[posting]).compareTo(balance), "as of posting " + posting);
+        });
+        assertEquals(0, result.failed(), name + ": as-of reads should match the seeded balances");
+        return result;
+    }
+
+    private static UsernamePasswordAuthenticationToken admin() {
+        return new UsernamePasswordAuthenticationToken("admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+}
@@ -0,0 +1,101 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.dto.BatchTransferResponse;
+import com.fintech.digitalbanking.dto.TransferRequest;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.service.BatchTransferService;
+import com.fintech.digitalbanking.service.LockRetryExecutor;
+import com.fintech.digitalbanking.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Payroll-style workload: one funding account paying many employees. Compares one
+ * transfer call per payment with the chunked batch endpoint.
+ * Run with: mvn test -Pbenchmark -Dtest=BatchTransferBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BatchTransferBenchmarkTest {
+
+    private static final int PAYEES = Integer.getInteger("bench.payees", 200);
+    private static final int PAYMENTS = Integer.getInteger("bench.payments", 5000);
+    private static final BigDecimal PAYMENT = new BigDecimal("10.0000");
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BatchTransferService batchTransferService;
+    @Autowired
+    private LockRetryExecutor lockRetry;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @BeforeEach
+    void runAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @Test
+    void batchPostingVersusOneCallPerPayment() {
+        List<TransferRequest> singleRun = payroll();
+        long begin = System.nanoTime();
+        for (TransferRequest leg : singleRun) {
+            lockRetry.execute(() -> transactionService.transfer(
+                    leg.getSourceAccountId(), leg.getTargetAccountNumber(), leg.getAmount()));
+        }
+        double singleSeconds = (System.nanoTime() - begin) / 1e9;
+
+        List<TransferRequest> batchRun = payroll();
+        begin = System.nanoTime();
+        BatchTransferResponse response = batchTransferService.transferBatch(batchRun);
+        double batchSeconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.printf("[single] %d payments in %.2f s = %.0f postings/s%n",
+                PAYMENTS, singleSeconds, PAYMENTS / singleSeconds);
+        System.out.printf("[batch]  %d payments in %.2f s = %.0f postings/s (%.1fx)%n",
+                PAYMENTS, batchSeconds, PAYMENTS / batchSeconds, singleSeconds / batchSeconds);
+
+        assertEquals(PAYMENTS, response.getPosted());
+        Account funding = accountRepository.findById(batchRun.get(0).getSourceAccountId()).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(funding.getBalance()), "funding account pays out exactly");
+    }
+
+    /** Fresh funding account holding exactly the payroll total, plus payee accounts. */
+    private List<TransferRequest> payroll() {
+        User owner = testAccounts.newUser("bench");
+        Account funding = testAccounts.newAccount(owner, PAYMENT.multiply(BigDecimal.valueOf(PAYMENTS)));
+        List<Account> payees = new ArrayList<>();
+        for (int i = 0; i < PAYEES; i++) {
+            payees.add(testAccounts.newAccount(owner, BigDecimal.ZERO));
+        }
+
+        List<TransferRequest> legs = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            TransferRequest leg = new TransferRequest();
+            leg.setSourceAccountId(funding.getId());
+            leg.setTargetAccountNumber(payees.get(i % PAYEES).getAccountNumber());
+            leg.setAmount(PAYMENT);
+            legs.add(leg);
+        }
+        return legs;
+    }
+}
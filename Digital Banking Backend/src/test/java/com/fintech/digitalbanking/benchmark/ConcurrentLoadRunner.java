@@ -0,0 +1,90 @@
+package com.fintech.digitalbanking.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tiny closed-loop load generator shared by the benchmark tests: N threads each run
+ * the operation a fixed number of times, recording per-call latency.
+ */
+public final class ConcurrentLoadRunner {
+
+    @FunctionalInterface
+    public interface Operation {
+        void run(int threadIndex, int iteration) throws Exception;
+    }
+
+    public record Result(String name, long succeeded, long failed, long elapsedNanos, long[] latenciesNanos) {
+
+        public double throughputPerSecond() {
+            return succeeded * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public double percentileMillis(double percentile) {
+            if (latenciesNanos.length == 0) return 0;
+            int index = (int) Math.ceil(percentile / 100.0 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, Math.min(index, latenciesNanos.length - 1))] / 1_000_000.0;
+        }
+
+        public String summary() {
+            return String.format("[%s] ok=%d failed=%d elapsed=%.0f ms throughput=%.1f ops/s p50=%.2f ms p99=%.2f ms",
+                    name, succeeded, failed, elapsedNanos / 1_000_000.0, throughputPerSecond(),
+                    percentileMillis(50), percentileMillis(99));
+        }
+    }
+
+    private ConcurrentLoadRunner() {
+    }
+
+    public static Result run(String name, int threads, int iterationsPerThread, Operation operation)
+            throws InterruptedException {
+        long[][] latencies = new long[threads][iterationsPerThread];
+        int[] recorded = new int[threads];
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            final int threadIndex = t;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < iterationsPerThread; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            operation.run(threadIndex, i);
+                            latencies[threadIndex][recorded[threadIndex]++] = System.nanoTime() - begin;
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        long[] all = new long[Arrays.stream(recorded).sum()];
+        int offset = 0;
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(latencies[t], 0, all, offset, recorded[t]);
+            offset += recorded[t];
+        }
+        Arrays.sort(all);
+        return new Result(name, all.length, failed.get(), elapsed, all);
+    }
+}
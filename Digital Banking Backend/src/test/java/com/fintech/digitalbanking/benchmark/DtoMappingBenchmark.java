@@ -0,0 +1,144 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.digitalbanking.controller.AdminAccountController;
+import com.fintech.digitalbanking.controller.AdminTransactionController;
+import com.fintech.digitalbanking.controller.UserAccountController;
+import com.fintech.digitalbanking.controller.UserTransactionController;
+import com.fintech.digitalbanking.dto.AccountDto;
+import com.fintech.digitalbanking.dto.TransactionDto;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.AccountType;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the response side of the list endpoints: the controllers' private
+ * toDto mappers (called through method handles, the controllers built with no
+ * collaborators since the mappers use none) over a page of entities, and Jackson writing
+ * a List<TransactionDto> with the ObjectMapper settings Spring Boot applies.
+ * Launched by BackendJmhSuiteTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoMappingBenchmark {
+
+    /** Rows per page; 50 is the default history page size. */
+    @Param({"50", "500"})
+    public int rows;
+
+    private List<Transaction> transactions;
+    private List<Account> accounts;
+    private List<TransactionDto> transactionDtos;
+    private ObjectMapper objectMapper;
+
+    private UserTransactionController userTransactionController;
+    private AdminTransactionController adminTransactionController;
+    private UserAccountController userAccountController;
+    private AdminAccountController adminAccountController;
+    private MethodHandle userTransactionToDto;
+    private MethodHandle adminTransactionToDto;
+    private MethodHandle userAccountToDto;
+    private MethodHandle adminAccountToDto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        User owner = User.builder().id(7L).username("alice").build();
+        accounts = new ArrayList<>(rows);
+        transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Account source = Account.builder().id(2L * i + 1).accountNumber("ACC" + (100_000 + i))
+                    .accountType(AccountType.SAVINGS).balance(new BigDecimal("1234.56")).active(true).user(owner).build();
+            Account target = Account.builder().id(2L * i + 2).build();
+            accounts.add(source);
+            transactions.add(Transaction.builder().id((long) i).type(TransactionType.TRANSFER)
+                    .amount(new BigDecimal("12.34")).timestamp(LocalDateTime.now().minusMinutes(i))
+                    .sourceAccount(source).targetAccount(target).build());
+        }
+
+        userTransactionController = newController(UserTransactionController.class);
+        adminTransactionController = newController(AdminTransactionController.class);
+        userAccountController = newController(UserAccountController.class);
+        adminAccountController = newController(AdminAccountController.class);
+        userTransactionToDto = toDto(UserTransactionController.class, TransactionDto.class, Transaction.class);
+        adminTransactionToDto = toDto(AdminTransactionController.class, TransactionDto.class, Transaction.class);
+        userAccountToDto = toDto(UserAccountController.class, AccountDto.class, Account.class);
+        adminAccountToDto = toDto(AdminAccountController.class, AccountDto.class, Account.class);
+
+        transactionDtos = userTransactionDtos();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<TransactionDto> userTransactionDtos() throws Throwable {
+        List<TransactionDto> out = new ArrayList<>(rows);
+        for (Transaction t : transactions) {
+            out.add((TransactionDto) userTransactionToDto.invokeExact(userTransactionController, t));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<TransactionDto> adminTransactionDtos() throws Throwable {
+        List<TransactionDto> out = new ArrayList<>(rows);
+        for (Transaction t : transactions) {
+            out.add((TransactionDto) adminTransactionToDto.invokeExact(adminTransactionController, t));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<AccountDto> userAccountDtos() throws Throwable {
+        List<AccountDto> out = new ArrayList<>(rows);
+        for (Account a : accounts) {
+            out.add((AccountDto) userAccountToDto.invokeExact(userAccountController, a));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<AccountDto> adminAccountDtos() throws Throwable {
+        List<AccountDto> out = new ArrayList<>(rows);
+        for (Account a : accounts) {
+            out.add((AccountDto) adminAccountToDto.invokeExact(adminAccountController, a));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionDtos() throws Exception {
+        return objectMapper.writeValueAsBytes(transactionDtos);
+    }
+
+    private static <T> T newController(Class<T> type) throws Exception {
+        Constructor<?> constructor = type.getDeclaredConstructors()[0];
+        return type.cast(constructor.newInstance(new Object[constructor.getParameterCount()]));
+    }
+
+    private static MethodHandle toDto(Class<?> controller, Class<?> dto, Class<?> entity) throws Exception {
+        return MethodHandles.privateLookupIn(controller, MethodHandles.lookup())
+                .findVirtual(controller, "toDto", MethodType.methodType(dto, entity));
+    }
+}
@@ -0,0 +1,175 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.BatchPostingRepository;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.service.AccountCache;
+import com.fintech.digitalbanking.service.GroupCommitPipeline;
+import com.fintech.digitalbanking.service.HotAccountSlots;
+import com.fintech.digitalbanking.service.JournalService;
+import com.fintech.digitalbanking.service.LockRetryExecutor;
+import com.fintech.digitalbanking.service.PostingMetrics;
+import com.fintech.digitalbanking.service.TransactionService;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deposits and withdrawals through TransactionService, first posted one transaction each,
+ * then through group commit for every combination of batch size and linger time; prints
+ * throughput and p50/p99 per run.
+ *
+ * The database is a file-backed H2 behind its TCP server, with WRITE_DELAY=0 so every
+ * commit writes its log to the file before returning, and every statement is a round trip
+ * over loopback: the in-memory test database has neither cost, so group commit has nothing
+ * to save there. H2 still does not fsync per commit (a commit costs a few hundred
+ * microseconds here, not the milliseconds of a durable MySQL commit on a disk), so the
+ * gain on a server database is larger still; point spring.datasource.* at MySQL to see it.
+ * Run with: mvn test -Pbenchmark -Dtest=GroupCommitBenchmarkTest
+ * (-Dbench.batchSizes=1,16,64 -Dbench.lingerMs=0,2,5 to change the sweep)
+ */
+@Tag("benchmark")
+@SpringBootTest
+class GroupCommitBenchmarkTest {
+
+    private static final int ACCOUNTS = Integer.getInteger("bench.accounts", 64);
+    private static final int THREADS = Integer.getInteger("bench.threads", 32);
+    private static final int POSTINGS_PER_THREAD = Integer.getInteger("bench.iterations", 100);
+    private static final int WORKERS = Integer.getInteger("bench.workers", 4);
+    private static final int[] BATCH_SIZES = ints(System.getProperty("bench.batchSizes", "1,8,32,128"));
+    private static final long[] LINGER_MS = Arrays.stream(ints(System.getProperty("bench.lingerMs", "0,1,5")))
+            .asLongStream().toArray();
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.0000");
+
+    // Daemon threads, so the server goes away with the test JVM after the cached context closes
+    @DynamicPropertySource
+    static void fileBackedDatabase(DynamicPropertyRegistry registry) throws Exception {
+        Path dir = Files.createTempDirectory("group-commit-bench");
+        Server server = Server.createTcpServer("-tcpPort", "0", "-tcpDaemon", "-ifNotExists",
+                "-baseDir", dir.toString()).start();
+        registry.add("spring.datasource.url", () -> "jdbc:h2:tcp://localhost:" + server.getPort()
+                + "/bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;WRITE_DELAY=0;LOCK_TIMEOUT=10000");
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BatchPostingRepository batchPostingRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private LockRetryExecutor lockRetry;
+    @Autowired
+    private AccountCache accountCache;
+    @Autowired
+    private PostingMetrics metrics;
+    @Autowired
+    private JournalService journalService;
+    @Autowired
+    private HotAccountSlots hotAccounts;
+
+    @Test
+    void sweepBatchSizeAndLinger() throws Exception {
+        Object serviceTarget = AopTestUtils.getTargetObject(transactionService);
+        Object configured = ReflectionTestUtils.getField(serviceTarget, "groupCommit");
+        List<Account> accounts = seedAccounts();
+        try {
+            run("warm-up", accounts);
+            ConcurrentLoadRunner.Result direct = run("direct", accounts);
+            List<ConcurrentLoadRunner.Result> grouped = new ArrayList<>();
+            for (int batchSize : BATCH_SIZES) {
+                for (long lingerMs : LINGER_MS) {
+                    GroupCommitPipeline pipeline = start(batchSize, lingerMs);
+                    ReflectionTestUtils.setField(serviceTarget, "groupCommit", pipeline);
+                    try {
+                        grouped.add(run("batch=" + batchSize + " linger=" + lingerMs + "ms", accounts));
+                    } finally {
+                        ReflectionTestUtils.invokeMethod(pipeline, "stop");
+                    }
+                }
+            }
+
+            ConcurrentLoadRunner.Result best = grouped.stream()
+                    .max((a, b) -> Double.compare(a.throughputPerSecond(), b.throughputPerSecond()))
+                    .orElseThrow();
+            System.out.printf("Best group commit: %s, %.1fx the direct throughput%n",
+                    best.name(), best.throughputPerSecond() / direct.throughputPerSecond());
+            assertTrue(best.succeeded() > 0);
+        } finally {
+            ReflectionTestUtils.setField(serviceTarget, "groupCommit", configured);
+        }
+    }
+
+    private ConcurrentLoadRunner.Result run(String name, List<Account> accounts) throws Exception {
+        ConcurrentLoadRunner.Result result = ConcurrentLoadRunner.run(name, THREADS, POSTINGS_PER_THREAD,
+                (thread, i) -> {
+                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                            "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Account account = accounts.get(random.nextInt(accounts.size()));
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 100));
+                    if (i % 2 == 0) {
+                        lockRetry.execute(() -> transactionService.deposit(account.getId(), amount));
+                    } else {
+                        lockRetry.execute(() -> transactionService.withdraw(account.getId(), amount));
+                    }
+                });
+        System.out.println(result.summary());
+        assertEquals(0, result.failed(), name + ": postings should not fail on well-funded accounts");
+        return result;
+    }
+
+    private GroupCommitPipeline start(int batchSize, long lingerMs) {
+        GroupCommitPipeline pipeline = new GroupCommitPipeline(batchPostingRepository, transactionRepository,
+                accountRepository, transactionTemplate, lockRetry, accountCache, metrics, journalService, hotAccounts);
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "workerCount", WORKERS);
+        ReflectionTestUtils.setField(pipeline, "maxBatchSize", batchSize);
+        ReflectionTestUtils.setField(pipeline, "lingerMs", lingerMs);
+        ReflectionTestUtils.invokeMethod(pipeline, "start");
+        return pipeline;
+    }
+
+    private List<Account> seedAccounts() {
+        User owner = testAccounts.newUser("bench");
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(testAccounts.newAccount(owner, OPENING_BALANCE));
+        }
+        return accounts;
+    }
+
+    private static int[] ints(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.service.AccountService;
+import com.fintech.digitalbanking.service.LockRetryExecutor;
+import com.fintech.digitalbanking.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every thread transfers from its own customer account into one merchant account, first
+ * with the merchant as an ordinary account (1 slot), then split into N balance slots;
+ * prints throughput and p50/p99 per slot count and checks the merchant's total at the end.
+ * Run with: mvn test -Pbenchmark -Dtest=HotAccountBenchmarkTest (-Dbench.slots=1,4,16)
+ */
+@Tag("benchmark")
+@SpringBootTest
+class HotAccountBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 32);
+    private static final int TRANSFERS_PER_THREAD = Integer.getInteger("bench.iterations", 100);
+    private static final int[] SLOT_COUNTS = Arrays.stream(System.getProperty("bench.slots", "1,16").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private LockRetryExecutor lockRetry;
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Test
+    void compareSlotCountsOnOneMerchantAccount() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(admin());
+        User owner = testAccounts.newUser("bench");
+        Account merchant = testAccounts.newAccount(owner, BigDecimal.ZERO);
+        List<Account> customers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            customers.add(testAccounts.newAccount(owner, new BigDecimal("1000000.00")));
+        }
+
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int run = -1; run < SLOT_COUNTS.length; run++) {
+            // The first pass only warms up the JIT and the pool
+            int slots = SLOT_COUNTS[Math.max(run, 0)];
+            accountService.setBalanceSlots(merchant.getId(), slots);
+            ConcurrentLoadRunner.Result result = ConcurrentLoadRunner.run(run < 0 ? "warm-up" : "slots=" + slots,
+                    THREADS, TRANSFERS_PER_THREAD, (thread, i) -> {
+                        SecurityContextHolder.getContext().setAuthentication(admin());
+                        lockRetry.execute(() -> transactionService.transfer(
+                                customers.get(thread).getId(), merchant.getAccountNumber(), AMOUNT));
+                    });
+            System.out.println(result.summary());
+            assertEquals(0, result.failed(), slots + " slots: transfers should not fail");
+            expected = expected.add(AMOUNT.multiply(BigDecimal.valueOf(result.succeeded())));
+        }
+
+        assertEquals(0, expected.compareTo(accountService.getBalance(merchant.getId())));
+        SecurityContextHolder.clearContext();
+    }
+
+    private static UsernamePasswordAuthenticationToken admin() {
+        return new UsernamePasswordAuthenticationToken("admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+}
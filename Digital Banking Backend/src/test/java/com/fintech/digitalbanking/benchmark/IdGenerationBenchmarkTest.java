@@ -0,0 +1,308 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.dto.BatchTransferResponse;
+import com.fintech.digitalbanking.dto.TransferRequest;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.service.BatchTransferService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inserts BENCH_ROWS transaction rows two ways:
+ * <ul>
+ *   <li>identity - what the entities used before: an auto-increment column, so every row
+ *       is its own INSERT and the generated key has to be read back before the next one</li>
+ *   <li>pooled (jdbc) - the same plain JDBC inserts, but ids reserved 50 at a time from a
+ *       sequence and sent with executeBatch, isolating the id strategy from ORM overhead</li>
+ *   <li>pooled (hibernate) - the current mapping: ids drawn 50 at a time from transactions_seq,
+ *       inserts flushed by Hibernate in JDBC batches of hibernate.jdbc.batch_size</li>
+ * </ul>
+ * The JDBC runs use a side table with the same columns because the entity can only carry
+ * one mapping. On the in-memory H2 test database a statement costs no network round trip,
+ * so the gap is much smaller there than against a MySQL/PostgreSQL server.
+ *
+ * The second test runs the real posting path that the pooled ids exist for, bulk
+ * transfers, once with Hibernate's JDBC batching and once with it turned off for every
+ * session (row by row, which is all IDENTITY ids allow), and prints JDBC round trips per
+ * payment (JdbcRoundTrips) next to the time. H2 executes a batch row by row and has no
+ * network, so the time barely moves here; the round trips are what a server charges for.
+ * Run with: mvn test -Pbenchmark -Dtest=IdGenerationBenchmarkTest -Dbench.rows=1000000
+ */
+@Tag("benchmark")
+@SpringBootTest
+class IdGenerationBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 1_000_000);
+    // Rows per database transaction; also the flush/clear interval for the pooled run
+    private static final int COMMIT_EVERY = 1000;
+    private static final int FLUSH_EVERY = 50;
+    private static final int PAYMENTS = Integer.getInteger("bench.payments", 20_000);
+    private static final int PAYEES = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private BatchTransferService batchTransferService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @TestConfiguration
+    static class CountRoundTrips {
+        @Bean
+        static BeanPostProcessor jdbcRoundTrips() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof JdbcRoundTrips)
+                            ? new JdbcRoundTrips(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Test
+    void pooledSequenceWithBatchingVersusIdentity() {
+        Account source = newAccount();
+        Account target = newAccount();
+
+        double identitySeconds = insertWithIdentity(source.getId(), target.getId());
+        double pooledJdbcSeconds = insertWithJdbcBatches(source.getId(), target.getId());
+        double pooledSeconds = insertWithPooledSequence(source.getId(), target.getId());
+
+        System.out.printf("[identity]           %d rows in %.2f s = %.0f rows/s%n",
+                ROWS, identitySeconds, ROWS / identitySeconds);
+        System.out.printf("[pooled (jdbc)]      %d rows in %.2f s = %.0f rows/s (%.1fx)%n",
+                ROWS, pooledJdbcSeconds, ROWS / pooledJdbcSeconds, identitySeconds / pooledJdbcSeconds);
+        System.out.printf("[pooled (hibernate)] %d rows in %.2f s = %.0f rows/s (%.1fx)%n",
+                ROWS, pooledSeconds, ROWS / pooledSeconds, identitySeconds / pooledSeconds);
+
+        Long pooledRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE source_account_id = ?", Long.class, source.getId());
+        assertEquals(ROWS, pooledRows);
+    }
+
+    @Test
+    void batchTransfersWithAndWithoutJdbcBatching() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        // Session batch size 1 from the start of every transaction, while the flag is on
+        boolean[] unbatched = {false};
+        TransactionExecutionListener rowByRow = new TransactionExecutionListener() {
+            @Override
+            public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+                EntityManager current = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+                if (unbatched[0] && beginFailure == null && current != null) {
+                    current.unwrap(Session.class).setJdbcBatchSize(1);
+                }
+            }
+        };
+        AbstractPlatformTransactionManager manager = (AbstractPlatformTransactionManager) transactionManager;
+        manager.addListener(rowByRow);
+        try {
+            payroll(false); // warm-up
+            long[] batched = payroll(true);
+            unbatched[0] = true;
+            long[] rows = payroll(true);
+
+            System.out.printf("[jdbc batching] %d payments: %.2f round trips/payment, %d ms%n",
+                    PAYMENTS, (double) batched[0] / PAYMENTS, batched[1]);
+            System.out.printf("[row by row]    %d payments: %.2f round trips/payment, %d ms%n",
+                    PAYMENTS, (double) rows[0] / PAYMENTS, rows[1]);
+            assertTrue(batched[0] < rows[0], "batching should save round trips");
+        } finally {
+            manager.getTransactionExecutionListeners().remove(rowByRow);
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /** One bulk transfer from a funded account to PAYEES accounts; returns {round trips, millis}. */
+    private long[] payroll(boolean measured) {
+        Account funding = newAccount();
+        funding.setBalance(BigDecimal.valueOf(PAYMENTS));
+        accountRepository.save(funding);
+        List<String> payees = new ArrayList<>();
+        for (int i = 0; i < PAYEES; i++) payees.add(newAccount().getAccountNumber());
+        List<TransferRequest> legs = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < (measured ? PAYMENTS : PAYMENTS / 10); i++) {
+            TransferRequest leg = new TransferRequest();
+            leg.setSourceAccountId(funding.getId());
+            leg.setTargetAccountNumber(payees.get(i % PAYEES));
+            leg.setAmount(BigDecimal.ONE);
+            legs.add(leg);
+        }
+
+        long trips = JdbcRoundTrips.count();
+        long begin = System.nanoTime();
+        BatchTransferResponse response = batchTransferService.transferBatch(legs);
+        long millis = (System.nanoTime() - begin) / 1_000_000;
+        assertEquals(legs.size(), response.getPosted());
+        return new long[]{JdbcRoundTrips.count() - trips, millis};
+    }
+
+    private void createSideTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transactions_identity");
+        jdbcTemplate.execute("CREATE TABLE transactions_identity (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY, type VARCHAR(20) NOT NULL, amount DECIMAL(19,4) NOT NULL, " +
+                "timestamp TIMESTAMP NOT NULL, description VARCHAR(255), source_account_id BIGINT, " +
+                "target_account_id BIGINT, reversed BOOLEAN NOT NULL, related_transaction_id BIGINT)");
+    }
+
+    private double insertWithIdentity(Long sourceId, Long targetId) {
+        createSideTable();
+        String sql = "INSERT INTO transactions_identity (type, amount, timestamp, description, source_account_id, " +
+                "target_account_id, reversed) VALUES (?, ?, ?, ?, ?, ?, false)";
+
+        long begin = System.nanoTime();
+        for (int chunk = 0; chunk < ROWS; chunk += COMMIT_EVERY) {
+            int from = chunk;
+            int to = Math.min(chunk + COMMIT_EVERY, ROWS);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) c -> {
+                try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    for (int i = from; i < to; i++) {
+                        ps.setString(1, TransactionType.TRANSFER.name());
+                        ps.setBigDecimal(2, BigDecimal.ONE);
+                        ps.setTimestamp(3, now);
+                        ps.setString(4, "bench " + i);
+                        ps.setLong(5, sourceId);
+                        ps.setLong(6, targetId);
+                        ps.executeUpdate();
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            keys.next();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        jdbcTemplate.execute("DROP TABLE transactions_identity");
+        return seconds;
+    }
+
+    private double insertWithJdbcBatches(Long sourceId, Long targetId) {
+        createSideTable();
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS transactions_identity_seq");
+        jdbcTemplate.execute("CREATE SEQUENCE transactions_identity_seq START WITH 1 INCREMENT BY " + FLUSH_EVERY);
+        String sql = "INSERT INTO transactions_identity (id, type, amount, timestamp, description, source_account_id, " +
+                "target_account_id, reversed) VALUES (?, ?, ?, ?, ?, ?, ?, false)";
+
+        long begin = System.nanoTime();
+        for (int chunk = 0; chunk < ROWS; chunk += COMMIT_EVERY) {
+            int from = chunk;
+            int to = Math.min(chunk + COMMIT_EVERY, ROWS);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) c -> {
+                try (PreparedStatement ps = c.prepareStatement(sql)) {
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    long nextId = 0;
+                    long blockEnd = 0;
+                    for (int i = from; i < to; i++) {
+                        if (nextId == blockEnd) {
+                            // One sequence call reserves the next FLUSH_EVERY ids
+                            nextId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR transactions_identity_seq", Long.class);
+                            blockEnd = nextId + FLUSH_EVERY;
+                        }
+                        ps.setLong(1, nextId++);
+                        ps.setString(2, TransactionType.TRANSFER.name());
+                        ps.setBigDecimal(3, BigDecimal.ONE);
+                        ps.setTimestamp(4, now);
+                        ps.setString(5, "bench " + i);
+                        ps.setLong(6, sourceId);
+                        ps.setLong(7, targetId);
+                        ps.addBatch();
+                        if ((i + 1) % FLUSH_EVERY == 0) ps.executeBatch();
+                    }
+                    ps.executeBatch();
+                }
+                return null;
+            }));
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        jdbcTemplate.execute("DROP TABLE transactions_identity");
+        jdbcTemplate.execute("DROP SEQUENCE transactions_identity_seq");
+        return seconds;
+    }
+
+    private double insertWithPooledSequence(Long sourceId, Long targetId) {
+        long begin = System.nanoTime();
+        for (int chunk = 0; chunk < ROWS; chunk += COMMIT_EVERY) {
+            int from = chunk;
+            int to = Math.min(chunk + COMMIT_EVERY, ROWS);
+            transactionTemplate.executeWithoutResult(status -> {
+                Account source = entityManager.getReference(Account.class, sourceId);
+                Account target = entityManager.getReference(Account.class, targetId);
+                LocalDateTime now = LocalDateTime.now();
+                for (int i = from; i < to; i++) {
+                    entityManager.persist(Transaction.builder()
+                            .type(TransactionType.TRANSFER)
+                            .amount(BigDecimal.ONE)
+                            .timestamp(now)
+                            .description("bench " + i)
+                            .sourceAccount(source)
+                            .targetAccount(target)
+                            .build());
+                    if ((i + 1) % FLUSH_EVERY == 0) {
+                        // Keep the persistence context small; each flush is one JDBC batch
+                        entityManager.flush();
+                        entityManager.clear();
+                        source = entityManager.getReference(Account.class, sourceId);
+                        target = entityManager.getReference(Account.class, targetId);
+                    }
+                }
+            });
+        }
+        return (System.nanoTime() - begin) / 1e9;
+    }
+
+    private Account newAccount() {
+        return testAccounts.newAccount(testAccounts.newUser("bench"), BigDecimal.ZERO);
+    }
+}
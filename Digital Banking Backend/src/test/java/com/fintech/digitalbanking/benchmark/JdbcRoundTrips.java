@@ -0,0 +1,72 @@
+package com.fintech.digitalbanking.benchmark;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the calls that are one round trip each on a server driver that batches
+ * (MySQL with rewriteBatchedStatements, PostgreSQL with reWriteBatchedInserts): every
+ * statement execution, every executeBatch and every commit/rollback. The in-memory H2
+ * used by tests has no round trips to save, so this is how benchmarks show them.
+ */
+public final class JdbcRoundTrips extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_TRIPS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> CONNECTION_TRIPS = Set.of("commit", "rollback");
+
+    private static final AtomicLong count = new AtomicLong();
+
+    public JdbcRoundTrips(DataSource target) {
+        super(target);
+    }
+
+    public static long count() {
+        return count.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(JdbcRoundTrips.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (CONNECTION_TRIPS.contains(method.getName())) count.incrementAndGet();
+                    Object result = invoke(connection, method, args);
+                    return result instanceof Statement statement ? counting(statement, method.getReturnType()) : result;
+                });
+    }
+
+    /** type is what the Connection method declares (Statement, PreparedStatement or CallableStatement). */
+    private static Statement counting(Statement statement, Class<?> type) {
+        return (Statement) Proxy.newProxyInstance(JdbcRoundTrips.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (STATEMENT_TRIPS.contains(method.getName())) count.incrementAndGet();
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
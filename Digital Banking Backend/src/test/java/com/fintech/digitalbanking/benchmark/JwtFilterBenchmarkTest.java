@@ -0,0 +1,77 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.security.JwtAuthMode;
+import com.fintech.digitalbanking.security.JwtAuthenticationFilter;
+import com.fintech.digitalbanking.security.JwtService;
+import com.fintech.digitalbanking.service.CustomUserDetailsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends authenticated requests to a trivial endpoint through the full security filter
+ * chain, once per JwtAuthMode, and prints requests/s and JDBC statements per request.
+ * Run with: mvn test -Pbenchmark -Dtest=JwtFilterBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class JwtFilterBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int REQUESTS_PER_THREAD = Integer.getInteger("bench.iterations", 2000);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void compareLookupAndStatelessAuthentication() throws Exception {
+        User user = testAccounts.newUser("jwt");
+        String token = jwtService.generateToken(userDetailsService.loadUserByUsername(user.getUsername()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (JwtAuthMode mode : new JwtAuthMode[]{JwtAuthMode.LOOKUP, JwtAuthMode.STATELESS}) {
+            ReflectionTestUtils.setField(jwtAuthenticationFilter, "authMode", mode);
+            // Warm-up, also fills the user-state cache for STATELESS
+            for (int i = 0; i < 200; i++) call(token);
+
+            statistics.clear();
+            ConcurrentLoadRunner.Result result = ConcurrentLoadRunner.run(mode.name(), THREADS, REQUESTS_PER_THREAD,
+                    (thread, i) -> call(token));
+            System.out.println(result.summary());
+            System.out.printf("[%s] %.2f statements/request%n", mode,
+                    (double) statistics.getPrepareStatementCount() / result.succeeded());
+            assertEquals(0, result.failed());
+        }
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "authMode", JwtAuthMode.STATELESS);
+    }
+
+    private void call(String token) throws Exception {
+        mockMvc.perform(get("/api/admin/hello").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+}
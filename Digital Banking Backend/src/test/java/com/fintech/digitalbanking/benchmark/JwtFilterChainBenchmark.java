@@ -0,0 +1,89 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.dto.UserState;
+import com.fintech.digitalbanking.repository.RevokedTokenRepository;
+import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.security.BankUserDetails;
+import com.fintech.digitalbanking.security.JwtAuthenticationFilter;
+import com.fintech.digitalbanking.security.JwtService;
+import com.fintech.digitalbanking.security.TokenRevocationList;
+import com.fintech.digitalbanking.security.UserStateCache;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * JMH benchmark of JwtAuthenticationFilter in its default STATELESS mode for a token
+ * already verified once: token cache hit, revocation probe, cached user state, and the
+ * Authentication placed in the security context. The repositories behind the caches are
+ * mocks that are only hit during setup. Launched by BackendJmhSuiteTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtFilterChainBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private TokenRevocationList revocationList;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "ThisIsAReallyLongAndSecureSecretKeyForJWTGeneration2025!");
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findStateById(7L)).thenReturn(Optional.of(new UserState(7L, true, 0L)));
+        UserStateCache userStateCache = new UserStateCache(userRepository);
+        ReflectionTestUtils.invokeMethod(userStateCache, "initCache");
+
+        RevokedTokenRepository revokedTokenRepository = Mockito.mock(RevokedTokenRepository.class);
+        Mockito.when(revokedTokenRepository.findActiveTokenIds(any())).thenReturn(List.of());
+        revocationList = new TokenRevocationList(revokedTokenRepository);
+        ReflectionTestUtils.invokeMethod(revocationList, "start");
+
+        filter = new JwtAuthenticationFilter(jwtService, null, userStateCache, revocationList);
+        String token = jwtService.generateToken(new BankUserDetails(7L, "alice", "n/a", true, 0L,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        request = new MockHttpServletRequest("GET", "/api/user/accounts");
+        request.addHeader("Authorization", "Bearer " + token);
+        if (authenticate() == null) throw new IllegalStateException("Filter did not authenticate the benchmark token");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(revocationList, "stop");
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        filter.doFilter(request, response, new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // Reset what one request leaves behind: the once-per-request marker and the context
+        request.clearAttributes();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,77 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.security.BankUserDetails;
+import com.fintech.digitalbanking.security.JwtService;
+import com.fintech.digitalbanking.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of JwtService: "sign" issues a token, "cold" is the full HMAC check and
+ * parse every request used to pay, "warm" is a repeat of a token already in the
+ * verified-token cache.
+ * Launched by JwtVerificationJmhTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtVerificationBenchmark {
+
+    /** Distinct bearer tokens cycled through, i.e. concurrently active sessions. */
+    @Param({"1000"})
+    public int tokens;
+
+    private JwtService jwtService;
+    private String[] bearerTokens;
+    private final BankUserDetails signer = new BankUserDetails(1L, "signer", "n/a", true, 0L,
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "ThisIsAReallyLongAndSecureSecretKeyForJWTGeneration2025!");
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        bearerTokens = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            bearerTokens[i] = jwtService.generateToken(new BankUserDetails((long) i, "user" + i, "n/a", true, 0L,
+                    List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+            jwtService.verify(bearerTokens[i]);
+        }
+    }
+
+    /** Signing a new token, i.e. the JWT part of a login. */
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(signer);
+    }
+
+    @Benchmark
+    public VerifiedToken cold() {
+        return jwtService.verifyUncached(nextToken());
+    }
+
+    @Benchmark
+    public VerifiedToken warm() {
+        return jwtService.verify(nextToken());
+    }
+
+    private String nextToken() {
+        // Benign race across benchmark threads; only spreads the tokens used
+        int i = next++;
+        if (next == tokens) next = 0;
+        return bearerTokens[i];
+    }
+}
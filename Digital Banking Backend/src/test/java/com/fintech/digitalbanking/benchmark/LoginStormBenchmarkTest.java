@@ -0,0 +1,100 @@
+package com.fintech.digitalbanking.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Floods /api/auth/login over real HTTP with more concurrent clients than there are
+ * request threads, and measures /api/health latency before and during the storm.
+ * BCrypt runs on PasswordHasher's CPU-sized pool and excess logins are shed with 503,
+ * so the health check should stay in the same latency range.
+ * Run with: mvn test -Pbenchmark -Dtest=LoginStormBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.tomcat.threads.max=32")
+class LoginStormBenchmarkTest {
+
+    private static final int LOGIN_THREADS = Integer.getInteger("bench.login-threads", 96);
+    private static final int LOGINS_PER_THREAD = Integer.getInteger("bench.logins", 10);
+    private static final int PROBE_THREADS = 4;
+    private static final int PROBES_PER_THREAD = Integer.getInteger("bench.probes", 250);
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void healthLatencySurvivesLoginStorm() throws Exception {
+        String username = "storm-" + UUID.randomUUID();
+        String body = "{\"username\":\"" + username + "\",\"password\":\"correct horse\"}";
+        assertEquals(200, post("/api/auth/register", body).statusCode());
+
+        // Warm-up
+        for (int i = 0; i < 200; i++) get("/api/health");
+        ConcurrentLoadRunner.Result idle = ConcurrentLoadRunner.run("health idle", PROBE_THREADS, PROBES_PER_THREAD,
+                (thread, i) -> expect(200, get("/api/health")));
+
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        CompletableFuture<ConcurrentLoadRunner.Result> storm = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ConcurrentLoadRunner.run("login storm", LOGIN_THREADS, LOGINS_PER_THREAD, (thread, i) -> {
+                    int status = post("/api/auth/login", body).statusCode();
+                    if (status == 200) accepted.incrementAndGet();
+                    else if (status == 503) shed.incrementAndGet();
+                    else throw new IllegalStateException("Unexpected login status " + status);
+                });
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(500); // let the hashing pool and its queue fill up
+
+        ConcurrentLoadRunner.Result underLoad = ConcurrentLoadRunner.run("health during storm", PROBE_THREADS,
+                PROBES_PER_THREAD, (thread, i) -> expect(200, get("/api/health")));
+        ConcurrentLoadRunner.Result logins = storm.join();
+
+        System.out.println(idle.summary());
+        System.out.println(underLoad.summary());
+        System.out.println(logins.summary());
+        System.out.printf("[login storm] accepted=%d shed(503)=%d%n", accepted.get(), shed.get());
+        assertEquals(0, idle.failed());
+        assertEquals(0, underLoad.failed());
+        assertEquals(0, logins.failed());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void expect(int status, HttpResponse<String> response) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Expected " + status + " but got " + response.statusCode());
+        }
+    }
+}
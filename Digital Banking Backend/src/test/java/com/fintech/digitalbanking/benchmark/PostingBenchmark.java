@@ -0,0 +1,94 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.DigitalBankingSystemApplication;
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.security.AuthenticatedUser;
+import com.fintech.digitalbanking.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of TransactionService postings through the Spring proxies (transaction,
+ * metrics, cache eviction) against the embedded H2 database from the test configuration,
+ * in each posting mode. In LOCKING and ATOMIC each call is one committed transaction; in
+ * LEDGER it returns once journaled (to a temporary directory) and the tables catch up behind.
+ * Launched by BackendJmhSuiteTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostingBenchmark {
+
+    @Param({"LOCKING", "ATOMIC", "LEDGER"})
+    public String postingMode;
+
+    private ConfigurableApplicationContext context;
+    private Path journalDir;
+    private TransactionService transactionService;
+    private Long sourceAccountId;
+    private String targetAccountNumber;
+    private final BigDecimal amount = new BigDecimal("1.00");
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        journalDir = Files.createTempDirectory("ledger-bench");
+        context = new SpringApplicationBuilder(DigitalBankingSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("banking.posting.mode=" + postingMode, "banking.ledger.journal-dir=" + journalDir,
+                        "logging.level.root=WARN")
+                .run();
+        transactionService = context.getBean(TransactionService.class);
+        TestAccounts accounts = context.getBean(TestAccounts.class);
+
+        User owner = accounts.newUser("bench");
+        sourceAccountId = accounts.newAccount(owner, "1000000000.00").getId();
+        targetAccountNumber = accounts.newAccount(owner, BigDecimal.ZERO).getAccountNumber();
+
+        // JMH worker threads are not the setup thread; share one authenticated context
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(owner.getId(), owner.getUsername(), List.of("ROLE_USER")), null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(journalDir);
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        return transactionService.deposit(sourceAccountId, amount);
+    }
+
+    @Benchmark
+    public Transaction transfer() {
+        return transactionService.transfer(sourceAccountId, targetAccountNumber, amount);
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.service.PostingMetrics;
+import com.fintech.digitalbanking.service.PostingMetrics.Operation;
+import com.fintech.digitalbanking.service.PostingMetrics.Outcome;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * JMH benchmark of the PostingMetrics hot path against the Prometheus registry the app
+ * publishes to: recording a finished posting (histogram timer), a lock wait, and a whole
+ * time() call outside a transaction. Launched by PostingMetricsJmhTest, which also checks
+ * the recorded allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PostingMetricsBenchmark {
+
+    private PostingMetrics metrics;
+    private final Supplier<String> body = () -> "posted";
+    private long nanos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metrics = new PostingMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    }
+
+    @Benchmark
+    public void record() {
+        // Spread over the histogram's buckets (0.1 ms .. ~1.6 s)
+        nanos = (nanos + 7_919_993) & ((1L << 31) - 1);
+        metrics.record(Operation.TRANSFER, Outcome.SUCCESS, 100_000 + nanos);
+    }
+
+    @Benchmark
+    public void recordLockWait() {
+        nanos = (nanos + 7_919_993) & ((1L << 31) - 1);
+        metrics.recordLockWait(100_000 + nanos);
+    }
+
+    @Benchmark
+    public String timeOutsideTransaction() {
+        return metrics.time(Operation.DEPOSIT, body);
+    }
+}
@@ -0,0 +1,56 @@
+package com.fintech.digitalbanking.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs PostingMetricsBenchmark through JMH (one forked JVM) with the GC profiler and
+ * fails if any recording path allocates.
+ * Run with: mvn test -Pbenchmark -Dtest=PostingMetricsJmhTest
+ */
+@Tag("benchmark")
+class PostingMetricsJmhTest {
+
+    @Test
+    void recordingIsAllocationFree() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PostingMetricsBenchmark.class.getName())
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .threads(Integer.getInteger("bench.threads", 1))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        assertFalse(results.isEmpty());
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            Map<String, Result> secondary = result.getSecondaryResults();
+            double bytesPerOp = secondary.entrySet().stream()
+                    .filter(e -> e.getKey().endsWith("gc.alloc.rate.norm"))
+                    .mapToDouble(e -> e.getValue().getScore())
+                    .findFirst()
+                    .orElseThrow();
+            System.out.printf("[%s] %.1f ns/op, %.2f B/op%n", benchmark,
+                    result.getPrimaryResult().getScore(), bytesPerOp);
+            // Under one byte: JMH's own bookkeeping can show a fraction
+            assertTrue(bytesPerOp < 1.0, benchmark + " allocates " + bytesPerOp + " B/op");
+        }
+    }
+}
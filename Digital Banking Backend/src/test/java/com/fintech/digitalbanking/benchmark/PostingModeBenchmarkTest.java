@@ -0,0 +1,101 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.service.LockRetryExecutor;
+import com.fintech.digitalbanking.service.PostingMode;
+import com.fintech.digitalbanking.service.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same deposit/withdraw/transfer mix against hot accounts under the LOCKING
+ * and ATOMIC posting modes and prints throughput, p99 and JDBC statements per posting.
+ * Run with: mvn test -Pbenchmark -Dtest=PostingModeBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PostingModeBenchmarkTest {
+
+    private static final int HOT_ACCOUNTS = Integer.getInteger("bench.accounts", 4);
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int POSTINGS_PER_THREAD = Integer.getInteger("bench.iterations", 200);
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.0000");
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private LockRetryExecutor lockRetry;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void compareLockingAndAtomicPosting() throws Exception {
+        ConcurrentLoadRunner.Result locking = runMode(PostingMode.LOCKING);
+        ConcurrentLoadRunner.Result atomic = runMode(PostingMode.ATOMIC);
+
+        assertTrue(atomic.succeeded() > 0 && locking.succeeded() > 0);
+    }
+
+    private ConcurrentLoadRunner.Result runMode(PostingMode mode) throws Exception {
+        Object serviceTarget = AopTestUtils.getTargetObject(transactionService);
+        ReflectionTestUtils.setField(serviceTarget, "postingMode", mode);
+        List<Account> accounts = seedAccounts();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ConcurrentLoadRunner.Result result = ConcurrentLoadRunner.run(mode.name(), THREADS, POSTINGS_PER_THREAD,
+                (thread, i) -> {
+                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                            "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Account account = accounts.get(random.nextInt(accounts.size()));
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 100));
+                    switch (i % 3) {
+                        case 0 -> lockRetry.execute(() -> transactionService.deposit(account.getId(), amount));
+                        case 1 -> lockRetry.execute(() -> transactionService.withdraw(account.getId(), amount));
+                        default -> {
+                            Account target = accounts.get((accounts.indexOf(account) + 1) % accounts.size());
+                            lockRetry.execute(() -> transactionService.transfer(
+                                    account.getId(), target.getAccountNumber(), amount));
+                        }
+                    }
+                });
+
+        double statementsPerPosting = (double) statistics.getPrepareStatementCount() / result.succeeded();
+        System.out.println(result.summary() + String.format(" statements/posting=%.2f optimisticFailures=%d",
+                statementsPerPosting, statistics.getOptimisticFailureCount()));
+        assertEquals(0, result.failed(), mode + " postings should not fail on a well-funded account");
+        return result;
+    }
+
+    private List<Account> seedAccounts() {
+        User owner = testAccounts.newUser("bench");
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < HOT_ACCOUNTS; i++) {
+            accounts.add(testAccounts.newAccount(owner, OPENING_BALANCE));
+        }
+        return accounts;
+    }
+}
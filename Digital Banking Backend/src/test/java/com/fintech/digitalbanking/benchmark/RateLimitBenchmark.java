@@ -0,0 +1,64 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.security.RateLimiter;
+import com.fintech.digitalbanking.security.RateLimiter.RouteGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of RateLimiter.tryAcquire, i.e. what RateLimitFilter adds to a limited
+ * request, with `keys` distinct clients already holding buckets. Limits are set high so
+ * every call takes the allow path. Launched by RateLimitJmhTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitBenchmark {
+
+    @Param({"100000"})
+    public int keys;
+
+    private RateLimiter rateLimiter;
+    private String[] clientKeys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "moneyCapacity", 1_000_000_000);
+        ReflectionTestUtils.setField(rateLimiter, "moneyRefillPerSecond", 1_000_000_000.0);
+        ReflectionTestUtils.invokeMethod(rateLimiter, "start");
+        clientKeys = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            clientKeys[i] = "user:" + i;
+            rateLimiter.tryAcquire(RouteGroup.MONEY, clientKeys[i]);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        // Benign race across benchmark threads; only spreads the keys used
+        int i = next++;
+        if (i >= clientKeys.length) {
+            i = 0;
+            next = 1;
+        }
+        return rateLimiter.tryAcquire(RouteGroup.MONEY, clientKeys[i]);
+    }
+
+    /** Same key every call: all threads CAS one bucket. */
+    @Benchmark
+    public long tryAcquireHotKey() {
+        return rateLimiter.tryAcquire(RouteGroup.MONEY, clientKeys[0]);
+    }
+}
@@ -0,0 +1,69 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.repository.RevokedTokenRepository;
+import com.fintech.digitalbanking.security.TokenRevocationList;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * JMH benchmark of TokenRevocationList.isRevoked for tokens that were never revoked,
+ * i.e. what every authenticated request pays, with `revoked` rows in the table.
+ * Launched by RevocationCheckJmhTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RevocationCheckBenchmark {
+
+    @Param({"1000", "100000"})
+    public int revoked;
+
+    private TokenRevocationList revocationList;
+    private String[] liveTokenIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> revokedIds = new ArrayList<>(revoked);
+        for (int i = 0; i < revoked; i++) revokedIds.add(UUID.randomUUID().toString());
+        RevokedTokenRepository repository = Mockito.mock(RevokedTokenRepository.class);
+        Mockito.when(repository.findActiveTokenIds(any())).thenReturn(revokedIds);
+        Mockito.when(repository.existsById(any())).thenReturn(false);
+
+        revocationList = new TokenRevocationList(repository);
+        ReflectionTestUtils.setField(revocationList, "refreshSeconds", 3600L);
+        ReflectionTestUtils.invokeMethod(revocationList, "start");
+
+        liveTokenIds = new String[1024];
+        for (int i = 0; i < liveTokenIds.length; i++) liveTokenIds[i] = UUID.randomUUID().toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(revocationList, "stop");
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        // Benign race across benchmark threads; only spreads the ids used
+        int i = next++ & (liveTokenIds.length - 1);
+        return revocationList.isRevoked(liveTokenIds[i]);
+    }
+}
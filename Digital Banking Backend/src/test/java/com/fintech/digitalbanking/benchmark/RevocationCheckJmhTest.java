@@ -0,0 +1,37 @@
+package com.fintech.digitalbanking.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs RevocationCheckBenchmark through JMH (one forked JVM).
+ * Run with: mvn test -Pbenchmark -Dtest=RevocationCheckJmhTest
+ */
+@Tag("benchmark")
+class RevocationCheckJmhTest {
+
+    @Test
+    void nonRevokedCheck() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(RevocationCheckBenchmark.class.getName())
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .threads(Integer.getInteger("bench.threads", 1))
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        assertFalse(results.isEmpty());
+    }
+}
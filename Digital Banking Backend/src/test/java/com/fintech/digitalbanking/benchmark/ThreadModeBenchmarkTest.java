@@ -0,0 +1,195 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.DigitalBankingSystemApplication;
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.security.BankUserDetails;
+import com.fintech.digitalbanking.security.JwtService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * A hot-account storm per thread mode: `clients` concurrent HTTP clients each post transfers
+ * into one shared account, which serialise on its row lock, while a few probes read a
+ * balance that has nothing to do with it. Prints transfer throughput/latency, how many were
+ * shed (503), and the probe latency during the storm, for
+ * - platform threads (Tomcat's 200-thread pool is the only cap),
+ * - platform threads behind ConcurrencyLimitFilter,
+ * - virtual threads, i.e. the virtual-threads profile, which turns the limit on as well.
+ * The virtual-thread run needs Java 21 (mvn -Pjdk21) and is skipped on older JVMs.
+ *
+ * Client and server share this JVM, so 10k clients need about 2 x 10k file descriptors
+ * (ulimit -n).
+ * Run with: mvn test -Pbenchmark [-Pjdk21] -Dtest=ThreadModeBenchmarkTest [-Dbench.clients=1000,10000]
+ */
+@Tag("benchmark")
+class ThreadModeBenchmarkTest {
+
+    private static final String CLIENTS = System.getProperty("bench.clients", "1000,10000");
+    private static final int TRANSFERS_PER_CLIENT = Integer.getInteger("bench.transfers", 2);
+    private static final int SENDERS = 100;
+    private static final int PROBE_THREADS = 4;
+    private static final int PROBES_PER_THREAD = Integer.getInteger("bench.probes", 100);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void platformThreads() throws Exception {
+        compare("platform", app().properties("banking.concurrency-limit.enabled=false"));
+    }
+
+    @Test
+    void platformThreadsConcurrencyLimited() throws Exception {
+        compare("platform+limit", app().properties("banking.concurrency-limit.enabled=true"));
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21+; run with -Pjdk21");
+        compare("virtual", app().profiles("virtual-threads"));
+    }
+
+    private static SpringApplicationBuilder app() {
+        // Same connection limits in every mode, so only the threads and the filter differ
+        return new SpringApplicationBuilder(DigitalBankingSystemApplication.class)
+                .properties("server.port=0", "server.tomcat.max-connections=20000", "server.tomcat.accept-count=1000");
+    }
+
+    private void compare(String mode, SpringApplicationBuilder builder) throws Exception {
+        try (ConfigurableApplicationContext context = builder.run()) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            Fixture fixture = Fixture.create(context);
+
+            for (String level : CLIENTS.split(",")) {
+                int clients = Integer.parseInt(level.trim());
+                Storm storm = new Storm(mode + " x" + clients, clients);
+                CompletableFuture<Void> running = CompletableFuture.runAsync(() -> storm.run(port, fixture));
+                Thread.sleep(200); // let the queue behind the hot row build up
+
+                ConcurrentLoadRunner.Result probes = ConcurrentLoadRunner.run(mode + " x" + clients + " balance probe",
+                        PROBE_THREADS, PROBES_PER_THREAD, (thread, i) -> {
+                            HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                                            URI.create("http://localhost:" + port + "/api/user/accounts/balance/"
+                                                    + fixture.probeAccountId()))
+                                    .header("Authorization", "Bearer " + fixture.probeToken())
+                                    .GET().build(), HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() != 200) {
+                                throw new IllegalStateException("Probe got " + response.statusCode());
+                            }
+                        });
+                running.join();
+
+                System.out.println(storm.result().summary());
+                System.out.printf("[%s] shed(503)=%d other errors=%d%n", storm.name, storm.shed.get(), storm.errors.get());
+                System.out.println(probes.summary());
+                assertTrue(storm.result().succeeded() > 0, "No transfer succeeded");
+            }
+        }
+    }
+
+    /** Closed loop: each client sends its next transfer when the previous response arrives. */
+    private final class Storm {
+
+        private final String name;
+        private final int clients;
+        private final AtomicLongArray latencies;
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final AtomicLong shed = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private long elapsedNanos;
+
+        Storm(String name, int clients) {
+            this.name = name;
+            this.clients = clients;
+            this.latencies = new AtomicLongArray(clients * TRANSFERS_PER_CLIENT);
+        }
+
+        void run(int port, Fixture fixture) {
+            long begin = System.nanoTime();
+            CompletableFuture<?>[] loops = new CompletableFuture<?>[clients];
+            for (int c = 0; c < clients; c++) {
+                loops[c] = next(port, fixture, c % SENDERS, TRANSFERS_PER_CLIENT);
+            }
+            CompletableFuture.allOf(loops).join();
+            elapsedNanos = System.nanoTime() - begin;
+        }
+
+        private CompletableFuture<Void> next(int port, Fixture fixture, int sender, int remaining) {
+            if (remaining == 0) return CompletableFuture.completedFuture(null);
+            String json = "{\"sourceAccountId\":" + fixture.senderAccountIds().get(sender)
+                    + ",\"targetAccountNumber\":\"" + fixture.hotAccountNumber() + "\",\"amount\":1.00}";
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/user/transactions/transfer"))
+                    .header("Authorization", "Bearer " + fixture.senderTokens().get(sender))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+            long start = System.nanoTime();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        if (failure == null && response.statusCode() == 200) {
+                            latencies.set(recorded.getAndIncrement(), System.nanoTime() - start);
+                        } else if (failure == null && response.statusCode() == 503) {
+                            shed.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                        return null;
+                    })
+                    .thenCompose(ignored -> next(port, fixture, sender, remaining - 1));
+        }
+
+        ConcurrentLoadRunner.Result result() {
+            long[] sorted = new long[recorded.get()];
+            for (int i = 0; i < sorted.length; i++) sorted[i] = latencies.get(i);
+            Arrays.sort(sorted);
+            return new ConcurrentLoadRunner.Result(name + " transfers", sorted.length, shed.get() + errors.get(),
+                    elapsedNanos, sorted);
+        }
+    }
+
+    private record Fixture(List<Long> senderAccountIds, List<String> senderTokens, String hotAccountNumber,
+                           long probeAccountId, String probeToken) {
+
+        static Fixture create(ConfigurableApplicationContext context) {
+            TestAccounts accounts = context.getBean(TestAccounts.class);
+            JwtService jwtService = context.getBean(JwtService.class);
+
+            Long[] senderAccountIds = new Long[SENDERS];
+            String[] senderTokens = new String[SENDERS];
+            for (int i = 0; i < SENDERS; i++) {
+                User sender = accounts.newUser("tm");
+                senderAccountIds[i] = accounts.newAccount(sender, "1000000.00").getId();
+                senderTokens[i] = token(jwtService, sender);
+            }
+            Account hot = accounts.newAccount(accounts.newUser("tm"), BigDecimal.ZERO);
+            User prober = accounts.newUser("tm");
+            Account probed = accounts.newAccount(prober, "10.00");
+            return new Fixture(List.of(senderAccountIds), List.of(senderTokens), hot.getAccountNumber(),
+                    probed.getId(), token(jwtService, prober));
+        }
+
+        private static String token(JwtService jwtService, User user) {
+            return jwtService.generateToken(new BankUserDetails(user.getId(), user.getUsername(), "n/a", true,
+                    user.getTokenVersion(), List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        }
+    }
+}
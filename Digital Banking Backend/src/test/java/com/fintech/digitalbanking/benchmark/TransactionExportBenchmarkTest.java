@@ -0,0 +1,118 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.SeedIds;
+import com.fintech.digitalbanking.dto.TransactionExportRequest;
+import com.fintech.digitalbanking.service.TransactionExportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports BENCH_ROWS ledger rows in both formats into a byte-counting sink and reports
+ * rows/s together with the peak heap retained while streaming (sampled right after a
+ * forced GC, so garbage from already-written rows does not count). The in-memory H2
+ * database itself lives in the heap and is part of the baseline. One unmeasured export
+ * runs first: H2 loads the table's pages into the heap on the first full scan, which
+ * would otherwise be charged to whichever format runs first.
+ * Run with: mvn test -Pbenchmark -Dtest=TransactionExportBenchmarkTest -Dbench.rows=1000000
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TransactionExportBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 500_000);
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportStreamsWithoutBufferingTheResult() throws Exception {
+        long seeded = seed();
+        TransactionExportRequest warmUp = new TransactionExportRequest();
+        warmUp.setFormat(TransactionExportRequest.Format.CSV);
+        transactionExportService.export(warmUp, new CountingSink());
+
+        for (TransactionExportRequest.Format format : TransactionExportRequest.Format.values()) {
+            TransactionExportRequest filter = new TransactionExportRequest();
+            filter.setFormat(format);
+            CountingSink sink = new CountingSink();
+
+            System.gc();
+            long baseline = usedHeap();
+            AtomicLong peak = new AtomicLong(baseline);
+            AtomicBoolean running = new AtomicBoolean(true);
+            Thread sampler = new Thread(() -> {
+                while (running.get()) {
+                    System.gc();
+                    peak.accumulateAndGet(usedHeap(), Math::max);
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            sampler.start();
+
+            long begin = System.nanoTime();
+            long rows = transactionExportService.export(filter, sink);
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            running.set(false);
+            sampler.join();
+
+            System.out.printf("[%s] %d rows, %.1f MB in %.2f s = %.0f rows/s, peak retained heap +%.1f MB%n",
+                    format, rows, sink.bytes / 1e6, seconds, rows / seconds, (peak.get() - baseline) / 1e6);
+            assertEquals(seeded, rows);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private long seed() {
+        long firstId = SeedIds.reserve(ROWS);
+        LocalDateTime start = LocalDateTime.of(2021, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{firstId + i, i % 3 == 0 ? "DEPOSIT" : "TRANSFER", new BigDecimal("12.3400"),
+                    Timestamp.valueOf(start.plusSeconds(i)), "Payment, ref \"" + i + "\""});
+            if (batch.size() == 1000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO transactions (id, type, amount, timestamp, description, reversed) " +
+                        "VALUES (?, ?, ?, ?, ?, false)", batch);
+                batch.clear();
+            }
+        }
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+    }
+
+    private static final class CountingSink extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
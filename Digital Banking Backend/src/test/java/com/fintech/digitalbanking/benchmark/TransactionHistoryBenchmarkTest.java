@@ -0,0 +1,139 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.SeedIds;
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.dto.TransactionHistoryRequest;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.service.TransactionCursor;
+import com.fintech.digitalbanking.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Walks the admin history page by page with the keyset cursor and compares the cost of
+ * reaching the same depths with LIMIT/OFFSET. Keyset pages should cost the same at any
+ * depth; OFFSET pages grow with the number of rows skipped.
+ * Run with: mvn test -Pbenchmark -Dtest=TransactionHistoryBenchmarkTest -Dbench.rows=1000000
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TransactionHistoryBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 300_000);
+    private static final int PAGE = 50;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void runAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @Test
+    void keysetPagesStayFlatAsTheyGetDeeper() {
+        seed();
+
+        // Walk the whole table to check nothing is skipped or repeated across page boundaries
+        TransactionHistoryRequest filter = new TransactionHistoryRequest();
+        filter.setLimit(200);
+        long seen = 0;
+        Transaction previous = null;
+        do {
+            TransactionService.HistoryPage page = transactionService.getAllTransactions(filter);
+            for (Transaction tx : page.transactions()) {
+                if (previous != null) {
+                    int cmp = tx.getTimestamp().compareTo(previous.getTimestamp());
+                    assertTrue(cmp < 0 || (cmp == 0 && tx.getId() < previous.getId()), "strictly newest first");
+                }
+                previous = tx;
+            }
+            seen += page.transactions().size();
+            filter.setCursor(page.nextCursor());
+        } while (filter.getCursor() != null);
+        assertEquals(transactionRepository.count(), seen);
+
+        System.out.printf("%-10s %12s %12s%n", "depth", "keyset ms", "offset ms");
+        for (int depth : new int[]{0, ROWS / 10, ROWS / 2, ROWS - PAGE}) {
+            String cursor = cursorAtDepth(depth);
+            System.out.printf("%-10d %12.2f %12.2f%n", depth, keysetMillis(cursor), offsetMillis(depth));
+        }
+    }
+
+    private double keysetMillis(String cursor) {
+        TransactionHistoryRequest filter = new TransactionHistoryRequest();
+        filter.setLimit(PAGE);
+        filter.setCursor(cursor);
+        return timed(() -> transactionService.getAllTransactions(filter));
+    }
+
+    private double offsetMillis(int depth) {
+        PageRequest request = PageRequest.of(depth / PAGE, PAGE, Sort.by(Sort.Direction.DESC, "timestamp", "id"));
+        return timed(() -> transactionRepository.findAll(request).getContent());
+    }
+
+    private String cursorAtDepth(int depth) {
+        if (depth == 0) return null;
+        // Build the cursor from the row just above the requested depth
+        Transaction last = transactionRepository.findAll(
+                PageRequest.of(depth - 1, 1, Sort.by(Sort.Direction.DESC, "timestamp", "id"))).getContent().get(0);
+        return TransactionCursor.after(last).encode();
+    }
+
+    private static double timed(Runnable query) {
+        query.run(); // warm-up
+        int runs = 5;
+        long begin = System.nanoTime();
+        for (int i = 0; i < runs; i++) query.run();
+        return (System.nanoTime() - begin) / 1e6 / runs;
+    }
+
+    private void seed() {
+        User owner = testAccounts.newUser("bench");
+        Account source = testAccounts.newAccount(owner, BigDecimal.ZERO);
+        Account target = testAccounts.newAccount(owner, BigDecimal.ZERO);
+
+        long firstId = SeedIds.reserve(ROWS);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < ROWS; i++) {
+            // Ten rows per second, so the id tie-breaker is exercised on every page
+            batch.add(new Object[]{firstId + i, "TRANSFER", BigDecimal.ONE,
+                    Timestamp.valueOf(start.plusSeconds(i / 10)), source.getId(), target.getId()});
+            if (batch.size() == 1000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO transactions (id, type, amount, timestamp, " +
+                        "source_account_id, target_account_id, reversed) VALUES (?, ?, ?, ?, ?, ?, false)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+}
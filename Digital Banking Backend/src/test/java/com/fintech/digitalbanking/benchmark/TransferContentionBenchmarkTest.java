@@ -0,0 +1,93 @@
+package com.fintech.digitalbanking.benchmark;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.service.LockRetryExecutor;
+import com.fintech.digitalbanking.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers a handful of hot accounts with transfers in both directions and checks that
+ * the lock-ordered transfer engine neither deadlocks nor loses money.
+ * Run with: mvn test -Pbenchmark -Dtest=TransferContentionBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TransferContentionBenchmarkTest {
+
+    private static final int HOT_ACCOUNTS = Integer.getInteger("bench.accounts", 4);
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int TRANSFERS_PER_THREAD = Integer.getInteger("bench.iterations", 200);
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.0000");
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private LockRetryExecutor lockRetry;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Test
+    void opposingTransfersOnHotAccounts_conserveMoney() throws Exception {
+        List<Account> accounts = seedAccounts();
+        long transactionsBefore = transactionRepository.count();
+
+        ConcurrentLoadRunner.Result result = ConcurrentLoadRunner.run("lock-ordered transfer", THREADS,
+                TRANSFERS_PER_THREAD, (thread, i) -> {
+                    runAsAdmin();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Account from = accounts.get(random.nextInt(accounts.size()));
+                    Account to = accounts.get(random.nextInt(accounts.size()));
+                    while (to.getId().equals(from.getId())) {
+                        to = accounts.get(random.nextInt(accounts.size()));
+                    }
+                    String targetNumber = to.getAccountNumber();
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 100));
+                    lockRetry.execute(() -> transactionService.transfer(from.getId(), targetNumber, amount));
+                });
+
+        System.out.println(result.summary());
+
+        BigDecimal total = accounts.stream()
+                .map(a -> accountRepository.findById(a.getId()).orElseThrow().getBalance())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, OPENING_BALANCE.multiply(BigDecimal.valueOf(HOT_ACCOUNTS)).compareTo(total),
+                "money must be conserved across concurrent transfers");
+        assertEquals(result.succeeded(), transactionRepository.count() - transactionsBefore);
+        assertEquals(0, result.failed(), "no transfer should abort once lock order is global");
+    }
+
+    private List<Account> seedAccounts() {
+        User owner = testAccounts.newUser("bench");
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < HOT_ACCOUNTS; i++) {
+            accounts.add(testAccounts.newAccount(owner, OPENING_BALANCE));
+        }
+        return accounts;
+    }
+
+    private static void runAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+}
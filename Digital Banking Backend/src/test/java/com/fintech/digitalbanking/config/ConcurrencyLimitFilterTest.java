@@ -0,0 +1,94 @@
+package com.fintech.digitalbanking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ConcurrencyLimitFilter(new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "connectionPoolSize", 1);
+        ReflectionTestUtils.setField(filter, "queueTimeoutMs", 50L);
+        filter.init();
+    }
+
+    @Test
+    void shouldShedWith503_whenAllPermitsAreHeldPastTheQueueTimeout() throws Exception {
+        // Arrange - two requests (2 x pool of 1) parked inside the chain
+        CountDownLatch inside = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            inside.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<?> first = pool.submit(() -> run("/api/user/accounts", blocking));
+        Future<?> second = pool.submit(() -> run("/api/user/accounts", blocking));
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+        // Act
+        MockHttpServletResponse shed = run("/api/user/accounts", new MockFilterChain());
+        MockHttpServletResponse health = run("/api/health", new MockFilterChain());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Assert
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertEquals(503, new ObjectMapper().readTree(shed.getContentAsString()).get("status").asInt());
+        assertEquals(200, health.getStatus());
+        assertEquals(2, filter.available());
+    }
+
+    @Test
+    void asyncRequest_shouldHoldItsPermit_untilTheAsyncRequestCompletes() throws Exception {
+        // Arrange - the handler returns a future, like login and register
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setAsyncSupported(true);
+        FilterChain startsAsync = (req, res) -> req.startAsync();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), startsAsync);
+        int whileRunning = filter.available();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // Assert
+        assertEquals(1, whileRunning);
+        assertEquals(2, filter.available());
+    }
+
+    private MockHttpServletResponse run(String uri, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", uri), response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,25 @@
+package com.fintech.digitalbanking.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsRuntimeCheckTest {
+
+    @Test
+    void shouldRefuseToStart_belowJava21() {
+        // Act
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> VirtualThreadsRuntimeCheck.check(17));
+
+        // Assert
+        assertTrue(error.getMessage().contains("-Pjdk21"));
+    }
+
+    @Test
+    void shouldStart_onJava21AndLater() {
+        // Act & Assert
+        assertDoesNotThrow(() -> VirtualThreadsRuntimeCheck.check(21));
+        assertDoesNotThrow(() -> VirtualThreadsRuntimeCheck.check(25));
+    }
+}
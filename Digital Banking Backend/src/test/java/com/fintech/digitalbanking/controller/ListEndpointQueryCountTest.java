@@ -0,0 +1,125 @@
+package com.fintech.digitalbanking.controller;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.dto.TransactionHistoryRequest;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.RollbackRequest;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.repository.RollbackRequestRepository;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every list endpoint must issue the same number of SQL statements whether it returns
+ * a handful of rows or many; a per-row lazy load would make the counts diverge.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ListEndpointQueryCountTest {
+
+    @Autowired
+    private UserTransactionController userTransactionController;
+    @Autowired
+    private AdminTransactionController adminTransactionController;
+    @Autowired
+    private UserRequestController userRequestController;
+    @Autowired
+    private AdminRequestController adminRequestController;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private RollbackRequestRepository rollbackRequestRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userEndpoints_shouldIssueConstantStatements_regardlessOfResultSize() {
+        User small = seedUserWithHistory(2);
+        User large = seedUserWithHistory(25);
+
+        assertEquals(statementsAs(small, "ROLE_USER", () -> userTransactionController.getMyTransactions(new TransactionHistoryRequest())),
+                statementsAs(large, "ROLE_USER", () -> userTransactionController.getMyTransactions(new TransactionHistoryRequest())),
+                "GET /api/user/transactions/my-history");
+        assertEquals(statementsAs(small, "ROLE_USER", userRequestController::getMyRequests),
+                statementsAs(large, "ROLE_USER", userRequestController::getMyRequests),
+                "GET /api/user/requests");
+    }
+
+    @Test
+    void adminEndpoints_shouldIssueConstantStatements_regardlessOfResultSize() {
+        User admin = testAccounts.newUser("admin");
+
+        User small = seedUserWithHistory(2);
+        long allSmall = statementsAs(admin, "ROLE_ADMIN", () -> adminTransactionController.getAll(new TransactionHistoryRequest()));
+        long byUserSmall = statementsAs(admin, "ROLE_ADMIN", () -> adminTransactionController.getByUser(small.getId()));
+        long pendingSmall = statementsAs(admin, "ROLE_ADMIN", adminRequestController::getPendingRequests);
+
+        User large = seedUserWithHistory(25);
+        assertEquals(allSmall, statementsAs(admin, "ROLE_ADMIN",
+                () -> adminTransactionController.getAll(new TransactionHistoryRequest())), "GET /api/admin/transactions/all");
+        assertEquals(byUserSmall, statementsAs(admin, "ROLE_ADMIN",
+                () -> adminTransactionController.getByUser(large.getId())), "GET /api/admin/transactions/user/{id}");
+        assertEquals(pendingSmall, statementsAs(admin, "ROLE_ADMIN", adminRequestController::getPendingRequests),
+                "GET /api/admin/requests");
+    }
+
+    private long statementsAs(User user, String role, Runnable endpoint) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority(role))));
+        statistics.clear();
+        endpoint.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** A user whose every transaction goes to a different account, each with a pending rollback request. */
+    private User seedUserWithHistory(int transactions) {
+        User user = testAccounts.newUser("qc");
+        Account source = testAccounts.newAccount(user, BigDecimal.ZERO);
+        for (int i = 0; i < transactions; i++) {
+            Account target = testAccounts.newAccount(user, BigDecimal.ZERO);
+            Transaction tx = transactionRepository.save(Transaction.builder()
+                    .type(TransactionType.TRANSFER)
+                    .amount(BigDecimal.TEN)
+                    .sourceAccount(source)
+                    .targetAccount(target)
+                    .build());
+            rollbackRequestRepository.save(RollbackRequest.builder()
+                    .transaction(tx)
+                    .requestingUser(user)
+                    .reason("Wrong recipient")
+                    .build());
+        }
+        return user;
+    }
+
+}
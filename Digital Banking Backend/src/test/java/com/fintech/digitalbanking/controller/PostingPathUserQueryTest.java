@@ -0,0 +1,100 @@
+package com.fintech.digitalbanking.controller;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.dto.DepositRequest;
+import com.fintech.digitalbanking.dto.TransferRequest;
+import com.fintech.digitalbanking.dto.WithdrawRequest;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.security.AuthenticatedUser;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * With the JWT principal carrying the user id, posting and balance requests must not
+ * touch the user table at all: ownership is checked against accounts.user_id.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.fintech.digitalbanking.controller.PostingPathUserQueryTest$SqlRecorder")
+class PostingPathUserQueryTest {
+
+    private static final Pattern USER_TABLE = Pattern.compile("(?i)(from|join)\\s+[`\"]?user[`\"]?\\b");
+
+    @Autowired
+    private UserTransactionController userTransactionController;
+    @Autowired
+    private UserAccountController userAccountController;
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void postingsAndBalance_shouldNotQueryTheUserTable() {
+        User owner = testAccounts.newUser("pp");
+        Account source = testAccounts.newAccount(owner, BigDecimal.ZERO);
+        Account target = testAccounts.newAccount(owner, BigDecimal.ZERO);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(owner.getId(), owner.getUsername(), List.of("ROLE_USER")), null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        assertNoUserQueries("POST /api/user/transactions/deposit", () -> {
+            DepositRequest deposit = new DepositRequest();
+            deposit.setAccountId(source.getId());
+            deposit.setAmount(new BigDecimal("100.00"));
+            userTransactionController.deposit(deposit, null);
+        });
+        assertNoUserQueries("POST /api/user/transactions/withdraw", () -> {
+            WithdrawRequest withdraw = new WithdrawRequest();
+            withdraw.setAccountId(source.getId());
+            withdraw.setAmount(new BigDecimal("10.00"));
+            userTransactionController.withdraw(withdraw, null);
+        });
+        assertNoUserQueries("POST /api/user/transactions/transfer", () -> {
+            TransferRequest transfer = new TransferRequest();
+            transfer.setSourceAccountId(source.getId());
+            transfer.setTargetAccountNumber(target.getAccountNumber());
+            transfer.setAmount(new BigDecimal("40.00"));
+            userTransactionController.transfer(transfer, null);
+        });
+        assertNoUserQueries("GET /api/user/accounts/balance/{id}",
+                () -> assertEquals(0, new BigDecimal("50.00").compareTo(userAccountController.getBalance(source.getId()).getBody())));
+    }
+
+    private static void assertNoUserQueries(String endpoint, Runnable call) {
+        SqlRecorder.STATEMENTS.clear();
+        call.run();
+        List<String> userQueries = SqlRecorder.STATEMENTS.stream().filter(sql -> USER_TABLE.matcher(sql).find()).toList();
+        assertFalse(SqlRecorder.STATEMENTS.isEmpty(), endpoint + " issued no SQL at all");
+        assertEquals(List.of(), userQueries, endpoint);
+    }
+
+    /** Registered through hibernate.session_factory.statement_inspector; records every statement. */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.fintech.digitalbanking.controller;
+
+import com.fintech.digitalbanking.service.PostingMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The scrape endpoint is admin-only and carries the posting histograms and the
+ * connection-pool wait histogram; health stays public. Test contexts turn metric
+ * exporters off unless asked.
+ */
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,prometheus",
+        "management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire=true"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    // Tests run lazily initialised: touch both so their meters exist
+    @Autowired
+    private PostingMetrics postingMetrics;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void prometheus_shouldExposePostingAndPoolMetrics() throws Exception {
+        postingMetrics.record(PostingMetrics.Operation.TRANSFER, PostingMetrics.Outcome.SUCCESS, 5_000_000);
+        try (Connection ignored = dataSource.getConnection()) {
+            // pool started
+        }
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("banking_posting_seconds_bucket{")))
+                .andExpect(content().string(containsString("banking_posting_in_flight{operation=\"transfer\"}")))
+                .andExpect(content().string(containsString("banking_posting_lock_wait_seconds_bucket{")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{")));
+    }
+
+    @Test
+    void prometheus_shouldRejectAnonymousScrapes() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void prometheus_shouldBeForbidden_toNonAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void health_shouldStayPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,35 @@
+package com.fintech.digitalbanking.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The export stream carries its own async timeout; other async endpoints keep the
+ * container default.
+ */
+@SpringBootTest(properties = "banking.export.timeout-minutes=7")
+@AutoConfigureMockMvc
+class TransactionExportTimeoutTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void export_shouldUseTheExportTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/admin/transactions/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(7 * 60_000L, result.getRequest().getAsyncContext().getTimeout());
+    }
+}
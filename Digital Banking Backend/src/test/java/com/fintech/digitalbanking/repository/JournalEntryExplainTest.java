@@ -0,0 +1,126 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.SeedIds;
+import com.fintech.digitalbanking.entity.EntryDirection;
+import com.fintech.digitalbanking.entity.JournalEntry;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.repository.JournalEntryRepository.JournalQuery;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN on the statement, balance-at-time and checkpoint SQL against a seeded
+ * journal and checks the plans read idx_journal_account_posted (V4) or
+ * idx_journal_checkpoint_cutoff (V5) instead of scanning. Only H2 is available here; the same SQL is what MySQL and PostgreSQL receive.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JournalEntryExplainTest {
+
+    private static final int ACCOUNTS = 200;
+    private static final int POSTINGS = 25_000;
+    // Account ids no real account uses, so other tests' legs do not mix in
+    private static final long FIRST_ACCOUNT = SeedIds.reserve(ACCOUNTS);
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        long firstTransaction = SeedIds.reserve(POSTINGS);
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        List<JournalEntry> batch = new ArrayList<>(2000);
+        for (int i = 0; i < POSTINGS; i++) {
+            long source = FIRST_ACCOUNT + i % ACCOUNTS;
+            long target = FIRST_ACCOUNT + (i * 7L + 3) % ACCOUNTS;
+            if (source == target) target = FIRST_ACCOUNT + (target + 1 - FIRST_ACCOUNT) % ACCOUNTS;
+            LocalDateTime at = start.plusSeconds(i / 3);
+            batch.add(leg(firstTransaction + i, EntryDirection.DEBIT, source, at, i % 5 == 0 ? null : BigDecimal.TEN));
+            batch.add(leg(firstTransaction + i, EntryDirection.CREDIT, target, at, BigDecimal.TEN));
+            if (batch.size() == 2000 || i == POSTINGS - 1) {
+                journalEntryRepository.insertAll(batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE TABLE journal_entries");
+    }
+
+    @Test
+    void statementPage_shouldSeekTheJournalIndex_andNeverScanTheTable() {
+        JournalQuery query = JournalEntryRepository.statement(FIRST_ACCOUNT + 3, LocalDateTime.of(2022, 1, 1, 0, 0),
+                LocalDateTime.of(2022, 1, 2, 0, 0), LocalDateTime.of(2022, 1, 1, 1, 0), Long.MAX_VALUE, 51);
+
+        String plan = explain(query).toLowerCase();
+
+        assertFalse(plan.contains("tablescan"), plan);
+        assertTrue(plan.contains("idx_journal_account_posted"), plan);
+    }
+
+    @Test
+    void balanceAtTime_shouldSeekTheJournalIndex_andNeverScanTheTable() {
+        long accountId = FIRST_ACCOUNT + 5;
+        LocalDateTime checkpoint = LocalDateTime.of(2022, 1, 1, 0, 30);
+        LocalDateTime at = LocalDateTime.of(2022, 1, 1, 1, 0);
+        JournalEntry anchor = journalEntryRepository.findLastLeg(accountId, checkpoint, at, true).orElseThrow();
+
+        List<String> plans = List.of(
+                explain(JournalEntryRepository.lastLeg(accountId, checkpoint, at, false)),
+                explain(JournalEntryRepository.lastLeg(accountId, checkpoint, at, true)),
+                explain(JournalEntryRepository.legSum(accountId, anchor.getPostedAt(), anchor.getTransactionId(), at)),
+                explain(JournalEntryRepository.legSum(accountId, checkpoint, null, at)),
+                explain(JournalEntryRepository.legsWithoutBalance(accountId, checkpoint, at)),
+                explain(JournalEntryRepository.legsBetween(accountId, checkpoint, at)));
+
+        for (String plan : plans) {
+            assertFalse(plan.toLowerCase().contains("tablescan"), plan);
+            assertTrue(plan.toLowerCase().contains("idx_journal_account_posted"), plan);
+        }
+    }
+
+    @Test
+    void checkpointRun_shouldRangeOverTheCheckpointCutoffIndex() {
+        LocalDateTime cutoff = LocalDateTime.of(2022, 1, 1, 0, 35);
+
+        List<String> plans = List.of(
+                explain(JournalEntryRepository.checkpointClaim(cutoff)),
+                explain(JournalEntryRepository.accountsClaimedBy(cutoff)));
+
+        for (String plan : plans) {
+            assertFalse(plan.toLowerCase().contains("tablescan"), plan);
+            assertTrue(plan.toLowerCase().contains("idx_journal_checkpoint_cutoff"), plan);
+        }
+    }
+
+    private String explain(JournalQuery query) {
+        return String.join("\n", namedJdbc.queryForList("EXPLAIN " + query.sql(), query.params(), String.class));
+    }
+
+    private static JournalEntry leg(long transactionId, EntryDirection direction, long accountId, LocalDateTime at,
+                                    BigDecimal balanceAfter) {
+        return JournalEntry.builder()
+                .transactionId(transactionId)
+                .direction(direction)
+                .accountId(accountId)
+                .type(TransactionType.TRANSFER)
+                .amount(BigDecimal.ONE)
+                .balanceAfter(balanceAfter)
+                .postedAt(at)
+                .build();
+    }
+}
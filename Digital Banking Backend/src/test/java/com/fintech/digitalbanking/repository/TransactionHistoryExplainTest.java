@@ -0,0 +1,129 @@
+package com.fintech.digitalbanking.repository;
+
+import com.fintech.digitalbanking.SeedIds;
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.dto.TransactionDto;
+import com.fintech.digitalbanking.dto.TransactionHistoryRequest;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.repository.TransactionHistoryQueriesImpl.AccountHistoryQuery;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN on the account history SQL against a seeded table and checks the plan
+ * reads through the history indexes from the V1 migration instead of scanning.
+ * Only H2 is available here; the same SQL is what MySQL and PostgreSQL receive.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionHistoryExplainTest {
+
+    private static final int ACCOUNTS = 200;
+    private static final int ROWS = 50_000;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> accountIds;
+
+    @BeforeAll
+    void seed() {
+        User owner = testAccounts.newUser("explain");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(testAccounts.newAccount(owner, BigDecimal.ZERO).getId());
+        }
+        accountIds = ids;
+
+        long firstId = SeedIds.reserve(ROWS);
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < ROWS; i++) {
+            Long source = accountIds.get(i % ACCOUNTS);
+            Long target = i % 4 == 0 ? null : accountIds.get((i * 7 + 3) % ACCOUNTS);
+            batch.add(new Object[]{firstId + i, target == null ? "DEPOSIT" : "TRANSFER", BigDecimal.ONE,
+                    Timestamp.valueOf(start.plusSeconds(i / 3)), source, target});
+            if (batch.size() == 1000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO transactions (id, type, amount, timestamp, " +
+                        "source_account_id, target_account_id, reversed) VALUES (?, ?, ?, ?, ?, ?, false)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE TABLE transactions");
+    }
+
+    @Test
+    void accountHistoryPage_shouldUseHistoryIndexes_andNeverScanTheTable() {
+        List<Long> mine = accountIds.subList(0, 2);
+        AccountHistoryQuery query = TransactionHistoryQueriesImpl.accountHistory(mine, new TransactionHistoryRequest(),
+                LocalDateTime.of(2022, 1, 1, 1, 0), Long.MAX_VALUE, 51);
+
+        String plan = explain(query).toLowerCase();
+
+        assertFalse(plan.contains("tablescan"), plan);
+        assertTrue(plan.contains("idx_transactions_source_timestamp_id"), plan);
+        assertTrue(plan.contains("idx_transactions_target_timestamp_id"), plan);
+    }
+
+    @Test
+    void findAllByAccountIds_shouldUseHistoryIndexes_andNeverScanTheTable() {
+        AccountHistoryQuery query = TransactionHistoryQueriesImpl.accountHistory(
+                List.of(accountIds.get(5)), null, null, null, null);
+
+        String plan = explain(query).toLowerCase();
+
+        assertFalse(plan.contains("tablescan"), plan);
+    }
+
+    @Test
+    void accountHistory_shouldMatchTheOrQuery_withEachSelfLegOnce() {
+        List<Long> mine = accountIds.subList(0, 10);
+        String in = String.join(",", mine.stream().map(String::valueOf).toList());
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM transactions WHERE source_account_id IN (" + in +
+                ") OR target_account_id IN (" + in + ") ORDER BY timestamp DESC, id DESC", Long.class);
+
+        List<Long> actual = transactionRepository.findAllByAccountIds(mine).stream().map(Transaction::getId).toList();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void findDtosByAccountIds_shouldReturnTheSameRows_asTheEntityQuery() {
+        List<Long> mine = accountIds.subList(0, 10);
+        List<Transaction> entities = transactionRepository.findAllByAccountIds(mine);
+
+        List<TransactionDto> dtos = transactionRepository.findDtosByAccountIds(mine);
+
+        assertEquals(entities.stream().map(Transaction::getId).toList(), dtos.stream().map(TransactionDto::getId).toList());
+        Transaction first = entities.get(0);
+        TransactionDto firstDto = dtos.get(0);
+        assertEquals(first.getType().name(), firstDto.getType());
+        assertEquals(0, first.getAmount().compareTo(firstDto.getAmount()));
+        assertEquals(first.getTimestamp(), firstDto.getTimestamp());
+        assertEquals(first.getSourceAccount().getId(), firstDto.getSourceAccountId());
+        assertEquals(first.isReversed(), firstDto.isReversed());
+    }
+
+    private String explain(AccountHistoryQuery query) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query.sql(), String.class,
+                query.params().toArray()));
+    }
+}
@@ -0,0 +1,186 @@
+package com.fintech.digitalbanking.security;
+
+import com.fintech.digitalbanking.dto.UserState;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "ThisIsAReallyLongAndSecureSecretKeyForJWTGeneration2025!";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UserStateCache userStateCache;
+
+    @Mock
+    private TokenRevocationList revocationList;
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+
+    private final BankUserDetails alice = new BankUserDetails(7L, "alice", "n/a", true, 3L,
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        jwtService.init();
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, userStateCache, revocationList);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stateless_shouldAuthenticateFromClaims_withoutLoadingTheUser() throws Exception {
+        // Arrange
+        when(userStateCache.get(7L)).thenReturn(Optional.of(new UserState(7L, true, 3L)));
+
+        // Act
+        Authentication auth = runFilter(jwtService.generateToken(alice));
+
+        // Assert
+        assertNotNull(auth);
+        assertEquals("alice", auth.getName());
+        assertTrue(auth.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldRejectIndividuallyRevokedToken() throws Exception {
+        // Arrange
+        String token = jwtService.generateToken(alice);
+        when(revocationList.isRevoked(jwtService.verify(token).tokenId())).thenReturn(true);
+
+        // Act & Assert
+        assertNull(runFilter(token));
+        verifyNoInteractions(userStateCache, userDetailsService);
+    }
+
+    @Test
+    void stateless_shouldRejectToken_issuedBeforeTheTokenVersionWasBumped() throws Exception {
+        // Arrange
+        when(userStateCache.get(7L)).thenReturn(Optional.of(new UserState(7L, true, 4L)));
+
+        // Act & Assert
+        assertNull(runFilter(jwtService.generateToken(alice)));
+    }
+
+    @Test
+    void stateless_shouldRejectToken_ofDisabledUser() throws Exception {
+        // Arrange
+        when(userStateCache.get(7L)).thenReturn(Optional.of(new UserState(7L, false, 3L)));
+
+        // Act & Assert
+        assertNull(runFilter(jwtService.generateToken(alice)));
+    }
+
+    @Test
+    void stateless_shouldFallBackToLookup_forTokensWithoutUserIdClaim() throws Exception {
+        // Arrange: a token in the format issued before uid/tv were added, for a user still at version 0
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(withVersion(0L, true));
+
+        // Act
+        Authentication auth = runFilter(legacyToken());
+
+        // Assert
+        assertNotNull(auth);
+        verify(userStateCache, never()).get(any());
+    }
+
+    @Test
+    void stateless_shouldRejectTokenWithoutVersionClaim_onceTheVersionWasBumped() throws Exception {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+
+        // Act & Assert
+        assertNull(runFilter(legacyToken()));
+    }
+
+    @Test
+    void lookupMode_shouldLoadTheUser_onEveryRequest() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "authMode", JwtAuthMode.LOOKUP);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+
+        // Act
+        Authentication auth = runFilter(jwtService.generateToken(alice));
+
+        // Assert
+        assertNotNull(auth);
+        verify(userDetailsService).loadUserByUsername("alice");
+        verifyNoInteractions(userStateCache);
+    }
+
+    @Test
+    void lookupMode_shouldRejectToken_issuedBeforeTheTokenVersionWasBumped() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "authMode", JwtAuthMode.LOOKUP);
+        String token = jwtService.generateToken(alice);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(withVersion(4L, true));
+
+        // Act & Assert
+        assertNull(runFilter(token));
+    }
+
+    @Test
+    void lookupMode_shouldRejectToken_ofDisabledUser() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "authMode", JwtAuthMode.LOOKUP);
+        String token = jwtService.generateToken(alice);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(withVersion(3L, false));
+
+        // Act & Assert
+        assertNull(runFilter(token));
+    }
+
+    private static BankUserDetails withVersion(long tokenVersion, boolean enabled) {
+        return new BankUserDetails(7L, "alice", "n/a", enabled, tokenVersion, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private static String legacyToken() {
+        return Jwts.builder()
+                .subject("alice")
+                .claim("roles", List.of("ROLE_USER"))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .compact();
+    }
+
+    private Authentication runFilter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/accounts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,100 @@
+package com.fintech.digitalbanking.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "ThisIsAReallyLongAndSecureSecretKeyForJWTGeneration2025!";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newJwtService(8L * 1024 * 1024);
+    }
+
+    @Test
+    void verify_shouldReturnAllClaims_fromOneParse() {
+        // Arrange
+        String token = jwtService.generateToken(user(7L, "alice"));
+
+        // Act
+        VerifiedToken verified = jwtService.verify(token);
+
+        // Assert
+        assertEquals("alice", verified.username());
+        assertEquals(7L, verified.userId());
+        assertEquals(0L, verified.tokenVersion());
+        assertEquals(List.of("ROLE_USER"), verified.roles());
+        assertTrue(verified.expiresAt().after(new Date()));
+    }
+
+    @Test
+    void verify_shouldAnswerRepeatTokens_fromTheCache() {
+        // Arrange
+        String token = jwtService.generateToken(user(7L, "alice"));
+
+        // Act & Assert
+        assertSame(jwtService.verify(token), jwtService.verify(token));
+    }
+
+    @Test
+    void verify_shouldReject_tamperedAndExpiredTokens() {
+        // Arrange
+        String token = jwtService.generateToken(user(7L, "alice"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String expired = Jwts.builder()
+                .subject("alice")
+                .issuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .compact();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> jwtService.verify(tampered));
+        assertThrows(IllegalArgumentException.class, () -> jwtService.verify(expired));
+    }
+
+    @Test
+    void verify_shouldKeepTheCacheWithinItsByteBound() {
+        // Arrange
+        long maxBytes = 64 * 1024;
+        JwtService bounded = newJwtService(maxBytes);
+
+        // Act
+        for (long i = 0; i < 5_000; i++) {
+            bounded.verify(bounded.generateToken(user(i, "user" + i)));
+        }
+
+        // Assert
+        Cache<?, ?> cache = (Cache<?, ?>) ReflectionTestUtils.getField(bounded, "verified");
+        cache.cleanUp();
+        long weighted = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertTrue(weighted <= maxBytes, "cache holds ~" + weighted + " bytes");
+        assertTrue(cache.estimatedSize() < 5_000);
+    }
+
+    private static JwtService newJwtService(long maxBytes) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "tokenCacheMaxBytes", maxBytes);
+        service.init();
+        return service;
+    }
+
+    private static BankUserDetails user(Long id, String username) {
+        return new BankUserDetails(id, username, "n/a", true, 0L, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
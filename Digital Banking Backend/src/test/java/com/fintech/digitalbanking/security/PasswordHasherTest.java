@@ -0,0 +1,85 @@
+package com.fintech.digitalbanking.security;
+
+import com.fintech.digitalbanking.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void stop() {
+        if (passwordHasher != null) passwordHasher.stop();
+    }
+
+    @Test
+    void verify_shouldRehash_onlyWhenStoredCostDiffers() {
+        // Arrange
+        passwordHasher = start(new BCryptPasswordEncoder(5), 5, 1, 8);
+        String sameCost = new BCryptPasswordEncoder(5).encode("secret");
+        String oldCost = new BCryptPasswordEncoder(4).encode("secret");
+
+        // Act
+        PasswordHasher.Verification current = passwordHasher.verify("secret", sameCost).join();
+        PasswordHasher.Verification upgraded = passwordHasher.verify("secret", oldCost).join();
+        PasswordHasher.Verification wrong = passwordHasher.verify("nope", oldCost).join();
+
+        // Assert
+        assertTrue(current.matches());
+        assertNull(current.upgradedHash());
+        assertTrue(upgraded.matches());
+        assertTrue(upgraded.upgradedHash().startsWith("$2a$05$"));
+        assertFalse(wrong.matches());
+        assertNull(wrong.upgradedHash());
+    }
+
+    @Test
+    void submit_shouldShedLoad_whenThreadsAndQueueAreFull() throws Exception {
+        // Arrange - one worker stuck in encode() and one task waiting in the queue
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if ("block".contentEquals(rawPassword)) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        passwordHasher = start(blocking, 4, 1, 1);
+        CompletableFuture<String> running = passwordHasher.encode("block");
+        started.await();
+        CompletableFuture<String> queued = passwordHasher.encode("queued");
+
+        // Act & Assert
+        ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class, () -> passwordHasher.encode("shed"));
+        assertEquals(1, e.getRetryAfterSeconds());
+        release.countDown();
+        assertNotNull(running.join());
+        assertNotNull(queued.join());
+    }
+
+    private static PasswordHasher start(PasswordEncoder encoder, int strength, int threads, int queuePerThread) {
+        PasswordHasher hasher = new PasswordHasher(encoder);
+        ReflectionTestUtils.setField(hasher, "strength", strength);
+        ReflectionTestUtils.setField(hasher, "threads", threads);
+        ReflectionTestUtils.setField(hasher, "queuePerThread", queuePerThread);
+        hasher.start();
+        return hasher;
+    }
+}
@@ -0,0 +1,176 @@
+package com.fintech.digitalbanking.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.digitalbanking.util.TokenBucket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private static final String SECRET = "ThisIsAReallyLongAndSecureSecretKeyForJWTGeneration2025!";
+
+    private JwtService jwtService;
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        jwtService.init();
+
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "authCapacity", 2);
+        ReflectionTestUtils.setField(rateLimiter, "authRefillPerSecond", 0.01);
+        ReflectionTestUtils.setField(rateLimiter, "moneyCapacity", 1);
+        ReflectionTestUtils.setField(rateLimiter, "moneyRefillPerSecond", 0.01);
+        rateLimiter.start();
+        filter = new RateLimitFilter(rateLimiter, jwtService, new ObjectMapper());
+    }
+
+    @Test
+    void auth_shouldReturn429WithRetryAfter_onceTheIpBucketIsEmpty() throws Exception {
+        // Act
+        MockHttpServletResponse first = run(post("/api/auth/login", "10.0.0.1", null));
+        MockHttpServletResponse second = run(post("/api/auth/login", "10.0.0.1", null));
+        MockHttpServletResponse third = run(post("/api/auth/register", "10.0.0.1", null));
+        MockHttpServletResponse otherIp = run(post("/api/auth/login", "10.0.0.2", null));
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        assertEquals(429, third.getStatus());
+        // One permit per 100 s
+        assertEquals("100", third.getHeader("Retry-After"));
+        JsonNode body = new ObjectMapper().readTree(third.getContentAsString());
+        assertEquals("Too Many Requests", body.get("error").asText());
+        assertEquals("Rate limit exceeded, retry in 100 seconds", body.get("message").asText());
+        assertEquals(200, otherIp.getStatus());
+    }
+
+    @Test
+    void postings_shouldBeLimitedPerUser_andFallBackToIpForInvalidTokens() throws Exception {
+        // Arrange
+        String alice = jwtService.generateToken(user(7L, "alice"));
+        String bob = jwtService.generateToken(user(8L, "bob"));
+
+        // Act & Assert - same address, separate allowances per user
+        assertEquals(200, run(post("/api/user/transactions/transfer", "10.0.0.1", alice)).getStatus());
+        assertEquals(429, run(post("/api/user/transactions/deposit", "10.0.0.1", alice)).getStatus());
+        assertEquals(200, run(post("/api/user/transactions/transfer", "10.0.0.1", bob)).getStatus());
+
+        // A forged token does not spend alice's allowance; it is charged to the address
+        assertEquals(200, run(post("/api/user/transactions/transfer", "10.0.0.3", alice + "x")).getStatus());
+        assertEquals(429, run(post("/api/user/transactions/transfer", "10.0.0.3", "garbage")).getStatus());
+    }
+
+    @Test
+    void batchTransfer_shouldCostOnePermitPerTransfer_andReachTheControllerWithItsBody() throws Exception {
+        // Arrange - 10 permits, one per 100 s
+        ReflectionTestUtils.setField(rateLimiter, "moneyCapacity", 10);
+        rateLimiter.start();
+        String alice = jwtService.generateToken(user(7L, "alice"));
+        String body = "{\"transfers\":[" + String.join(",", Collections.nCopies(4,
+                "{\"sourceAccountId\":1,\"targetAccountNumber\":\"ACC2\",\"amount\":1.00}")) + "]}";
+        MockHttpServletRequest batch = post("/api/user/transactions/transfer/batch", "10.0.0.1", alice);
+        batch.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(batch, new MockHttpServletResponse(), chain);
+        int afterBatch = 0;
+        while (run(post("/api/user/transactions/deposit", "10.0.0.1", alice)).getStatus() == 200) afterBatch++;
+
+        // Assert
+        assertEquals(6, afterBatch);
+        assertEquals(body, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void batchTransfer_largerThanTheBucket_shouldPassWhenFull_andHoldBackTheNextPostings() throws Exception {
+        // Arrange - capacity 1, so the 3 transfers leave 2 permits owed
+        String alice = jwtService.generateToken(user(7L, "alice"));
+        MockHttpServletRequest batch = post("/api/admin/transactions/transfer/batch", "10.0.0.1", alice);
+        batch.setContent("{\"transfers\":[{},{},{}]}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        MockHttpServletResponse first = run(batch);
+        MockHttpServletResponse next = run(post("/api/admin/transactions/deposit", "10.0.0.1", alice));
+
+        // Assert - the owed 2 plus the next one, at 100 s each
+        assertEquals(200, first.getStatus());
+        assertEquals(429, next.getStatus());
+        assertEquals("300", next.getHeader("Retry-After"));
+    }
+
+    @Test
+    void adminPostings_shouldBeLimitedPerUser() throws Exception {
+        // Arrange
+        String admin = jwtService.generateToken(user(1L, "admin"));
+
+        // Act & Assert
+        assertEquals(200, run(post("/api/admin/transactions/deposit", "10.0.0.1", admin)).getStatus());
+        assertEquals(429, run(post("/api/admin/transactions/withdraw", "10.0.0.1", admin)).getStatus());
+        assertEquals(200, run(new MockHttpServletRequest("GET", "/api/admin/transactions/all")).getStatus());
+    }
+
+    @Test
+    void otherRoutes_shouldNotBeLimited() throws Exception {
+        // Arrange
+        MockHttpServletRequest history = new MockHttpServletRequest("GET", "/api/user/transactions/my-history");
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, run(history).getStatus());
+        }
+        assertEquals(0, rateLimiter.size(RateLimiter.RouteGroup.MONEY));
+    }
+
+    @Test
+    void tokenBucket_shouldRefillOnePermitPerInterval_upToCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(0);
+
+        // Act & Assert - full bucket of 3, one permit per 100 ns
+        assertEquals(0, bucket.tryAcquire(0, 100, 3));
+        assertEquals(0, bucket.tryAcquire(0, 100, 3));
+        assertEquals(0, bucket.tryAcquire(0, 100, 3));
+        assertEquals(100, bucket.tryAcquire(0, 100, 3));
+        assertEquals(40, bucket.tryAcquire(60, 100, 3));
+        assertEquals(0, bucket.tryAcquire(100, 100, 3));
+        // Idle for much longer than a refill: still only capacity permits
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(10_000, 100, 3));
+        }
+        assertTrue(bucket.tryAcquire(10_000, 100, 3) > 0);
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String uri, String remoteAddr, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddr);
+        if (token != null) request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static BankUserDetails user(long id, String username) {
+        return new BankUserDetails(id, username, "n/a", true, 0L, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
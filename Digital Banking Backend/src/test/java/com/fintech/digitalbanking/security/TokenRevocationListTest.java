@@ -0,0 +1,120 @@
+package com.fintech.digitalbanking.security;
+
+import com.fintech.digitalbanking.entity.RevokedToken;
+import com.fintech.digitalbanking.repository.RevokedTokenRepository;
+import com.fintech.digitalbanking.util.BloomFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(revokedTokenRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        revocationList.stop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void isRevoked_shouldAnswerFromFilter_withoutQuery_forTokensNeverRevoked() {
+        // Arrange
+        when(revokedTokenRepository.findActiveTokenIds(any())).thenReturn(List.of("revoked-1", "revoked-2"));
+        revocationList.start();
+
+        // Act
+        boolean revoked = false;
+        for (int i = 0; i < 1000; i++) {
+            revoked |= revocationList.isRevoked(UUID.randomUUID().toString());
+        }
+
+        // Assert - at the configured 0.1% rate a stray hit is possible, but it must be confirmed as not revoked
+        assertFalse(revoked);
+        verify(revokedTokenRepository, atMost(5)).existsById(any());
+    }
+
+    @Test
+    void isRevoked_shouldConfirmFilterHit_once() {
+        // Arrange
+        when(revokedTokenRepository.findActiveTokenIds(any())).thenReturn(List.of("revoked-1"));
+        when(revokedTokenRepository.existsById("revoked-1")).thenReturn(true);
+        revocationList.start();
+
+        // Act & Assert
+        assertTrue(revocationList.isRevoked("revoked-1"));
+        assertTrue(revocationList.isRevoked("revoked-1"));
+        verify(revokedTokenRepository, times(1)).existsById("revoked-1");
+    }
+
+    @Test
+    void revoke_shouldTakeEffectOnCommit_andSurviveARebuildThatMissedIt() {
+        // Arrange
+        when(revokedTokenRepository.findActiveTokenIds(any())).thenReturn(List.of());
+        revocationList.start();
+        TransactionSynchronizationManager.initSynchronization();
+        VerifiedToken token = new VerifiedToken("jti-9", "alice", 7L, 0L, List.of("ROLE_USER"),
+                new Date(System.currentTimeMillis() + 60_000));
+
+        // Act
+        revocationList.revoke(token);
+
+        // Assert
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertFalse(revocationList.isRevoked("jti-9"));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(revocationList.isRevoked("jti-9"));
+
+        // A rebuild whose query did not see the new row yet must not drop it
+        revocationList.rebuild();
+        assertTrue(revocationList.isRevoked("jti-9"));
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    void bloomFilter_shouldKeepFalsePositiveRateNearTarget() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String id = UUID.randomUUID().toString();
+            added.add(id);
+            filter.add(id);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+        }
+
+        // Assert
+        assertTrue(added.stream().allMatch(filter::mightContain));
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,138 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.AccountSnapshot;
+import com.fintech.digitalbanking.entity.AccountType;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCacheTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        accountCache = new AccountCache(accountRepository, userRepository);
+        accountCache.initCache();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_shouldLoadOnce_andCountHitsAndMisses() {
+        // Arrange
+        when(accountRepository.findSnapshotsByIdIn(List.of(1L))).thenReturn(List.of(snapshot(1L, "100.00", 0L)));
+
+        // Act
+        accountCache.get(1L);
+        accountCache.get(1L);
+
+        // Assert
+        verify(accountRepository, times(1)).findSnapshotsByIdIn(any());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> accounts = (Map<String, Object>) accountCache.stats().get("accounts");
+        assertEquals(1L, accounts.get("hits"));
+        assertEquals(1L, accounts.get("misses"));
+    }
+
+    @Test
+    void evictAccountsAfterCommit_shouldKeepServingOldBalance_untilTheTransactionCommits() {
+        // Arrange
+        when(accountRepository.findSnapshotsByIdIn(List.of(1L)))
+                .thenReturn(List.of(snapshot(1L, "100.00", 0L)))
+                .thenReturn(List.of(snapshot(1L, "150.00", 1L)));
+        accountCache.get(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        accountCache.evictAccountsAfterCommit(List.of(1L));
+        BigDecimal beforeCommit = accountCache.get(1L).orElseThrow().balance();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        BigDecimal afterCommit = accountCache.get(1L).orElseThrow().balance();
+
+        // Assert
+        assertEquals(new BigDecimal("100.00"), beforeCommit);
+        assertEquals(new BigDecimal("150.00"), afterCommit);
+    }
+
+    @Test
+    void get_shouldNotCacheALoad_thatRacedAnEviction() {
+        // Arrange: the posting commits (and evicts) while the first read is still in the database
+        when(accountRepository.findSnapshotsByIdIn(List.of(1L)))
+                .thenAnswer(inv -> {
+                    accountCache.evictAccountsAfterCommit(List.of(1L));
+                    return List.of(snapshot(1L, "100.00", 0L));
+                })
+                .thenReturn(List.of(snapshot(1L, "150.00", 1L)));
+
+        // Act
+        BigDecimal racing = accountCache.get(1L).orElseThrow().balance();
+        BigDecimal next = accountCache.get(1L).orElseThrow().balance();
+
+        // Assert
+        assertEquals(new BigDecimal("100.00"), racing);
+        assertEquals(new BigDecimal("150.00"), next);
+    }
+
+    @Test
+    void evictAccountsAfterCommit_shouldDropTheEntry_evenWhenTheRowVersionDidNotMove() {
+        // Arrange: a deposit into a hot account's slot changes the balance, not the accounts row
+        when(accountRepository.findSnapshotsByIdIn(List.of(1L)))
+                .thenReturn(List.of(snapshot(1L, "100.00", 3L)))
+                .thenReturn(List.of(snapshot(1L, "125.00", 3L)));
+        accountCache.get(1L);
+
+        // Act
+        accountCache.evictAccountsAfterCommit(List.of(1L));
+        BigDecimal balance = accountCache.get(1L).orElseThrow().balance();
+
+        // Assert
+        assertEquals(new BigDecimal("125.00"), balance);
+    }
+
+    @Test
+    void get_shouldAlwaysReadTheDatabase_whenDisabled() {
+        // Arrange
+        ReflectionTestUtils.setField(accountCache, "enabled", false);
+        when(accountRepository.findSnapshotsByIdIn(List.of(1L))).thenReturn(List.of(snapshot(1L, "100.00", 0L)));
+
+        // Act
+        accountCache.get(1L);
+        accountCache.get(1L);
+
+        // Assert
+        verify(accountRepository, times(2)).findSnapshotsByIdIn(any());
+    }
+
+    private static AccountSnapshot snapshot(Long id, String balance, Long version) {
+        return new AccountSnapshot(id, "ACC" + id, AccountType.SAVINGS, new BigDecimal(balance), true,
+                7L, version);
+    }
+}
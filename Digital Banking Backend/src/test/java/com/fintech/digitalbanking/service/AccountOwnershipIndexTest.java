@@ -0,0 +1,131 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.AccountOwnership;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountOwnershipIndexTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountOwnershipIndex ownershipIndex;
+
+    @BeforeEach
+    void setUp() {
+        ownershipIndex = new AccountOwnershipIndex(accountRepository);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void warmUp_shouldLoadInKeysetBatches_andAnswerWithoutQueries() {
+        // Arrange
+        ReflectionTestUtils.setField(ownershipIndex, "warmBatchSize", 2);
+        when(accountRepository.findOwnershipAfter(0L, Limit.of(2)))
+                .thenReturn(List.of(account(1L, 7L), account(2L, 7L)));
+        when(accountRepository.findOwnershipAfter(2L, Limit.of(2)))
+                .thenReturn(List.of(account(5L, 8L)));
+
+        // Act
+        ownershipIndex.warmUp();
+
+        // Assert
+        assertEquals(3, ownershipIndex.size());
+        assertTrue(ownershipIndex.isOwnedBy(2L, 7L));
+        assertFalse(ownershipIndex.isOwnedBy(5L, 7L));
+        assertEquals(5L, ownershipIndex.idOf("ACC5"));
+        verify(accountRepository, never()).findOwnershipById(anyLong());
+        verify(accountRepository, never()).findOwnershipByAccountNumber(any());
+    }
+
+    @Test
+    void ownerOf_shouldConfirmMissAgainstDatabase_andRememberIt() {
+        // Arrange - e.g. an account created on another node after this one warmed up
+        when(accountRepository.findOwnershipById(9L)).thenReturn(Optional.of(account(9L, 3L)));
+
+        // Act
+        long first = ownershipIndex.ownerOf(9L);
+        long second = ownershipIndex.ownerOf(9L);
+
+        // Assert
+        assertEquals(3L, first);
+        assertEquals(3L, second);
+        assertEquals(9L, ownershipIndex.idOf("ACC9"));
+        verify(accountRepository, times(1)).findOwnershipById(9L);
+        verify(accountRepository, never()).findOwnershipByAccountNumber(any());
+    }
+
+    @Test
+    void lookups_shouldNotRememberMissingAccounts() {
+        // Arrange
+        when(accountRepository.findOwnershipById(4L)).thenReturn(Optional.empty());
+        when(accountRepository.findOwnershipByAccountNumber("ACC4")).thenReturn(Optional.empty());
+
+        // Act
+        long owner = ownershipIndex.ownerOf(4L);
+        ownershipIndex.ownerOf(4L);
+        Long id = ownershipIndex.idOf("ACC4");
+
+        // Assert - a later insert must still be found
+        assertEquals(AccountOwnershipIndex.NO_OWNER, owner);
+        assertNull(id);
+        verify(accountRepository, times(2)).findOwnershipById(4L);
+    }
+
+    @Test
+    void addAfterCommit_shouldOnlyIndexOnceTheTransactionCommits() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        ownershipIndex.addAfterCommit(account(11L, 2L));
+
+        // Assert
+        assertEquals(0, ownershipIndex.size());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(ownershipIndex.isOwnedBy(11L, 2L));
+        verify(accountRepository, never()).findOwnershipById(anyLong());
+    }
+
+    @Test
+    void index_shouldKeepEveryEntry_whenTheTableGrows() {
+        // Act
+        for (long id = 1; id <= 20_000; id++) {
+            ownershipIndex.addAfterCommit(account(id, id % 97));
+        }
+
+        // Assert
+        assertEquals(20_000, ownershipIndex.size());
+        for (long id = 1; id <= 20_000; id++) {
+            assertEquals(id % 97, ownershipIndex.ownerOf(id));
+        }
+        verify(accountRepository, never()).findOwnershipById(anyLong());
+    }
+
+    private static AccountOwnership account(Long id, Long ownerId) {
+        return new AccountOwnership(id, ownerId, "ACC" + id);
+    }
+}
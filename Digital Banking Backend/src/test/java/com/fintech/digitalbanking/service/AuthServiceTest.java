@@ -8,25 +8,31 @@ import com.fintech.digitalbanking.exception.InvalidCredentialsException;
 import com.fintech.digitalbanking.exception.UserAlreadyExistsException;
 import com.fintech.digitalbanking.repository.RoleRepository;
 import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.security.BankUserDetails;
 import com.fintech.digitalbanking.security.JwtService;
+import com.fintech.digitalbanking.security.PasswordHasher;
+import com.fintech.digitalbanking.security.PasswordHasher.Verification;
+import com.fintech.digitalbanking.security.TokenRevocationList;
+import com.fintech.digitalbanking.security.VerifiedToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.core.task.SyncTaskExecutor;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceTest {
@@ -36,56 +42,114 @@ class AuthServiceTest {
     @Mock
     private RoleRepository roleRepository;
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
     @Mock
-    private AuthenticationManager authenticationManager;
+    private CustomUserDetailsService userDetailsService;
     @Mock
     private JwtService jwtService;
     @Mock
-    private Authentication authentication; // Mock the Authentication object
+    private TokenRevocationList revocationList;
+    // Runs the post-hash step inline, so join() sees its result
+    @Spy
+    private SyncTaskExecutor applicationTaskExecutor = new SyncTaskExecutor();
 
     @InjectMocks
     private AuthService authService;
 
     private AuthRequest authRequest;
+    private User user;
+    private BankUserDetails userDetails;
 
     @BeforeEach
     void setUp() {
         authRequest = new AuthRequest();
         authRequest.setUsername("testuser");
         authRequest.setPassword("password");
+
+        user = User.builder().id(1L).username("testuser").password("$2a$10$stored").enabled(true).build();
+        userDetails = new BankUserDetails(1L, "testuser", "$2a$10$stored", true, 0L, List.of());
     }
 
     // --- Login Tests ---
     @Test
     void login_shouldReturnToken_whenCredentialsAreValid() {
         // Arrange
-        org.springframework.security.core.userdetails.User userDetails =
-                new org.springframework.security.core.userdetails.User("testuser", "password", Set.of());
-
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userDetailsService.toUserDetails(user)).thenReturn(userDetails);
+        when(passwordHasher.verify("password", "$2a$10$stored")).thenReturn(completedFuture(new Verification(true, null)));
         when(jwtService.generateToken(userDetails)).thenReturn("mocked.jwt.token");
 
         // Act
-        AuthResponse response = authService.login(authRequest);
+        AuthResponse response = authService.login(authRequest).join();
 
         // Assert
         assertNotNull(response);
         assertEquals("mocked.jwt.token", response.getToken());
+        verify(userRepository, never()).replacePasswordHash(any(), any(), any());
     }
 
     @Test
     void login_shouldThrowException_whenCredentialsAreInvalid() {
         // Arrange
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenThrow(new BadCredentialsException("Bad credentials"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userDetailsService.toUserDetails(user)).thenReturn(userDetails);
+        when(passwordHasher.verify("password", "$2a$10$stored")).thenReturn(completedFuture(new Verification(false, null)));
 
         // Act & Assert
-        assertThrows(InvalidCredentialsException.class, () -> {
-            authService.login(authRequest);
-        });
+        CompletionException e = assertThrows(CompletionException.class, () -> authService.login(authRequest).join());
+        assertInstanceOf(InvalidCredentialsException.class, e.getCause());
+    }
+
+    @Test
+    void login_shouldStillSpendOneHash_whenUsernameIsUnknown() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+        when(passwordHasher.verifyNothing("password")).thenReturn(completedFuture(new Verification(false, null)));
+
+        // Act & Assert
+        CompletionException e = assertThrows(CompletionException.class, () -> authService.login(authRequest).join());
+        assertInstanceOf(InvalidCredentialsException.class, e.getCause());
+        verify(passwordHasher).verifyNothing("password");
+    }
+
+    @Test
+    void login_shouldStoreUpgradedHash_whenCostChanged() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userDetailsService.toUserDetails(user)).thenReturn(userDetails);
+        when(passwordHasher.verify("password", "$2a$10$stored"))
+                .thenReturn(completedFuture(new Verification(true, "$2a$12$upgraded")));
+        when(jwtService.generateToken(userDetails)).thenReturn("mocked.jwt.token");
+
+        // Act
+        authService.login(authRequest).join();
+
+        // Assert
+        verify(userRepository).replacePasswordHash(1L, "$2a$10$stored", "$2a$12$upgraded");
+    }
+
+    // --- Logout Tests ---
+    @Test
+    void logout_shouldRevokeThePresentedToken() {
+        // Arrange
+        VerifiedToken token = new VerifiedToken("jti-1", "testuser", 1L, 0L, List.of("ROLE_USER"), null);
+        when(jwtService.verify("bearer.token")).thenReturn(token);
+
+        // Act
+        authService.logout("bearer.token");
+
+        // Assert
+        verify(revocationList).revoke(token);
+    }
+
+    @Test
+    void logout_shouldThrowException_whenTokenIsInvalid() {
+        // Arrange
+        when(jwtService.verify("garbage")).thenThrow(new IllegalArgumentException("Invalid or expired JWT"));
+
+        // Act & Assert
+        assertThrows(InvalidCredentialsException.class, () -> authService.logout("garbage"));
+        verifyNoInteractions(revocationList);
     }
 
     // --- Register Tests ---
@@ -93,24 +157,24 @@ class AuthServiceTest {
     void register_shouldSucceed_whenUsernameIsNew() {
         // Arrange
         Role userRole = new Role(1L, "ROLE_USER");
-        User newUser = User.builder().username("testuser").password("encodedPassword").roles(Set.of(userRole)).build();
-        org.springframework.security.core.userdetails.User userDetails =
-                new org.springframework.security.core.userdetails.User("testuser", "encodedPassword", Set.of());
+        User newUser = User.builder().id(5L).username("testuser").password("encodedPassword").roles(Set.of(userRole)).build();
+        BankUserDetails newUserDetails = new BankUserDetails(5L, "testuser", "encodedPassword", true, 0L, List.of());
 
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
         when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(userRole));
-        when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
+        when(passwordHasher.encode("password")).thenReturn(completedFuture("encodedPassword"));
         when(userRepository.save(any(User.class))).thenReturn(newUser);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(userDetails);
-        when(jwtService.generateToken(userDetails)).thenReturn("new.user.token");
+        when(userDetailsService.toUserDetails(newUser)).thenReturn(newUserDetails);
+        when(jwtService.generateToken(newUserDetails)).thenReturn("new.user.token");
 
         // Act
-        AuthResponse response = authService.register(authRequest);
+        AuthResponse response = authService.register(authRequest).join();
 
         // Assert
         assertNotNull(response);
         assertEquals("new.user.token", response.getToken());
+        // The fresh hash is not verified again
+        verify(passwordHasher, never()).verify(any(), anyString());
     }
 
     @Test
@@ -123,4 +187,4 @@ class AuthServiceTest {
             authService.register(authRequest);
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,160 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.SeedIds;
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.dto.BalanceAsOfDto;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.EntryDirection;
+import com.fintech.digitalbanking.entity.JournalEntry;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.TransactionType;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.repository.JournalEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own context (settle-seconds differs), so the checkpoint progress row starts empty
+@SpringBootTest(properties = "banking.checkpoints.settle-seconds=0")
+class BalanceCheckpointerTest {
+
+    @Autowired
+    private BalanceCheckpointer checkpointer;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+    private Account other;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        User owner = testAccounts.newUser("checkpoint");
+        account = testAccounts.newAccount(owner, "0.00");
+        other = testAccounts.newAccount(owner, "10.00");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void checkpoint_shouldSnapshotEveryAccountThatPosted_withItsLastTransaction() {
+        // Arrange
+        transactionService.deposit(account.getId(), new BigDecimal("100.00"));
+        Transaction transfer = transactionService.transfer(account.getId(), other.getAccountNumber(), new BigDecimal("30.00"));
+
+        // Act
+        int written = checkpointer.checkpoint();
+        int again = checkpointer.checkpointUpTo(LocalDateTime.now());
+
+        // Assert
+        assertTrue(written >= 2, "both accounts posted, got " + written);
+        assertEquals(0, again);
+        Map<String, Object> checkpoint = latestCheckpoint(account);
+        assertEquals(0, new BigDecimal("70.00").compareTo((BigDecimal) checkpoint.get("balance")));
+        assertEquals(transfer.getId(), ((Number) checkpoint.get("last_transaction_id")).longValue());
+        assertEquals(0, new BigDecimal("40.00").compareTo((BigDecimal) latestCheckpoint(other).get("balance")));
+    }
+
+    @Test
+    void checkpointUpTo_shouldFindItsClaims_whenTheCutoffIsFinerThanTheColumn() {
+        // Arrange
+        Transaction deposit = transactionService.deposit(account.getId(), new BigDecimal("100.00"));
+        LocalDateTime cutoff = deposit.getTimestamp().truncatedTo(ChronoUnit.MICROS).plusNanos(999);
+
+        // Act
+        int written = checkpointer.checkpointUpTo(cutoff);
+
+        // Assert
+        assertTrue(written >= 1, "the account posted, got " + written);
+        assertEquals(0, new BigDecimal("100.00").compareTo((BigDecimal) latestCheckpoint(account).get("balance")));
+    }
+
+    @Test
+    void balanceAsOf_shouldStartFromTheNearestCheckpoint_andReplayOnlyTheLegsAfterIt() {
+        // Arrange - a hot account, so no leg carries a running balance
+        accountService.setBalanceSlots(account.getId(), 4);
+        transactionService.deposit(account.getId(), new BigDecimal("10.00"));
+        Transaction second = transactionService.deposit(account.getId(), new BigDecimal("20.00"));
+        LocalDateTime cutoff = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        checkpointer.checkpointUpTo(cutoff);
+        Transaction third = transactionService.deposit(account.getId(), new BigDecimal("5.00"));
+        // A checkpoint is trusted: had the legs before it been read again, this would not show
+        jdbcTemplate.update("UPDATE balance_checkpoints SET balance = balance + 1000 WHERE account_id = ?", account.getId());
+
+        // Act
+        BalanceAsOfDto beforeCheckpoint = accountService.getBalanceAsOf(account.getId(), second.getTimestamp().minusNanos(1000));
+        BalanceAsOfDto atCheckpoint = accountService.getBalanceAsOf(account.getId(), cutoff);
+        BalanceAsOfDto afterCheckpoint = accountService.getBalanceAsOf(account.getId(), LocalDateTime.now());
+
+        // Assert
+        assertEquals(0, new BigDecimal("10.00").compareTo(beforeCheckpoint.getBalance()));
+        assertEquals(0, new BigDecimal("1030.00").compareTo(atCheckpoint.getBalance()));
+        assertEquals(second.getId(), atCheckpoint.getLastTransactionId());
+        assertEquals(0, new BigDecimal("1035.00").compareTo(afterCheckpoint.getBalance()));
+        assertEquals(third.getId(), afterCheckpoint.getLastTransactionId());
+    }
+
+    @Test
+    void nextRun_shouldCountALegCommittedAfterTheRunCoveringItsTime_andRedoTheStaleCheckpoint() {
+        // Arrange
+        transactionService.deposit(account.getId(), new BigDecimal("100.00"));
+        LocalDateTime first = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        checkpointer.checkpointUpTo(first);
+        long lateTransaction = SeedIds.reserve(1);
+        // A slot posting stamped at the first cutoff that only commits after that run
+        journalEntryRepository.insertAll(List.of(JournalEntry.builder()
+                .transactionId(lateTransaction)
+                .direction(EntryDirection.CREDIT)
+                .accountId(account.getId())
+                .type(TransactionType.DEPOSIT)
+                .amount(new BigDecimal("25.00"))
+                .postedAt(first)
+                .build()));
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + 25 WHERE id = ?", account.getId());
+        transactionService.deposit(account.getId(), new BigDecimal("5.00"));
+        LocalDateTime second = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        // Act
+        int written = checkpointer.checkpointUpTo(second);
+
+        // Assert
+        assertEquals(1, written);
+        assertEquals(0, new BigDecimal("130.00").compareTo((BigDecimal) latestCheckpoint(account).get("balance")));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM balance_checkpoints WHERE account_id = ?", Integer.class, account.getId()));
+        assertEquals(0, new BigDecimal("125.00").compareTo(accountService.getBalanceAsOf(account.getId(), first).getBalance()));
+        assertEquals(0, new BigDecimal("125.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT balance_after FROM journal_entries WHERE transaction_id = ?", BigDecimal.class, lateTransaction)));
+    }
+
+    private Map<String, Object> latestCheckpoint(Account account) {
+        return jdbcTemplate.queryForMap("SELECT balance, last_transaction_id FROM balance_checkpoints " +
+                "WHERE account_id = ? ORDER BY as_of DESC LIMIT 1", account.getId());
+    }
+}
@@ -0,0 +1,174 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.BatchTransferResponse;
+import com.fintech.digitalbanking.dto.TransferLegResult;
+import com.fintech.digitalbanking.dto.TransferRequest;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.EntryDirection;
+import com.fintech.digitalbanking.entity.JournalEntry;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.BatchPostingRepository;
+import com.fintech.digitalbanking.repository.BatchPostingRepository.LockedAccount;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.util.SecurityUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransferServiceTest {
+
+    @Mock
+    private BatchPostingRepository batchPostingRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private LockRetryExecutor lockRetry;
+
+    @Mock
+    private SecurityUtil securityUtil;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private LedgerEngine ledger;
+
+    @Mock
+    private JournalService journalService;
+
+    @Mock
+    private HotAccountSlots hotAccounts;
+
+    @InjectMocks
+    private BatchTransferService batchTransferService;
+
+    @BeforeEach
+    void setUp() {
+        // Run retry wrapper and transaction callback inline
+        when(lockRetry.execute(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    /** Stubs saveAll to assign sequential ids the way the pooled sequence would. */
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<Transaction>> captureSaveAll(long firstId) {
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        when(transactionRepository.saveAll(captor.capture())).thenAnswer(inv -> {
+            List<Transaction> rows = inv.getArgument(0);
+            for (int i = 0; i < rows.size(); i++) rows.get(i).setId(firstId + i);
+            return rows;
+        });
+        return captor;
+    }
+
+    @Test
+    void transferBatch_shouldPostValidLegsAndRejectTheRest() {
+        // Arrange
+        when(securityUtil.isAdmin()).thenReturn(true);
+        when(batchPostingRepository.findAccountIdsByNumber(anyCollection()))
+                .thenReturn(Map.of("ACC-2", 2L, "ACC-3", 3L));
+        when(batchPostingRepository.lockAccounts(anyCollection())).thenReturn(Map.of(
+                1L, new LockedAccount(1L, new BigDecimal("100.00"), true, 7L, 0),
+                2L, new LockedAccount(2L, new BigDecimal("0.00"), true, 8L, 0),
+                3L, new LockedAccount(3L, new BigDecimal("0.00"), true, 9L, 0)));
+        when(accountRepository.getReferenceById(any())).thenAnswer(inv -> Account.builder().id(inv.getArgument(0)).build());
+        ArgumentCaptor<List<Transaction>> saved = captureSaveAll(100L);
+
+        List<TransferRequest> legs = List.of(
+                leg(1L, "ACC-2", "60.00"),   // posted
+                leg(1L, "ACC-3", "60.00"),   // only 40 left -> insufficient
+                leg(1L, "ACC-404", "1.00"),  // unknown target
+                leg(2L, "ACC-2", "1.00"),    // same account
+                leg(1L, "ACC-3", "40.00"));  // posted, drains the source
+
+        // Act
+        BatchTransferResponse response = batchTransferService.transferBatch(legs);
+
+        // Assert
+        assertEquals(5, response.getTotal());
+        assertEquals(2, response.getPosted());
+        assertEquals(3, response.getRejected());
+        assertEquals(TransferLegResult.Status.POSTED, response.getResults().get(0).getStatus());
+        assertEquals("Insufficient balance", response.getResults().get(1).getError());
+        assertTrue(response.getResults().get(2).getError().startsWith("Target account not found"));
+        assertEquals("Cannot transfer to the same account.", response.getResults().get(3).getError());
+        assertEquals(TransferLegResult.Status.POSTED, response.getResults().get(4).getStatus());
+
+        verify(batchPostingRepository).updateBalances(Map.of(
+                1L, new BigDecimal("0.00"),
+                2L, new BigDecimal("60.00"),
+                3L, new BigDecimal("40.00")));
+        assertEquals(100L, response.getResults().get(0).getTransactionId());
+        assertEquals(101L, response.getResults().get(4).getTransactionId());
+        List<Transaction> rows = saved.getValue();
+        assertEquals(2, rows.size());
+        assertEquals(3L, rows.get(1).getTargetAccount().getId());
+        assertEquals(new BigDecimal("40.00"), rows.get(1).getAmount());
+
+        // Each posted leg is journalled with the running balances it left behind
+        ArgumentCaptor<List<JournalEntry>> journalled = ArgumentCaptor.forClass(List.class);
+        verify(journalService).recordAll(journalled.capture());
+        List<JournalEntry> entries = journalled.getValue();
+        assertEquals(4, entries.size());
+        assertEquals(List.of(1L, 2L, 1L, 3L), entries.stream().map(JournalEntry::getAccountId).toList());
+        assertEquals(List.of(EntryDirection.DEBIT, EntryDirection.CREDIT, EntryDirection.DEBIT, EntryDirection.CREDIT),
+                entries.stream().map(JournalEntry::getDirection).toList());
+        assertEquals(List.of(new BigDecimal("40.00"), new BigDecimal("60.00"), new BigDecimal("0.00"), new BigDecimal("40.00")),
+                entries.stream().map(JournalEntry::getBalanceAfter).toList());
+    }
+
+    @Test
+    void transferBatch_shouldRejectLegsFromAccountsTheUserDoesNotOwn() {
+        // Arrange
+        when(securityUtil.isAdmin()).thenReturn(false);
+        when(securityUtil.getCurrentUserId()).thenReturn(7L);
+        when(batchPostingRepository.findAccountIdsByNumber(anyCollection())).thenReturn(Map.of("ACC-1", 1L));
+        when(batchPostingRepository.lockAccounts(anyCollection())).thenReturn(Map.of(
+                1L, new LockedAccount(1L, new BigDecimal("100.00"), true, 7L, 0),
+                2L, new LockedAccount(2L, new BigDecimal("100.00"), true, 8L, 0)));
+
+        // Act
+        BatchTransferResponse response = batchTransferService.transferBatch(List.of(leg(2L, "ACC-1", "10.00")));
+
+        // Assert
+        assertEquals(0, response.getPosted());
+        assertEquals("Access denied - account does not belong to user", response.getResults().get(0).getError());
+        verify(batchPostingRepository).updateBalances(Map.of());
+        verify(transactionRepository).saveAll(List.of());
+    }
+
+    private static TransferRequest leg(Long sourceId, String targetNumber, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId(sourceId);
+        request.setTargetAccountNumber(targetNumber);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+}
@@ -0,0 +1,161 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.exception.CustomAccessDeniedException;
+import com.fintech.digitalbanking.exception.InsufficientFundsException;
+import com.fintech.digitalbanking.exception.RoleNotFoundException;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.BatchPostingRepository;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.service.GroupCommitPipeline.Posting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a pipeline built here against the test database; the context's own pipeline stays
+ * disabled. One writer with a long linger puts everything submitted together into one batch.
+ */
+@SpringBootTest
+class GroupCommitPipelineTest {
+
+    @Autowired
+    private BatchPostingRepository batchPostingRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private LockRetryExecutor lockRetry;
+    @Autowired
+    private AccountCache accountCache;
+    @Autowired
+    private PostingMetrics metrics;
+    @Autowired
+    private JournalService journalService;
+    @Autowired
+    private HotAccountSlots hotAccounts;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<GroupCommitPipeline> pipelines = new ArrayList<>();
+
+    @AfterEach
+    void stopPipelines() {
+        pipelines.forEach(GroupCommitPipeline::stop);
+    }
+
+    @Test
+    void batch_shouldPostValidPostingsInOrder_andRejectTheRestOneByOne() {
+        // Arrange
+        GroupCommitPipeline pipeline = start(1, 200);
+        User owner = testAccounts.newUser("group");
+        Account account = testAccounts.newAccount(owner, "50.00");
+        Account foreign = testAccounts.newAccount(testAccounts.newUser("group"), "10.00");
+        Account closed = testAccounts.newAccount(owner, new BigDecimal("10.00"), false);
+
+        // Act - the withdrawal only fits because the deposit ahead of it in the batch is counted
+        CompletableFuture<Transaction> deposit = pipeline.submit(Posting.deposit(account.getId(), new BigDecimal("25.00"), owner.getId()));
+        CompletableFuture<Transaction> withdrawal = pipeline.submit(Posting.withdrawal(account.getId(), new BigDecimal("70.00"), owner.getId()));
+        CompletableFuture<Transaction> overdraft = pipeline.submit(Posting.withdrawal(account.getId(), new BigDecimal("5.01"), owner.getId()));
+        CompletableFuture<Transaction> notMine = pipeline.submit(Posting.withdrawal(foreign.getId(), new BigDecimal("1.00"), owner.getId()));
+        CompletableFuture<Transaction> inactive = pipeline.submit(Posting.deposit(closed.getId(), new BigDecimal("1.00"), owner.getId()));
+        CompletableFuture<Transaction> missing = pipeline.submit(Posting.deposit(-1L, new BigDecimal("1.00"), null));
+
+        // Assert
+        assertTrue(transactionRepository.existsById(deposit.join().getId()));
+        assertTrue(transactionRepository.existsById(withdrawal.join().getId()));
+        assertInstanceOf(InsufficientFundsException.class, causeOf(overdraft));
+        assertEquals("Access denied - account does not belong to user", causeOf(notMine).getMessage());
+        assertEquals("Account is inactive", causeOf(inactive).getMessage());
+        assertInstanceOf(CustomAccessDeniedException.class, causeOf(inactive));
+        assertInstanceOf(RoleNotFoundException.class, causeOf(missing));
+        assertEquals(0, new BigDecimal("5.00").compareTo(balanceRow(account)));
+        assertEquals(0, new BigDecimal("10.00").compareTo(balanceRow(foreign)));
+    }
+
+    @Test
+    void post_shouldReturnEachCallersOwnTransaction_whenManyWritersShareTheLoad() throws Exception {
+        // Arrange
+        GroupCommitPipeline pipeline = start(2, 2);
+        User owner = testAccounts.newUser("group");
+        List<Account> accounts = List.of(testAccounts.newAccount(owner, "0.00"), testAccounts.newAccount(owner, "0.00"),
+                testAccounts.newAccount(owner, "0.00"));
+        List<CompletableFuture<Transaction>> postings = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 30; i++) {
+            Account account = accounts.get(i % accounts.size());
+            BigDecimal amount = BigDecimal.valueOf(i + 1);
+            postings.add(CompletableFuture.supplyAsync(() -> pipeline.post(Posting.deposit(account.getId(), amount, null), () -> fail("pipeline is running"))));
+        }
+        CompletableFuture.allOf(postings.toArray(new CompletableFuture[0])).join();
+
+        // Assert
+        for (int i = 0; i < postings.size(); i++) {
+            Transaction posted = postings.get(i).join();
+            assertEquals(0, BigDecimal.valueOf(i + 1).compareTo(posted.getAmount()));
+            assertEquals(accounts.get(i % accounts.size()).getId(), posted.getSourceAccount().getId());
+        }
+        assertEquals(30, postings.stream().map(p -> p.join().getId()).distinct().count());
+        // Account k received k+1, k+4, ..., k+28: 145 + 10k
+        for (int k = 0; k < accounts.size(); k++) {
+            assertEquals(0, BigDecimal.valueOf(145 + 10L * k).compareTo(balanceRow(accounts.get(k))));
+        }
+    }
+
+    @Test
+    void post_shouldTakeTheDirectPath_whenThePipelineStoppedAfterAcceptingIt() {
+        // Arrange - accepts() said yes, then shutdown stopped the pipeline
+        GroupCommitPipeline pipeline = start(1, 2);
+        assertTrue(pipeline.accepts());
+        pipeline.stop();
+        Transaction direct = Transaction.builder().id(-1L).build();
+
+        // Act
+        Transaction result = pipeline.post(Posting.deposit(1L, BigDecimal.ONE, null), () -> direct);
+
+        // Assert
+        assertSame(direct, result);
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(Posting.deposit(1L, BigDecimal.ONE, null)));
+    }
+
+    private GroupCommitPipeline start(int workers, long lingerMs) {
+        GroupCommitPipeline pipeline = new GroupCommitPipeline(batchPostingRepository, transactionRepository,
+                accountRepository, transactionTemplate, lockRetry, accountCache, metrics, journalService, hotAccounts);
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "workerCount", workers);
+        ReflectionTestUtils.setField(pipeline, "lingerMs", lingerMs);
+        pipeline.start();
+        pipelines.add(pipeline);
+        return pipeline;
+    }
+
+    private static Throwable causeOf(CompletableFuture<Transaction> posting) {
+        CompletionException e = assertThrows(CompletionException.class, posting::join);
+        return e.getCause();
+    }
+
+    private BigDecimal balanceRow(Account account) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, account.getId());
+    }
+}
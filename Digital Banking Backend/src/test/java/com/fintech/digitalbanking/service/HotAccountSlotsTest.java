@@ -0,0 +1,197 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.dto.BatchTransferResponse;
+import com.fintech.digitalbanking.dto.TransferLegResult;
+import com.fintech.digitalbanking.dto.TransferRequest;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.exception.InsufficientFundsException;
+import com.fintech.digitalbanking.repository.AccountRepository;
+import com.fintech.digitalbanking.repository.BatchPostingRepository;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class HotAccountSlotsTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private BatchPostingRepository batchPostingRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private LockRetryExecutor lockRetry;
+    @Autowired
+    private AccountCache accountCache;
+    @Autowired
+    private PostingMetrics metrics;
+    @Autowired
+    private JournalService journalService;
+    @Autowired
+    private HotAccountSlots hotAccounts;
+    @Autowired
+    private BatchTransferService batchTransferService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account merchant;
+    private Account customer;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        User owner = testAccounts.newUser("hot");
+        merchant = testAccounts.newAccount(owner, "100.00");
+        customer = testAccounts.newAccount(owner, "500.00");
+        accountService.setBalanceSlots(merchant.getId(), 4);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void credits_shouldSpreadOverSlots_withoutTouchingTheAccountRow() {
+        // Arrange
+        long versionBefore = rowVersion(merchant);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            transactionService.deposit(merchant.getId(), new BigDecimal("10.00"));
+        }
+        transactionService.transfer(customer.getId(), merchant.getAccountNumber(), new BigDecimal("50.00"));
+
+        // Assert
+        assertEquals(versionBefore, rowVersion(merchant));
+        assertEquals(0, new BigDecimal("100.00").compareTo(rowBalance(merchant)));
+        assertEquals(0, new BigDecimal("250.00").compareTo(slotTotal(merchant)));
+        assertTrue(slotsInUse(merchant) > 1, "credits should not all land in one slot");
+        assertEquals(0, new BigDecimal("350.00").compareTo(accountService.getBalance(merchant.getId())));
+        assertEquals(0, new BigDecimal("450.00").compareTo(accountService.getBalance(customer.getId())));
+    }
+
+    @Test
+    void debit_shouldSweepSlotsIntoTheRow_whenNoSingleSlotCoversIt() {
+        // Arrange - 200.00 spread over the slots, no slot can hold all of it
+        for (int i = 0; i < 20; i++) {
+            transactionService.deposit(merchant.getId(), new BigDecimal("10.00"));
+        }
+
+        // Act
+        transactionService.transfer(merchant.getId(), customer.getAccountNumber(), new BigDecimal("250.00"));
+        assertThrows(InsufficientFundsException.class,
+                () -> transactionService.withdraw(merchant.getId(), new BigDecimal("50.01")));
+        transactionService.withdraw(merchant.getId(), new BigDecimal("20.00"));
+        accountService.setBalanceSlots(merchant.getId(), 0);
+
+        // Assert
+        assertEquals(0, new BigDecimal("30.00").compareTo(rowBalance(merchant)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(slotTotal(merchant)));
+        assertEquals(0, new BigDecimal("30.00").compareTo(accountService.getBalance(merchant.getId())));
+        assertEquals(0, new BigDecimal("750.00").compareTo(accountService.getBalance(customer.getId())));
+    }
+
+    @Test
+    void groupCommittedWithdrawal_shouldSweepSlotsIntoTheRow_whenTheRowAloneFallsShort() {
+        // Arrange - 100.00 in the row, 200.00 in the slots
+        for (int i = 0; i < 20; i++) {
+            transactionService.deposit(merchant.getId(), new BigDecimal("10.00"));
+        }
+        GroupCommitPipeline pipeline = new GroupCommitPipeline(batchPostingRepository, transactionRepository,
+                accountRepository, transactionTemplate, lockRetry, accountCache, metrics, journalService, hotAccounts);
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "workerCount", 1);
+        ReflectionTestUtils.invokeMethod(pipeline, "start");
+
+        // Act
+        try {
+            pipeline.post(GroupCommitPipeline.Posting.withdrawal(merchant.getId(), new BigDecimal("250.00"), null),
+                    () -> fail("pipeline is running"));
+            assertThrows(InsufficientFundsException.class, () -> pipeline.post(
+                    GroupCommitPipeline.Posting.withdrawal(merchant.getId(), new BigDecimal("50.01"), null),
+                    () -> fail("pipeline is running")));
+        } finally {
+            ReflectionTestUtils.invokeMethod(pipeline, "stop");
+        }
+
+        // Assert
+        assertEquals(0, new BigDecimal("50.00").compareTo(rowBalance(merchant)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(slotTotal(merchant)));
+        assertEquals(0, new BigDecimal("50.00").compareTo(accountService.getBalance(merchant.getId())));
+    }
+
+    @Test
+    void batchTransfer_shouldSweepSlotsIntoTheRow_whenTheRowAloneFallsShort() {
+        // Arrange - 100.00 in the row, 200.00 in the slots
+        for (int i = 0; i < 20; i++) {
+            transactionService.deposit(merchant.getId(), new BigDecimal("10.00"));
+        }
+
+        // Act
+        BatchTransferResponse response = batchTransferService.transferBatch(List.of(
+                leg(merchant, customer, "80.00"),
+                leg(merchant, customer, "170.00"),  // only 20.00 left in the row, the slots fund it
+                leg(merchant, customer, "50.01")));
+
+        // Assert
+        assertEquals(2, response.getPosted());
+        assertEquals(TransferLegResult.Status.REJECTED, response.getResults().get(2).getStatus());
+        assertEquals(0, new BigDecimal("50.00").compareTo(rowBalance(merchant)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(slotTotal(merchant)));
+        assertEquals(0, new BigDecimal("50.00").compareTo(accountService.getBalance(merchant.getId())));
+        assertEquals(0, new BigDecimal("750.00").compareTo(accountService.getBalance(customer.getId())));
+    }
+
+    private static TransferRequest leg(Account source, Account target, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId(source.getId());
+        request.setTargetAccountNumber(target.getAccountNumber());
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+    private BigDecimal rowBalance(Account account) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, account.getId());
+    }
+
+    private long rowVersion(Account account) {
+        return jdbcTemplate.queryForObject("SELECT version FROM accounts WHERE id = ?", Long.class, account.getId());
+    }
+
+    private BigDecimal slotTotal(Account account) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(balance), 0) FROM account_balance_slots WHERE account_id = ?",
+                BigDecimal.class, account.getId());
+    }
+
+    private int slotsInUse(Account account) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_balance_slots WHERE account_id = ? AND balance > 0",
+                Integer.class, account.getId());
+    }
+}
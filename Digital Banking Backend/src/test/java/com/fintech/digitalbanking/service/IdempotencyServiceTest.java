@@ -0,0 +1,252 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.TransactionDto;
+import com.fintech.digitalbanking.entity.IdempotencyKey;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.exception.IdempotencyKeyException;
+import com.fintech.digitalbanking.exception.InsufficientFundsException;
+import com.fintech.digitalbanking.repository.IdempotencyKeyRepository;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.util.SecurityUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private LockRetryExecutor lockRetry;
+
+    @Mock
+    private SecurityUtil securityUtil;
+
+    @Mock
+    private LedgerEngine ledger;
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger postings = new AtomicInteger();
+    private final Function<Transaction, TransactionDto> toDto =
+            tx -> TransactionDto.builder().id(tx.getId()).amount(tx.getAmount()).build();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService.initCache();
+        when(securityUtil.getCurrentUsername()).thenReturn("alice");
+        // Run retry wrapper and transaction callback inline
+        when(lockRetry.execute(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    private Supplier<Transaction> deposit(String amount) {
+        return () -> Transaction.builder()
+                .id(100L + postings.incrementAndGet())
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    @Test
+    void execute_shouldReplayOriginalResult_whenKeyIsReused() {
+        // Arrange
+        String fingerprint = IdempotencyService.fingerprint("deposit", 1L, new BigDecimal("50.00"));
+
+        // Act
+        TransactionDto first = idempotencyService.execute("key-1", fingerprint, deposit("50.00"), toDto);
+        TransactionDto retry = idempotencyService.execute("key-1", fingerprint, deposit("50.00"), toDto);
+
+        // Assert
+        assertEquals(1, postings.get());
+        assertEquals(first.getId(), retry.getId());
+        verify(idempotencyKeyRepository, times(1)).saveAndFlush(any(IdempotencyKey.class));
+    }
+
+    @Test
+    void execute_shouldRejectReusedKey_whenRequestDiffers() {
+        // Arrange
+        idempotencyService.execute("key-1", IdempotencyService.fingerprint("deposit", 1L, new BigDecimal("50")),
+                deposit("50"), toDto);
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyException.class, () -> idempotencyService.execute("key-1",
+                IdempotencyService.fingerprint("deposit", 1L, new BigDecimal("60")), deposit("60"), toDto));
+        assertEquals(1, postings.get());
+    }
+
+    @Test
+    void execute_shouldPostEveryTime_whenNoKeyIsSent() {
+        // Act
+        idempotencyService.execute(null, "deposit|1|50", deposit("50"), toDto);
+        idempotencyService.execute(null, "deposit|1|50", deposit("50"), toDto);
+
+        // Assert
+        assertEquals(2, postings.get());
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void execute_shouldReturnStoredTransaction_whenKeyWasCommittedElsewhere() {
+        // Arrange
+        String fingerprint = "deposit|1|50";
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(idempotencyKeyRepository.findByUsernameAndIdempotencyKey("alice", "key-1")).thenReturn(Optional.of(
+                IdempotencyKey.builder().requestFingerprint(fingerprint).transactionId(7L).build()));
+        when(transactionRepository.findById(7L)).thenReturn(Optional.of(
+                Transaction.builder().id(7L).amount(new BigDecimal("50")).build()));
+
+        // Act
+        TransactionDto result = idempotencyService.execute("key-1", fingerprint, deposit("50"), toDto);
+
+        // Assert
+        assertEquals(7L, result.getId());
+    }
+
+    @Test
+    void execute_shouldPostOnce_whenDuplicatesArriveConcurrently() throws Exception {
+        // Arrange
+        String fingerprint = "deposit|1|50";
+        CountDownLatch start = new CountDownLatch(1);
+        Supplier<Transaction> slowDeposit = () -> {
+            sleep(50);
+            return deposit("50").get();
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<TransactionDto>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return idempotencyService.execute("key-1", fingerprint, slowDeposit, toDto);
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+
+        // Assert
+        for (Future<TransactionDto> result : results) {
+            assertEquals(101L, result.get().getId());
+        }
+        assertEquals(1, postings.get());
+    }
+
+    @Test
+    void execute_shouldCommitTheKeyBeforeTheLedgerPosting_andNeverRetryIt() {
+        // Arrange
+        ledgerMode();
+        List<String> calls = new ArrayList<>();
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(inv -> {
+            calls.add("key");
+            return inv.getArgument(0);
+        });
+        Supplier<Transaction> posting = () -> {
+            calls.add("posting");
+            return Transaction.builder().id(500L).amount(new BigDecimal("50")).build();
+        };
+
+        // Act
+        TransactionDto result = idempotencyService.execute("key-1", "deposit|1|50", posting, toDto);
+
+        // Assert
+        assertEquals(500L, result.getId());
+        assertEquals(List.of("key", "posting"), calls);
+        verify(idempotencyKeyRepository).saveAndFlush(argThat(key -> key.getTransactionId() == 500L));
+        verify(lockRetry, never()).execute(any());
+    }
+
+    @Test
+    void execute_shouldGiveTheKeyBack_whenTheLedgerRejectsThePosting() {
+        // Arrange
+        ledgerMode();
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(inv -> {
+            IdempotencyKey key = inv.getArgument(0);
+            key.setId(9L);
+            return key;
+        });
+        Supplier<Transaction> rejected = () -> {
+            throw new InsufficientFundsException("Insufficient funds");
+        };
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+                () -> idempotencyService.execute("key-1", "withdraw|1|50", rejected, toDto));
+        verify(idempotencyKeyRepository).deleteById(9L);
+    }
+
+    @Test
+    void execute_shouldKeepTheKey_whenTheJournalFlushFailed() {
+        // Arrange
+        ledgerMode();
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+        Supplier<Transaction> ambiguous = () -> {
+            throw new CompletionException(new IOException("disk full"));
+        };
+
+        // Act & Assert
+        assertThrows(CompletionException.class,
+                () -> idempotencyService.execute("key-1", "deposit|1|50", ambiguous, toDto));
+        verify(idempotencyKeyRepository, never()).deleteById(any());
+    }
+
+    /** LEDGER mode, with the engine reserving id 500 and running postings inline. */
+    private void ledgerMode() {
+        ReflectionTestUtils.setField(idempotencyService, "postingMode", PostingMode.LEDGER);
+        when(ledger.reserveTransactionId()).thenReturn(500L);
+        when(ledger.postAs(anyLong(), any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(1)).get());
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.dto.StatementLineDto;
+import com.fintech.digitalbanking.dto.StatementPage;
+import com.fintech.digitalbanking.dto.StatementRequest;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class JournalServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private JournalService journalService;
+    @Autowired
+    private BalanceCheckpointer checkpointer;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+    private Account other;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        User owner = testAccounts.newUser("journal");
+        account = testAccounts.newAccount(owner, "0.00");
+        other = testAccounts.newAccount(owner, "10.00");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void postings_shouldWriteBalancedLegs_withRunningBalances() {
+        // Act
+        Transaction deposit = transactionService.deposit(account.getId(), new BigDecimal("100.00"));
+        Transaction transfer = transactionService.transfer(account.getId(), other.getAccountNumber(), new BigDecimal("30.00"));
+        Transaction withdrawal = transactionService.withdraw(account.getId(), new BigDecimal("20.00"));
+
+        // Assert - one debit and one credit of the same amount per posting, the outside world as a leg without account
+        for (Transaction tx : List.of(deposit, transfer, withdrawal)) {
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT SUM(CASE WHEN direction = 'CREDIT' THEN amount ELSE -amount END) " +
+                    "FROM journal_entries WHERE transaction_id = ?", BigDecimal.class, tx.getId()).signum());
+            assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM journal_entries WHERE transaction_id = ?",
+                    Integer.class, tx.getId()));
+        }
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM journal_entries WHERE account_id IS NULL " +
+                "AND transaction_id IN (?, ?)", Integer.class, deposit.getId(), withdrawal.getId()));
+
+        List<StatementLineDto> lines = accountService.getStatement(account.getId(), new StatementRequest()).getItems();
+        assertEquals(List.of(withdrawal.getId(), transfer.getId(), deposit.getId()),
+                lines.stream().map(StatementLineDto::getTransactionId).toList());
+        assertEquals(List.of("DEBIT", "DEBIT", "CREDIT"), lines.stream().map(StatementLineDto::getDirection).toList());
+        assertBalances(List.of("50.00", "70.00", "100.00"), lines);
+        assertBalances(List.of("40.00"), accountService.getStatement(other.getId(), new StatementRequest()).getItems());
+    }
+
+    @Test
+    void statement_shouldPageWithTheCursor() {
+        // Arrange
+        for (int i = 1; i <= 3; i++) {
+            transactionService.deposit(account.getId(), new BigDecimal(i + ".00"));
+        }
+        StatementRequest request = new StatementRequest();
+        request.setLimit(2);
+
+        // Act
+        StatementPage first = accountService.getStatement(account.getId(), request);
+        request.setCursor(first.getNextCursor());
+        StatementPage second = accountService.getStatement(account.getId(), request);
+
+        // Assert
+        assertBalances(List.of("6.00", "3.00"), first.getItems());
+        assertNotNull(first.getNextCursor());
+        assertBalances(List.of("1.00"), second.getItems());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void balanceAt_shouldFollowTheRunningBalance_andSumLegsWithoutOne() {
+        // Arrange - two postings with running balances, then two through balance slots without
+        Transaction deposit = transactionService.deposit(account.getId(), new BigDecimal("100.00"));
+        Transaction transfer = transactionService.transfer(account.getId(), other.getAccountNumber(), new BigDecimal("30.00"));
+        accountService.setBalanceSlots(account.getId(), 4);
+        Transaction hotDeposit = transactionService.deposit(account.getId(), new BigDecimal("5.00"));
+        transactionService.deposit(account.getId(), new BigDecimal("7.00"));
+        BigDecimal current = accountService.getBalance(account.getId());
+
+        // Act / Assert
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceAt(deposit.getTimestamp().minusNanos(1000), current)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(balanceAt(deposit.getTimestamp(), current)));
+        assertEquals(0, new BigDecimal("70.00").compareTo(balanceAt(transfer.getTimestamp(), current)));
+        assertEquals(0, new BigDecimal("75.00").compareTo(balanceAt(hotDeposit.getTimestamp(), current)));
+        assertEquals(0, new BigDecimal("82.00").compareTo(balanceAt(LocalDateTime.now(), current)));
+        assertEquals(0, new BigDecimal("82.00").compareTo(current));
+    }
+
+    @Test
+    void fillRunningBalances_shouldWorkBackFromTheBalanceAtTheCutoff_overSlotLegsOnly() {
+        // Arrange - one posting with a running balance, then three through balance slots without
+        transactionService.deposit(account.getId(), new BigDecimal("100.00"));
+        accountService.setBalanceSlots(account.getId(), 4);
+        transactionService.deposit(account.getId(), new BigDecimal("5.00"));
+        transactionService.withdraw(account.getId(), new BigDecimal("3.00"));
+        transactionService.deposit(account.getId(), new BigDecimal("7.00"));
+        LocalDateTime cutoff = LocalDateTime.now();
+        // Stamped wrong on purpose: a leg that has a running balance keeps it
+        jdbcTemplate.update("UPDATE journal_entries SET balance_after = 999 WHERE account_id = ? AND balance_after = 100",
+                account.getId());
+
+        // Act
+        journalService.fillRunningBalances(account.getId(), null, cutoff, new BigDecimal("109.00"));
+
+        // Assert
+        assertBalances(List.of("109.00", "102.00", "105.00", "999.00"),
+                accountService.getStatement(account.getId(), new StatementRequest()).getItems());
+    }
+
+    @Test
+    void atomicMode_shouldLeaveRunningBalancesToTheNextCheckpoint() {
+        // Arrange
+        TransactionService target = AopTestUtils.getTargetObject(transactionService);
+        ReflectionTestUtils.setField(target, "postingMode", PostingMode.ATOMIC);
+        try {
+            transactionService.deposit(account.getId(), new BigDecimal("40.00"));
+            transactionService.transfer(account.getId(), other.getAccountNumber(), new BigDecimal("15.00"));
+        } finally {
+            ReflectionTestUtils.setField(target, "postingMode", PostingMode.LOCKING);
+        }
+        assertTrue(accountService.getStatement(account.getId(), new StatementRequest()).getItems().stream()
+                .allMatch(line -> line.getBalanceAfter() == null));
+
+        // Act
+        checkpointer.checkpointUpTo(LocalDateTime.now());
+
+        // Assert
+        assertBalances(List.of("25.00", "40.00"), accountService.getStatement(account.getId(), new StatementRequest()).getItems());
+        assertBalances(List.of("25.00"), accountService.getStatement(other.getId(), new StatementRequest()).getItems());
+    }
+
+    private BigDecimal balanceAt(LocalDateTime at, BigDecimal current) {
+        return journalService.balanceAsOf(account.getId(), at, () -> current).balance();
+    }
+
+    private static void assertBalances(List<String> expected, List<StatementLineDto> lines) {
+        assertEquals(expected.stream().map(BigDecimal::new).toList(),
+                lines.stream().map(line -> line.getBalanceAfter().setScale(2)).toList());
+    }
+}
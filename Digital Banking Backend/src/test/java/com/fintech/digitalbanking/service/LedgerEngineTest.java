@@ -0,0 +1,211 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.TestAccounts;
+import com.fintech.digitalbanking.entity.Account;
+import com.fintech.digitalbanking.entity.IdempotencyKey;
+import com.fintech.digitalbanking.entity.Transaction;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.exception.CustomAccessDeniedException;
+import com.fintech.digitalbanking.exception.InsufficientFundsException;
+import com.fintech.digitalbanking.repository.IdempotencyKeyRepository;
+import com.fintech.digitalbanking.repository.LedgerRepository;
+import com.fintech.digitalbanking.repository.TransactionRepository;
+import com.fintech.digitalbanking.service.LedgerEngine.Posting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs engines against the test database; the context itself stays in LOCKING mode so the
+ * engines built here are the only ones projecting.
+ */
+@SpringBootTest
+class LedgerEngineTest {
+
+    @Autowired
+    private LedgerRepository ledgerRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private AccountCache accountCache;
+    @Autowired
+    private JournalService journalService;
+    @Autowired
+    private TestAccounts testAccounts;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path journalDir;
+
+    private final List<LedgerEngine> engines = new ArrayList<>();
+
+    @AfterEach
+    void stopEngines() {
+        engines.forEach(LedgerEngine::stop);
+    }
+
+    @Test
+    void postings_shouldBeCheckedInMemory_andProjectedToTheTables() throws Exception {
+        // Arrange
+        LedgerEngine engine = start(ledgerRepository);
+        User owner = testAccounts.newUser("ledger");
+        Account source = testAccounts.newAccount(owner, "0.00");
+        Account target = testAccounts.newAccount(testAccounts.newUser("ledger"), "5.00");
+
+        // Act
+        Transaction deposit = engine.post(Posting.deposit(source.getId(), new BigDecimal("100.00"), owner.getId()));
+        Transaction transfer = engine.post(Posting.transfer(source.getId(), target.getId(), new BigDecimal("30.00"), owner.getId()));
+        assertThrows(InsufficientFundsException.class,
+                () -> engine.post(Posting.withdrawal(source.getId(), new BigDecimal("70.01"), owner.getId())));
+        assertThrows(CustomAccessDeniedException.class,
+                () -> engine.post(Posting.withdrawal(target.getId(), new BigDecimal("1.00"), owner.getId())));
+        awaitProjection(engine);
+
+        // Assert
+        assertEquals(0, new BigDecimal("70.00").compareTo(engine.balanceOf(source.getId()).orElseThrow()));
+        assertEquals(0, new BigDecimal("70.00").compareTo(balanceRow(source)));
+        assertEquals(0, new BigDecimal("35.00").compareTo(balanceRow(target)));
+        Transaction stored = transactionRepository.findById(transfer.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("30.00").compareTo(stored.getAmount()));
+        assertTrue(transactionRepository.existsById(deposit.getId()));
+        assertNotEquals(deposit.getId(), transfer.getId());
+        // The projected journal legs carry the running balances the engine worked out
+        assertEquals(0, new BigDecimal("100.00").compareTo(legBalance(deposit, source)));
+        assertEquals(0, new BigDecimal("70.00").compareTo(legBalance(transfer, source)));
+        assertEquals(0, new BigDecimal("35.00").compareTo(legBalance(transfer, target)));
+    }
+
+    @Test
+    void reversal_shouldBeAcceptedOnce_evenBeforeItIsProjected() throws Exception {
+        // Arrange
+        LedgerEngine engine = start(ledgerRepository);
+        User owner = testAccounts.newUser("ledger");
+        Account source = testAccounts.newAccount(owner, "50.00");
+        Account target = testAccounts.newAccount(testAccounts.newUser("ledger"), "0.00");
+        Transaction transfer = engine.post(Posting.transfer(source.getId(), target.getId(), new BigDecimal("20.00"), owner.getId()));
+        awaitProjection(engine);
+        Transaction original = transactionRepository.findById(transfer.getId()).orElseThrow();
+
+        // Act
+        Transaction reversal = engine.post(Posting.reversalOf(original));
+        assertThrows(CustomAccessDeniedException.class, () -> engine.post(Posting.reversalOf(original)));
+        awaitProjection(engine);
+
+        // Assert
+        assertEquals(0, new BigDecimal("50.00").compareTo(balanceRow(source)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceRow(target)));
+        Transaction reversed = transactionRepository.findById(original.getId()).orElseThrow();
+        assertTrue(reversed.isReversed());
+        assertEquals(reversal.getId(), reversed.getRelatedTransactionId());
+        assertEquals(original.getId(), transactionRepository.findById(reversal.getId()).orElseThrow().getRelatedTransactionId());
+    }
+
+    @Test
+    void restart_shouldReplayJournaledPostingsTheDatabaseNeverSaw() throws Exception {
+        // Arrange - the first engine journals and acknowledges, but every projection fails
+        LedgerRepository databaseDown = mock(LedgerRepository.class, delegatesTo(ledgerRepository));
+        doThrow(new DataAccessResourceFailureException("database unavailable")).when(databaseDown).project(any());
+        LedgerEngine crashed = start(databaseDown);
+        User owner = testAccounts.newUser("ledger");
+        Account source = testAccounts.newAccount(owner, "10.00");
+        Account target = testAccounts.newAccount(testAccounts.newUser("ledger"), "0.00");
+        crashed.post(Posting.deposit(source.getId(), new BigDecimal("90.00"), owner.getId()));
+        Transaction transfer = crashed.post(Posting.transfer(source.getId(), target.getId(), new BigDecimal("40.00"), owner.getId()));
+        crashed.stop();
+        engines.remove(crashed);
+        assertEquals(0, new BigDecimal("10.00").compareTo(balanceRow(source)));
+
+        // Act
+        LedgerEngine restarted = start(ledgerRepository);
+        BigDecimal recovered = restarted.balanceOf(source.getId()).orElseThrow();
+        awaitProjection(restarted);
+
+        // Assert
+        assertEquals(0, new BigDecimal("60.00").compareTo(recovered));
+        assertEquals(0, new BigDecimal("60.00").compareTo(balanceRow(source)));
+        assertEquals(0, new BigDecimal("40.00").compareTo(balanceRow(target)));
+        assertTrue(transactionRepository.existsById(transfer.getId()));
+    }
+
+    @Test
+    void restart_shouldReleaseIdempotencyKeys_whosePostingNeverReachedTheJournal() {
+        // Arrange - both keys were reserved before posting; only the first posting was journaled
+        LedgerRepository databaseDown = mock(LedgerRepository.class, delegatesTo(ledgerRepository));
+        doThrow(new DataAccessResourceFailureException("database unavailable")).when(databaseDown).project(any());
+        LedgerEngine crashed = start(databaseDown);
+        User owner = testAccounts.newUser("ledger");
+        Account account = testAccounts.newAccount(owner, "0.00");
+        long journaledId = crashed.reserveTransactionId();
+        IdempotencyKey journaled = reserveKey(owner, "journaled", journaledId);
+        IdempotencyKey lost = reserveKey(owner, "lost", crashed.reserveTransactionId());
+        Transaction deposit = crashed.postAs(journaledId,
+                () -> crashed.post(Posting.deposit(account.getId(), new BigDecimal("5.00"), owner.getId())));
+        crashed.stop();
+        engines.remove(crashed);
+
+        // Act
+        start(ledgerRepository);
+
+        // Assert
+        assertEquals(journaledId, deposit.getId());
+        assertTrue(idempotencyKeyRepository.existsById(journaled.getId()));
+        assertFalse(idempotencyKeyRepository.existsById(lost.getId()));
+    }
+
+    private IdempotencyKey reserveKey(User owner, String key, long transactionId) {
+        return idempotencyKeyRepository.save(IdempotencyKey.builder()
+                .username(owner.getUsername())
+                .idempotencyKey(key)
+                .requestFingerprint("deposit")
+                .transactionId(transactionId)
+                .build());
+    }
+
+    private LedgerEngine start(LedgerRepository repository) {
+        LedgerEngine engine = new LedgerEngine(repository, transactionTemplate, accountCache, journalService);
+        ReflectionTestUtils.setField(engine, "postingMode", PostingMode.LEDGER);
+        ReflectionTestUtils.setField(engine, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(engine, "partitionCount", 2);
+        engine.start();
+        engines.add(engine);
+        return engine;
+    }
+
+    private static void awaitProjection(LedgerEngine engine) throws InterruptedException {
+        for (int i = 0; i < 200 && engine.projectionLag() > 0; i++) {
+            Thread.sleep(25);
+        }
+        assertEquals(0, engine.projectionLag(), "ledger records still unprojected");
+    }
+
+    private BigDecimal legBalance(Transaction tx, Account account) {
+        return jdbcTemplate.queryForObject("SELECT balance_after FROM journal_entries WHERE transaction_id = ? AND account_id = ?",
+                BigDecimal.class, tx.getId(), account.getId());
+    }
+
+    private BigDecimal balanceRow(Account account) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, account.getId());
+    }
+}
@@ -0,0 +1,118 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.LedgerRecord;
+import com.fintech.digitalbanking.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerJournalTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void append_shouldCompleteOnceDurable_andReplayAfterReopen() throws Exception {
+        // Arrange
+        List<LedgerRecord> durable = new CopyOnWriteArrayList<>();
+        LedgerJournal journal = LedgerJournal.open(dir, 1024, 0, durable::addAll);
+
+        // Act
+        LedgerRecord deposit = journal.append(101, TransactionType.DEPOSIT, 1, 0, 1_000_000, NOW, 0).join();
+        LedgerRecord transfer = journal.append(102, TransactionType.TRANSFER, 1, 2, 250_000, NOW, 0).join();
+        LedgerRecord reversal = journal.append(103, TransactionType.TRANSFER, 2, 1, 250_000, NOW, 102).join();
+        journal.close();
+        List<LedgerRecord> replayed = new ArrayList<>();
+        LedgerJournal reopened = LedgerJournal.open(dir, 1024, 0, records -> { });
+        reopened.replay(1, replayed::add);
+        reopened.close();
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), List.of(deposit.sequence(), transfer.sequence(), reversal.sequence()));
+        assertEquals(List.of(deposit, transfer, reversal), durable);
+        assertEquals(3, reopened.lastSequence());
+        assertEquals(List.of(transfer, reversal), replayed);
+    }
+
+    @Test
+    void open_shouldDropATornRecord_andResumeAppendingInItsSlot() throws Exception {
+        // Arrange
+        LedgerJournal journal = LedgerJournal.open(dir, 1024, 0, records -> { });
+        journal.append(101, TransactionType.DEPOSIT, 1, 0, 500, NOW, 0).join();
+        journal.append(102, TransactionType.WITHDRAW, 1, 0, 100, NOW, 0).join();
+        journal.close();
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            file.seek(LedgerJournal.RECORD_BYTES + 20);
+            file.write(0x7f);
+        }
+
+        // Act
+        LedgerJournal reopened = LedgerJournal.open(dir, 1024, 0, records -> { });
+        LedgerRecord next = reopened.append(103, TransactionType.DEPOSIT, 1, 0, 700, NOW, 0).join();
+        List<LedgerRecord> replayed = new ArrayList<>();
+        reopened.replay(0, replayed::add);
+        reopened.close();
+
+        // Assert
+        assertEquals(2, next.sequence());
+        assertEquals(List.of(101L, 103L), replayed.stream().map(LedgerRecord::transactionId).toList());
+    }
+
+    @Test
+    void release_shouldDeleteOnlySegmentsThatAreFullyApplied() throws Exception {
+        // Arrange - four records per segment: [1-4] [5-8] [9-10]
+        LedgerJournal journal = LedgerJournal.open(dir, 4, 0, records -> { });
+        for (int i = 1; i <= 10; i++) {
+            journal.append(100 + i, TransactionType.DEPOSIT, 1, 0, i, NOW, 0).join();
+        }
+
+        // Act
+        journal.release(7);
+        int afterSeven = journal.segmentCount();
+        journal.release(8);
+        int afterEight = journal.segmentCount();
+        journal.close();
+
+        // Assert
+        assertEquals(2, afterSeven);
+        assertEquals(1, afterEight);
+        LedgerJournal reopened = LedgerJournal.open(dir, 4, 8, records -> { });
+        assertEquals(10, reopened.lastSequence());
+        reopened.close();
+    }
+
+    @Test
+    void open_shouldContinueAfterTheAppliedSequence_whenTheJournalIsBehind() throws Exception {
+        // Arrange
+        LedgerJournal journal = LedgerJournal.open(dir, 1024, 41, records -> { });
+
+        // Act
+        LedgerRecord first = journal.append(101, TransactionType.DEPOSIT, 1, 0, 500, NOW, 0).join();
+        journal.close();
+
+        // Assert
+        assertEquals(42, first.sequence());
+        assertEquals(dir.resolve(String.format("%020d.journal", 42)), onlySegment());
+    }
+
+    private Path onlySegment() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.service.PostingMetrics.Operation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PostingMetrics metrics = new PostingMetrics(registry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void time_shouldStayInFlightUntilTheTransactionCompletes() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        metrics.time(Operation.TRANSFER, () -> "posted");
+
+        // Assert - still open until commit
+        assertEquals(1, inFlight("transfer"));
+        assertEquals(0, count("transfer", "success"));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(0, inFlight("transfer"));
+        assertEquals(1, count("transfer", "success"));
+    }
+
+    @Test
+    void time_shouldTagLockConflicts_andRollbacksOnlySeenAtCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        assertThrows(PessimisticLockingFailureException.class, () -> metrics.time(Operation.DEPOSIT, () -> {
+            throw new PessimisticLockingFailureException("lock wait timeout");
+        }));
+        metrics.time(Operation.ROLLBACK, () -> "flushed later");
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals(1, count("deposit", "lock_conflict"));
+        assertEquals(1, count("rollback", "commit_failed"));
+        assertEquals(0, inFlight("deposit"));
+    }
+
+    private void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private long count(String operation, String outcome) {
+        return registry.get("banking.posting").tags("operation", operation, "outcome", outcome).timer().count();
+    }
+
+    private double inFlight(String operation) {
+        return registry.get("banking.posting.in.flight").tag("operation", operation).gauge().value();
+    }
+}
@@ -0,0 +1,105 @@
+package com.fintech.digitalbanking.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.digitalbanking.dto.TransactionExportRequest;
+import com.fintech.digitalbanking.repository.TransactionExportRepository;
+import com.fintech.digitalbanking.repository.TransactionExportRepository.LedgerRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionExportRepository transactionExportRepository;
+
+    private TransactionExportService transactionExportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        transactionExportService = new TransactionExportService(transactionExportRepository, objectMapper);
+        LocalDateTime ts = LocalDateTime.of(2025, 3, 1, 9, 30);
+        doAnswer(inv -> {
+            Consumer<LedgerRow> consumer = inv.getArgument(1);
+            consumer.accept(new LedgerRow(1L, "DEPOSIT", new BigDecimal("100.0000"), ts, "Deposit",
+                    1L, null, false, null));
+            consumer.accept(new LedgerRow(2L, "TRANSFER", new BigDecimal("25.5000"), ts.plusMinutes(1),
+                    "Rent, \"March\"", 1L, 2L, false, null));
+            return null;
+        }).when(transactionExportRepository).streamTransactions(any(), any());
+    }
+
+    @Test
+    void export_shouldWriteOneJsonObjectPerLine_forNdjson() throws IOException {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = transactionExportService.export(new TransactionExportRequest(), out);
+
+        // Assert
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(2L, second.get("id").asLong());
+        assertEquals(2L, second.get("targetAccountId").asLong());
+        assertEquals("Rent, \"March\"", second.get("description").asText());
+        assertTrue(objectMapper.readTree(lines[0]).get("targetAccountId").isNull());
+    }
+
+    @Test
+    void export_shouldQuoteFieldsThatNeedIt_forCsv() throws IOException {
+        // Arrange
+        TransactionExportRequest filter = new TransactionExportRequest();
+        filter.setFormat(TransactionExportRequest.Format.CSV);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        transactionExportService.export(filter, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,timestamp,type,amount"));
+        assertEquals("1,2025-03-01T09:30,DEPOSIT,100.0000,1,,false,,Deposit", lines[1]);
+        assertTrue(lines[2].endsWith(",\"Rent, \"\"March\"\"\""));
+    }
+
+    @Test
+    void export_shouldPropagateIOException_whenClientDisconnects() {
+        // Arrange
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> transactionExportService.export(new TransactionExportRequest(), broken));
+    }
+}
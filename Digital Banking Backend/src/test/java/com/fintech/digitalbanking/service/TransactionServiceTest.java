@@ -1,24 +1,33 @@
 package com.fintech.digitalbanking.service;
 
+import com.fintech.digitalbanking.dto.TransactionHistoryRequest;
 import com.fintech.digitalbanking.entity.Account;
 import com.fintech.digitalbanking.entity.Transaction;
 import com.fintech.digitalbanking.entity.TransactionType;
 import com.fintech.digitalbanking.entity.User;
 import com.fintech.digitalbanking.exception.CustomAccessDeniedException;
 import com.fintech.digitalbanking.exception.InsufficientFundsException;
+import com.fintech.digitalbanking.exception.InvalidCursorException;
 import com.fintech.digitalbanking.exception.RoleNotFoundException;
 import com.fintech.digitalbanking.repository.AccountRepository;
 import com.fintech.digitalbanking.repository.TransactionRepository;
 // import com.fintech.digitalbanking.repository.UserRepository; // No longer needed
 import com.fintech.digitalbanking.util.SecurityUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +46,32 @@ class TransactionServiceTest {
     @Mock
     private SecurityUtil securityUtil;
 
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private AccountOwnershipIndex ownershipIndex;
+
+    // accepts() is false unless a test says otherwise, so postings take the direct path
+    @Mock
+    private GroupCommitPipeline groupCommit;
+
+    // isHot() is false, so no account is split into balance slots
+    @Mock
+    private HotAccountSlots hotAccounts;
+
+    @Mock
+    private JournalService journalService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PostingMetrics postingMetrics = new PostingMetrics(meterRegistry);
+
+    // Runs the posting callbacks directly; there is no real transaction in these tests
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -98,7 +133,7 @@ class TransactionServiceTest {
     void withdraw_shouldSucceed_whenFundsAreSufficient() {
         // Arrange
         when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sourceAccount));
-        when(securityUtil.getCurrentUserEntity()).thenReturn(testUser);
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
@@ -112,12 +147,15 @@ class TransactionServiceTest {
     void withdraw_shouldThrowException_whenFundsAreInsufficient() {
         // Arrange
         when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sourceAccount));
-        when(securityUtil.getCurrentUserEntity()).thenReturn(testUser);
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
 
         // Act & Assert
         assertThrows(InsufficientFundsException.class, () -> {
             transactionService.withdraw(1L, new BigDecimal("2000.00"));
         });
+        assertEquals(1, meterRegistry.get("banking.posting")
+                .tags("operation", "withdraw", "outcome", "insufficient_funds").timer().count());
+        assertEquals(0, meterRegistry.get("banking.posting.in.flight").tag("operation", "withdraw").gauge().value());
     }
 
     @Test
@@ -126,7 +164,7 @@ class TransactionServiceTest {
         sourceAccount.setActive(false);
         when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sourceAccount));
         // We must also mock the ownership check
-        when(securityUtil.getCurrentUserEntity()).thenReturn(testUser);
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
 
         // Act & Assert
         assertThrows(CustomAccessDeniedException.class, () -> {
@@ -134,15 +172,49 @@ class TransactionServiceTest {
         });
     }
 
+    @Test
+    void deposit_shouldSkipGroupCommit_forAHotAccount() {
+        // Arrange - the pipeline would post on the row; the direct path spreads over the slots
+        when(groupCommit.accepts()).thenReturn(true);
+        when(hotAccounts.isHot(1L)).thenReturn(true);
+        when(securityUtil.isAdmin()).thenReturn(true);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        transactionService.deposit(1L, new BigDecimal("25.00"));
+
+        // Assert
+        verify(hotAccounts).credit(1L, new BigDecimal("25.00"));
+        verify(groupCommit, never()).post(any(), any());
+        verify(accountRepository, never()).findByIdForUpdate(any());
+    }
+
     // --- TRANSFER TESTS ---
+    @Test
+    void withdraw_shouldBeQueuedForGroupCommit_whenThePipelineAcceptsIt() {
+        // Arrange
+        Transaction posted = Transaction.builder().id(7L).type(TransactionType.WITHDRAW).build();
+        when(groupCommit.accepts()).thenReturn(true);
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
+        when(groupCommit.post(any(), any())).thenReturn(posted);
+
+        // Act
+        Transaction result = transactionService.withdraw(1L, new BigDecimal("300.00"));
+
+        // Assert
+        assertSame(posted, result);
+        verify(groupCommit).post(eq(GroupCommitPipeline.Posting.withdrawal(1L, new BigDecimal("300.00"), testUser.getId())), any());
+        verifyNoInteractions(accountRepository);
+    }
+
     @Test
     void transfer_shouldSucceed_forValidTransfer() {
         // Arrange
-        // Mock the new repository methods that use locks
+        // Target is resolved to its id first, then both rows are locked in id order
+        when(ownershipIndex.idOf(targetAccount.getAccountNumber())).thenReturn(2L);
         when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sourceAccount));
-        when(accountRepository.findByAccountNumberForUpdate(targetAccount.getAccountNumber()))
-                .thenReturn(Optional.of(targetAccount));
-        when(securityUtil.getCurrentUserEntity()).thenReturn(testUser);
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(targetAccount));
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
 
         // Act
         // Call the 'transfer' method with the new signature (Long, String, BigDecimal)
@@ -158,6 +230,8 @@ class TransactionServiceTest {
     @Test
     void transfer_shouldThrowException_whenSourceAccountNotFound() {
         // Arrange
+        when(ownershipIndex.idOf(targetAccount.getAccountNumber())).thenReturn(2L);
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(targetAccount));
         when(accountRepository.findByIdForUpdate(99L)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -167,6 +241,143 @@ class TransactionServiceTest {
         });
     }
 
+    @Test
+    void transfer_shouldLockAccountsInIdOrder_whenTargetHasLowerId() {
+        // Arrange: money flows from account 2 to account 1, locks must still go 1 then 2
+        targetAccount.setUser(testUser);
+        when(ownershipIndex.idOf(sourceAccount.getAccountNumber())).thenReturn(1L);
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(targetAccount));
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
+
+        // Act
+        transactionService.transfer(2L, sourceAccount.getAccountNumber(), new BigDecimal("100.00"));
+
+        // Assert
+        var inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).findByIdForUpdate(1L);
+        inOrder.verify(accountRepository).findByIdForUpdate(2L);
+        assertEquals(new BigDecimal("400.00"), targetAccount.getBalance());
+        assertEquals(new BigDecimal("1100.00"), sourceAccount.getBalance());
+    }
+
+    // --- ATOMIC POSTING MODE TESTS ---
+    @Test
+    void atomicWithdraw_shouldPostWithSingleGuardedUpdate() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "postingMode", PostingMode.ATOMIC);
+        when(securityUtil.isAdmin()).thenReturn(true);
+        when(accountRepository.debitIfSufficient(1L, new BigDecimal("300.00"))).thenReturn(1);
+        when(accountRepository.getReferenceById(1L)).thenReturn(sourceAccount);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        Transaction tx = transactionService.withdraw(1L, new BigDecimal("300.00"));
+
+        // Assert
+        assertEquals(TransactionType.WITHDRAW, tx.getType());
+        verify(accountRepository, never()).findByIdForUpdate(any());
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    void atomicWithdraw_shouldThrowInsufficientFunds_whenGuardRejectsUpdate() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "postingMode", PostingMode.ATOMIC);
+        when(securityUtil.isAdmin()).thenReturn(true);
+        when(accountRepository.debitIfSufficient(1L, new BigDecimal("2000.00"))).thenReturn(0);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(sourceAccount));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () ->
+                transactionService.withdraw(1L, new BigDecimal("2000.00")));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void atomicTransfer_shouldRejectInactiveTarget() {
+        // Arrange: source (id 1) is debited first, then the credit to target (id 2) matches nothing
+        ReflectionTestUtils.setField(transactionService, "postingMode", PostingMode.ATOMIC);
+        targetAccount.setActive(false);
+        when(ownershipIndex.idOf(targetAccount.getAccountNumber())).thenReturn(2L);
+        when(securityUtil.isAdmin()).thenReturn(false);
+        when(ownershipIndex.ownerOf(1L)).thenReturn(1L);
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
+        when(accountRepository.debitIfSufficient(1L, new BigDecimal("100.00"))).thenReturn(1);
+        when(accountRepository.creditIfActive(2L, new BigDecimal("100.00"))).thenReturn(0);
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(targetAccount));
+
+        // Act & Assert
+        assertThrows(CustomAccessDeniedException.class, () ->
+                transactionService.transfer(1L, targetAccount.getAccountNumber(), new BigDecimal("100.00")));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    // --- HISTORY TESTS ---
+    @Test
+    void getMyTransactions_shouldReturnCursorOfLastRow_whenMoreRowsExist() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
+        when(accountRepository.findIdsByOwnerId(testUser.getId())).thenReturn(List.of(sourceAccount.getId()));
+        // limit + 1 rows come back, so there is another page
+        when(transactionRepository.findAccountHistory(eq(List.of(sourceAccount.getId())), any(), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(
+                        Transaction.builder().id(30L).timestamp(now).build(),
+                        Transaction.builder().id(20L).timestamp(now.minusMinutes(1)).build(),
+                        Transaction.builder().id(10L).timestamp(now.minusMinutes(2)).build()));
+        TransactionHistoryRequest filter = new TransactionHistoryRequest();
+        filter.setLimit(2);
+
+        // Act
+        TransactionService.HistoryPage page = transactionService.getMyTransactions(filter);
+
+        // Assert
+        assertEquals(2, page.transactions().size());
+        TransactionCursor cursor = TransactionCursor.decode(page.nextCursor());
+        assertEquals(20L, cursor.id());
+        assertEquals(now.minusMinutes(1), cursor.timestamp());
+    }
+
+    @Test
+    void getMyTransactions_shouldReturnNoCursor_onLastPage() {
+        // Arrange
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
+        when(accountRepository.findIdsByOwnerId(testUser.getId())).thenReturn(List.of(sourceAccount.getId()));
+        when(transactionRepository.findAccountHistory(any(), any(), isNull(), isNull(), eq(51))).thenReturn(List.of(
+                Transaction.builder().id(10L).timestamp(LocalDateTime.now()).build()));
+
+        // Act
+        TransactionService.HistoryPage page = transactionService.getMyTransactions(new TransactionHistoryRequest());
+
+        // Assert
+        assertEquals(1, page.transactions().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getMyTransactions_shouldThrowException_whenFilteringByForeignAccount() {
+        // Arrange
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
+        when(accountRepository.findIdsByOwnerId(testUser.getId())).thenReturn(List.of(sourceAccount.getId()));
+        TransactionHistoryRequest filter = new TransactionHistoryRequest();
+        filter.setAccountId(targetAccount.getId());
+
+        // Act & Assert
+        assertThrows(CustomAccessDeniedException.class, () -> transactionService.getMyTransactions(filter));
+    }
+
+    @Test
+    void getAllTransactions_shouldRejectMalformedCursor() {
+        // Arrange
+        TransactionHistoryRequest filter = new TransactionHistoryRequest();
+        filter.setCursor("not-a-cursor");
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> transactionService.getAllTransactions(filter));
+        verifyNoInteractions(transactionRepository);
+    }
+
     // --- ROLLBACK TESTS ---
     @Test
     void rollbackTransaction_shouldReverseDeposit() {
@@ -182,7 +393,7 @@ class TransactionServiceTest {
         when(transactionRepository.findById(10L)).thenReturn(Optional.of(depositTx));
         // Mock the 'withdraw' call that happens inside rollback
         when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sourceAccount));
-        when(securityUtil.getCurrentUserEntity()).thenReturn(testUser);
+        when(securityUtil.getCurrentUserId()).thenReturn(testUser.getId());
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
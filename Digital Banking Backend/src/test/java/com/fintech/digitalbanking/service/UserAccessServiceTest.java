@@ -0,0 +1,82 @@
+package com.fintech.digitalbanking.service;
+
+import com.fintech.digitalbanking.dto.UserState;
+import com.fintech.digitalbanking.entity.Role;
+import com.fintech.digitalbanking.entity.User;
+import com.fintech.digitalbanking.exception.RoleNotFoundException;
+import com.fintech.digitalbanking.repository.RoleRepository;
+import com.fintech.digitalbanking.repository.UserRepository;
+import com.fintech.digitalbanking.security.UserStateCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserAccessServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private UserStateCache userStateCache;
+
+    @InjectMocks
+    private UserAccessService userAccessService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("testuser").enabled(true).tokenVersion(2L).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void setEnabled_shouldBumpTokenVersion_andPublishState_whenDisabling() {
+        // Act
+        userAccessService.setEnabled(1L, false);
+
+        // Assert
+        assertFalse(user.isEnabled());
+        assertEquals(3L, user.getTokenVersion());
+        verify(userRepository).save(user);
+        verify(userStateCache).putAfterCommit(new UserState(1L, false, 3L));
+    }
+
+    @Test
+    void setRoles_shouldBumpTokenVersion_soTokensWithOldRolesStopWorking() {
+        // Arrange
+        Role admin = new Role(2L, "ROLE_ADMIN");
+        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(admin));
+
+        // Act
+        userAccessService.setRoles(1L, List.of("ADMIN"));
+
+        // Assert
+        assertEquals(Set.of(admin), user.getRoles());
+        verify(userStateCache).putAfterCommit(new UserState(1L, true, 3L));
+    }
+
+    @Test
+    void setRoles_shouldThrowException_whenRoleDoesNotExist() {
+        // Arrange
+        when(roleRepository.findByName("ROLE_AUDITOR")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RoleNotFoundException.class, () -> userAccessService.setRoles(1L, List.of("AUDITOR")));
+        verify(userStateCache, never()).putAfterCommit(any());
+    }
+}
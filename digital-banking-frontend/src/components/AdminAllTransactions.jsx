@@ -7,6 +7,8 @@ import '../pages/AdminDashboardPage.css'; // Re-use styles
 
 const AdminAllTransactions = () => {
   const [transactions, setTransactions] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [actionLoading, setActionLoading] = useState(null); // Tracks button loading
@@ -15,9 +17,10 @@ const AdminAllTransactions = () => {
     setLoading(true);
     setError('');
     try {
+      // First page, newest first; older pages are fetched with the returned cursor
       const response = await getAllTransactions();
-      const sorted = response.data.sort((a, b) => new Date(b.timestamp) - new Date(a.timestamp));
-      setTransactions(sorted);
+      setTransactions(response.data.items);
+      setNextCursor(response.data.nextCursor);
     } catch (err) {
       console.error("Failed to fetch all transactions:", err);
       setError(err.response?.data?.message || 'Could not load transactions');
@@ -30,6 +33,20 @@ const AdminAllTransactions = () => {
     fetchTransactions();
   }, []);
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await getAllTransactions({ cursor: nextCursor });
+      setTransactions(prev => [...prev, ...response.data.items]);
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      console.error("Failed to fetch more transactions:", err);
+      alert(`Error: ${err.response?.data?.message || 'Could not load more transactions'}`);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleRollback = async (transactionId) => {
     if (!window.confirm(`Are you sure you want to roll back transaction ID: ${transactionId}? This is irreversible.`)) {
       return;
@@ -79,6 +96,11 @@ const AdminAllTransactions = () => {
           <p>No transactions in the system.</p>
         )}
       </div>
+      {nextCursor && (
+        <button onClick={loadMore} disabled={loadingMore}>
+          {loadingMore ? 'Loading...' : 'Load more'}
+        </button>
+      )}
     </div>
   );
 };
@@ -22,18 +22,10 @@ const TransactionHistory = ({ accountId }) => {
       setLoading(true);
       setError('');
       try {
-        const response = await getMyTransactions();
-
-        // This filters for the *selected account*
-        const filtered = response.data.filter(tx => 
-          tx.sourceAccountId === accountId || 
-          tx.targetAccountId === accountId
-        );
-        
-        // This sorts the filtered list
-        const sorted = filtered.sort((a, b) => new Date(b.timestamp) - new Date(a.timestamp));
-        
-        setAllTransactions(sorted);
+        // The server filters by the *selected account* and returns newest first;
+        // one row more than we show tells us whether to offer "View All"
+        const response = await getMyTransactions({ accountId, limit: 6 });
+        setAllTransactions(response.data.items);
       } catch (err) {
         console.error("Failed to fetch transactions:", err);
         setError('Could not load transaction history.');
@@ -79,7 +71,7 @@ const TransactionHistory = ({ accountId }) => {
       {allTransactions.length > 5 && (
         <div className="view-all-link">
           <Link to="/transactions">
-            View All Transactions ({allTransactions.length})
+            View All Transactions
           </Link>
         </div>
       )}
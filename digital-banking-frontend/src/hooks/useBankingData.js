@@ -1,4 +1,4 @@
-import { useQuery } from '@tanstack/react-query';
+import { useInfiniteQuery, useQuery } from '@tanstack/react-query';
 import { getCurrentUser, getMyTransactions } from '../services/api';
 
 export const useUserData = () => {
@@ -12,14 +12,22 @@ export const useUserData = () => {
   });
 };
 
+// History is keyset-paginated (newest first): each page carries the cursor for the next
+// one, null on the last. `transactions` holds every page loaded so far; call
+// fetchNextPage while hasNextPage to load older history.
 export const useTransactions = (accountId) => {
-  return useQuery({
+  const query = useInfiniteQuery({
     queryKey: ['transactions', accountId],
-    queryFn: async () => {
-      if (!accountId) return [];
-      const response = await getMyTransactions();
+    queryFn: async ({ pageParam }) => {
+      const response = await getMyTransactions({ accountId, cursor: pageParam ?? undefined });
       return response.data;
     },
+    initialPageParam: null,
+    getNextPageParam: (lastPage) => lastPage.nextCursor ?? undefined,
     enabled: !!accountId,
   });
+  return {
+    ...query,
+    transactions: query.data?.pages.flatMap(page => page.items) ?? [],
+  };
 };
@@ -9,6 +9,8 @@ import './AllTransactionsPage.css'; // We will create this next
 
 const AllTransactionsPage = () => {
   const [allTransactions, setAllTransactions] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const { user } = useAuth();
@@ -25,10 +27,10 @@ const AllTransactionsPage = () => {
       setLoading(true);
       setError('');
       try {
+        // First page, already sorted newest first by the server
         const response = await getMyTransactions();
-        // Just sort them, no filtering needed
-        const sorted = response.data.sort((a, b) => new Date(b.timestamp) - new Date(a.timestamp));
-        setAllTransactions(sorted);
+        setAllTransactions(response.data.items);
+        setNextCursor(response.data.nextCursor);
       } catch (err) {
         console.error("Failed to fetch all transactions:", err);
         setError('Could not load transaction history.');
@@ -40,6 +42,20 @@ const AllTransactionsPage = () => {
     fetchTransactions();
   }, []); // Empty array means this runs only once on page load
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await getMyTransactions({ cursor: nextCursor });
+      setAllTransactions(prev => [...prev, ...response.data.items]);
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      console.error("Failed to fetch more transactions:", err);
+      setError('Could not load transaction history.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   return (
     <div className="all-transactions-container">
       <div className="all-transactions-header">
@@ -69,6 +85,11 @@ const AllTransactionsPage = () => {
               ))}
             </div>
           )}
+          {nextCursor && (
+            <button className="btn-outline-back" onClick={loadMore} disabled={loadingMore}>
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          )}
         </>
       )}
     </div>
@@ -73,8 +73,8 @@ export const rollbackTransaction = (transactionId) => {
  * Gets a list of all transactions in the system.
  * (Calls GET /api/admin/transactions/all)
  */
-export const getAllTransactions = () => {
-  return api.get('/admin/transactions/all');
+export const getAllTransactions = (params = {}) => {
+  return api.get('/admin/transactions/all', { params });
 };
 
 /**
@@ -71,8 +71,10 @@ export const lookupAccount = (username) => {
 };
 
 // --- Transaction Service Calls ---
-export const getMyTransactions = () => {
-  return api.get('/user/transactions/my-history');
+// Newest first, one page at a time: params = { limit, cursor, accountId, type, from, to }.
+// The response is { items, nextCursor }; pass nextCursor back as cursor for the next page.
+export const getMyTransactions = (params = {}) => {
+  return api.get('/user/transactions/my-history', { params });
 };
 export const makeDeposit = (accountId, amount) => {
   return api.post('/user/transactions/deposit', { accountId, amount });